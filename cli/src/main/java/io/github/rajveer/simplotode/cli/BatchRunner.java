@@ -0,0 +1,270 @@
+package io.github.rajveer.simplotode.cli;
+
+import io.github.rajveer.simplotode.expression.ExpressionCompiler;
+import io.github.rajveer.simplotode.ode.AdaptiveODESolver;
+import io.github.rajveer.simplotode.ode.BDFSolver;
+import io.github.rajveer.simplotode.ode.Checkpointer;
+import io.github.rajveer.simplotode.ode.DenseOutputSolver;
+import io.github.rajveer.simplotode.ode.DormandPrince54Solver;
+import io.github.rajveer.simplotode.ode.EulerSolver;
+import io.github.rajveer.simplotode.ode.HeunSolver;
+import io.github.rajveer.simplotode.ode.Integrator;
+import io.github.rajveer.simplotode.ode.LeapfrogIntegrator;
+import io.github.rajveer.simplotode.ode.ODESolver;
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.ode.RKF45Solver;
+import io.github.rajveer.simplotode.ode.RalstonSolver;
+import io.github.rajveer.simplotode.ode.RosenbrockWSolver;
+import io.github.rajveer.simplotode.ode.SymplecticIntegrator;
+import io.github.rajveer.simplotode.ode.VelocityVerletIntegrator;
+import io.github.rajveer.simplotode.ode.YoshidaIntegrator;
+import io.github.rajveer.simplotode.systems.FitzHughNagumoSystem;
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.systems.SIRModelSystem;
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.systems.SolarSystem;
+import io.github.rajveer.simplotode.trajectory.BinaryTrajectoryWriter;
+import io.github.rajveer.simplotode.trajectory.CsvTrajectoryWriter;
+import io.github.rajveer.simplotode.trajectory.DecimatingSink;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+import io.github.rajveer.simplotode.utils.ParticleState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless entry point: runs the jobs described by {@link RunConfig} files and writes
+ * each trajectory to a file, without loading JavaFX.
+ * <p>
+ * Solvers are named {@code Euler}, {@code RK4}, {@code Heun}, {@code Ralston}
+ * (fixed step {@code dt}), {@code DormandPrince54}, {@code RKF45}, {@code BDF},
+ * {@code RosenbrockW} (adaptive, sampled every {@code dt}), and for
+ * {@code SolarSystem} the symplectic {@code VelocityVerlet}, {@code Leapfrog},
+ * {@code Yoshida4} and {@code Yoshida6}.
+ * <p>
+ * Exit status is 0 when every job succeeded, 1 if a job failed on I/O and 2 for
+ * invalid arguments or configuration. Relative output and checkpoint paths are
+ * resolved against {@code --output-dir}, or the working directory.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * java -XX:SharedArchiveFile=sim-plot-ode-cli.jsa -jar sim-plot-ode-cli.jar \
+ *      --output-dir results lotka-volterra.properties sir.properties
+ * </pre>
+ */
+public final class BatchRunner {
+
+    private static final String USAGE = "Usage: sim-plot-ode-cli [--output-dir DIR] CONFIG.properties...";
+
+    private final Path outputDirectory;
+
+    /**
+     * @param outputDirectory directory that relative output paths are resolved against
+     */
+    public BatchRunner(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public static void main(String[] args) {
+        Path outputDirectory = Path.of("");
+        List<Path> configs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--output-dir") && i + 1 < args.length) {
+                outputDirectory = Path.of(args[++i]);
+            } else if (args[i].startsWith("-")) {
+                System.err.println(USAGE);
+                System.exit(2);
+            } else {
+                configs.add(Path.of(args[i]));
+            }
+        }
+        if (configs.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        BatchRunner runner = new BatchRunner(outputDirectory);
+        int status = 0;
+        for (Path config : configs) {
+            try {
+                runner.run(RunConfig.load(config));
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println(config + ": " + e.getMessage());
+                status = Math.max(status, 1);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                System.err.println(config + ": " + e.getMessage());
+                status = 2;
+            }
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Runs one job and reports it on standard output.
+     *
+     * @param config the job
+     * @return the final state; packed positions and velocities for symplectic runs
+     * @throws IOException if the output or checkpoint cannot be written
+     */
+    public double[] run(RunConfig config) throws IOException {
+        long start = System.nanoTime();
+        Path output = outputDirectory.resolve(config.getOutput());
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Checkpointer checkpointer = config.getCheckpoint() == null ? null
+                : new Checkpointer(outputDirectory.resolve(config.getCheckpoint()), config.getCheckpointInterval());
+
+        ODESystem system = createSystem(config);
+        Object solver = createSolver(config);
+        double[] y;
+        TrajectorySink writer = createWriter(config, output);
+        try {
+            TrajectorySink sink = config.getOutputEvery() > 1
+                    ? DecimatingSink.everyStep(writer, config.getOutputEvery()) : writer;
+            if (solver instanceof SymplecticIntegrator integrator) {
+                y = runSymplectic(config, system, integrator, checkpointer, sink);
+            } else {
+                y = runFirstOrder(config, system, (ODESolver) solver, checkpointer, sink);
+            }
+        } finally {
+            ((Closeable) writer).close();
+        }
+
+        System.out.printf("%s: %s with %s, t = %s .. %s%s -> %s in %.1f ms%n  y(tEnd) = %s%n",
+                config.getName(), config.getSystem(), config.getSolver(), config.getT0(), config.getTEnd(),
+                checkpointer != null && checkpointer.isResumed() ? " (resumed)" : "", output,
+                (System.nanoTime() - start) / 1e6, Arrays.toString(y));
+        return y;
+    }
+
+    private static double[] runFirstOrder(RunConfig config, ODESystem system, ODESolver solver,
+                                          Checkpointer checkpointer, TrajectorySink sink) throws IOException {
+        double[] y0 = config.getY0();
+        double t0 = config.getT0(), tEnd = config.getTEnd(), dt = config.getDt();
+        if (solver instanceof AdaptiveODESolver && solver instanceof DenseOutputSolver) {
+            // Adaptive solvers choose their own steps; dt is the output interval
+            return checkpointer != null
+                    ? checkpointer.runDense(system, (AdaptiveODESolver & DenseOutputSolver) solver, y0, t0, tEnd, dt, sink)
+                    : Integrator.runDense(system, (AdaptiveODESolver & DenseOutputSolver) solver, y0, t0, tEnd, dt, sink);
+        }
+        return checkpointer != null
+                ? checkpointer.run(system, solver, y0, t0, tEnd, dt, sink)
+                : Integrator.run(system, solver, y0, t0, tEnd, dt, sink);
+    }
+
+    private static double[] runSymplectic(RunConfig config, ODESystem system, SymplecticIntegrator integrator,
+                                          Checkpointer checkpointer, TrajectorySink sink) throws IOException {
+        if (!(system instanceof SecondOrderSystem secondOrder)) {
+            throw new IllegalArgumentException(config.getSolver() + " needs a second-order system such as SolarSystem");
+        }
+        double[] packed = config.getY0();
+        ParticleState state = ParticleState.fromPacked(packed);
+        if (checkpointer != null) {
+            checkpointer.run(secondOrder, integrator, state, config.getT0(), config.getTEnd(), config.getDt(), sink);
+        } else {
+            Integrator.run(secondOrder, integrator, state, config.getT0(), config.getTEnd(), config.getDt(), sink);
+        }
+        state.toPacked(packed);
+        return packed;
+    }
+
+    private static ODESystem createSystem(RunConfig config) {
+        double[] p = config.getParameters();
+        int dimension = config.getY0().length;
+        ODESystem system = switch (config.getSystem()) {
+            case "LotkaVolterraSystem" -> new LotkaVolterraSystem(parameter(config, p, 0, 4), p[1], p[2], p[3]);
+            case "SIRModelSystem" -> new SIRModelSystem(parameter(config, p, 0, 3), p[1], p[2]);
+            case "FitzHughNagumoSystem" -> new FitzHughNagumoSystem(parameter(config, p, 0, 4), p[1], p[2], p[3]);
+            case "SolarSystem" -> {
+                double[] masses = config.getMasses();
+                if (masses.length == 0 || dimension != 6 * masses.length) {
+                    throw new IllegalArgumentException(config.getName() + ": SolarSystem needs masses and 6 values of y0"
+                            + " per body, got " + masses.length + " masses and " + dimension + " values");
+                }
+                List<Double> massList = new ArrayList<>(masses.length);
+                for (double mass : masses) {
+                    massList.add(mass);
+                }
+                yield new SolarSystem(massList);
+            }
+            case "expressions" -> {
+                List<String> equations = config.getEquations();
+                if (equations.size() != dimension) {
+                    throw new IllegalArgumentException(config.getName() + ": " + dimension + " initial values need "
+                            + dimension + " equations (equation.0 ..), got " + equations.size());
+                }
+                yield ExpressionCompiler.compile(equations);
+            }
+            default -> throw new IllegalArgumentException(config.getName() + ": unknown system " + config.getSystem());
+        };
+        int expected = switch (config.getSystem()) {
+            case "SIRModelSystem" -> 3;
+            case "LotkaVolterraSystem", "FitzHughNagumoSystem" -> 2;
+            default -> dimension;
+        };
+        if (dimension != expected) {
+            throw new IllegalArgumentException(config.getName() + ": " + config.getSystem() + " needs "
+                    + expected + " initial values, got " + dimension);
+        }
+        return system;
+    }
+
+    /**
+     * Returns {@code p[index]} after checking that exactly {@code count} parameters were given.
+     */
+    private static double parameter(RunConfig config, double[] p, int index, int count) {
+        if (p.length != count) {
+            throw new IllegalArgumentException(config.getName() + ": " + config.getSystem() + " takes "
+                    + count + " parameters, got " + p.length);
+        }
+        return p[index];
+    }
+
+    /**
+     * @return an {@link ODESolver} or a {@link SymplecticIntegrator}
+     */
+    private static Object createSolver(RunConfig config) {
+        double atol = config.getAbsoluteTolerance();
+        double rtol = config.getRelativeTolerance();
+        boolean tolerances = !Double.isNaN(atol) || !Double.isNaN(rtol);
+        if (Double.isNaN(atol)) {
+            atol = rtol;
+        } else if (Double.isNaN(rtol)) {
+            rtol = atol;
+        }
+        return switch (config.getSolver()) {
+            case "Euler" -> new EulerSolver();
+            case "RK4" -> new RK4Solver();
+            case "Heun" -> new HeunSolver();
+            case "Ralston" -> new RalstonSolver();
+            case "DormandPrince54" -> tolerances ? new DormandPrince54Solver(atol, rtol) : new DormandPrince54Solver();
+            case "RKF45" -> tolerances ? new RKF45Solver(atol, rtol) : new RKF45Solver();
+            case "BDF" -> tolerances ? new BDFSolver(atol, rtol) : new BDFSolver();
+            case "RosenbrockW" -> tolerances ? new RosenbrockWSolver(atol, rtol) : new RosenbrockWSolver();
+            case "VelocityVerlet" -> new VelocityVerletIntegrator();
+            case "Leapfrog" -> new LeapfrogIntegrator();
+            case "Yoshida4" -> new YoshidaIntegrator(4);
+            case "Yoshida6" -> new YoshidaIntegrator(6);
+            default -> throw new IllegalArgumentException(config.getName() + ": unknown solver " + config.getSolver());
+        };
+    }
+
+    private static TrajectorySink createWriter(RunConfig config, Path output) {
+        if (!config.isBinaryOutput()) {
+            return new CsvTrajectoryWriter(output, config.getColumns());
+        }
+        // Times are implied only on a grid that ends exactly at tEnd, and only without decimation
+        double span = config.getTEnd() - config.getT0();
+        double steps = Math.rint(span / config.getDt());
+        boolean uniform = config.getOutputEvery() == 1 && Math.abs(steps * config.getDt() - span) <= 1e-12 * span;
+        return uniform ? BinaryTrajectoryWriter.uniform(output, config.getDt()) : BinaryTrajectoryWriter.withTimes(output);
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.rajveer.simplotode.cli;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * One batch job, read from a properties file.
+ * <p>
+ * Keys:
+ * <ul>
+ *     <li>{@code system}: {@code LotkaVolterraSystem}, {@code SIRModelSystem},
+ *     {@code FitzHughNagumoSystem}, {@code SolarSystem} or {@code expressions}</li>
+ *     <li>{@code parameters}: the model constructor's arguments, in order
+ *     (α, β, δ, γ; k, γ, μ; ε, a, b, I<sub>ext</sub>)</li>
+ *     <li>{@code masses}: body masses in kg, for {@code SolarSystem}</li>
+ *     <li>{@code equation.0}, {@code equation.1}, ...: right-hand sides in {@code t} and
+ *     {@code y0 .. y(n-1)}, for {@code expressions}</li>
+ *     <li>{@code y0}: initial state; for {@code SolarSystem}, x, y, z, vx, vy, vz per body</li>
+ *     <li>{@code solver}: see {@link BatchRunner}; default {@code RK4}</li>
+ *     <li>{@code t0} (default 0), {@code tEnd}, {@code dt}: for adaptive solvers
+ *     {@code dt} is the output interval</li>
+ *     <li>{@code absoluteTolerance}, {@code relativeTolerance}: adaptive solvers only</li>
+ *     <li>{@code output}: result file, binary for {@code .trj} and CSV otherwise</li>
+ *     <li>{@code outputEvery}: keep every k-th state (default 1)</li>
+ *     <li>{@code columns}: CSV column names</li>
+ *     <li>{@code checkpoint}, {@code checkpointMinutes}: checkpoint file and interval
+ *     (default 10 minutes); requires {@code .trj} output</li>
+ * </ul>
+ * Lists are separated by commas or whitespace.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * system = LotkaVolterraSystem
+ * parameters = 1.1, 0.4, 0.1, 0.4
+ * y0 = 10, 5
+ * solver = RK4
+ * tEnd = 50
+ * dt = 0.01
+ * output = lotka-volterra.csv
+ * </pre>
+ */
+public final class RunConfig {
+
+    private final String name;
+    private final String system;
+    private final double[] parameters;
+    private final double[] masses;
+    private final List<String> equations;
+    private final double[] y0;
+    private final String solver;
+    private final double t0;
+    private final double tEnd;
+    private final double dt;
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final Path output;
+    private final int outputEvery;
+    private final List<String> columns;
+    private final Path checkpoint;
+    private final Duration checkpointInterval;
+
+    private RunConfig(String name, Properties properties) {
+        this.name = name;
+        system = required(properties, "system");
+        parameters = doubles(properties, "parameters");
+        masses = doubles(properties, "masses");
+        equations = new ArrayList<>();
+        for (int i = 0; properties.containsKey("equation." + i); i++) {
+            equations.add(properties.getProperty("equation." + i).strip());
+        }
+        y0 = doubles(properties, "y0");
+        if (y0.length == 0) {
+            throw new IllegalArgumentException(name + ": missing y0");
+        }
+        solver = properties.getProperty("solver", "RK4").strip();
+        t0 = number(properties, "t0", 0);
+        tEnd = number(properties, "tEnd", Double.NaN);
+        dt = number(properties, "dt", Double.NaN);
+        if (!(tEnd > t0) || !(dt > 0)) {
+            throw new IllegalArgumentException(name + ": need tEnd > t0 and dt > 0, got t0 = " + t0
+                    + ", tEnd = " + tEnd + ", dt = " + dt);
+        }
+        absoluteTolerance = number(properties, "absoluteTolerance", Double.NaN);
+        relativeTolerance = number(properties, "relativeTolerance", Double.NaN);
+        output = Path.of(required(properties, "output"));
+        outputEvery = (int) number(properties, "outputEvery", 1);
+        if (outputEvery < 1) {
+            throw new IllegalArgumentException(name + ": outputEvery must be at least 1");
+        }
+        String columnList = properties.getProperty("columns", "").strip();
+        columns = columnList.isEmpty() ? List.of() : List.of(columnList.split("[,\\s]+"));
+        String checkpointFile = properties.getProperty("checkpoint", "").strip();
+        checkpoint = checkpointFile.isEmpty() ? null : Path.of(checkpointFile);
+        checkpointInterval = Duration.ofMillis(Math.round(60_000 * number(properties, "checkpointMinutes", 10)));
+        if (checkpoint != null && (!isBinaryOutput() || outputEvery != 1)) {
+            throw new IllegalArgumentException(name + ": checkpointing needs .trj output without outputEvery,"
+                    + " which is the only output that resumes where the checkpoint was taken");
+        }
+    }
+
+    /**
+     * Reads a job from a properties file.
+     *
+     * @param file the configuration
+     * @return the job
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a key is missing or malformed
+     */
+    public static RunConfig load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new RunConfig(file.getFileName().toString(), properties);
+    }
+
+    /**
+     * Builds a job from already loaded properties.
+     *
+     * @param name       name used in messages
+     * @param properties the keys listed in the class description
+     * @return the job
+     * @throws IllegalArgumentException if a key is missing or malformed
+     */
+    public static RunConfig of(String name, Properties properties) {
+        return new RunConfig(name, properties);
+    }
+
+    private String required(Properties properties, String key) {
+        String value = properties.getProperty(key, "").strip();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + ": missing " + key);
+        }
+        return value;
+    }
+
+    private double number(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key, "").strip();
+        if (value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": " + key + " is not a number: " + value);
+        }
+    }
+
+    private double[] doubles(Properties properties, String key) {
+        String value = properties.getProperty(key, "").strip();
+        if (value.isEmpty()) {
+            return new double[0];
+        }
+        try {
+            return Arrays.stream(value.split("[,\\s]+")).mapToDouble(Double::parseDouble).toArray();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": " + key + " is not a list of numbers: " + value);
+        }
+    }
+
+    /**
+     * @return the configuration file's name, for messages
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getSystem() {
+        return system;
+    }
+
+    public double[] getParameters() {
+        return parameters.clone();
+    }
+
+    public double[] getMasses() {
+        return masses.clone();
+    }
+
+    public List<String> getEquations() {
+        return List.copyOf(equations);
+    }
+
+    public double[] getY0() {
+        return y0.clone();
+    }
+
+    public String getSolver() {
+        return solver;
+    }
+
+    public double getT0() {
+        return t0;
+    }
+
+    public double getTEnd() {
+        return tEnd;
+    }
+
+    public double getDt() {
+        return dt;
+    }
+
+    /**
+     * @return the absolute tolerance, or {@code NaN} for the solver's default
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    /**
+     * @return the relative tolerance, or {@code NaN} for the solver's default
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    /**
+     * @return whether the output is a binary trajectory file rather than CSV
+     */
+    public boolean isBinaryOutput() {
+        return output.getFileName().toString().endsWith(".trj");
+    }
+
+    public int getOutputEvery() {
+        return outputEvery;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the checkpoint file, or {@code null} to run without checkpoints
+     */
+    public Path getCheckpoint() {
+        return checkpoint;
+    }
+
+    public Duration getCheckpointInterval() {
+        return checkpointInterval;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.rajveer.simplotode.benchmarks;
+
+import io.github.rajveer.simplotode.expression.ExpressionCompiler;
+import io.github.rajveer.simplotode.systems.DirectSumGravity;
+import io.github.rajveer.simplotode.systems.FitzHughNagumoSystem;
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.systems.SIRModelSystem;
+import io.github.rajveer.simplotode.systems.SolarSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The systems benchmarked by the suite, with an initial state and a step size that
+ * keeps every fixed-step solver stable over a benchmark batch.
+ * <p>
+ * Names are {@code SIR}, {@code LotkaVolterra}, {@code FitzHughNagumo},
+ * {@code SolarSystem-<bodies>} and {@code Expression-<n>}; the latter is the GUI's
+ * exp4j path, an {@code n}-dimensional ring of coupled expressions compiled by
+ * {@link ExpressionCompiler}.
+ */
+final class BenchmarkSystems {
+
+    /** Mass of the central body in kg. */
+    private static final double SUN_MASS = 1.99e30;
+    /** Gravitational constant in km³·kg⁻¹·s⁻², as used by {@link SolarSystem}. */
+    private static final double G = 6.67430e-20;
+
+    final ODESystem system;
+    final double[] y0;
+    final double dt;
+
+    private BenchmarkSystems(ODESystem system, double[] y0, double dt) {
+        this.system = system;
+        this.y0 = y0;
+        this.dt = dt;
+    }
+
+    static BenchmarkSystems create(String name) {
+        if (name.startsWith("SolarSystem-")) {
+            return solarSystem(Integer.parseInt(name.substring("SolarSystem-".length())));
+        }
+        if (name.startsWith("Expression-")) {
+            return expressions(Integer.parseInt(name.substring("Expression-".length())));
+        }
+        return switch (name) {
+            case "SIR" -> new BenchmarkSystems(new SIRModelSystem(0.5, 0.1, 0.01),
+                    new double[]{0.99, 0.01, 0.0}, 0.1);
+            case "LotkaVolterra" -> new BenchmarkSystems(new LotkaVolterraSystem(1.1, 0.4, 0.1, 0.4),
+                    new double[]{10, 5}, 0.01);
+            case "FitzHughNagumo" -> new BenchmarkSystems(new FitzHughNagumoSystem(0.08, 0.7, 0.8, 0.5),
+                    new double[]{0, 0}, 0.01);
+            default -> throw new IllegalArgumentException("Unknown benchmark system: " + name);
+        };
+    }
+
+    /**
+     * A static sun with {@code bodies - 1} planets on circular orbits between 0.3 and
+     * 30 AU, seeded so every run integrates the same system.
+     */
+    private static BenchmarkSystems solarSystem(int bodies) {
+        Random random = new Random(42);
+        double[] masses = new double[bodies];
+        double[] y0 = new double[6 * bodies];
+        masses[0] = SUN_MASS;
+        for (int i = 1; i < bodies; i++) {
+            masses[i] = 1e22 + random.nextDouble() * 1e27;
+            double radius = 4.5e7 + random.nextDouble() * 4.5e9;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double speed = Math.sqrt(G * SUN_MASS / radius);
+            int base = 6 * i;
+            y0[base] = radius * Math.cos(angle);
+            y0[base + 1] = radius * Math.sin(angle);
+            y0[base + 3] = -speed * Math.sin(angle);
+            y0[base + 4] = speed * Math.cos(angle);
+        }
+        return new BenchmarkSystems(new SolarSystem(masses, new DirectSumGravity()), y0, 3600);
+    }
+
+    /**
+     * {@code dy_i/dt = -0.5 y_i + 0.1 sin(y_(i+1)) + 0.01 cos(t)}, indices modulo n.
+     */
+    private static BenchmarkSystems expressions(int n) {
+        List<String> expressions = new ArrayList<>(n);
+        double[] y0 = new double[n];
+        for (int i = 0; i < n; i++) {
+            expressions.add("-0.5 * y" + i + " + 0.1 * sin(y" + (i + 1) % n + ") + 0.01 * cos(t)");
+            y0[i] = 1.0 + 0.01 * i;
+        }
+        return new BenchmarkSystems(ExpressionCompiler.compile(expressions), y0, 0.01);
+    }
+}
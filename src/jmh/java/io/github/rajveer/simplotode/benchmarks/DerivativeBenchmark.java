@@ -0,0 +1,60 @@
+package io.github.rajveer.simplotode.benchmarks;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nanoseconds per derivative evaluation of every benchmark system, through both the
+ * in-place {@code double[]} form the solvers use and the allocating {@link Vector}
+ * form, so the cost of the adapter shows up in time and in {@code -prof gc} bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DerivativeBenchmark {
+
+    @Param({"SIR", "LotkaVolterra", "FitzHughNagumo", "SolarSystem-10", "SolarSystem-100",
+            "SolarSystem-1000", "Expression-10", "Expression-100", "Expression-1000"})
+    public String systemName;
+
+    private ODESystem system;
+    private double[] y;
+    private double[] dydt;
+    private Vector yVector;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSystems benchmark = BenchmarkSystems.create(systemName);
+        system = benchmark.system;
+        y = benchmark.y0.clone();
+        dydt = new double[y.length];
+        yVector = Vector.wrap(y);
+    }
+
+    @Benchmark
+    public double[] inPlace() {
+        system.computeDerivative(0.5, y, dydt);
+        return dydt;
+    }
+
+    @Benchmark
+    public Vector allocating() {
+        return system.computeDerivative(0.5, yVector);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.rajveer.simplotode.benchmarks;
+
+import io.github.rajveer.simplotode.ode.EulerSolver;
+import io.github.rajveer.simplotode.ode.HeunSolver;
+import io.github.rajveer.simplotode.ode.ODESolver;
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.ode.RalstonSolver;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps per second of every fixed-step solver on every benchmark system.
+ * <p>
+ * Each invocation restarts from the initial state and takes {@value #STEPS} steps, so
+ * long runs neither drift into a different regime nor blow up with the less stable
+ * solvers. Run with {@code -prof gc}: the in-place solvers should report close to
+ * zero bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SolverStepBenchmark {
+
+    private static final int STEPS = 10;
+
+    @Param({"Euler", "Heun", "Ralston", "RK4"})
+    public String solverName;
+
+    @Param({"SIR", "LotkaVolterra", "FitzHughNagumo", "SolarSystem-10", "SolarSystem-100",
+            "Expression-10", "Expression-100"})
+    public String systemName;
+
+    private ODESolver solver;
+    private ODESystem system;
+    private double[] y0;
+    private double[] y;
+    private double dt;
+
+    @Setup
+    public void setUp() {
+        solver = switch (solverName) {
+            case "Euler" -> new EulerSolver();
+            case "Heun" -> new HeunSolver();
+            case "Ralston" -> new RalstonSolver();
+            case "RK4" -> new RK4Solver();
+            default -> throw new IllegalArgumentException("Unknown solver: " + solverName);
+        };
+        BenchmarkSystems benchmark = BenchmarkSystems.create(systemName);
+        system = benchmark.system;
+        y0 = benchmark.y0;
+        y = y0.clone();
+        dt = benchmark.dt;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public double[] step() {
+        System.arraycopy(y0, 0, y, 0, y.length);
+        double t = 0;
+        for (int i = 0; i < STEPS; i++) {
+            solver.step(system, t, y, dt);
+            t += dt;
+        }
+        return y;
+    }
+}
@@ -11,7 +11,7 @@ public class HelloApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("hello-view.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 600, 590);
+        Scene scene = new Scene(fxmlLoader.load(), 600, 620);
         stage.setTitle("ODE Solver GUI");
         stage.setScene(scene);
         stage.show();
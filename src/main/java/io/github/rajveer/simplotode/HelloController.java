@@ -1,14 +1,14 @@
 package io.github.rajveer.simplotode;
 
+import io.github.rajveer.simplotode.diagnostics.InstrumentedSolver;
 import io.github.rajveer.simplotode.ode.*;
 import io.github.rajveer.simplotode.systems.ODESystem;
-import io.github.rajveer.simplotode.utils.Vector;
+import io.github.rajveer.simplotode.utils.Downsampling;
+import io.github.rajveer.simplotode.utils.DownsamplingChart;
+import io.github.rajveer.simplotode.utils.PlotSeries;
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
-import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
-import net.objecthunter.exp4j.Expression;
-import net.objecthunter.exp4j.ExpressionBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,17 +22,27 @@ public class HelloController {
     @FXML private TextField tEndField;
     @FXML private TextArea infoLabel;
     @FXML private ComboBox<String> solverBox;
+    @FXML private CheckBox statsBox;
     @FXML private LineChart<Number, Number> lineChart;
+    @FXML private ProgressBar progressBar;
+    @FXML private Button solveButton;
+    @FXML private Button cancelButton;
 
-    private ODESolver solver;
+    private DownsamplingChart chartView;
+    private SolveTask running;
+    // Recent solves, replayed or extended instead of recomputed
+    private final SolveCache cache = new SolveCache(SolveCache.DEFAULT_BUDGET_BYTES);
 
     private final List<String> expressions = new ArrayList<>();
     private final List<Double> initialValues = new ArrayList<>();
 
     @FXML
     public void initialize() {
-        solverBox.getItems().addAll("Euler Solver", "RK4 Solver", "Heun Solver", "Ralston Solver");
+        solverBox.getItems().addAll("Euler Solver", "RK4 Solver", "Heun Solver", "Ralston Solver",
+                "Dormand-Prince 5(4)", "RKF45 Solver", "BDF (stiff)", "Rosenbrock-W (stiff)");
         infoLabel.setText("ODE Description");
+        // Keeps every solver step, but draws only about two points per pixel of the zoomed range
+        chartView = new DownsamplingChart(lineChart, Downsampling.Method.LTTB);
     }
 
     @FXML
@@ -62,12 +72,15 @@ public class HelloController {
 
     @FXML
     void onClear() {
+        // Stop a solve in progress
+        onCancel();
+
         // Clear stored data
         expressions.clear();
         initialValues.clear();
 
         // Clear chart
-        lineChart.getData().clear();
+        chartView.clear();
 
         // Clear UI fields
         expressionField.clear();
@@ -84,14 +97,14 @@ public class HelloController {
 
     @FXML
     public void onSolve() {
+        if (running != null) {
+            return;
+        }
         try {
-            // Select solver
-            switch (solverBox.getValue()) {
-                case "Euler Solver" -> solver = new EulerSolver();
-                case "RK4 Solver" -> solver = new RK4Solver();
-                case "Heun Solver" -> solver = new HeunSolver();
-                case "Ralston Solver" -> solver = new RalstonSolver();
-                default -> throw new IllegalArgumentException("Unknown solver: " + solverBox.getValue());
+            String solverName = solverBox.getValue();
+            if (solverName == null) {
+                infoLabel.setText("Select a solver first.");
+                return;
             }
 
             // Time parameters
@@ -99,75 +112,99 @@ public class HelloController {
             double dt = Double.parseDouble(dtField.getText().trim());
             double tEnd = Double.parseDouble(tEndField.getText().trim());
 
-            // Build expression array
+            // Number of equations
             int n = expressions.size();
             if (n == 0) {
                 infoLabel.setText("No ODEs added. Use 'Add' first.");
                 return;
             }
 
-            Expression[] exprArr = new Expression[n];
-            for (int i = 0; i < n; i++) {
-                exprArr[i] = new ExpressionBuilder(expressions.get(i))
-                        .variables("t")
-                        .variables(buildYVariables(n))
-                        .build();
-            }
-
-            // Define system
-            ODESystem system = (t, y) -> {
-                double[] result = new double[n];
-                for (int i = 0; i < n; i++) {
-                    exprArr[i].setVariable("t", t);
-                    for (int j = 0; j < n; j++) {
-                        exprArr[i].setVariable("y" + j, y.get(j));
-                    }
-                    result[i] = exprArr[i].evaluate();
-                }
-                return new Vector(result);
-            };
-
             // Initial values
-            Vector y = new Vector(initialValues.stream().mapToDouble(Double::doubleValue).toArray());
-            double t = t0;
+            double[] y0 = initialValues.stream().mapToDouble(Double::doubleValue).toArray();
 
             // Prepare chart
-            lineChart.getData().clear();
-            List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>();
+            chartView.clear();
+            List<PlotSeries> seriesList = new ArrayList<>();
             for (int i = 0; i < n; i++) {
-                XYChart.Series<Number, Number> series = new XYChart.Series<>();
-                series.setName("y" + i + "(t)");
+                PlotSeries series = new PlotSeries("y" + i + "(t)");
                 seriesList.add(series);
+                chartView.addSeries(series);
             }
 
-            // Solve and plot
-            while (t <= tEnd) {
-                for (int i = 0; i < n; i++) {
-                    seriesList.get(i).getData().add(new XYChart.Data<>(t, y.get(i)));
+            // A cached solve of the same problem is replayed up to tEnd, or up to its own end
+            // and then continued on the same output grid
+            SolveCache.Key key = new SolveCache.Key(expressions, y0, solverName, t0, dt);
+            SolveCache.Entry cached = cache.get(key);
+            if (cached != null && tEnd <= cached.tEnd()) {
+                int replayed = cached.recordsUpTo(tEnd);
+                if (replayed >= 0) {
+                    replay(cached, replayed, seriesList);
+                    chartView.refresh();
+                    double[] y = tEnd == cached.tEnd() ? cached.finalState() : cached.state(replayed - 1);
+                    showResult(n, solverName, t0, tEnd, dt, y,
+                            "⚡ From cache (" + cache.size() + " solves, "
+                                    + (cache.usedBytes() >> 20) + " MiB cached)\n");
+                    return;
                 }
-                y = solver.step(system, t, y, dt);
-                t += dt;
             }
-
-            lineChart.getData().addAll(seriesList);
-            StringBuilder finalValues = new StringBuilder();
-            for (int i = 0; i < n; i++) {
-                finalValues.append("y").append(i).append("(").append(String.format("%.2f", t)).append(") = ")
-                        .append(String.format("%.4f", y.get(i))).append("\n");
+            boolean resume = cached != null && tEnd > cached.tEnd();
+
+            // Define system: parsed once and compiled to bytecode, reused while cached
+            ODESystem system = resume ? cached.system() : cache.system(expressions);
+            ODESolver solver = resume ? cached.solver() : createSolver(solverName);
+            // A record at an end between two grid points is dropped: adaptive solvers carry on
+            // from that end, fixed-step solvers from the last grid point before it
+            int kept = resume ? cached.gridRecords(t0, dt) : 0;
+            boolean adaptive = solver instanceof AdaptiveODESolver && solver instanceof DenseOutputSolver;
+            double start = !resume ? t0 : adaptive ? cached.tEnd() : t0 + (kept - 1) * dt;
+            double[] initial = !resume ? y0 : adaptive ? cached.finalState() : cached.state(kept - 1);
+            if (resume) {
+                replay(cached, kept, seriesList);
             }
 
-            System.out.println("✅ Solved " + n + " ODE(s)\n" +
-                    "Solver: " + solverBox.getValue() + "\n" +
-                    "Time range: [" + t0 + ", " + tEnd + "] with Δt = " + dt + "\n\n" +
-                    "📌 Final values at t = " + String.format("%.2f", tEnd) + ":\n" + finalValues);
-
-            infoLabel.setText(
-                    "✅ Solved " + n + " ODE(s)\n" +
-                            "Solver: " + solverBox.getValue() + "\n" +
-                            "Time range: [" + t0 + ", " + tEnd + "] with Δt = " + dt + "\n\n" +
-                            "📌 Final values at t = " + String.format("%.2f", tEnd) + ":\n" + finalValues
-            );
-
+            // Solve in the background, keeping every step at full resolution;
+            // batches reach the chart at a capped frame rate while it runs
+            // Opt-in: counts evaluations and times every step; nothing is measured otherwise
+            InstrumentedSolver instrumented = statsBox.isSelected() ? InstrumentedSolver.wrap(solver) : null;
+            SolveTask task = new SolveTask(system, instrumented != null ? instrumented : solver, initial, t0, start, tEnd, dt,
+                    seriesList, chartView::refresh, resume);
+            task.setOnSucceeded(event -> {
+                finishSolve();
+                double[] y = task.getValue();
+                if (resume) {
+                    cached.extend(kept, task.getRecords(), tEnd, y);
+                    cache.put(key, cached);
+                } else if (cached == null || tEnd > cached.tEnd()) {
+                    cache.put(key, new SolveCache.Entry(system, solver, n, task.getRecords(), tEnd, y));
+                }
+                String note = resume ? "↪ Resumed from cached t = " + start + "\n" : "";
+                String stats = instrumented != null ? "\n📊 " + instrumented.finish() + "\n" : "";
+                showResult(n, solverName, t0, tEnd, dt, y, note + stats);
+            });
+            // An interrupted resume has advanced the cached solver past the cached end
+            task.setOnCancelled(event -> {
+                finishSolve();
+                if (resume) {
+                    cache.remove(key);
+                }
+                infoLabel.setText("Solve cancelled.");
+            });
+            task.setOnFailed(event -> {
+                finishSolve();
+                if (resume) {
+                    cache.remove(key);
+                }
+                task.getException().printStackTrace();
+                infoLabel.setText("Error: " + task.getException().getMessage());
+            });
+
+            running = task;
+            progressBar.progressProperty().bind(task.progressProperty());
+            solveButton.setDisable(true);
+            cancelButton.setDisable(false);
+            infoLabel.setText(resume ? "Solving from cached t = " + start + "..." : "Solving...");
+            // A platform thread, so the JVM can attribute allocations to the solve
+            Thread.ofPlatform().daemon().name("ode-solver").start(task);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -175,11 +212,68 @@ public class HelloController {
         }
     }
 
-    private String[] buildYVariables(int n) {
-        String[] vars = new String[n];
+    private static ODESolver createSolver(String name) {
+        return switch (name) {
+            case "Euler Solver" -> new EulerSolver();
+            case "RK4 Solver" -> new RK4Solver();
+            case "Heun Solver" -> new HeunSolver();
+            case "Ralston Solver" -> new RalstonSolver();
+            // Adaptive solvers treat Δt as the output interval and pick their own internal steps
+            case "Dormand-Prince 5(4)" -> new DormandPrince54Solver();
+            case "RKF45 Solver" -> new RKF45Solver();
+            // Implicit solvers for stiff systems, e.g. FitzHugh-Nagumo with a very small ε
+            case "BDF (stiff)" -> new BDFSolver();
+            case "Rosenbrock-W (stiff)" -> new RosenbrockWSolver();
+            default -> throw new IllegalArgumentException("Unknown solver: " + name);
+        };
+    }
+
+    /** Appends the first {@code count} cached records to the series. */
+    private static void replay(SolveCache.Entry entry, int count, List<PlotSeries> seriesList) {
+        double[] records = entry.records();
+        int stride = entry.stride();
+        for (int r = 0; r < count; r++) {
+            int offset = r * stride;
+            for (int i = 0; i < stride - 1; i++) {
+                seriesList.get(i).add(records[offset], records[offset + 1 + i]);
+            }
+        }
+    }
+
+    private void showResult(int n, String solverName, double t0, double tEnd, double dt, double[] y, String note) {
+        StringBuilder finalValues = new StringBuilder();
         for (int i = 0; i < n; i++) {
-            vars[i] = "y" + i;
+            finalValues.append("y").append(i).append("(").append(String.format("%.2f", tEnd)).append(") = ")
+                    .append(String.format("%.4f", y[i])).append("\n");
         }
-        return vars;
+
+        System.out.println("✅ Solved " + n + " ODE(s)\n" +
+                "Solver: " + solverName + "\n" +
+                "Time range: [" + t0 + ", " + tEnd + "] with Δt = " + dt + "\n\n" +
+                "📌 Final values at t = " + String.format("%.2f", tEnd) + ":\n" + finalValues);
+
+        infoLabel.setText(
+                "✅ Solved " + n + " ODE(s)\n" +
+                        "Solver: " + solverName + "\n" +
+                        "Time range: [" + t0 + ", " + tEnd + "] with Δt = " + dt + "\n\n" +
+                        "📌 Final values at t = " + String.format("%.2f", tEnd) + ":\n" + finalValues +
+                        note
+        );
+    }
+
+    @FXML
+    void onCancel() {
+        if (running != null) {
+            running.cancel();
+        }
+    }
+
+    /** Restores the controls once the background solve has ended, however it ended. */
+    private void finishSolve() {
+        running = null;
+        progressBar.progressProperty().unbind();
+        solveButton.setDisable(false);
+        cancelButton.setDisable(true);
+        chartView.refresh();
     }
 }
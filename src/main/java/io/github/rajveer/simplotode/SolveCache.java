@@ -0,0 +1,275 @@
+package io.github.rajveer.simplotode;
+
+import io.github.rajveer.simplotode.expression.ExpressionCompiler;
+import io.github.rajveer.simplotode.ode.ODESolver;
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the GUI's recent solves so that repeating one costs nothing and extending
+ * one costs only the extension.
+ * <p>
+ * Solves are keyed by everything that determines the trajectory except the end time:
+ * the expressions, the initial values, the solver, {@code t0} and {@code dt}. Each
+ * entry keeps the compiled system, the solver instance with whatever step-size or
+ * multistep history it carries, the recorded trajectory and its final state, so a
+ * request with a later {@code tEnd} continues from where the cached run stopped.
+ * <p>
+ * Trajectories are packed {@code [t, y0 .. y(n-1)]} records; entries are evicted in
+ * least-recently-used order once their total size exceeds the byte budget. Compiled
+ * systems are cached separately, so changing only the initial values or the solver
+ * does not recompile the expressions either. The cache is confined to the FX thread.
+ */
+final class SolveCache {
+
+    /** Default budget for the recorded trajectories. */
+    static final long DEFAULT_BUDGET_BYTES = 128L << 20;
+
+    private static final int MAX_COMPILED_SYSTEMS = 16;
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<List<String>, ODESystem> systems = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, ODESystem> eldest) {
+            return size() > MAX_COMPILED_SYSTEMS;
+        }
+    };
+    private long usedBytes;
+
+    SolveCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * @return the compiled system for the expressions, compiling them on first use
+     */
+    ODESystem system(List<String> expressions) {
+        ODESystem system = systems.get(expressions);
+        if (system == null) {
+            system = ExpressionCompiler.compile(expressions);
+            systems.put(List.copyOf(expressions), system);
+        }
+        return system;
+    }
+
+    /**
+     * @return the cached solve for the key, or {@code null}
+     */
+    Entry get(Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Adds or re-accounts an entry after it was created or extended, evicting the
+     * least recently used entries until the cache fits its budget again. An entry
+     * larger than the whole budget is not kept.
+     */
+    void put(Key key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            usedBytes -= previous.accountedBytes;
+        }
+        entry.accountedBytes = entry.bytes();
+        usedBytes += entry.accountedBytes;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            usedBytes -= evicted.accountedBytes;
+        }
+    }
+
+    /**
+     * Drops the cached solve for the key, if any, e.g. after an extension of it was
+     * interrupted and left its solver out of step with its trajectory.
+     */
+    void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            usedBytes -= removed.accountedBytes;
+        }
+    }
+
+    /**
+     * @return number of cached solves
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return bytes held by the cached trajectories
+     */
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Drops every cached solve and compiled system.
+     */
+    void clear() {
+        entries.clear();
+        systems.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Identity of a solve, independent of its end time.
+     */
+    static final class Key {
+
+        private final List<String> expressions;
+        private final double[] y0;
+        private final String solver;
+        private final double t0;
+        private final double dt;
+
+        Key(List<String> expressions, double[] y0, String solver, double t0, double dt) {
+            this.expressions = List.copyOf(expressions);
+            this.y0 = y0.clone();
+            this.solver = solver;
+            this.t0 = t0;
+            this.dt = dt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && expressions.equals(other.expressions)
+                    && Arrays.equals(y0, other.y0)
+                    && solver.equals(other.solver)
+                    && Double.compare(t0, other.t0) == 0
+                    && Double.compare(dt, other.dt) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expressions, Arrays.hashCode(y0), solver, t0, dt);
+        }
+    }
+
+    /**
+     * A recorded solve that can be replayed up to its end time or extended beyond it.
+     */
+    static final class Entry {
+
+        private final ODESystem system;
+        private final ODESolver solver;
+        private final int stride;
+        private double[] records;
+        private int size;
+        private double tEnd;
+        private double[] finalState;
+        private long accountedBytes;
+
+        /**
+         * @param records packed records of the first run, starting with the initial state
+         */
+        Entry(ODESystem system, ODESolver solver, int dimension, double[] records, double tEnd, double[] finalState) {
+            this.system = system;
+            this.solver = solver;
+            this.stride = dimension + 1;
+            this.records = records;
+            this.size = records.length;
+            this.tEnd = tEnd;
+            this.finalState = finalState.clone();
+        }
+
+        ODESystem system() {
+            return system;
+        }
+
+        /**
+         * @return the solver that produced the trajectory, to continue it with
+         */
+        ODESolver solver() {
+            return solver;
+        }
+
+        double tEnd() {
+            return tEnd;
+        }
+
+        double[] finalState() {
+            return finalState.clone();
+        }
+
+        /**
+         * Keeps the first {@code keep} records and appends those of a continuation,
+         * which must start after the last one kept.
+         */
+        void extend(int keep, double[] more, double newEnd, double[] newFinalState) {
+            size = keep * stride;
+            if (size + more.length > records.length) {
+                records = Arrays.copyOf(records, Math.max(size + more.length, records.length + records.length / 2));
+            }
+            System.arraycopy(more, 0, records, size, more.length);
+            size += more.length;
+            tEnd = newEnd;
+            finalState = newFinalState.clone();
+        }
+
+        /**
+         * Returns the number of records up to {@code t}, or -1 if no record was taken
+         * at {@code t} (within rounding), in which case the entry cannot stand in for a
+         * run ending there.
+         */
+        int recordsUpTo(double t) {
+            int count = size / stride;
+            int lo = 0, hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (records[mid * stride] <= t) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            double tolerance = 1e-9 * Math.max(Math.abs(t), 1.0);
+            if (lo < count && records[lo * stride] - t <= tolerance) {
+                return lo + 1;
+            }
+            return lo > 0 && t - records[(lo - 1) * stride] <= tolerance ? lo : -1;
+        }
+
+        /**
+         * Returns the number of records on the output grid {@code t0 + i * dt}: all of
+         * them, unless the run ended between two grid points and its last record is at
+         * that end instead. Record {@code i} of those is the one at {@code t0 + i * dt}.
+         */
+        int gridRecords(double t0, double dt) {
+            int last = size / stride - 1;
+            return records[last * stride] == t0 + last * dt ? last + 1 : last;
+        }
+
+        /**
+         * @return the packed records; only the first {@code recordCount * stride} are valid
+         */
+        double[] records() {
+            return records;
+        }
+
+        int stride() {
+            return stride;
+        }
+
+        /**
+         * @return the state of record {@code r}
+         */
+        double[] state(int r) {
+            return Arrays.copyOfRange(records, r * stride + 1, (r + 1) * stride);
+        }
+
+        long bytes() {
+            return 8L * (records.length + finalState.length) + 128;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.rajveer.simplotode;
+
+import io.github.rajveer.simplotode.ode.AdaptiveODESolver;
+import io.github.rajveer.simplotode.ode.DenseOutputSolver;
+import io.github.rajveer.simplotode.ode.Integrator;
+import io.github.rajveer.simplotode.ode.ODESolver;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+import io.github.rajveer.simplotode.utils.PlotSeries;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Integrates an ODE system off the JavaFX Application Thread and streams the
+ * trajectory to the chart while it runs.
+ * <p>
+ * Steps are buffered on the worker thread and handed to the FX thread in batches,
+ * at most {@link #FRAMES_PER_SECOND} times per second, so the UI stays responsive no
+ * matter how small the step is. The series are only ever touched on the FX thread.
+ * Cancelling the task stops the integration at the next step.
+ * <p>
+ * Every record is also kept, packed as {@code [t, y0 .. y(n-1)]}, for the
+ * {@link SolveCache}. A task continuing a cached run streams only the records after
+ * its starting point, on the output grid of the cached run.
+ */
+class SolveTask extends Task<double[]> {
+
+    private static final int FRAMES_PER_SECOND = 30;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+
+    private final ODESystem system;
+    private final ODESolver solver;
+    private final double[] y0;
+    private final double t0;
+    private final double start;
+    private final double tEnd;
+    private final double dt;
+    private final List<PlotSeries> series;
+    private final Runnable onFrame;
+    private final boolean continuation;
+    private double[] recorded = new double[0];
+    private int recordedSize;
+
+    /**
+     * @param y0           state at {@code start}
+     * @param t0           initial time of the run, which anchors the output grid
+     * @param start        time of {@code y0}: {@code t0}, or where the continued run stopped;
+     *                     for a fixed-step solver a point of the grid {@code t0 + i * dt}
+     * @param series       one series per state component, appended to on the FX thread
+     * @param onFrame      run on the FX thread after each batch is appended
+     * @param continuation whether the run continues a cached one up to {@code start}
+     */
+    SolveTask(ODESystem system, ODESolver solver, double[] y0, double t0, double start, double tEnd, double dt,
+              List<PlotSeries> series, Runnable onFrame, boolean continuation) {
+        this.system = system;
+        this.solver = solver;
+        this.y0 = y0.clone();
+        this.t0 = t0;
+        this.start = start;
+        this.tEnd = tEnd;
+        this.dt = dt;
+        this.series = series;
+        this.onFrame = onFrame;
+        this.continuation = continuation;
+    }
+
+    /**
+     * @return the packed records streamed so far; complete once the task has succeeded
+     */
+    double[] getRecords() {
+        return Arrays.copyOf(recorded, recordedSize);
+    }
+
+    @Override
+    protected double[] call() {
+        if (solver instanceof AdaptiveODESolver && solver instanceof DenseOutputSolver) {
+            // adaptive solvers step freely; Δt only sets the spacing of the plotted samples
+            if (continuation) {
+                return Integrator.resumeDense(system, (AdaptiveODESolver & DenseOutputSolver) solver,
+                        y0, t0, start, tEnd, dt, new BatchingSink());
+            }
+            return Integrator.runDense(system, (AdaptiveODESolver & DenseOutputSolver) solver,
+                    y0, t0, tEnd, dt, new BatchingSink());
+        }
+        return continuation
+                ? Integrator.resume(system, solver, y0, t0, start, tEnd, dt, new BatchingSink())
+                : Integrator.run(system, solver, y0, t0, tEnd, dt, new BatchingSink());
+    }
+
+    /**
+     * Collects {@code [t, y0 .. y(n-1)]} records and publishes them once per frame.
+     */
+    private final class BatchingSink implements TrajectorySink {
+
+        private int stride;
+        private double[] pending = new double[0];
+        private int size;
+        private long lastFrame;
+
+        @Override
+        public void begin(int dimension, double start) {
+            stride = dimension + 1;
+            pending = new double[1024 * stride];
+            size = 0;
+            lastFrame = System.nanoTime();
+        }
+
+        @Override
+        public void accept(double t, double[] y) {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            if (size + stride > pending.length) {
+                pending = Arrays.copyOf(pending, 2 * pending.length);
+            }
+            pending[size] = t;
+            System.arraycopy(y, 0, pending, size + 1, stride - 1);
+            size += stride;
+
+            long now = System.nanoTime();
+            if (now - lastFrame >= FRAME_NANOS) {
+                lastFrame = now;
+                publish();
+                updateProgress(t - t0, tEnd - t0);
+            }
+        }
+
+        @Override
+        public void end() {
+            publish();
+            updateProgress(1, 1);
+        }
+
+        private void publish() {
+            if (size == 0) {
+                return;
+            }
+            double[] batch = Arrays.copyOf(pending, size);
+            size = 0;
+            if (recordedSize + batch.length > recorded.length) {
+                recorded = Arrays.copyOf(recorded, Math.max(recordedSize + batch.length, 2 * recorded.length));
+            }
+            System.arraycopy(batch, 0, recorded, recordedSize, batch.length);
+            recordedSize += batch.length;
+            Platform.runLater(() -> {
+                for (int r = 0; r < batch.length; r += stride) {
+                    for (int i = 0; i < stride - 1; i++) {
+                        series.get(i).add(batch[r], batch[r + 1 + i]);
+                    }
+                }
+                onFrame.run();
+            });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.rajveer.simplotode.diagnostics;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.Vector;
+
+/**
+ * Forwards to another system and counts derivative and Jacobian evaluations.
+ */
+final class CountingSystem implements ODESystem {
+
+    final ODESystem delegate;
+    long derivativeEvaluations;
+    long jacobianEvaluations;
+
+    CountingSystem(ODESystem delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Vector computeDerivative(double t, Vector y) {
+        derivativeEvaluations++;
+        return delegate.computeDerivative(t, y);
+    }
+
+    @Override
+    public void computeDerivative(double t, double[] y, double[] dydt) {
+        derivativeEvaluations++;
+        delegate.computeDerivative(t, y, dydt);
+    }
+
+    @Override
+    public boolean hasJacobian() {
+        return delegate.hasJacobian();
+    }
+
+    @Override
+    public void computeJacobian(double t, double[] y, double[][] dfdy) {
+        jacobianEvaluations++;
+        delegate.computeJacobian(t, y, dfdy);
+    }
+
+    @Override
+    public int getParameterCount() {
+        return delegate.getParameterCount();
+    }
+
+    @Override
+    public void computeParameterJacobian(double t, double[] y, double[][] dfdp) {
+        delegate.computeParameterJacobian(t, y, dfdp);
+    }
+
+    @Override
+    public ODESystem unwrap() {
+        return delegate.unwrap();
+    }
+}
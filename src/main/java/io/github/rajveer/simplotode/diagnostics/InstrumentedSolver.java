@@ -0,0 +1,303 @@
+package io.github.rajveer.simplotode.diagnostics;
+
+import io.github.rajveer.simplotode.ode.AdaptiveODESolver;
+import io.github.rajveer.simplotode.ode.DenseOutputSolver;
+import io.github.rajveer.simplotode.ode.ODESolver;
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+import jdk.jfr.EventType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Opt-in instrumentation around a solver and the systems it steps.
+ * <p>
+ * The wrapper counts derivative and Jacobian evaluations, accepted and rejected
+ * steps, records the wall-clock time of every step in a {@link LatencyHistogram} and
+ * the bytes allocated by the stepping thread, and emits JDK Flight Recorder events:
+ * {@code io.github.rajveer.simplotode.SolverStep} per step (disabled by default) and
+ * {@code io.github.rajveer.simplotode.Solve} per run, committed by {@link #finish()}.
+ * <p>
+ * Instrumentation costs nothing unless a solver is wrapped; wrapped, it adds two
+ * clock reads and two allocation-counter reads per step, which matters only for
+ * very cheap steps. {@link #wrap(ODESolver)} keeps the capabilities of the wrapped
+ * solver, so adaptive and dense-output solvers remain usable as such. Like the
+ * solvers themselves, an instance must not be shared between threads.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * InstrumentedSolver solver = InstrumentedSolver.wrap(new RK4Solver());
+ * Integrator.run(system, solver, y0, 0, 100, 0.01, sink);
+ * System.out.println(solver.finish());
+ * </pre>
+ */
+public class InstrumentedSolver implements ODESolver {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final EventType STEP_EVENT = EventType.getEventType(SolverStepEvent.class);
+
+    private final ODESolver delegate;
+    private final String name;
+    private final LatencyHistogram stepLatency = new LatencyHistogram();
+    private CountingSystem counter;
+    private long steps;
+    private long allocatedBytes;
+    private boolean allocationUnknown = THREADS == null;
+    private SolveEvent runEvent;
+
+    private InstrumentedSolver(ODESolver delegate) {
+        this.delegate = delegate;
+        this.name = delegate.getClass().getSimpleName();
+    }
+
+    /**
+     * Wraps a solver, preserving its {@link AdaptiveODESolver} and
+     * {@link DenseOutputSolver} capabilities.
+     *
+     * @param solver the solver to instrument
+     * @return the instrumented solver
+     */
+    public static InstrumentedSolver wrap(ODESolver solver) {
+        if (solver instanceof AdaptiveODESolver && solver instanceof DenseOutputSolver) {
+            return new Adaptive(solver);
+        }
+        if (solver instanceof DenseOutputSolver) {
+            return new Dense(solver);
+        }
+        return new InstrumentedSolver(solver);
+    }
+
+    /**
+     * @return the wrapped solver
+     */
+    public ODESolver getSolver() {
+        return delegate;
+    }
+
+    @Override
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        CountingSystem counting = counting(system);
+        long evaluations = counting.derivativeEvaluations;
+        long allocated = currentAllocatedBytes();
+        SolverStepEvent event = beginStepEvent();
+        long start = System.nanoTime();
+        delegate.step(counting, t, y, dt);
+        record(start, allocated, event, t, dt, counting.derivativeEvaluations - evaluations);
+    }
+
+    /**
+     * @return the counters collected so far
+     */
+    public SolverStats snapshot() {
+        CountingSystem counting = counter;
+        return new SolverStats(name, steps, rejectedSteps(),
+                counting == null ? 0 : counting.derivativeEvaluations,
+                counting == null ? 0 : counting.jacobianEvaluations,
+                allocationUnknown ? -1 : allocatedBytes, stepLatency);
+    }
+
+    /**
+     * Ends the run: commits the JFR summary event, if any steps were taken and the
+     * event is enabled, and returns the final counters. Stepping again starts a new
+     * run event but keeps accumulating the counters.
+     *
+     * @return the counters collected so far
+     */
+    public SolverStats finish() {
+        SolverStats stats = snapshot();
+        SolveEvent event = runEvent;
+        runEvent = null;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.solver = name;
+                event.steps = stats.getSteps();
+                event.rejectedSteps = stats.getRejectedSteps();
+                event.derivativeEvaluations = stats.getDerivativeEvaluations();
+                event.jacobianEvaluations = stats.getJacobianEvaluations();
+                event.medianStepTime = stepLatency.getPercentile(50);
+                event.maxStepTime = stepLatency.getMax();
+                event.allocatedBytes = stats.getAllocatedBytes();
+                event.commit();
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Rejected attempts; only adaptive solvers reject steps.
+     */
+    long rejectedSteps() {
+        return 0;
+    }
+
+    /**
+     * Forgets the collected counters.
+     */
+    void clear() {
+        stepLatency.clear();
+        counter = null;
+        steps = 0;
+        allocatedBytes = 0;
+        allocationUnknown = THREADS == null;
+        runEvent = null;
+    }
+
+    /**
+     * Returns the counting wrapper for {@code system}, replacing it, with the counts
+     * carried over, when the system changes. Keeping one wrapper per system preserves
+     * the identity checks solvers use to reuse state between calls.
+     */
+    CountingSystem counting(ODESystem system) {
+        CountingSystem counting = counter;
+        if (counting == null || counting.delegate != system) {
+            CountingSystem next = new CountingSystem(system);
+            if (counting != null) {
+                next.derivativeEvaluations = counting.derivativeEvaluations;
+                next.jacobianEvaluations = counting.jacobianEvaluations;
+            }
+            counter = counting = next;
+        }
+        if (runEvent == null) {
+            runEvent = new SolveEvent();
+            runEvent.begin();
+        }
+        return counting;
+    }
+
+    /**
+     * Starts a step event only while a recording has step events enabled, so that
+     * the instrumentation itself does not show up in the allocation count.
+     */
+    static SolverStepEvent beginStepEvent() {
+        if (!STEP_EVENT.isEnabled()) {
+            return null;
+        }
+        SolverStepEvent event = new SolverStepEvent();
+        event.begin();
+        return event;
+    }
+
+    void record(long start, long allocatedBefore, SolverStepEvent event, double t, double h, long evaluations) {
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = currentAllocatedBytes();
+        if (allocatedBefore < 0 || allocatedAfter < 0) {
+            allocationUnknown = true;
+        } else {
+            allocatedBytes += allocatedAfter - allocatedBefore;
+        }
+        stepLatency.record(elapsed);
+        steps++;
+        if (event != null && event.shouldCommit()) {
+            event.solver = name;
+            event.time = t;
+            event.stepSize = h;
+            event.derivativeEvaluations = evaluations;
+            event.commit();
+        }
+    }
+
+    static long currentAllocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotspot
+                && hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot;
+        }
+        return null;
+    }
+
+    /**
+     * Instrumented fixed-step solver with dense output.
+     */
+    static class Dense extends InstrumentedSolver implements DenseOutputSolver {
+
+        private final DenseOutputSolver dense;
+
+        Dense(ODESolver delegate) {
+            super(delegate);
+            this.dense = (DenseOutputSolver) delegate;
+        }
+
+        @Override
+        public double getStepStart() {
+            return dense.getStepStart();
+        }
+
+        @Override
+        public double getStepEnd() {
+            return dense.getStepEnd();
+        }
+
+        @Override
+        public void interpolate(double t, double[] out) {
+            dense.interpolate(t, out);
+        }
+    }
+
+    /**
+     * Instrumented adaptive solver; each accepted internal step is timed separately.
+     */
+    static final class Adaptive extends Dense implements AdaptiveODESolver {
+
+        private final AdaptiveODESolver adaptive;
+        private long rejectedBaseline;
+
+        Adaptive(ODESolver delegate) {
+            super(delegate);
+            this.adaptive = (AdaptiveODESolver) delegate;
+            this.rejectedBaseline = adaptive.getRejectedSteps();
+        }
+
+        @Override
+        public void step(ODESystem system, double t, double[] y, double dt) {
+            double tEnd = t + dt;
+            while (t < tEnd) {
+                t = adaptiveStep(system, t, y, tEnd);
+            }
+        }
+
+        @Override
+        public double adaptiveStep(ODESystem system, double t, double[] y, double tEnd) {
+            CountingSystem counting = counting(system);
+            long evaluations = counting.derivativeEvaluations;
+            long allocated = currentAllocatedBytes();
+            SolverStepEvent event = beginStepEvent();
+            long start = System.nanoTime();
+            double tNew = adaptive.adaptiveStep(counting, t, y, tEnd);
+            record(start, allocated, event, t, tNew - t, counting.derivativeEvaluations - evaluations);
+            return tNew;
+        }
+
+        @Override
+        long rejectedSteps() {
+            return adaptive.getRejectedSteps() - rejectedBaseline;
+        }
+
+        @Override
+        public double getStepSize() {
+            return adaptive.getStepSize();
+        }
+
+        @Override
+        public int getAcceptedSteps() {
+            return adaptive.getAcceptedSteps();
+        }
+
+        @Override
+        public int getRejectedSteps() {
+            return adaptive.getRejectedSteps();
+        }
+
+        @Override
+        public void reset() {
+            adaptive.reset();
+            rejectedBaseline = 0;
+            clear();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.rajveer.simplotode.diagnostics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, log-linear histogram of durations in nanoseconds.
+ * <p>
+ * Each power of two is split into 8 linear sub-buckets, so recorded values are
+ * reported with at most 12.5% relative error over the full {@code long} range, in
+ * under 4 KB and without allocating on {@link #record(long)}. Not thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records one duration; negative values are counted as zero.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[bucket(value)]++;
+        count++;
+        total += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return number of recorded durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sum of all recorded durations in nanoseconds
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return mean duration in nanoseconds, or {@code NaN} if empty
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : (double) total / count;
+    }
+
+    /**
+     * @return shortest recorded duration, or {@code 0} if empty
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return longest recorded duration, or {@code 0} if empty
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket holding it.
+     *
+     * @param percentile in {@code [0, 100]}
+     * @return the estimated duration in nanoseconds, or {@code 0} if empty
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Math.max(upperBound(i), min), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return an independent copy of this histogram
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(counts, 0, copy.counts, 0, BUCKETS);
+        copy.count = count;
+        copy.total = total;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * Forgets all recorded durations.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
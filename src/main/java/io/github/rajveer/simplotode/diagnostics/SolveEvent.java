@@ -0,0 +1,50 @@
+package io.github.rajveer.simplotode.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event summarizing an instrumented run, from its first step until
+ * {@link InstrumentedSolver#finish()}.
+ */
+@Name("io.github.rajveer.simplotode.Solve")
+@Label("ODE Solve")
+@Category({"SimPlotODE", "Solver"})
+@Description("Summary of an instrumented ODE solve")
+@StackTrace(false)
+final class SolveEvent extends Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Steps")
+    long steps;
+
+    @Label("Rejected Steps")
+    long rejectedSteps;
+
+    @Label("Derivative Evaluations")
+    long derivativeEvaluations;
+
+    @Label("Jacobian Evaluations")
+    long jacobianEvaluations;
+
+    @Label("Median Step Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long medianStepTime;
+
+    @Label("Maximum Step Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long maxStepTime;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the solving thread during steps, -1 if unavailable")
+    @DataAmount
+    long allocatedBytes;
+}
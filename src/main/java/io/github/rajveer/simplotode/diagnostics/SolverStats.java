@@ -0,0 +1,130 @@
+package io.github.rajveer.simplotode.diagnostics;
+
+/**
+ * Immutable snapshot of the counters collected by an {@link InstrumentedSolver}.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * InstrumentedSolver solver = InstrumentedSolver.wrap(new DormandPrince54Solver());
+ * Integrator.run(system, solver, y0, 0, 100, 0.1, sink);
+ * SolverStats stats = solver.finish();
+ * System.out.println(stats);
+ * </pre>
+ */
+public class SolverStats {
+
+    private final String solver;
+    private final long steps;
+    private final long rejectedSteps;
+    private final long derivativeEvaluations;
+    private final long jacobianEvaluations;
+    private final long allocatedBytes;
+    private final LatencyHistogram stepLatency;
+
+    SolverStats(String solver, long steps, long rejectedSteps, long derivativeEvaluations,
+                long jacobianEvaluations, long allocatedBytes, LatencyHistogram stepLatency) {
+        this.solver = solver;
+        this.steps = steps;
+        this.rejectedSteps = rejectedSteps;
+        this.derivativeEvaluations = derivativeEvaluations;
+        this.jacobianEvaluations = jacobianEvaluations;
+        this.allocatedBytes = allocatedBytes;
+        this.stepLatency = stepLatency.copy();
+    }
+
+    /**
+     * @return simple class name of the instrumented solver
+     */
+    public String getSolver() {
+        return solver;
+    }
+
+    /**
+     * @return number of steps taken; for adaptive solvers, accepted internal steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return number of rejected step attempts, always {@code 0} for fixed-step solvers
+     */
+    public long getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    /**
+     * @return number of {@code computeDerivative} calls, including those spent on
+     *         finite-difference Jacobians and dense output
+     */
+    public long getDerivativeEvaluations() {
+        return derivativeEvaluations;
+    }
+
+    /**
+     * @return number of analytic Jacobian evaluations
+     */
+    public long getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    /**
+     * @return bytes allocated by the solving thread while stepping, or {@code -1} if
+     *         the JVM cannot measure it (e.g. on virtual threads)
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return wall-clock durations of the individual steps
+     */
+    public LatencyHistogram getStepLatency() {
+        return stepLatency.copy();
+    }
+
+    /**
+     * @return total time spent inside steps in nanoseconds
+     */
+    public long getStepNanos() {
+        return stepLatency.getTotal();
+    }
+
+    /**
+     * @return a multi-line summary for display
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Steps: ").append(steps);
+        if (rejectedSteps > 0) {
+            sb.append(" (").append(rejectedSteps).append(" rejected)");
+        }
+        sb.append('\n').append("Derivative evaluations: ").append(derivativeEvaluations);
+        if (steps > 0) {
+            sb.append(String.format(" (%.1f per step)", (double) derivativeEvaluations / steps));
+        }
+        if (jacobianEvaluations > 0) {
+            sb.append(", Jacobians: ").append(jacobianEvaluations);
+        }
+        sb.append('\n').append("Step time: total ").append(formatNanos(stepLatency.getTotal()))
+                .append(", median ").append(formatNanos(stepLatency.getPercentile(50)))
+                .append(", p99 ").append(formatNanos(stepLatency.getPercentile(99)))
+                .append(", max ").append(formatNanos(stepLatency.getMax()));
+        sb.append('\n').append("Allocated: ").append(allocatedBytes < 0 ? "n/a" : formatBytes(allocatedBytes));
+        return sb.toString();
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + " ns";
+        if (nanos < 1_000_000) return String.format("%.1f µs", nanos / 1e3);
+        if (nanos < 1_000_000_000) return String.format("%.1f ms", nanos / 1e6);
+        return String.format("%.2f s", nanos / 1e9);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
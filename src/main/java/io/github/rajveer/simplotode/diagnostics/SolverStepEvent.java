@@ -0,0 +1,36 @@
+package io.github.rajveer.simplotode.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one solver step. Disabled by default because a solve can take
+ * millions of steps; enable {@code io.github.rajveer.simplotode.SolverStep} in the
+ * recording settings to see where the step time goes.
+ */
+@Name("io.github.rajveer.simplotode.SolverStep")
+@Label("ODE Solver Step")
+@Category({"SimPlotODE", "Solver"})
+@Description("One step of an instrumented ODE solver")
+@Enabled(false)
+@StackTrace(false)
+final class SolverStepEvent extends Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Time")
+    @Description("Time the step started from")
+    double time;
+
+    @Label("Step Size")
+    double stepSize;
+
+    @Label("Derivative Evaluations")
+    long derivativeEvaluations;
+}
@@ -0,0 +1,254 @@
+package io.github.rajveer.simplotode.expression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A deliberately tiny class file writer, just enough for {@link ExpressionCompiler}.
+ * <p>
+ * It supports a constant pool, one implemented interface, and methods made of
+ * straight-line code. Because the generated code never branches, no
+ * {@code StackMapTable} is needed and the class can use the Java 8 format.
+ */
+final class ClassFileBuilder {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 52;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final int thisClass;
+    private final int superClass;
+    private final int interfaceClass;
+    private final List<byte[]> methods = new ArrayList<>();
+
+    /**
+     * @param className     internal name of the class, e.g. {@code a/b/C}
+     * @param interfaceName internal name of the single implemented interface
+     */
+    ClassFileBuilder(String className, String interfaceName) {
+        this.thisClass = classRef(className);
+        this.superClass = classRef("java/lang/Object");
+        this.interfaceClass = classRef(interfaceName);
+    }
+
+    int utf8(String value) {
+        return intern("U" + value, () -> {
+            pool.writeByte(CONSTANT_UTF8);
+            pool.writeUTF(value);
+        }, 1);
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return intern("C" + internalName, () -> {
+            pool.writeByte(CONSTANT_CLASS);
+            pool.writeShort(name);
+        }, 1);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = intern("N" + name + ":" + descriptor, () -> {
+            pool.writeByte(CONSTANT_NAME_AND_TYPE);
+            pool.writeShort(nameIndex);
+            pool.writeShort(descriptorIndex);
+        }, 1);
+        return intern("M" + owner + "." + name + ":" + descriptor, () -> {
+            pool.writeByte(CONSTANT_METHODREF);
+            pool.writeShort(ownerIndex);
+            pool.writeShort(nameAndType);
+        }, 1);
+    }
+
+    int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        // doubles occupy two constant pool slots
+        return intern("D" + bits, () -> {
+            pool.writeByte(CONSTANT_DOUBLE);
+            pool.writeLong(bits);
+        }, 2);
+    }
+
+    /**
+     * Adds a method whose body is straight-line code.
+     *
+     * @param access     access flags
+     * @param name       method name
+     * @param descriptor method descriptor
+     * @param code       the method's bytecode
+     * @param maxStack   maximum operand stack depth in slots
+     * @param maxLocals  number of local variable slots, including parameters
+     */
+    void addMethod(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) {
+        byte[] body = code.toByteArray();
+        if (body.length > 65535) {
+            throw new IllegalArgumentException("Generated method " + name + " exceeds the 64 KB bytecode limit");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1); // attributes: Code
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + body.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // code attributes
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        methods.add(bytes.toByteArray());
+    }
+
+    /**
+     * @return the complete class file
+     */
+    byte[] toByteArray() {
+        if (poolCount > 65535) {
+            throw new IllegalArgumentException("Generated class exceeds the constant pool limit");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(poolCount);
+            pool.flush();
+            poolBytes.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(interfaceClass);
+            out.writeShort(0); // fields
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0); // class attributes
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private int intern(String key, PoolWriter writer, int slots) {
+        Integer existing = poolIndex.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            writer.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int index = poolCount;
+        poolCount += slots;
+        poolIndex.put(key, index);
+        return index;
+    }
+
+    @FunctionalInterface
+    private interface PoolWriter {
+        void write() throws IOException;
+    }
+
+    /**
+     * Growable buffer of bytecode with helpers for the handful of instructions
+     * the expression compiler emits.
+     */
+    static final class Code {
+
+        static final int DCONST_0 = 0x0e;
+        static final int DCONST_1 = 0x0f;
+        static final int BIPUSH = 0x10;
+        static final int SIPUSH = 0x11;
+        static final int LDC2_W = 0x14;
+        static final int DLOAD = 0x18;
+        static final int ALOAD = 0x19;
+        static final int DALOAD = 0x31;
+        static final int DASTORE = 0x52;
+        static final int DADD = 0x63;
+        static final int DSUB = 0x67;
+        static final int DMUL = 0x6b;
+        static final int DNEG = 0x77;
+        static final int RETURN = 0xb1;
+        static final int INVOKESPECIAL = 0xb7;
+        static final int INVOKESTATIC = 0xb8;
+        static final int ICONST_0 = 0x03;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        void op(int opcode) {
+            bytes.write(opcode);
+        }
+
+        void opWithIndex(int opcode, int index) {
+            bytes.write(opcode);
+            bytes.write(index >>> 8);
+            bytes.write(index);
+        }
+
+        void local(int opcode, int slot) {
+            bytes.write(opcode);
+            bytes.write(slot);
+        }
+
+        /** Pushes an int constant with the shortest available instruction. */
+        void pushInt(int value) {
+            if (value >= 0 && value <= 5) {
+                bytes.write(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                bytes.write(BIPUSH);
+                bytes.write(value);
+            } else if (value <= Short.MAX_VALUE) {
+                bytes.write(SIPUSH);
+                bytes.write(value >>> 8);
+                bytes.write(value);
+            } else {
+                throw new IllegalArgumentException("Index too large for generated code: " + value);
+            }
+        }
+
+        /** Appends the instructions of another buffer. */
+        void append(Code other) {
+            bytes.writeBytes(other.toByteArray());
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.rajveer.simplotode.expression;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.Vector;
+
+import java.util.List;
+
+/**
+ * An {@link ODESystem} whose right-hand sides were compiled to bytecode by
+ * {@link ExpressionCompiler}.
+ */
+final class CompiledExpressionSystem implements ODESystem {
+
+    private final RightHandSide rhs;
+    private final List<String> expressions;
+
+    CompiledExpressionSystem(RightHandSide rhs, List<String> expressions) {
+        this.rhs = rhs;
+        this.expressions = List.copyOf(expressions);
+    }
+
+    @Override
+    public Vector computeDerivative(double t, Vector y) {
+        double[] dydt = new double[expressions.size()];
+        rhs.evaluate(t, y.toArray(), dydt);
+        return Vector.wrap(dydt);
+    }
+
+    @Override
+    public void computeDerivative(double t, double[] y, double[] dydt) {
+        rhs.evaluate(t, y, dydt);
+    }
+
+    @Override
+    public String toString() {
+        return "dy/dt = " + expressions;
+    }
+}
@@ -0,0 +1,277 @@
+package io.github.rajveer.simplotode.expression;
+
+import io.github.rajveer.simplotode.expression.ClassFileBuilder.Code;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import net.objecthunter.exp4j.function.Function;
+import net.objecthunter.exp4j.operator.Operator;
+import net.objecthunter.exp4j.shuntingyard.ShuntingYard;
+import net.objecthunter.exp4j.tokenizer.FunctionToken;
+import net.objecthunter.exp4j.tokenizer.NumberToken;
+import net.objecthunter.exp4j.tokenizer.OperatorToken;
+import net.objecthunter.exp4j.tokenizer.Token;
+import net.objecthunter.exp4j.tokenizer.VariableToken;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles user-entered right-hand sides {@code dy_i/dt = f_i(t, y0, y1, ...)} into a
+ * generated class, so an ODE system typed into the GUI runs at the speed of
+ * hand-written Java.
+ * <p>
+ * Expressions are parsed once with exp4j's own shunting-yard parser, so the accepted
+ * syntax (operators, precedence, implicit multiplication, built-in functions and the
+ * constants {@code pi}, {@code e}, {@code π}, {@code φ}) is exactly exp4j's. The
+ * resulting RPN is emitted as straight-line bytecode that reads {@code y[i]} by index
+ * and writes every {@code dydt[i]} in one method, then defined as a hidden class.
+ * There is no per-evaluation string building, map lookup or tree walking left, and
+ * the JIT can inline the whole right-hand side into the solver loop.
+ * <p>
+ * Large systems are split over several methods, each kept under HotSpot's 8000-byte
+ * limit for JIT compilation.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * ODESystem system = ExpressionCompiler.compile(List.of("y1", "-y0"));
+ * </pre>
+ */
+public final class ExpressionCompiler {
+
+    private static final String CLASS_NAME = "io/github/rajveer/simplotode/expression/CompiledRightHandSide";
+    private static final String RHS_INTERFACE = "io/github/rajveer/simplotode/expression/RightHandSide";
+    private static final String RUNTIME = "io/github/rajveer/simplotode/expression/ExpressionRuntime";
+    private static final String MATH = "java/lang/Math";
+    private static final String CHUNK_DESCRIPTOR = "(D[D[D)V";
+    private static final String UNARY = "(D)D";
+    private static final String BINARY = "(DD)D";
+
+    /** Keeps each generated method below HotSpot's HugeMethodLimit of 8000 bytes. */
+    private static final int CHUNK_BYTES = 7000;
+
+    /** Slots of the static chunk methods {@code (double t, double[] y, double[] dydt)}. */
+    private static final int T_SLOT = 0;
+    private static final int Y_SLOT = 2;
+    private static final int DYDT_SLOT = 3;
+
+    /** exp4j's built-in constants. */
+    private static final Map<String, Double> CONSTANTS = Map.of(
+            "pi", Math.PI,
+            "π", Math.PI,
+            "e", Math.E,
+            "φ", 1.61803398874d
+    );
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compiles one expression per state component. Expression {@code i} gives
+     * {@code dy_i/dt} and may refer to {@code t} and {@code y0 .. y(n-1)}.
+     *
+     * @param expressions the right-hand sides, in state order
+     * @return an ODE system evaluating the compiled expressions
+     * @throws IllegalArgumentException if an expression cannot be parsed
+     */
+    public static ODESystem compile(List<String> expressions) {
+        int n = expressions.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one expression is required");
+        }
+
+        Map<String, Integer> stateIndex = new HashMap<>();
+        Set<String> variables = new LinkedHashSet<>();
+        variables.add("t");
+        for (int i = 0; i < n; i++) {
+            stateIndex.put("y" + i, i);
+            variables.add("y" + i);
+        }
+        variables.addAll(CONSTANTS.keySet());
+
+        ClassFileBuilder cf = new ClassFileBuilder(CLASS_NAME, RHS_INTERFACE);
+        List<String> chunkNames = new ArrayList<>();
+        Code chunk = new Code();
+        int chunkStack = 0;
+
+        for (int i = 0; i < n; i++) {
+            String expression = expressions.get(i);
+            Token[] rpn = ShuntingYard.convertToRPN(expression, Collections.emptyMap(),
+                    Collections.emptyMap(), variables, true);
+
+            Code code = new Code();
+            code.local(Code.ALOAD, DYDT_SLOT);
+            code.pushInt(i);
+            int stack = emitExpression(cf, code, rpn, stateIndex, expression);
+            code.op(Code.DASTORE);
+
+            if (chunk.size() > 0 && chunk.size() + code.size() > CHUNK_BYTES) {
+                chunkNames.add(addChunk(cf, chunk, chunkNames.size(), chunkStack));
+                chunk = new Code();
+                chunkStack = 0;
+            }
+            chunk.append(code);
+            chunkStack = Math.max(chunkStack, stack);
+        }
+        chunkNames.add(addChunk(cf, chunk, chunkNames.size(), chunkStack));
+
+        addConstructor(cf);
+        addEvaluate(cf, chunkNames);
+
+        return new CompiledExpressionSystem(define(cf.toByteArray()), expressions);
+    }
+
+    /**
+     * Emits the RPN program of one expression and returns the operand stack depth it needs,
+     * counting the {@code dydt} reference and index already pushed below it.
+     */
+    private static int emitExpression(ClassFileBuilder cf, Code code, Token[] rpn,
+                                      Map<String, Integer> stateIndex, String expression) {
+        int depth = 2;
+        int maxDepth = depth;
+        int operands = 0;
+
+        for (Token token : rpn) {
+            switch (token.getType()) {
+                case Token.TOKEN_NUMBER -> {
+                    pushDouble(cf, code, ((NumberToken) token).getValue());
+                    operands++;
+                    depth += 2;
+                }
+                case Token.TOKEN_VARIABLE -> {
+                    String name = ((VariableToken) token).getName();
+                    Integer index = stateIndex.get(name);
+                    if (name.equals("t")) {
+                        code.local(Code.DLOAD, T_SLOT);
+                    } else if (index != null) {
+                        code.local(Code.ALOAD, Y_SLOT);
+                        code.pushInt(index);
+                        code.op(Code.DALOAD);
+                    } else {
+                        pushDouble(cf, code, CONSTANTS.get(name));
+                    }
+                    operands++;
+                    depth += 2;
+                }
+                case Token.TOKEN_OPERATOR -> {
+                    Operator op = ((OperatorToken) token).getOperator();
+                    requireOperands(operands, op.getNumOperands(), expression);
+                    emitOperator(cf, code, op);
+                    operands -= op.getNumOperands() - 1;
+                    depth -= 2 * (op.getNumOperands() - 1);
+                }
+                case Token.TOKEN_FUNCTION -> {
+                    Function fn = ((FunctionToken) token).getFunction();
+                    requireOperands(operands, fn.getNumArguments(), expression);
+                    emitFunction(cf, code, fn);
+                    operands -= fn.getNumArguments() - 1;
+                    depth -= 2 * (fn.getNumArguments() - 1);
+                }
+                default -> throw new IllegalArgumentException("Unexpected token in expression: " + expression);
+            }
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        if (operands != 1) {
+            throw new IllegalArgumentException("Invalid expression: " + expression);
+        }
+        return maxDepth;
+    }
+
+    private static void requireOperands(int available, int required, String expression) {
+        if (available < required) {
+            throw new IllegalArgumentException("Invalid number of operands in expression: " + expression);
+        }
+    }
+
+    private static void pushDouble(ClassFileBuilder cf, Code code, double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            code.op(Code.DCONST_0);
+        } else if (value == 1d) {
+            code.op(Code.DCONST_1);
+        } else {
+            code.opWithIndex(Code.LDC2_W, cf.doubleConstant(value));
+        }
+    }
+
+    private static void emitOperator(ClassFileBuilder cf, Code code, Operator op) {
+        String symbol = op.getSymbol();
+        if (op.getNumOperands() == 1) {
+            switch (symbol) {
+                case "-" -> code.op(Code.DNEG);
+                case "+" -> { }
+                default -> throw new IllegalArgumentException("Unsupported unary operator: " + symbol);
+            }
+            return;
+        }
+        switch (symbol) {
+            case "+" -> code.op(Code.DADD);
+            case "-" -> code.op(Code.DSUB);
+            case "*" -> code.op(Code.DMUL);
+            case "/" -> invoke(cf, code, RUNTIME, "divide", BINARY);
+            case "%" -> invoke(cf, code, RUNTIME, "modulo", BINARY);
+            case "^" -> invoke(cf, code, MATH, "pow", BINARY);
+            default -> throw new IllegalArgumentException("Unsupported operator: " + symbol);
+        }
+    }
+
+    private static void emitFunction(ClassFileBuilder cf, Code code, Function fn) {
+        String name = fn.getName();
+        switch (name) {
+            case "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", "tanh",
+                 "log", "log10", "log1p", "exp", "expm1", "sqrt", "cbrt",
+                 "abs", "ceil", "floor", "signum" -> invoke(cf, code, MATH, name, UNARY);
+            case "pow" -> invoke(cf, code, MATH, "pow", BINARY);
+            case "cot", "log2" -> invoke(cf, code, RUNTIME, name, UNARY);
+            default -> throw new IllegalArgumentException("Unsupported function: " + name);
+        }
+    }
+
+    private static void invoke(ClassFileBuilder cf, Code code, String owner, String name, String descriptor) {
+        code.opWithIndex(Code.INVOKESTATIC, cf.methodRef(owner, name, descriptor));
+    }
+
+    private static String addChunk(ClassFileBuilder cf, Code body, int index, int maxStack) {
+        String name = "chunk" + index;
+        body.op(Code.RETURN);
+        cf.addMethod(ClassFileBuilder.ACC_PRIVATE | ClassFileBuilder.ACC_STATIC, name, CHUNK_DESCRIPTOR,
+                body, maxStack, 4);
+        return name;
+    }
+
+    private static void addConstructor(ClassFileBuilder cf) {
+        Code code = new Code();
+        code.local(Code.ALOAD, 0);
+        code.opWithIndex(Code.INVOKESPECIAL, cf.methodRef("java/lang/Object", "<init>", "()V"));
+        code.op(Code.RETURN);
+        cf.addMethod(ClassFileBuilder.ACC_PUBLIC, "<init>", "()V", code, 1, 1);
+    }
+
+    /** {@code evaluate(t, y, dydt)} just forwards to each chunk; the JIT inlines it away. */
+    private static void addEvaluate(ClassFileBuilder cf, List<String> chunkNames) {
+        Code code = new Code();
+        for (String chunk : chunkNames) {
+            code.local(Code.DLOAD, 1);
+            code.local(Code.ALOAD, 3);
+            code.local(Code.ALOAD, 4);
+            code.opWithIndex(Code.INVOKESTATIC, cf.methodRef(CLASS_NAME, chunk, CHUNK_DESCRIPTOR));
+        }
+        code.op(Code.RETURN);
+        cf.addMethod(ClassFileBuilder.ACC_PUBLIC, "evaluate", CHUNK_DESCRIPTOR, code, 4, 5);
+    }
+
+    private static RightHandSide define(byte[] classFile) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            return (RightHandSide) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to define compiled expression class", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.rajveer.simplotode.expression;
+
+/**
+ * Helpers called from generated bytecode for the operators and functions whose
+ * exp4j semantics are not a single JVM instruction or {@link Math} method.
+ * They are small enough for the JIT to inline at every call site.
+ */
+final class ExpressionRuntime {
+
+    private ExpressionRuntime() {
+    }
+
+    /** exp4j's {@code /}, which rejects a zero divisor instead of producing infinity. */
+    static double divide(double a, double b) {
+        if (b == 0d) {
+            throw new ArithmeticException("Division by zero!");
+        }
+        return a / b;
+    }
+
+    /** exp4j's {@code %}, which rejects a zero divisor instead of producing NaN. */
+    static double modulo(double a, double b) {
+        if (b == 0d) {
+            throw new ArithmeticException("Division by zero!");
+        }
+        return a % b;
+    }
+
+    static double cot(double x) {
+        double tan = Math.tan(x);
+        if (tan == 0d) {
+            throw new ArithmeticException("Division by zero in cotangent!");
+        }
+        return 1d / tan;
+    }
+
+    static double log2(double x) {
+        return Math.log(x) / Math.log(2d);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.rajveer.simplotode.expression;
+
+/**
+ * Contract implemented by the classes generated by {@link ExpressionCompiler}.
+ * Evaluates every right-hand side of a compiled system in one call.
+ */
+interface RightHandSide {
+
+    /**
+     * @param t    current time
+     * @param y    current state
+     * @param dydt output array receiving the value of each expression
+     */
+    void evaluate(double t, double[] y, double[] dydt);
+}
@@ -0,0 +1,144 @@
+package io.github.rajveer.simplotode.fitting;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Outcome of a multi-start fit: the best parameters found and how each start ended.
+ * <p>
+ * The cost is the sum of squared residuals between the simulated and the observed
+ * values.
+ */
+public class FitResult {
+
+    /**
+     * How a single start ended.
+     */
+    public enum Status {
+        /** The cost or the step stopped decreasing by more than the tolerance. */
+        CONVERGED,
+        /** The iteration limit was reached first. */
+        MAX_ITERATIONS,
+        /** Stopped early because the cost stayed far above the best start's. */
+        ABORTED,
+        /** The integration blew up at the starting point. */
+        FAILED
+    }
+
+    private final double[][] parameters;
+    private final double[] costs;
+    private final int[] iterations;
+    private final Status[] status;
+    private final int observationCount;
+    private final int best;
+
+    FitResult(double[][] parameters, double[] costs, int[] iterations, Status[] status, int observationCount) {
+        this.parameters = parameters;
+        this.costs = costs;
+        this.iterations = iterations;
+        this.status = status;
+        this.observationCount = observationCount;
+        int best = -1;
+        for (int s = 0; s < costs.length; s++) {
+            if (status[s] != Status.FAILED && (best < 0 || costs[s] < costs[best])) {
+                best = s;
+            }
+        }
+        this.best = best;
+    }
+
+    /**
+     * @return whether any start produced a finite cost
+     */
+    public boolean isSuccessful() {
+        return best >= 0;
+    }
+
+    /**
+     * @return a copy of the best parameters found
+     * @throws IllegalStateException if every start failed
+     */
+    public double[] getParameters() {
+        if (best < 0) {
+            throw new IllegalStateException("Every start failed");
+        }
+        return parameters[best].clone();
+    }
+
+    /**
+     * @return the sum of squared residuals at the best parameters, or infinity
+     */
+    public double getCost() {
+        return best < 0 ? Double.POSITIVE_INFINITY : costs[best];
+    }
+
+    /**
+     * @return root-mean-square residual at the best parameters
+     */
+    public double getRms() {
+        return Math.sqrt(getCost() / observationCount);
+    }
+
+    /**
+     * @return index of the start that produced the best parameters, or -1
+     */
+    public int getBestStart() {
+        return best;
+    }
+
+    /**
+     * @return number of starts
+     */
+    public int getStartCount() {
+        return costs.length;
+    }
+
+    /**
+     * @return number of starts that ended with the given status
+     */
+    public int count(Status s) {
+        int count = 0;
+        for (Status value : status) {
+            if (value == s) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return how start {@code s} ended
+     */
+    public Status getStatus(int s) {
+        return status[s];
+    }
+
+    /**
+     * @return final cost of start {@code s}
+     */
+    public double getCost(int s) {
+        return costs[s];
+    }
+
+    /**
+     * @return a copy of the final parameters of start {@code s}
+     */
+    public double[] getParameters(int s) {
+        return parameters[s].clone();
+    }
+
+    /**
+     * @return number of Levenberg-Marquardt iterations taken by start {@code s}
+     */
+    public int getIterations(int s) {
+        return iterations[s];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "FitResult[parameters=%s, cost=%.6g, rms=%.6g, starts=%d "
+                        + "(converged %d, max iterations %d, aborted %d, failed %d)]",
+                best < 0 ? "none" : Arrays.toString(parameters[best]), getCost(), getRms(), costs.length,
+                count(Status.CONVERGED), count(Status.MAX_ITERATIONS), count(Status.ABORTED), count(Status.FAILED));
+    }
+}
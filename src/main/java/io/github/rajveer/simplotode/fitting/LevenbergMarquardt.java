@@ -0,0 +1,276 @@
+package io.github.rajveer.simplotode.fitting;
+
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.systems.SensitivitySystem;
+
+import java.util.Arrays;
+
+/**
+ * One worker thread's Levenberg-Marquardt state: the solver, the augmented state and
+ * the residual and normal-equation buffers, reused for every start the thread runs.
+ * <p>
+ * Residuals and their Jacobian come from one RK4 run of the
+ * {@link SensitivitySystem}, stepping exactly onto the sample times. Steps use
+ * Marquardt's scaling, {@code (J'J + lambda diag(J'J)) delta = -J'r}, and are clipped
+ * to the parameter bounds; parameters whose bounds coincide stay fixed.
+ */
+final class LevenbergMarquardt {
+
+    private static final double INITIAL_LAMBDA = 1e-3;
+    private static final double MAX_LAMBDA = 1e12;
+
+    private final ParameterEstimator estimator;
+    private final ObservedData data;
+    private final int n;
+    private final int m;
+    private final boolean[] free;
+
+    private final RK4Solver solver = new RK4Solver();
+    private final double[] z;
+    private double[] residuals;
+    private double[][] jacobian;
+    private double[] trialResiduals;
+    private double[][] trialJacobian;
+    private final double[][] normal;
+    private final double[][] factor;
+    private final double[] gradient;
+    private final double[] delta;
+    private final double[] trial;
+
+    LevenbergMarquardt(ParameterEstimator estimator, ObservedData data) {
+        this.estimator = estimator;
+        this.data = data;
+        this.n = estimator.y0.length;
+        this.m = estimator.lower.length;
+        this.free = new boolean[m];
+        for (int k = 0; k < m; k++) {
+            free[k] = estimator.lower[k] < estimator.upper[k];
+        }
+        int rows = data.getObservationCount();
+        this.z = new double[n * (1 + m)];
+        this.residuals = new double[rows];
+        this.jacobian = new double[rows][m];
+        this.trialResiduals = new double[rows];
+        this.trialJacobian = new double[rows][m];
+        this.normal = new double[m][m];
+        this.factor = new double[m][m];
+        this.gradient = new double[m];
+        this.delta = new double[m];
+        this.trial = new double[m];
+    }
+
+    /**
+     * Continues the fit of start {@code s} up to {@code limit} iterations in total and
+     * stores its progress in slot {@code s} of the result arrays. The first call starts
+     * from {@code start}; later calls pick up from the stored parameters and damping.
+     * The status is left {@code null} if the start stopped only at {@code limit} while
+     * below the overall iteration limit.
+     */
+    void run(int s, double[] start, int limit, double[][] parameters, double[] costs, int[] iterations,
+             double[] lambdas, FitResult.Status[] status) {
+        double[] p = parameters[s];
+        double lambda;
+        if (p == null) {
+            p = start.clone();
+            clamp(p);
+            parameters[s] = p;
+            lambda = INITIAL_LAMBDA;
+        } else {
+            lambda = lambdas[s];
+        }
+        // the buffers belong to this thread, not to the start, so they are refilled
+        double cost = evaluate(p, residuals, jacobian);
+        costs[s] = cost;
+        if (cost == Double.POSITIVE_INFINITY) {
+            status[s] = FitResult.Status.FAILED;
+            return;
+        }
+
+        double tolerance = estimator.tolerance;
+        for (int iteration = iterations[s]; iteration < limit; iteration++) {
+            iterations[s] = iteration + 1;
+            normalEquations();
+
+            double trialCost = Double.POSITIVE_INFINITY;
+            double stepNorm = 0;
+            while (lambda <= MAX_LAMBDA) {
+                if (solveDamped(lambda)) {
+                    stepNorm = 0;
+                    for (int k = 0; k < m; k++) {
+                        trial[k] = p[k] + delta[k];
+                    }
+                    clamp(trial);
+                    for (int k = 0; k < m; k++) {
+                        stepNorm = Math.max(stepNorm, Math.abs(trial[k] - p[k]) / (Math.abs(p[k]) + tolerance));
+                    }
+                    if (stepNorm <= tolerance) {
+                        break;
+                    }
+                    trialCost = evaluate(trial, trialResiduals, trialJacobian);
+                    if (trialCost < cost) {
+                        break;
+                    }
+                }
+                lambda *= 10;
+            }
+            if (!(trialCost < cost)) {
+                // no downhill step left at any damping: a (possibly bound-constrained) minimum
+                status[s] = FitResult.Status.CONVERGED;
+                return;
+            }
+
+            double decrease = cost - trialCost;
+            System.arraycopy(trial, 0, p, 0, m);
+            swapTrial();
+            cost = trialCost;
+            costs[s] = cost;
+            lambda = Math.max(lambda / 10, 1e-12);
+            lambdas[s] = lambda;
+
+            if (decrease <= tolerance * cost || stepNorm <= tolerance) {
+                status[s] = FitResult.Status.CONVERGED;
+                return;
+            }
+        }
+        if (limit >= estimator.maxIterations) {
+            status[s] = FitResult.Status.MAX_ITERATIONS;
+        }
+    }
+
+    /**
+     * Integrates the model with sensitivities and fills the residuals and their
+     * Jacobian.
+     *
+     * @return the sum of squared residuals, or infinity if the integration blew up
+     */
+    private double evaluate(double[] p, double[] r, double[][] dr) {
+        ODESystem system = estimator.model.create(p);
+        if (system.getParameterCount() != m) {
+            throw new IllegalArgumentException("Model exposes " + system.getParameterCount()
+                    + " parameters, but bounds were given for " + m);
+        }
+        SensitivitySystem sensitivity = new SensitivitySystem(system, n);
+        System.arraycopy(estimator.y0, 0, z, 0, n);
+        Arrays.fill(z, n, z.length, 0.0);
+
+        double t = estimator.t0;
+        double dt = estimator.dt;
+        double cost = 0;
+        int row = 0;
+        for (int i = 0; i < data.size(); i++) {
+            double target = data.getTime(i);
+            while (t < target) {
+                double remaining = target - t;
+                // land exactly on the sample, absorbing a sliver rather than stepping it alone
+                boolean last = remaining <= dt * (1 + 1e-9);
+                solver.step(sensitivity, t, z, last ? remaining : dt);
+                t = last ? target : t + dt;
+            }
+            for (int c = 0; c < data.getColumnCount(); c++) {
+                double observed = data.getValue(c, i);
+                if (Double.isNaN(observed)) {
+                    continue;
+                }
+                int component = data.getComponent(c);
+                double residual = z[component] - observed;
+                if (!Double.isFinite(residual)) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                r[row] = residual;
+                double[] gradientRow = dr[row];
+                for (int k = 0; k < m; k++) {
+                    gradientRow[k] = free[k] ? z[n * (1 + k) + component] : 0;
+                }
+                cost += residual * residual;
+                row++;
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Forms {@code J'J} and {@code J'r}.
+     */
+    private void normalEquations() {
+        for (int a = 0; a < m; a++) {
+            Arrays.fill(normal[a], 0.0);
+        }
+        Arrays.fill(gradient, 0.0);
+        for (int row = 0; row < residuals.length; row++) {
+            double[] jr = jacobian[row];
+            double r = residuals[row];
+            for (int a = 0; a < m; a++) {
+                double ja = jr[a];
+                gradient[a] += ja * r;
+                for (int b = 0; b <= a; b++) {
+                    normal[a][b] += ja * jr[b];
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves the damped normal equations for {@link #delta} by Cholesky factorisation
+     * of the lower triangle; fixed parameters get a zero step.
+     *
+     * @return {@code false} if the damped matrix is not positive definite
+     */
+    private boolean solveDamped(double lambda) {
+        double[][] l = factor;
+        for (int a = 0; a < m; a++) {
+            for (int b = 0; b <= a; b++) {
+                double value;
+                if (!free[a] || !free[b]) {
+                    value = a == b ? 1 : 0;
+                } else {
+                    value = normal[a][b];
+                    if (a == b) {
+                        value += lambda * Math.max(normal[a][a], 1e-12);
+                    }
+                }
+                for (int k = 0; k < b; k++) {
+                    value -= l[a][k] * l[b][k];
+                }
+                if (a == b) {
+                    if (!(value > 0)) {
+                        return false;
+                    }
+                    l[a][a] = Math.sqrt(value);
+                } else {
+                    l[a][b] = value / l[b][b];
+                }
+            }
+        }
+        for (int a = 0; a < m; a++) {
+            double value = free[a] ? -gradient[a] : 0;
+            for (int k = 0; k < a; k++) {
+                value -= l[a][k] * delta[k];
+            }
+            delta[a] = value / l[a][a];
+        }
+        for (int a = m - 1; a >= 0; a--) {
+            double value = delta[a];
+            for (int k = a + 1; k < m; k++) {
+                value -= l[k][a] * delta[k];
+            }
+            delta[a] = value / l[a][a];
+        }
+        return true;
+    }
+
+    private void clamp(double[] p) {
+        for (int k = 0; k < m; k++) {
+            p[k] = Math.min(Math.max(p[k], estimator.lower[k]), estimator.upper[k]);
+        }
+    }
+
+    private void swapTrial() {
+        double[] r = residuals;
+        residuals = trialResiduals;
+        trialResiduals = r;
+        double[][] j = jacobian;
+        jacobian = trialJacobian;
+        trialJacobian = j;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.rajveer.simplotode.fitting;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+/**
+ * Builds the system to fit for a given parameter vector, e.g.
+ * {@code p -> new SIRModelSystem(p[0], p[1], p[2])}.
+ * <p>
+ * The parameters must be those the system exposes through
+ * {@link ODESystem#computeParameterJacobian(double, double[], double[][])}, in the
+ * same order, since their sensitivities drive the fit.
+ */
+@FunctionalInterface
+public interface ModelFactory {
+
+    /**
+     * @param parameters the parameter vector; must not be retained or modified
+     * @return the system with these parameters
+     */
+    ODESystem create(double[] parameters);
+}
@@ -0,0 +1,182 @@
+package io.github.rajveer.simplotode.fitting;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Observed time series of some components of a system's state.
+ * <p>
+ * Samples share one time axis; each column holds the observations of one state
+ * component, with {@code NaN} marking a missing value. Only the components that were
+ * measured need a column, e.g. just the infected fraction of an SIR model.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * // t,prey,predator
+ * ObservedData data = ObservedData.readCsv(Path.of("hares-lynx.csv"), 0, 1);
+ * </pre>
+ */
+public class ObservedData {
+
+    private final double[] times;
+    private final int[] components;
+    private final double[][] values;
+    private final int observationCount;
+
+    /**
+     * @param times      sample times, strictly increasing
+     * @param components state component observed by each column
+     * @param values     {@code values[column][sample]}, {@code NaN} where missing
+     * @throws IllegalArgumentException if the arrays do not fit together
+     */
+    public ObservedData(double[] times, int[] components, double[][] values) {
+        if (values.length != components.length) {
+            throw new IllegalArgumentException("Expected " + components.length + " columns, got " + values.length);
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (!(times[i] > times[i - 1])) {
+                throw new IllegalArgumentException("Sample times must be strictly increasing at index " + i);
+            }
+        }
+        int count = 0;
+        for (double[] column : values) {
+            if (column.length != times.length) {
+                throw new IllegalArgumentException("Every column needs one value per sample time");
+            }
+            for (double value : column) {
+                if (!Double.isNaN(value)) {
+                    count++;
+                }
+            }
+        }
+        this.times = times.clone();
+        this.components = components.clone();
+        this.values = new double[values.length][];
+        for (int c = 0; c < values.length; c++) {
+            this.values[c] = values[c].clone();
+        }
+        this.observationCount = count;
+    }
+
+    /**
+     * Reads a CSV file whose first column is time and whose remaining columns are the
+     * observed components, in the order given. A header line is skipped, and empty
+     * cells are treated as missing values.
+     *
+     * @param file       the CSV file
+     * @param components state component observed by each column after the time
+     * @return the observations
+     * @throws IOException if the file cannot be read or a cell is not a number
+     */
+    public static ObservedData readCsv(Path file, int... components) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] cells = line.split(",", -1);
+                if (rows.isEmpty() && !isNumber(cells[0])) {
+                    continue; // header
+                }
+                if (cells.length != components.length + 1) {
+                    throw new IOException(file + ":" + lineNumber + ": expected " + (components.length + 1)
+                            + " columns, got " + cells.length);
+                }
+                double[] row = new double[cells.length];
+                for (int c = 0; c < cells.length; c++) {
+                    String cell = cells[c].strip();
+                    try {
+                        row[c] = cell.isEmpty() && c > 0 ? Double.NaN : Double.parseDouble(cell);
+                    } catch (NumberFormatException e) {
+                        throw new IOException(file + ":" + lineNumber + ": not a number: " + cell, e);
+                    }
+                }
+                rows.add(row);
+            }
+        }
+
+        double[] times = new double[rows.size()];
+        double[][] values = new double[components.length][rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            double[] row = rows.get(i);
+            times[i] = row[0];
+            for (int c = 0; c < components.length; c++) {
+                values[c][i] = row[c + 1];
+            }
+        }
+        return new ObservedData(times, components, values);
+    }
+
+    private static boolean isNumber(String cell) {
+        try {
+            Double.parseDouble(cell.strip());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return number of sample times
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * @return a copy of the sample times
+     */
+    public double[] getTimes() {
+        return times.clone();
+    }
+
+    /**
+     * @return time of sample {@code i}
+     */
+    public double getTime(int i) {
+        return times[i];
+    }
+
+    /**
+     * @return number of observed columns
+     */
+    public int getColumnCount() {
+        return components.length;
+    }
+
+    /**
+     * @return state component observed by {@code column}
+     */
+    public int getComponent(int column) {
+        return components[column];
+    }
+
+    /**
+     * @return observed value, or {@code NaN} if missing
+     */
+    public double getValue(int column, int i) {
+        return values[column][i];
+    }
+
+    /**
+     * @return number of values that are not missing, i.e. the number of residuals
+     */
+    public int getObservationCount() {
+        return observationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ObservedData[" + times.length + " samples of components " + Arrays.toString(components) + "]";
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.rajveer.simplotode.fitting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Fits model parameters to observed time series by Levenberg-Marquardt least
+ * squares, from many starting points in parallel.
+ * <p>
+ * Each start minimises the sum of squared differences between the simulated and the
+ * observed components. Residuals and their derivatives with respect to the
+ * parameters come from a single RK4 run of the forward sensitivity equations per
+ * iteration, so the model must expose its parameters through
+ * {@link io.github.rajveer.simplotode.systems.ODESystem#computeParameterJacobian
+ * computeParameterJacobian}, as {@code SIRModelSystem} and
+ * {@code LotkaVolterraSystem} do.
+ * <p>
+ * Starts run as fork/join tasks on all cores. Every worker thread keeps one solver
+ * and one set of residual buffers for all the starts it runs. All starts first run
+ * {@link #setAbortPolicy(int, double) a few iterations}; those whose cost is then
+ * still more than a given factor above the best of them are abandoned, and starts
+ * whose integration blows up fail immediately, so the time goes to the promising
+ * basins. The pruning waits for every start, so the outcome does not depend on the
+ * number of threads or their timing.
+ * Random starts are drawn log-uniformly between positive bounds, which suits rate
+ * constants spanning orders of magnitude, and uniformly otherwise.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * ParameterEstimator estimator = new ParameterEstimator(p -&gt; new SIRModelSystem(p[0], p[1], p[2]),
+ *         new double[]{0.99, 0.01, 0.0}, 0, 0.1,
+ *         new double[]{0.01, 0.01, 0.0}, new double[]{5, 1, 0.1});
+ * FitResult fit = estimator.fit(ObservedData.readCsv(Path.of("cases.csv"), 1), 256, 42);
+ * double[] kGammaMu = fit.getParameters();
+ * </pre>
+ */
+public class ParameterEstimator {
+
+    /** Default maximum number of Levenberg-Marquardt iterations per start. */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    /** Default relative tolerance on the cost decrease and the parameter step. */
+    public static final double DEFAULT_TOLERANCE = 1e-8;
+
+    final ModelFactory model;
+    final double[] y0;
+    final double t0;
+    final double dt;
+    final double[] lower;
+    final double[] upper;
+
+    int maxIterations = DEFAULT_MAX_ITERATIONS;
+    double tolerance = DEFAULT_TOLERANCE;
+    int abortAfter = 5;
+    double abortFactor = 100;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * @param model builds the system for a parameter vector
+     * @param y0    initial state of every simulation (not modified)
+     * @param t0    initial time; no sample may precede it
+     * @param dt    RK4 time step; steps are shortened to land on the sample times
+     * @param lower lower bound of each parameter
+     * @param upper upper bound of each parameter; equal bounds fix a parameter
+     * @throws IllegalArgumentException if the bounds are inconsistent
+     */
+    public ParameterEstimator(ModelFactory model, double[] y0, double t0, double dt, double[] lower, double[] upper) {
+        if (lower.length != upper.length || lower.length == 0) {
+            throw new IllegalArgumentException("Bounds must be non-empty and of equal length");
+        }
+        for (int k = 0; k < lower.length; k++) {
+            if (!(lower[k] <= upper[k]) || Double.isInfinite(lower[k]) || Double.isInfinite(upper[k])) {
+                throw new IllegalArgumentException("Invalid bounds for parameter " + k + ": ["
+                        + lower[k] + ", " + upper[k] + "]");
+            }
+        }
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Time step must be positive: " + dt);
+        }
+        this.model = model;
+        this.y0 = y0.clone();
+        this.t0 = t0;
+        this.dt = dt;
+        this.lower = lower.clone();
+        this.upper = upper.clone();
+    }
+
+    /**
+     * Sets the iteration limit and the convergence tolerance of each start.
+     */
+    public void setIterationLimits(int maxIterations, double tolerance) {
+        if (maxIterations <= 0 || !(tolerance > 0)) {
+            throw new IllegalArgumentException("Iteration limit and tolerance must be positive");
+        }
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Sets when hopeless starts are abandoned (default: after 5 iterations, if the cost
+     * exceeds 100 times the best).
+     *
+     * @param afterIterations iterations every start gets before it may be abandoned
+     * @param factor          how far above the best cost after those iterations a
+     *                        start may remain
+     */
+    public void setAbortPolicy(int afterIterations, double factor) {
+        if (afterIterations < 1 || !(factor >= 1)) {
+            throw new IllegalArgumentException("Abort policy needs at least one iteration and a factor of at least 1");
+        }
+        this.abortAfter = afterIterations;
+        this.abortFactor = factor;
+    }
+
+    /**
+     * Sets the pool the starts run on (default: the common fork/join pool).
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Fits from {@code starts} random points within the bounds.
+     *
+     * @param data  the observations
+     * @param starts number of starting points
+     * @param seed  seed of the starting points, making the fit reproducible
+     * @return the best parameters and the outcome of every start
+     */
+    public FitResult fit(ObservedData data, int starts, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] points = new double[starts][lower.length];
+        for (double[] point : points) {
+            for (int k = 0; k < point.length; k++) {
+                if (lower[k] == upper[k]) {
+                    point[k] = lower[k];
+                } else if (lower[k] > 0) {
+                    point[k] = lower[k] * Math.exp(random.nextDouble() * Math.log(upper[k] / lower[k]));
+                } else {
+                    point[k] = lower[k] + random.nextDouble() * (upper[k] - lower[k]);
+                }
+            }
+        }
+        return fit(data, points);
+    }
+
+    /**
+     * Fits from the given starting points, e.g. a hand-tuned guess plus random ones.
+     *
+     * @param data   the observations
+     * @param starts one parameter vector per start; values outside the bounds are clipped
+     * @return the best parameters and the outcome of every start
+     * @throws IllegalArgumentException if the data has no observations or a sample
+     *                                  precedes {@code t0}
+     */
+    public FitResult fit(ObservedData data, double[][] starts) {
+        if (data.getObservationCount() == 0) {
+            throw new IllegalArgumentException("No observations to fit");
+        }
+        if (data.getTime(0) < t0) {
+            throw new IllegalArgumentException("First sample at " + data.getTime(0) + " precedes t0 = " + t0);
+        }
+        for (double[] start : starts) {
+            if (start.length != lower.length) {
+                throw new IllegalArgumentException("Expected " + lower.length + " parameters, got " + start.length);
+            }
+        }
+
+        int count = starts.length;
+        double[][] parameters = new double[count][];
+        double[] costs = new double[count];
+        int[] iterations = new int[count];
+        FitResult.Status[] status = new FitResult.Status[count];
+
+        double[] lambdas = new double[count];
+        ThreadLocal<LevenbergMarquardt> workers =
+                ThreadLocal.withInitial(() -> new LevenbergMarquardt(this, data));
+
+        // every start gets the same head start, so the pruning below does not depend
+        // on which starts the threads happened to reach first
+        int headStart = Math.min(abortAfter, maxIterations);
+        List<Integer> all = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            all.add(s);
+        }
+        runAll(all, s -> workers.get().run(s, starts[s], headStart, parameters, costs, iterations, lambdas, status));
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int s = 0; s < count; s++) {
+            bestCost = Math.min(bestCost, costs[s]);
+        }
+        List<Integer> survivors = new ArrayList<>();
+        for (int s = 0; s < count; s++) {
+            if (status[s] == null) {
+                if (costs[s] > abortFactor * bestCost) {
+                    status[s] = FitResult.Status.ABORTED;
+                } else {
+                    survivors.add(s);
+                }
+            }
+        }
+        runAll(survivors, s -> workers.get().run(s, starts[s], maxIterations, parameters, costs, iterations, lambdas, status));
+        return new FitResult(parameters, costs, iterations, status, data.getObservationCount());
+    }
+
+    /**
+     * Runs {@code task} for each of the given starts on the pool and waits for all of
+     * them.
+     */
+    private void runAll(List<Integer> indices, IntConsumer task) {
+        List<Callable<Void>> tasks = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while fitting", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("Fit failed", e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+/**
+ * An ODE solver that chooses its own internal step sizes to meet an error tolerance.
+ * <p>
+ * The inherited {@link #step(ODESystem, double, double[], double)} treats {@code dt}
+ * as an output interval: the solver takes as many internal steps as it needs and
+ * lands exactly on {@code t + dt}. This lets adaptive solvers drop into the same
+ * fixed-interval loops used with the explicit fixed-step solvers.
+ */
+public interface AdaptiveODESolver extends ODESolver {
+
+    /**
+     * Takes a single accepted adaptive step from {@code t}, never stepping past {@code tEnd}.
+     * Rejected attempts are retried internally with a smaller step size.
+     *
+     * @param system the ODE system
+     * @param t current time
+     * @param y current state; overwritten with the state at the returned time
+     * @param tEnd time that must not be overshot
+     * @return the time reached by the accepted step
+     */
+    double adaptiveStep(ODESystem system, double t, double[] y, double tEnd);
+
+    /**
+     * @return the step size the controller proposes for the next step,
+     *         or {@code NaN} if no step has been taken yet
+     */
+    double getStepSize();
+
+    /**
+     * @return number of accepted steps since construction or the last {@link #reset()}
+     */
+    int getAcceptedSteps();
+
+    /**
+     * @return number of rejected step attempts since construction or the last {@link #reset()}
+     */
+    int getRejectedSteps();
+
+    /**
+     * Forgets the step size, controller history and counters, e.g. before
+     * integrating an unrelated problem with the same solver instance.
+     */
+    void reset();
+}
@@ -0,0 +1,620 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Variable-order, variable-step backward differentiation formula (BDF) solver for
+ * stiff problems, orders 1 to 5.
+ * <p>
+ * The history is kept as modified divided differences {@code D[0..order+2]} of the
+ * solution (Shampine and Reichelt, "The MATLAB ODE Suite"), which makes changing the
+ * step size a small matrix product instead of an interpolation, and gives the error
+ * estimates of the neighbouring orders for free. The implicit equation of each step is
+ * solved by a simplified Newton iteration with matrix {@code I - h/α J}:
+ * <ul>
+ *   <li>the Jacobian (analytic if the system provides one, finite differences
+ *       otherwise) is kept across steps and only recomputed when Newton fails to
+ *       converge with a stale one;</li>
+ *   <li>the LU factors are kept until the step size or the order changes.</li>
+ * </ul>
+ * After {@code order + 1} steps of equal size the controller compares the error
+ * estimates of orders {@code k - 1}, {@code k} and {@code k + 1} and moves to the one
+ * allowing the largest step.
+ * <p>
+ * Dense output evaluates the interpolating polynomial held in the difference history,
+ * so it costs no derivative evaluations.
+ * <p>
+ * The history survives between calls as long as each call continues from where the
+ * previous one stopped, with the same system; anything else restarts at order 1.
+ * A checkpoint saves the history together with the Jacobian, whose LU factors are
+ * recomputed on restore, so a restarted run continues bit-identically.
+ */
+public class BDFSolver implements AdaptiveODESolver, DenseOutputSolver, CheckpointableSolver {
+
+    private static final int MAX_ORDER = 5;
+    private static final int NEWTON_MAXITER = 4;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 10.0;
+    private static final double UNIT_ROUNDOFF = Math.ulp(1.0);
+
+    /** γ_k = Σ_{j=1..k} 1/j, which for the plain BDF (κ = 0) is also α_k. */
+    private static final double[] GAMMA = new double[MAX_ORDER + 1];
+    /** Error constants 1/(k+1) of the order-k formulas. */
+    private static final double[] ERROR_CONST = new double[MAX_ORDER + 2];
+
+    static {
+        for (int k = 1; k <= MAX_ORDER; k++) {
+            GAMMA[k] = GAMMA[k - 1] + 1.0 / k;
+        }
+        for (int k = 0; k <= MAX_ORDER + 1; k++) {
+            ERROR_CONST[k] = 1.0 / (k + 1);
+        }
+    }
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final double newtonTolerance;
+    private double maxStepSize = Double.POSITIVE_INFINITY;
+
+    // f, prediction, Newton iterate, correction d, Newton increment, psi, scale, scratch
+    private final SolverWorkspace workspace = new SolverWorkspace(8);
+    private final LUDecomposition lu = new LUDecomposition();
+    private final double[][] rScratch = new double[MAX_ORDER + 1][MAX_ORDER + 1];
+    private final double[][] uScratch = new double[MAX_ORDER + 1][MAX_ORDER + 1];
+    private final double[][] ruScratch = new double[MAX_ORDER + 1][MAX_ORDER + 1];
+    private final double[] dScratch = new double[MAX_ORDER + 1];
+    private double[][] differences;
+    private double[][] jacobian;
+    private double[][] matrix;
+
+    private double h = Double.NaN;
+    private int order;
+    private int equalSteps;
+    private double factoredC = Double.NaN;
+    private boolean jacobianValid;
+
+    private ODESystem historySystem;
+    private double historyTime = Double.NaN;
+    private double[] historyState;
+    private double stepStart = Double.NaN;
+
+    private int acceptedSteps;
+    private int rejectedSteps;
+    private int jacobianEvaluations;
+    private int factorizations;
+
+    /**
+     * Creates a solver with {@code atol = 1e-6} and {@code rtol = 1e-4}.
+     */
+    public BDFSolver() {
+        this(1e-6, 1e-4);
+    }
+
+    /**
+     * @param absoluteTolerance absolute error tolerance per component
+     * @param relativeTolerance relative error tolerance per component, must be positive
+     */
+    public BDFSolver(double absoluteTolerance, double relativeTolerance) {
+        if (absoluteTolerance < 0 || !(relativeTolerance > 0)) {
+            throw new IllegalArgumentException("Tolerances must be non-negative, the relative one positive");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.newtonTolerance = Math.max(10 * UNIT_ROUNDOFF / relativeTolerance, Math.min(0.03, Math.sqrt(relativeTolerance)));
+    }
+
+    /**
+     * Limits the internal step size.
+     *
+     * @param maxStepSize largest step the controller may take
+     */
+    public void setMaxStepSize(double maxStepSize) {
+        if (!(maxStepSize > 0)) {
+            throw new IllegalArgumentException("Maximum step size must be positive: " + maxStepSize);
+        }
+        this.maxStepSize = maxStepSize;
+    }
+
+    /**
+     * Integrates from {@code t} to exactly {@code t + dt} with as many adaptive
+     * steps as the tolerances require.
+     *
+     * @param system the ODE system
+     * @param t current time
+     * @param y current state, overwritten with y(t + dt)
+     * @param dt output interval
+     */
+    @Override
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        double tEnd = t + dt;
+        while (t < tEnd) {
+            t = adaptiveStep(system, t, y, tEnd);
+        }
+    }
+
+    @Override
+    public double adaptiveStep(ODESystem system, double t, double[] y, double tEnd) {
+        int n = y.length;
+        double[][] w = workspace.buffers(n);
+        double[] f = w[0], yPredict = w[1], yNew = w[2], d = w[3], dy = w[4], psi = w[5], scale = w[6], scratch = w[7];
+
+        if (!continuesHistory(system, t, y)) {
+            start(system, t, y, tEnd, w);
+        }
+        double[][] D = differences;
+
+        double minStep = 10 * Math.ulp(t);
+        if (h > maxStepSize) {
+            changeDifferences(maxStepSize / h);
+            h = maxStepSize;
+        } else if (h < minStep) {
+            changeDifferences(minStep / h);
+            h = minStep;
+        }
+
+        boolean jacobianFresh = false;
+        double tNew;
+        double errorNorm;
+        double safety;
+        while (true) {
+            if (Double.isNaN(h)) {
+                throw new IllegalStateException("Derivative is not finite at t = " + t);
+            }
+            if (h < minStep) {
+                throw new IllegalStateException("Step size underflow at t = " + t);
+            }
+            tNew = t + h;
+            if (tNew >= tEnd) {
+                tNew = tEnd;
+                double clipped = tEnd - t;
+                changeDifferences(clipped / h);
+                h = clipped;
+            }
+
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int k = 0; k <= order; k++) {
+                    sum += D[k][i];
+                }
+                yPredict[i] = sum;
+                scale[i] = absoluteTolerance + relativeTolerance * Math.abs(sum);
+                double p = 0;
+                for (int k = 1; k <= order; k++) {
+                    p += D[k][i] * GAMMA[k];
+                }
+                psi[i] = p / GAMMA[order];
+            }
+
+            double c = h / GAMMA[order];
+            int iterations;
+            while (true) {
+                if (!jacobianValid) {
+                    system.computeDerivative(tNew, yPredict, f);
+                    Jacobians.compute(system, tNew, yPredict, f, jacobian, yNew, scratch);
+                    jacobianEvaluations++;
+                    jacobianValid = true;
+                    jacobianFresh = true;
+                    factoredC = Double.NaN;
+                }
+                if (c != factoredC && !factor(c)) {
+                    // re-evaluate at the shorter step, e.g. after a Jacobian that was not finite
+                    jacobianValid = false;
+                    iterations = -1;
+                    break;
+                }
+                iterations = solveNewton(system, tNew, yPredict, c, psi, scale, f, yNew, d, dy);
+                if (iterations > 0 || jacobianFresh) {
+                    break;
+                }
+                jacobianValid = false;
+            }
+            if (iterations <= 0) {
+                rejectedSteps++;
+                changeDifferences(0.5);
+                h *= 0.5;
+                continue;
+            }
+
+            safety = 0.9 * (2 * NEWTON_MAXITER + 1) / (2 * NEWTON_MAXITER + iterations);
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                scale[i] = absoluteTolerance + relativeTolerance * Math.abs(yNew[i]);
+                double e = ERROR_CONST[order] * d[i] / scale[i];
+                sum += e * e;
+            }
+            errorNorm = Math.sqrt(sum / n);
+            if (errorNorm <= 1) {
+                break;
+            }
+            rejectedSteps++;
+            double factor = Math.max(MIN_FACTOR, safety * Math.pow(errorNorm, -1.0 / (order + 1)));
+            changeDifferences(factor);
+            h *= factor;
+        }
+
+        acceptedSteps++;
+        equalSteps++;
+        System.arraycopy(yNew, 0, y, 0, n);
+        for (int i = 0; i < n; i++) {
+            D[order + 2][i] = d[i] - D[order + 1][i];
+            D[order + 1][i] = d[i];
+        }
+        for (int k = order; k >= 0; k--) {
+            double[] dk = D[k], next = D[k + 1];
+            for (int i = 0; i < n; i++) {
+                dk[i] += next[i];
+            }
+        }
+        stepStart = t;
+        remember(system, tNew, y);
+
+        if (equalSteps >= order + 1) {
+            selectOrder(errorNorm, safety, scale);
+        }
+        return tNew;
+    }
+
+    /**
+     * Chooses the order for the next steps from the error estimates of the current
+     * order and its neighbours, and rescales the step size accordingly.
+     */
+    private void selectOrder(double errorNorm, double safety, double[] scale) {
+        double errorMinus = order > 1 ? weightedNorm(ERROR_CONST[order - 1], differences[order], scale)
+                : Double.POSITIVE_INFINITY;
+        double errorPlus = order < MAX_ORDER ? weightedNorm(ERROR_CONST[order + 1], differences[order + 2], scale)
+                : Double.POSITIVE_INFINITY;
+        double[] factors = {
+                Math.pow(errorMinus, -1.0 / order),
+                Math.pow(errorNorm, -1.0 / (order + 1)),
+                Math.pow(errorPlus, -1.0 / (order + 2))
+        };
+        int best = 1;
+        for (int i = 0; i < 3; i++) {
+            if (factors[i] > factors[best]) {
+                best = i;
+            }
+        }
+        order += best - 1;
+        double factor = Math.min(MAX_FACTOR, safety * factors[best]);
+        changeDifferences(factor);
+        h *= factor;
+        equalSteps = 0;
+    }
+
+    /**
+     * Solves the BDF equation for the correction {@code d} with the factored Newton
+     * matrix.
+     *
+     * @return number of iterations used, or {@code 0} if the iteration diverged or
+     *         did not converge in {@value #NEWTON_MAXITER} iterations
+     */
+    private int solveNewton(ODESystem system, double tNew, double[] yPredict, double c, double[] psi,
+                            double[] scale, double[] f, double[] y, double[] d, double[] dy) {
+        int n = y.length;
+        System.arraycopy(yPredict, 0, y, 0, n);
+        Arrays.fill(d, 0);
+        double previousNorm = Double.NaN;
+        for (int k = 0; k < NEWTON_MAXITER; k++) {
+            system.computeDerivative(tNew, y, f);
+            for (int i = 0; i < n; i++) {
+                dy[i] = c * f[i] - psi[i] - d[i];
+            }
+            lu.solve(dy);
+            double norm = 0;
+            for (int i = 0; i < n; i++) {
+                double v = dy[i] / scale[i];
+                norm += v * v;
+            }
+            norm = Math.sqrt(norm / n);
+            if (!Double.isFinite(norm)) {
+                return 0;
+            }
+            double rate = norm / previousNorm;
+            if (!Double.isNaN(rate)
+                    && (rate >= 1 || Math.pow(rate, NEWTON_MAXITER - k) / (1 - rate) * norm > newtonTolerance)) {
+                return 0;
+            }
+            for (int i = 0; i < n; i++) {
+                y[i] += dy[i];
+                d[i] += dy[i];
+            }
+            if (norm == 0 || (!Double.isNaN(rate) && rate / (1 - rate) * norm < newtonTolerance)) {
+                return k + 1;
+            }
+            previousNorm = norm;
+        }
+        return 0;
+    }
+
+    /**
+     * Factors {@code I - c J}.
+     *
+     * @return {@code false} if the matrix is singular
+     */
+    private boolean factor(double c) {
+        int n = matrix.length;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix[i][j] = -c * jacobian[i][j];
+            }
+            matrix[i][i] += 1;
+        }
+        factorizations++;
+        if (lu.factor(matrix)) {
+            factoredC = c;
+            return true;
+        }
+        factoredC = Double.NaN;
+        return false;
+    }
+
+    /**
+     * Rescales the difference history to a step size {@code factor} times the current
+     * one: {@code D[0..order] = (R U)ᵀ D[0..order]}.
+     */
+    private void changeDifferences(double factor) {
+        if (factor == 1) {
+            return;
+        }
+        computeR(order, factor, rScratch);
+        computeR(order, 1, uScratch);
+        int size = order + 1;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                double sum = 0;
+                for (int k = 0; k < size; k++) {
+                    sum += rScratch[i][k] * uScratch[k][j];
+                }
+                ruScratch[i][j] = sum;
+            }
+        }
+        double[][] D = differences;
+        int n = D[0].length;
+        for (int col = 0; col < n; col++) {
+            for (int i = 0; i < size; i++) {
+                double sum = 0;
+                for (int j = 0; j < size; j++) {
+                    sum += ruScratch[j][i] * D[j][col];
+                }
+                dScratch[i] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                D[i][col] = dScratch[i];
+            }
+        }
+        equalSteps = 0;
+    }
+
+    /**
+     * Fills {@code r} with the matrix that maps differences for step {@code h} to
+     * differences for step {@code factor * h}.
+     */
+    private static void computeR(int order, double factor, double[][] r) {
+        for (int j = 0; j <= order; j++) {
+            r[0][j] = 1;
+        }
+        for (int i = 1; i <= order; i++) {
+            r[i][0] = 0;
+            for (int j = 1; j <= order; j++) {
+                r[i][j] = r[i - 1][j] * (i - 1 - factor * j) / i;
+            }
+        }
+    }
+
+    private static double weightedNorm(double weight, double[] v, double[] scale) {
+        double sum = 0;
+        for (int i = 0; i < v.length; i++) {
+            double e = weight * v[i] / scale[i];
+            sum += e * e;
+        }
+        return Math.sqrt(sum / v.length);
+    }
+
+    private boolean continuesHistory(ODESystem system, double t, double[] y) {
+        return system.unwrap() == historySystem && t == historyTime && Arrays.equals(y, historyState);
+    }
+
+    private void remember(ODESystem system, double t, double[] y) {
+        historySystem = system.unwrap();
+        historyTime = t;
+        if (historyState == null || historyState.length != y.length) {
+            historyState = new double[y.length];
+        }
+        System.arraycopy(y, 0, historyState, 0, y.length);
+    }
+
+    /**
+     * Restarts at order 1 from {@code (t, y)}: {@code D[0] = y}, {@code D[1] = h f}.
+     */
+    private void start(ODESystem system, double t, double[] y, double tEnd, double[][] w) {
+        int n = y.length;
+        if (differences == null || differences[0].length != n) {
+            differences = new double[MAX_ORDER + 3][n];
+            jacobian = new double[n][n];
+            matrix = new double[n][n];
+        } else {
+            for (double[] row : differences) {
+                Arrays.fill(row, 0);
+            }
+        }
+        if (system.unwrap() != historySystem) {
+            jacobianValid = false;
+        }
+        double[] f = w[0];
+        system.computeDerivative(t, y, f);
+        h = InitialStepSize.estimate(system, t, y, tEnd - t, f, w[1], w[2],
+                absoluteTolerance, relativeTolerance, 1, maxStepSize);
+        System.arraycopy(y, 0, differences[0], 0, n);
+        for (int i = 0; i < n; i++) {
+            differences[1][i] = h * f[i];
+        }
+        order = 1;
+        equalSteps = 0;
+        factoredC = Double.NaN;
+    }
+
+    @Override
+    public double getStepStart() {
+        return stepStart;
+    }
+
+    @Override
+    public double getStepEnd() {
+        return Double.isNaN(stepStart) ? Double.NaN : historyTime;
+    }
+
+    @Override
+    public void interpolate(double t, double[] out) {
+        if (Double.isNaN(stepStart)) {
+            throw new IllegalStateException("No step has been taken yet");
+        }
+        double[][] D = differences;
+        System.arraycopy(D[0], 0, out, 0, out.length);
+        // Newton form through the last order + 1 solution points t_n, t_n - h, ...
+        double product = 1;
+        for (int j = 0; j < order; j++) {
+            product *= (t - (historyTime - h * j)) / (h * (j + 1));
+            double[] dj = D[j + 1];
+            for (int i = 0; i < out.length; i++) {
+                out[i] += product * dj[i];
+            }
+        }
+    }
+
+    @Override
+    public double getStepSize() {
+        return h;
+    }
+
+    /**
+     * @return order of the formula used for the next step
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    @Override
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    /**
+     * @return number of Jacobian evaluations since construction or the last {@link #reset()}
+     */
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    /**
+     * @return number of LU factorizations since construction or the last {@link #reset()}
+     */
+    public int getFactorizations() {
+        return factorizations;
+    }
+
+    @Override
+    public void reset() {
+        h = Double.NaN;
+        order = 0;
+        acceptedSteps = 0;
+        rejectedSteps = 0;
+        jacobianEvaluations = 0;
+        factorizations = 0;
+        jacobianValid = false;
+        factoredC = Double.NaN;
+        historySystem = null;
+        historyTime = Double.NaN;
+        stepStart = Double.NaN;
+    }
+
+    @Override
+    public void saveCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(acceptedSteps);
+        out.writeInt(rejectedSteps);
+        out.writeInt(jacobianEvaluations);
+        out.writeInt(factorizations);
+        boolean saveHistory = historySystem != null && !Double.isNaN(historyTime);
+        out.writeBoolean(saveHistory);
+        if (!saveHistory) {
+            return;
+        }
+        out.writeDouble(h);
+        out.writeInt(order);
+        out.writeInt(equalSteps);
+        out.writeDouble(historyTime);
+        Checkpointer.writeDoubles(out, historyState);
+        for (double[] row : differences) {
+            Checkpointer.writeDoubles(out, row);
+        }
+        out.writeBoolean(jacobianValid);
+        if (jacobianValid) {
+            for (double[] row : jacobian) {
+                Checkpointer.writeDoubles(out, row);
+            }
+            out.writeDouble(factoredC);
+        }
+    }
+
+    @Override
+    public void restoreCheckpoint(DataInput in, ODESystem system) throws IOException {
+        reset();
+        int accepted = in.readInt();
+        int rejected = in.readInt();
+        int evaluations = in.readInt();
+        int factored = in.readInt();
+        if (in.readBoolean()) {
+            h = in.readDouble();
+            order = in.readInt();
+            equalSteps = in.readInt();
+            double time = in.readDouble();
+            double[] state = Checkpointer.readDoubles(in);
+            int n = state.length;
+            differences = new double[MAX_ORDER + 3][n];
+            jacobian = new double[n][n];
+            matrix = new double[n][n];
+            for (double[] row : differences) {
+                Checkpointer.readDoubles(in, row);
+            }
+            remember(system, time, state);
+            jacobianValid = in.readBoolean();
+            if (jacobianValid) {
+                for (double[] row : jacobian) {
+                    Checkpointer.readDoubles(in, row);
+                }
+                double c = in.readDouble();
+                // LU factorization is deterministic, so refactoring gives the factors the run had
+                if (!Double.isNaN(c) && !factor(c)) {
+                    throw new IOException("Checkpointed iteration matrix is singular");
+                }
+            }
+        }
+        acceptedSteps = accepted;
+        rejectedSteps = rejected;
+        jacobianEvaluations = evaluations;
+        factorizations = factored;
+    }
+
+    /**
+     * @return the absolute error tolerance
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    /**
+     * @return the relative error tolerance
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.MultirateSystem;
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.utils.ParticleState;
+import io.github.rajveer.simplotode.utils.VectorOps;
+
+import java.util.Arrays;
+
+/**
+ * Multirate kick-drift-kick integrator with hierarchical block timesteps, for
+ * systems whose particles move on very different timescales (a moon and an outer
+ * planet).
+ * <p>
+ * Each call to {@link #step} advances the system by {@code dt}, within which every
+ * particle takes its own power-of-two substeps {@code dt / 2^level}, chosen so that
+ * {@code dt / 2^level <= eta * timescale}, with the timescale the system reports
+ * alongside each acceleration. All particles drift together, so positions stay
+ * synchronised; at the end of each substep only the particles whose substep ends
+ * there are active: their accelerations are evaluated against the current positions
+ * of all particles, and they get the closing half-kick of the old substep, a new
+ * level and the opening half-kick of the next substep. A particle may move to a
+ * shorter substep at any of its substep ends, e.g. approaching periapsis, and to a
+ * longer one only where that substep's block boundaries align. At the end of
+ * {@code dt} every particle is synchronised again.
+ * <p>
+ * With a single level this reduces to velocity Verlet. On hierarchical systems the
+ * number of particle force evaluations falls from {@code N * 2^maxLevel} per step to
+ * the sum of the individual substep counts, so {@code dt} is best set to the output
+ * interval rather than to the step of the fastest particle. Like
+ * {@link VelocityVerletIntegrator}, the accelerations at the end of a step are cached
+ * for the start of the next.
+ * <p>
+ * Level changes are not time-symmetric, so the energy error is no longer strictly
+ * bounded: a particle that changes level at the same orbital phase on every orbit,
+ * like a planet whose timescale follows its moon's distance, drifts slowly. Lowering
+ * {@code eta} moves such particles to deeper levels but does not remove the drift.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * BlockTimestepIntegrator integrator = new BlockTimestepIntegrator(0.02, 12);
+ * Integrator.run(solarSystem, integrator, state, 0, 365 * DAY, 8 * DAY, sink);
+ * System.out.println(integrator.getForceEvaluations() + " body force evaluations");
+ * </pre>
+ */
+public class BlockTimestepIntegrator implements SymplecticIntegrator {
+
+    private final double eta;
+    private final int maxLevel;
+
+    private double[] ax = new double[0], ay = ax, az = ax, timescale = ax;
+    private double[] cachedX = ax, cachedY = ax, cachedZ = ax;
+    private int[] level = new int[0];
+    private long[] stepEnd = new long[0];
+    private int[] active = level;
+    private SecondOrderSystem cachedSystem;
+    private double cachedTime = Double.NaN;
+    private long forceEvaluations;
+
+    /**
+     * @param eta      accuracy parameter: fraction of a particle's timescale its step
+     *                 may span, typically 0.01 to 0.05
+     * @param maxLevel deepest level, i.e. the shortest substep is {@code dt / 2^maxLevel};
+     *                 particles needing shorter steps are clamped to it
+     */
+    public BlockTimestepIntegrator(double eta, int maxLevel) {
+        if (!(eta > 0)) {
+            throw new IllegalArgumentException("eta must be positive: " + eta);
+        }
+        if (maxLevel < 0 || maxLevel > 40) {
+            throw new IllegalArgumentException("Maximum level must be between 0 and 40: " + maxLevel);
+        }
+        this.eta = eta;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the system is not a {@link MultirateSystem}
+     */
+    @Override
+    public void step(SecondOrderSystem system, double t, ParticleState state, double dt) {
+        if (!(system instanceof MultirateSystem multirate)) {
+            throw new IllegalArgumentException("Block timesteps need a MultirateSystem, got "
+                    + system.getClass().getSimpleName());
+        }
+        int n = state.size();
+        ensureCapacity(n);
+        long blocks = 1L << maxLevel;
+
+        if (!cacheValid(system, t, state)) {
+            for (int i = 0; i < n; i++) {
+                active[i] = i;
+            }
+            evaluate(multirate, t, state, n);
+        }
+        for (int i = 0; i < n; i++) {
+            level[i] = levelFor(i, dt, 0, blocks);
+            stepEnd[i] = blocks >> level[i];
+            kick(state, i, substep(dt, i) / 2);
+        }
+
+        long now = 0;
+        double tNow = t;
+        while (now < blocks) {
+            long next = blocks;
+            for (int i = 0; i < n; i++) {
+                next = Math.min(next, stepEnd[i]);
+            }
+            double tNext = next == blocks ? t + dt : t + dt * ((double) next / blocks);
+            drift(state, tNext - tNow);
+            now = next;
+            tNow = tNext;
+
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                if (stepEnd[i] == now) {
+                    active[count++] = i;
+                }
+            }
+            evaluate(multirate, tNow, state, count);
+            for (int k = 0; k < count; k++) {
+                int i = active[k];
+                kick(state, i, substep(dt, i) / 2);
+                if (now < blocks) {
+                    level[i] = levelFor(i, dt, now, blocks);
+                    stepEnd[i] = now + (blocks >> level[i]);
+                    kick(state, i, substep(dt, i) / 2);
+                }
+            }
+        }
+
+        remember(system, t + dt, state);
+    }
+
+    /**
+     * Forgets the cached accelerations, forcing a fresh evaluation on the next step.
+     */
+    public void reset() {
+        cachedSystem = null;
+    }
+
+    /**
+     * @return number of single-particle force evaluations since construction; a
+     *         shared-step integrator spends {@code N} per force evaluation
+     */
+    public long getForceEvaluations() {
+        return forceEvaluations;
+    }
+
+    /**
+     * @return the level each particle had at the end of the last step
+     */
+    public int[] getLevels() {
+        return level.clone();
+    }
+
+    /**
+     * Returns the lowest level giving particle {@code i} a substep of at most
+     * {@code eta} times its timescale, clamped to the maximum level. Within a step,
+     * the substep grows only if block {@code now} lies on a boundary of the longer one.
+     */
+    private int levelFor(int i, double dt, long now, long blocks) {
+        double allowed = eta * timescale[i];
+        int wanted = 0;
+        while (wanted < maxLevel && !(dt / (1L << wanted) <= allowed)) {
+            wanted++;
+        }
+        while (now > 0 && wanted < level[i] && now % (blocks >> wanted) != 0) {
+            wanted++;
+        }
+        return wanted;
+    }
+
+    private double substep(double dt, int i) {
+        return dt / (1L << level[i]);
+    }
+
+    private void evaluate(MultirateSystem system, double t, ParticleState state, int count) {
+        system.computeAcceleration(t, state.x, state.y, state.z, active, count, ax, ay, az, timescale);
+        forceEvaluations += count;
+    }
+
+    private void kick(ParticleState state, int i, double h) {
+        state.vx[i] += h * ax[i];
+        state.vy[i] += h * ay[i];
+        state.vz[i] += h * az[i];
+    }
+
+    private static void drift(ParticleState state, double h) {
+        VectorOps.axpy(state.x, h, state.vx);
+        VectorOps.axpy(state.y, h, state.vy);
+        VectorOps.axpy(state.z, h, state.vz);
+    }
+
+    private boolean cacheValid(SecondOrderSystem system, double t, ParticleState state) {
+        return system == cachedSystem && t == cachedTime
+                && Arrays.equals(state.x, cachedX)
+                && Arrays.equals(state.y, cachedY)
+                && Arrays.equals(state.z, cachedZ);
+    }
+
+    private void remember(SecondOrderSystem system, double t, ParticleState state) {
+        System.arraycopy(state.x, 0, cachedX, 0, cachedX.length);
+        System.arraycopy(state.y, 0, cachedY, 0, cachedY.length);
+        System.arraycopy(state.z, 0, cachedZ, 0, cachedZ.length);
+        cachedSystem = system;
+        cachedTime = t;
+    }
+
+    private void ensureCapacity(int n) {
+        if (ax.length != n) {
+            ax = new double[n];
+            ay = new double[n];
+            az = new double[n];
+            timescale = new double[n];
+            cachedX = new double[n];
+            cachedY = new double[n];
+            cachedZ = new double[n];
+            level = new int[n];
+            stepEnd = new long[n];
+            active = new int[n];
+            cachedSystem = null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A solver whose internal state between steps can be saved and restored, so that a
+ * {@link Checkpointer} can continue an interrupted run bit-identically.
+ * <p>
+ * The saved state covers everything the next step depends on: the proposed step
+ * size, controller history, first-same-as-last derivatives, multistep history and
+ * the Jacobian with its factorisation. Solvers without such state (the fixed-step
+ * Runge-Kutta methods) need not implement this interface.
+ */
+public interface CheckpointableSolver {
+
+    /**
+     * Writes the solver's state as it is between two steps.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    void saveCheckpoint(DataOutput out) throws IOException;
+
+    /**
+     * Restores a state written by {@link #saveCheckpoint(DataOutput)} on a solver of
+     * the same class and configuration. State tied to a system, such as a cached
+     * derivative, is attached to {@code system}.
+     *
+     * @param in     source
+     * @param system the system the run continues with
+     * @throws IOException if reading fails or the data is malformed
+     */
+    void restoreCheckpoint(DataInput in, ODESystem system) throws IOException;
+}
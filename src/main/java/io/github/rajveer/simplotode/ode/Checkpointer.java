@@ -0,0 +1,467 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.trajectory.ResumableSink;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+import io.github.rajveer.simplotode.utils.ParticleState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.zip.CRC32;
+
+/**
+ * Runs integrations like {@link Integrator} does, but saves the full integrator state
+ * to a checkpoint file periodically, and continues from that file when it exists.
+ * <p>
+ * A checkpoint holds the time, the step or sample index, the state, the solver's
+ * internal state ({@link CheckpointableSolver}: step size, controller and multistep
+ * history, FSAL derivative, Jacobian) and the sink's position ({@link ResumableSink},
+ * e.g. the record count and file offset of a {@link
+ * io.github.rajveer.simplotode.trajectory.BinaryTrajectoryWriter}). It is written to
+ * a temporary file, forced to disk and atomically renamed over the previous one, so a
+ * crash at any moment leaves a complete checkpoint behind. A CRC-32 guards against
+ * damaged files. Restarting continues bit-identically: the states after the restart
+ * are exactly those the uninterrupted run would have produced. The checkpoint is
+ * deleted when the run completes.
+ * <p>
+ * A checkpoint matches a run with the same kind of driver, solver class, dimension,
+ * {@code t0} and step; {@code tEnd} may differ, so a run can also be extended. Sinks
+ * that are not resumable are restarted with {@code begin} at the checkpoint time and
+ * receive the states from there on. Adaptive solvers must implement
+ * {@link CheckpointableSolver}; the fixed-step solvers and the symplectic integrators
+ * keep nothing between steps that is not recomputed identically from the state.
+ * <p>
+ * {@link #requestStop()}, e.g. from a shutdown hook, makes the run write a checkpoint
+ * at the next step and end with a {@link CancellationException}, which splits a long
+ * run across maintenance windows without losing any steps.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * Checkpointer checkpointer = new Checkpointer(Path.of("run.ckpt"), Duration.ofMinutes(10));
+ * try (BinaryTrajectoryWriter out = BinaryTrajectoryWriter.uniform(Path.of("run.trj"), dt)) {
+ *     checkpointer.run(solarSystem, new YoshidaIntegrator(6), state, t0, tEnd, dt, out);
+ * }
+ * </pre>
+ */
+public class Checkpointer {
+
+    private static final long MAGIC = 0x53494D50434B5031L; // "SIMPCKP1"
+    private static final int VERSION = 1;
+
+    private static final byte FIRST_ORDER = 1;
+    private static final byte DENSE = 2;
+    private static final byte SECOND_ORDER = 3;
+
+    private final Path file;
+    private final long intervalNanos;
+    private volatile boolean stopRequested;
+    private long lastCheckpoint;
+    private int checkpointsWritten;
+    private boolean resumed;
+
+    /**
+     * @param file     the checkpoint file; a temporary sibling is used while writing
+     * @param interval wall-clock time between checkpoints
+     */
+    public Checkpointer(Path file, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+        }
+        this.file = file;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @return the checkpoint file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return whether a checkpoint exists to continue from
+     */
+    public boolean hasCheckpoint() {
+        return Files.exists(file);
+    }
+
+    /**
+     * @return whether the last run continued from a checkpoint
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * @return number of checkpoints written by the last run
+     */
+    public int getCheckpointsWritten() {
+        return checkpointsWritten;
+    }
+
+    /**
+     * Asks the running integration to write a checkpoint and stop at its next step.
+     * May be called from any thread.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Checkpointed counterpart of
+     * {@link Integrator#run(ODESystem, ODESolver, double[], double, double, double, TrajectorySink)}.
+     *
+     * @return the state at {@code tEnd}
+     * @throws IOException           if a checkpoint cannot be read or written
+     * @throws IllegalStateException if the checkpoint belongs to a different run
+     * @throws CancellationException if {@link #requestStop()} stopped the run
+     */
+    public double[] run(ODESystem system, ODESolver solver, double[] y0,
+                        double t0, double tEnd, double dt, TrajectorySink sink) throws IOException {
+        Integrator.checkRange(t0, tEnd, dt);
+        checkSolver(solver);
+        double[] y = y0.clone();
+        long steps = Integrator.stepCount(t0, tEnd, dt);
+
+        Snapshot snapshot = load(FIRST_ORDER, solver, y.length, t0, dt);
+        long first = 0;
+        if (snapshot != null) {
+            first = snapshot.step;
+            if (first > steps) {
+                throw new IllegalStateException("Checkpoint at t = " + snapshot.time + " is beyond tEnd = " + tEnd);
+            }
+            System.arraycopy(snapshot.state, 0, y, 0, y.length);
+            restoreSolver(snapshot, solver, system);
+            restoreSink(snapshot, sink, y);
+        } else {
+            sink.begin(y.length, t0);
+            sink.accept(t0, y);
+        }
+
+        startClock();
+        for (long i = first; i < steps; i++) {
+            double t = t0 + i * dt;
+            if (due()) {
+                save(FIRST_ORDER, solver, sink, t0, dt, i, t, y);
+            }
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            solver.step(system, t, y, tNext - t);
+            sink.accept(tNext, y);
+        }
+        sink.end();
+        Files.deleteIfExists(file);
+        return y;
+    }
+
+    /**
+     * Checkpointed counterpart of the adaptive
+     * {@link Integrator#runDense(ODESystem, AdaptiveODESolver, double[], double, double, double, TrajectorySink)}.
+     *
+     * @return the state at {@code tEnd}
+     * @throws IOException           if a checkpoint cannot be read or written
+     * @throws IllegalStateException if the checkpoint belongs to a different run
+     * @throws CancellationException if {@link #requestStop()} stopped the run
+     */
+    public <S extends AdaptiveODESolver & DenseOutputSolver> double[] runDense(
+            ODESystem system, S solver, double[] y0, double t0, double tEnd,
+            double outputInterval, TrajectorySink sink) throws IOException {
+        Integrator.checkRange(t0, tEnd, outputInterval);
+        checkSolver(solver);
+        double[] y = y0.clone();
+        double[] sample = new double[y.length];
+        long samples = Integrator.stepCount(t0, tEnd, outputInterval);
+
+        Snapshot snapshot = load(DENSE, solver, y.length, t0, outputInterval);
+        double t = t0;
+        long next = 1;
+        if (snapshot != null) {
+            t = snapshot.time;
+            next = snapshot.step;
+            if (t > tEnd) {
+                throw new IllegalStateException("Checkpoint at t = " + t + " is beyond tEnd = " + tEnd);
+            }
+            System.arraycopy(snapshot.state, 0, y, 0, y.length);
+            restoreSolver(snapshot, solver, system);
+            restoreSink(snapshot, sink, null);
+        } else {
+            sink.begin(y.length, t0);
+            sink.accept(t0, y);
+        }
+
+        startClock();
+        while (t < tEnd) {
+            if (due()) {
+                save(DENSE, solver, sink, t0, outputInterval, next, t, y);
+            }
+            t = solver.adaptiveStep(system, t, y, tEnd);
+            next = Integrator.emitSamples(solver, y, t, t0, tEnd, outputInterval, samples, next, sample, sink);
+        }
+        sink.end();
+        Files.deleteIfExists(file);
+        return y;
+    }
+
+    /**
+     * Checkpointed counterpart of
+     * {@link Integrator#run(SecondOrderSystem, SymplecticIntegrator, ParticleState, double, double, double, TrajectorySink)}.
+     *
+     * @throws IOException           if a checkpoint cannot be read or written
+     * @throws IllegalStateException if the checkpoint belongs to a different run
+     * @throws CancellationException if {@link #requestStop()} stopped the run
+     */
+    public void run(SecondOrderSystem system, SymplecticIntegrator integrator, ParticleState state,
+                    double t0, double tEnd, double dt, TrajectorySink sink) throws IOException {
+        Integrator.checkRange(t0, tEnd, dt);
+        double[] packed = new double[6 * state.size()];
+        long steps = Integrator.stepCount(t0, tEnd, dt);
+
+        Snapshot snapshot = load(SECOND_ORDER, integrator, packed.length, t0, dt);
+        long first = 0;
+        if (snapshot != null) {
+            first = snapshot.step;
+            if (first > steps) {
+                throw new IllegalStateException("Checkpoint at t = " + snapshot.time + " is beyond tEnd = " + tEnd);
+            }
+            state.setFromPacked(snapshot.state);
+            state.toPacked(packed);
+            restoreSink(snapshot, sink, packed);
+        } else {
+            sink.begin(packed.length, t0);
+            state.toPacked(packed);
+            sink.accept(t0, packed);
+        }
+
+        startClock();
+        for (long i = first; i < steps; i++) {
+            double t = t0 + i * dt;
+            if (due()) {
+                state.toPacked(packed);
+                save(SECOND_ORDER, integrator, sink, t0, dt, i, t, packed);
+            }
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            integrator.step(system, t, state, tNext - t);
+            state.toPacked(packed);
+            sink.accept(tNext, packed);
+        }
+        sink.end();
+        Files.deleteIfExists(file);
+    }
+
+    private static void checkSolver(ODESolver solver) {
+        if (solver instanceof AdaptiveODESolver && !(solver instanceof CheckpointableSolver)) {
+            throw new IllegalArgumentException(solver.getClass().getSimpleName()
+                    + " keeps state between steps but cannot be checkpointed");
+        }
+    }
+
+    private void startClock() {
+        stopRequested = false;
+        checkpointsWritten = 0;
+        lastCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * @return whether a checkpoint is due before the next step, periodically or
+     *         because a stop was requested
+     */
+    private boolean due() {
+        return stopRequested || System.nanoTime() - lastCheckpoint >= intervalNanos;
+    }
+
+    /**
+     * Makes the sink durable, then writes the checkpoint beside the file and renames
+     * it into place.
+     */
+    private void save(byte kind, Object solver, TrajectorySink sink, double t0, double step,
+                      long index, double t, double[] state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 8 * state.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(kind);
+        out.writeUTF(solver.getClass().getName());
+        out.writeDouble(t0);
+        out.writeDouble(step);
+        out.writeLong(index);
+        out.writeDouble(t);
+        writeDoubles(out, state);
+        writeBlob(out, solver instanceof CheckpointableSolver checkpointable ? checkpointable::saveCheckpoint : null);
+        writeBlob(out, sink instanceof ResumableSink resumable ? resumable::saveCheckpoint : null);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        checkpointsWritten++;
+        lastCheckpoint = System.nanoTime();
+
+        if (stopRequested) {
+            throw new CancellationException("Stopped at t = " + t + "; checkpoint saved to " + file);
+        }
+    }
+
+    /**
+     * Reads and validates the checkpoint, or returns {@code null} if there is none.
+     */
+    private Snapshot load(byte kind, Object solver, int dimension, double t0, double step) throws IOException {
+        resumed = false;
+        if (!Files.exists(file)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < Long.BYTES) {
+            throw new IOException("Checkpoint " + file + " is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        in.skipNBytes(bytes.length - Long.BYTES);
+        if (in.readLong() != crc.getValue()) {
+            throw new IOException("Checkpoint " + file + " is damaged (CRC mismatch)");
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+        if (in.readLong() != MAGIC) {
+            throw new IOException(file + " is not a checkpoint file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + " in " + file);
+        }
+        Snapshot snapshot = new Snapshot();
+        byte savedKind = in.readByte();
+        String savedSolver = in.readUTF();
+        double savedT0 = in.readDouble();
+        double savedStep = in.readDouble();
+        snapshot.step = in.readLong();
+        snapshot.time = in.readDouble();
+        snapshot.state = readDoubles(in);
+        snapshot.solver = readBlob(in);
+        snapshot.sink = readBlob(in);
+
+        if (savedKind != kind || !savedSolver.equals(solver.getClass().getName())
+                || snapshot.state.length != dimension
+                || Double.compare(savedT0, t0) != 0 || Double.compare(savedStep, step) != 0) {
+            throw new IllegalStateException("Checkpoint " + file + " belongs to a different run (" + savedSolver
+                    + ", dimension " + snapshot.state.length + ", t0 = " + savedT0 + ", step = " + savedStep
+                    + "); delete it to start over");
+        }
+        resumed = true;
+        return snapshot;
+    }
+
+    private static void restoreSolver(Snapshot snapshot, ODESolver solver, ODESystem system) throws IOException {
+        if (solver instanceof CheckpointableSolver checkpointable && snapshot.solver != null) {
+            checkpointable.restoreCheckpoint(new DataInputStream(new ByteArrayInputStream(snapshot.solver)), system);
+        }
+    }
+
+    /**
+     * Resumes a resumable sink at its saved position; restarts any other sink at the
+     * checkpoint, with {@code current} as its first state unless it is {@code null}.
+     */
+    private static void restoreSink(Snapshot snapshot, TrajectorySink sink, double[] current) throws IOException {
+        if (sink instanceof ResumableSink resumable && snapshot.sink != null) {
+            resumable.restoreCheckpoint(new DataInputStream(new ByteArrayInputStream(snapshot.sink)));
+            return;
+        }
+        sink.begin(snapshot.state.length, snapshot.time);
+        sink.accept(snapshot.time, current != null ? current : snapshot.state);
+    }
+
+    @FunctionalInterface
+    private interface BlobWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    private static void writeBlob(DataOutputStream out, BlobWriter writer) throws IOException {
+        if (writer == null) {
+            out.writeInt(-1);
+            return;
+        }
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        DataOutputStream blobOut = new DataOutputStream(blob);
+        writer.write(blobOut);
+        blobOut.flush();
+        out.writeInt(blob.size());
+        blob.writeTo(out);
+    }
+
+    private static byte[] readBlob(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] blob = new byte[length];
+        in.readFully(blob);
+        return blob;
+    }
+
+    static void writeDoubles(DataOutput out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    static double[] readDoubles(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length in checkpoint");
+        }
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    /**
+     * Reads an array written by {@link #writeDoubles(DataOutput, double[])} into
+     * {@code target}, which must have the saved length.
+     */
+    static void readDoubles(DataInput in, double[] target) throws IOException {
+        int length = in.readInt();
+        if (length != target.length) {
+            throw new IOException("Checkpointed array has length " + length + ", expected " + target.length);
+        }
+        for (int i = 0; i < length; i++) {
+            target[i] = in.readDouble();
+        }
+    }
+
+    /**
+     * Contents of a checkpoint file.
+     */
+    private static final class Snapshot {
+        long step;
+        double time;
+        double[] state;
+        byte[] solver;
+        byte[] sink;
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * An ODE solver that can evaluate a continuous approximation of the solution anywhere
+ * within the step it took last ("dense output").
+ * <p>
+ * This decouples the output grid from the step size: the solver can take a few large
+ * steps while a plot or export samples the interpolant on a fine uniform grid, at the
+ * cost of a few vector operations per sample instead of extra derivative evaluations.
+ * For adaptive solvers the last step is the last internal step, so callers sampling
+ * a fine grid should drive them through
+ * {@link AdaptiveODESolver#adaptiveStep(io.github.rajveer.simplotode.systems.ODESystem, double, double[], double)}
+ * or {@link Integrator#runDense}.
+ * <p>
+ * The interpolant is only valid until the next step.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * DormandPrince54Solver solver = new DormandPrince54Solver();
+ * double t = solver.adaptiveStep(system, 0, y, 10);
+ * double[] yMid = new double[y.length];
+ * solver.interpolate(t / 2, yMid);
+ * </pre>
+ */
+public interface DenseOutputSolver extends ODESolver {
+
+    /**
+     * @return the time the last step started from, or {@code NaN} before the first step
+     */
+    double getStepStart();
+
+    /**
+     * @return the time the last step reached, or {@code NaN} before the first step
+     */
+    double getStepEnd();
+
+    /**
+     * Evaluates the interpolant of the last step.
+     *
+     * @param t   a time in {@code [getStepStart(), getStepEnd()]}
+     * @param out receives the approximate state at {@code t}
+     * @throws IllegalStateException if no step has been taken yet
+     */
+    void interpolate(double t, double[] out);
+}
@@ -0,0 +1,63 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * Adaptive Dormand-Prince 5(4) solver, the method behind MATLAB's {@code ode45}.
+ * <p>
+ * Seven stages produce a 5th-order solution, which is propagated, and an embedded
+ * 4th-order solution used only for error control. The seventh stage is evaluated at
+ * the new solution (FSAL), so an accepted step costs six derivative evaluations.
+ * Dense output uses the method's 4th-order continuous extension.
+ */
+public class DormandPrince54Solver extends EmbeddedRungeKuttaSolver {
+
+    private static final double[] C = {0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1, 1};
+
+    private static final double[][] A = {
+            {},
+            {1.0 / 5},
+            {3.0 / 40, 9.0 / 40},
+            {44.0 / 45, -56.0 / 15, 32.0 / 9},
+            {19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729},
+            {9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656},
+            {35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84}
+    };
+
+    private static final double[] B = {35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84, 0};
+
+    /** Difference between the 5th- and 4th-order weights. */
+    private static final double[] E = {
+            71.0 / 57600, 0, -71.0 / 16695, 71.0 / 1920, -17253.0 / 339200, 22.0 / 525, -1.0 / 40
+    };
+
+    /**
+     * Continuous extension of order 4 (Shampine, 1986): one row of polynomial
+     * coefficients in θ, θ², θ³, θ⁴ per stage.
+     */
+    private static final double[][] DENSE = {
+            {1, -8048581381.0 / 2820520608.0, 8663915743.0 / 2820520608.0, -12715105075.0 / 11282082432.0},
+            {0, 0, 0, 0},
+            {0, 131558114200.0 / 32700410799.0, -68118460800.0 / 10900136933.0, 87487479700.0 / 32700410799.0},
+            {0, -1754552775.0 / 470086768.0, 14199869525.0 / 1410260304.0, -10690763975.0 / 1880347072.0},
+            {0, 127303824393.0 / 49829197408.0, -318862633887.0 / 49829197408.0, 701980252875.0 / 199316789632.0},
+            {0, -282668133.0 / 205662961.0, 2019193451.0 / 616988883.0, -1453857185.0 / 822651844.0},
+            {0, 40617522.0 / 29380423.0, -110615467.0 / 29380423.0, 69997945.0 / 29380423.0}
+    };
+
+    /**
+     * Creates a Dormand-Prince solver with default tolerances
+     * (absolute 1e-9, relative 1e-6).
+     */
+    public DormandPrince54Solver() {
+        this(1e-9, 1e-6);
+    }
+
+    /**
+     * Creates a Dormand-Prince solver with the given tolerances.
+     *
+     * @param absoluteTolerance absolute error tolerance per component
+     * @param relativeTolerance relative error tolerance per component
+     */
+    public DormandPrince54Solver(double absoluteTolerance, double relativeTolerance) {
+        super(C, A, B, E, DENSE, 4, true, absoluteTolerance, relativeTolerance);
+    }
+}
@@ -0,0 +1,388 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.VectorOps;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Base class for explicit embedded Runge-Kutta pairs with automatic step-size control.
+ * <p>
+ * Each step computes two solutions of different order from the same stages; their
+ * difference estimates the local error, which is measured in the weighted RMS norm
+ * <pre>
+ * err = sqrt( mean( (e_i / (atol + rtol * max(|y_i|, |y_new,i|)))^2 ) )
+ * </pre>
+ * A step is accepted when {@code err <= 1}. The next step size comes from a PI
+ * controller (Gustafsson), which damps the step-size oscillations a plain
+ * I-controller shows near stability limits.
+ * <p>
+ * Methods with the FSAL ("first same as last") property reuse the final stage of
+ * an accepted step as the first stage of the next one, saving one derivative
+ * evaluation per step.
+ * <p>
+ * Dense output uses the pair's native continuous extension when the subclass
+ * supplies one. Otherwise it is cubic Hermite interpolation between the step's end
+ * points, which costs one derivative evaluation per step that is actually sampled
+ * (none for FSAL methods).
+ * <p>
+ * The step size, controller history and FSAL derivative can be checkpointed, so an
+ * interrupted run continues exactly as if it had not stopped.
+ * <p>
+ * Subclasses only supply the Butcher tableau. Instances keep per-solver workspace
+ * and controller state and must not be shared between threads.
+ */
+public abstract class EmbeddedRungeKuttaSolver
+        implements AdaptiveODESolver, DenseOutputSolver, CheckpointableSolver {
+
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 10.0;
+    private static final double PI_BETA = 0.04;
+
+    private final double[] c;
+    private final double[][] a;
+    private final double[] b;
+    private final double[] e;
+    private final double[][] dense;
+    private final boolean fsal;
+    private final int errorOrder;
+    private final double alpha;
+    private final double rejectExponent;
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private double maxStepSize = Double.POSITIVE_INFINITY;
+
+    private final SolverWorkspace workspace;
+
+    private double h = Double.NaN;
+    private double previousError = 1e-4;
+    private int acceptedSteps;
+    private int rejectedSteps;
+
+    private boolean fsalValid;
+    private ODESystem fsalSystem;
+    private double fsalTime;
+
+    private double stepStart = Double.NaN;
+    private double stepEnd = Double.NaN;
+    private double stepSize;
+    private ODESystem stepSystem;
+    private boolean endDerivativeValid;
+    private final double[] denseWeights;
+    private final double[][] denseStages;
+
+    /**
+     * Creates an embedded Runge-Kutta solver from its Butcher tableau.
+     *
+     * @param c                 stage nodes
+     * @param a                 stage coefficients; row {@code i} has {@code i} entries
+     * @param b                 weights of the propagated solution
+     * @param e                 error weights, i.e. {@code b - bHat}
+     * @param errorOrder        order of the lower-order solution of the pair
+     * @param fsal              whether the last stage is evaluated at the new solution
+     * @param absoluteTolerance absolute error tolerance per component
+     * @param relativeTolerance relative error tolerance per component
+     */
+    protected EmbeddedRungeKuttaSolver(double[] c, double[][] a, double[] b, double[] e, int errorOrder,
+                                       boolean fsal, double absoluteTolerance, double relativeTolerance) {
+        this(c, a, b, e, null, errorOrder, fsal, absoluteTolerance, relativeTolerance);
+    }
+
+    /**
+     * Creates an embedded Runge-Kutta solver with a native continuous extension.
+     * The interpolant at {@code t + θh} is {@code y + h Σ_i k_i Σ_p dense[i][p] θ^(p+1)}.
+     *
+     * @param c                 stage nodes
+     * @param a                 stage coefficients; row {@code i} has {@code i} entries
+     * @param b                 weights of the propagated solution
+     * @param e                 error weights, i.e. {@code b - bHat}
+     * @param dense             polynomial coefficients of the dense output per stage,
+     *                          or {@code null} for Hermite interpolation
+     * @param errorOrder        order of the lower-order solution of the pair
+     * @param fsal              whether the last stage is evaluated at the new solution
+     * @param absoluteTolerance absolute error tolerance per component
+     * @param relativeTolerance relative error tolerance per component
+     */
+    protected EmbeddedRungeKuttaSolver(double[] c, double[][] a, double[] b, double[] e, double[][] dense,
+                                       int errorOrder, boolean fsal,
+                                       double absoluteTolerance, double relativeTolerance) {
+        if (absoluteTolerance < 0 || relativeTolerance < 0 || absoluteTolerance + relativeTolerance == 0) {
+            throw new IllegalArgumentException("Tolerances must be non-negative and not both zero");
+        }
+        this.c = c;
+        this.a = a;
+        this.b = b;
+        this.e = e;
+        this.dense = dense;
+        this.fsal = fsal;
+        this.errorOrder = errorOrder;
+        this.alpha = 1.0 / (errorOrder + 1) - 0.75 * PI_BETA;
+        this.rejectExponent = 1.0 / (errorOrder + 1);
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        // stages k_1..k_s, stage input, candidate solution, start of the last step, f at its end
+        this.workspace = new SolverWorkspace(c.length + 4);
+        this.denseWeights = new double[c.length];
+        this.denseStages = new double[c.length][];
+    }
+
+    /**
+     * Limits the internal step size, e.g. to avoid stepping over short forcing pulses.
+     *
+     * @param maxStepSize largest step the controller may take
+     */
+    public void setMaxStepSize(double maxStepSize) {
+        if (!(maxStepSize > 0)) {
+            throw new IllegalArgumentException("Maximum step size must be positive: " + maxStepSize);
+        }
+        this.maxStepSize = maxStepSize;
+    }
+
+    /**
+     * Integrates from {@code t} to exactly {@code t + dt} with as many adaptive
+     * steps as the tolerances require.
+     *
+     * @param system the ODE system
+     * @param t current time
+     * @param y current state, overwritten with y(t + dt)
+     * @param dt output interval
+     */
+    @Override
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        double tEnd = t + dt;
+        while (t < tEnd) {
+            t = adaptiveStep(system, t, y, tEnd);
+        }
+    }
+
+    @Override
+    public double adaptiveStep(ODESystem system, double t, double[] y, double tEnd) {
+        int n = y.length;
+        int stages = c.length;
+        double[][] w = workspace.buffers(n);
+        double[] stage = w[stages];
+        double[] yNew = w[stages + 1];
+
+        if (!(fsalValid && system.unwrap() == fsalSystem && t == fsalTime && Arrays.equals(y, yNew))) {
+            system.computeDerivative(t, y, w[0]);
+        }
+        if (Double.isNaN(h)) {
+            h = InitialStepSize.estimate(system, t, y, tEnd - t, w[0], stage, yNew,
+                    absoluteTolerance, relativeTolerance, errorOrder, maxStepSize);
+        }
+
+        while (true) {
+            double remaining = tEnd - t;
+            double hTry = Math.min(h, maxStepSize);
+            boolean last = hTry >= remaining;
+            double hStep = last ? remaining : hTry;
+            if (Double.isNaN(hStep)) {
+                throw new IllegalStateException("Derivative is not finite at t = " + t);
+            }
+            if (t + hStep == t) {
+                throw new IllegalStateException("Step size underflow at t = " + t);
+            }
+
+            for (int i = 1; i < stages; i++) {
+                VectorOps.linearCombination(stage, y, hStep, a[i], w, i);
+                system.computeDerivative(t + c[i] * hStep, stage, w[i]);
+            }
+            if (fsal) {
+                // the last stage was evaluated at the propagated solution itself
+                System.arraycopy(stage, 0, yNew, 0, n);
+            } else {
+                VectorOps.linearCombination(yNew, y, hStep, b, w, stages);
+            }
+
+            double err = errorNorm(y, yNew, w, hStep);
+            if (err <= 1.0) {
+                double factor = SAFETY * Math.pow(err, -alpha) * Math.pow(previousError, PI_BETA);
+                factor = Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, factor));
+                previousError = Math.max(err, 1e-4);
+                // a step clipped to land on tEnd says little about the natural step size
+                if (!last || hStep >= h) {
+                    h = Math.min(hStep * factor, maxStepSize);
+                }
+                acceptedSteps++;
+
+                double tNew = last ? tEnd : t + hStep;
+                System.arraycopy(y, 0, w[stages + 2], 0, n);
+                System.arraycopy(yNew, 0, y, 0, n);
+                stepStart = t;
+                stepEnd = tNew;
+                stepSize = hStep;
+                stepSystem = system;
+                endDerivativeValid = false;
+                if (fsal) {
+                    double[] first = w[0];
+                    w[0] = w[stages - 1];
+                    w[stages - 1] = first;
+                    fsalValid = true;
+                    fsalSystem = system.unwrap();
+                    fsalTime = tNew;
+                }
+                return tNew;
+            }
+
+            rejectedSteps++;
+            // a non-finite error halves the step until the solution is finite again or
+            // the step underflows
+            double factor = Double.isFinite(err) ? Math.max(MIN_FACTOR, SAFETY * Math.pow(err, -rejectExponent)) : 0.5;
+            h = hStep * Math.min(1.0, factor);
+        }
+    }
+
+    @Override
+    public double getStepStart() {
+        return stepStart;
+    }
+
+    @Override
+    public double getStepEnd() {
+        return stepEnd;
+    }
+
+    @Override
+    public void interpolate(double t, double[] out) {
+        if (Double.isNaN(stepStart)) {
+            throw new IllegalStateException("No step has been taken yet");
+        }
+        int stages = c.length;
+        double[][] w = workspace.buffers(out.length);
+        double[] yOld = w[stages + 2], yEnd = w[stages + 1];
+        // FSAL swapped k_1 and k_s after the step
+        double[] first = fsal ? w[stages - 1] : w[0];
+        double theta = (t - stepStart) / stepSize;
+
+        if (dense == null) {
+            double[] fEnd;
+            if (fsal) {
+                fEnd = w[0];
+            } else {
+                fEnd = w[stages + 3];
+                if (!endDerivativeValid) {
+                    stepSystem.computeDerivative(stepEnd, yEnd, fEnd);
+                    endDerivativeValid = true;
+                }
+            }
+            HermiteInterpolation.interpolate(stepSize, yOld, first, yEnd, fEnd, theta, out);
+            return;
+        }
+
+        for (int i = 0; i < stages; i++) {
+            double[] coefficients = dense[i];
+            double weight = 0, power = theta;
+            for (double coefficient : coefficients) {
+                weight += coefficient * power;
+                power *= theta;
+            }
+            denseWeights[i] = weight;
+            denseStages[i] = w[i];
+        }
+        denseStages[0] = first;
+        if (fsal) {
+            denseStages[stages - 1] = w[0];
+        }
+        VectorOps.linearCombination(out, yOld, stepSize, denseWeights, denseStages, stages);
+    }
+
+    @Override
+    public double getStepSize() {
+        return h;
+    }
+
+    @Override
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    @Override
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    @Override
+    public void reset() {
+        h = Double.NaN;
+        previousError = 1e-4;
+        acceptedSteps = 0;
+        rejectedSteps = 0;
+        fsalValid = false;
+        fsalSystem = null;
+        stepStart = Double.NaN;
+        stepEnd = Double.NaN;
+        stepSystem = null;
+    }
+
+    @Override
+    public void saveCheckpoint(DataOutput out) throws IOException {
+        out.writeDouble(h);
+        out.writeDouble(previousError);
+        out.writeInt(acceptedSteps);
+        out.writeInt(rejectedSteps);
+        boolean saveFsal = fsalValid && fsalSystem != null;
+        out.writeBoolean(saveFsal);
+        if (saveFsal) {
+            double[][] w = workspace.buffers(workspace.dimension());
+            out.writeDouble(fsalTime);
+            Checkpointer.writeDoubles(out, w[0]);
+            Checkpointer.writeDoubles(out, w[c.length + 1]);
+        }
+    }
+
+    @Override
+    public void restoreCheckpoint(DataInput in, ODESystem system) throws IOException {
+        reset();
+        h = in.readDouble();
+        previousError = in.readDouble();
+        acceptedSteps = in.readInt();
+        rejectedSteps = in.readInt();
+        if (in.readBoolean()) {
+            fsalTime = in.readDouble();
+            double[] derivative = Checkpointer.readDoubles(in);
+            double[][] w = workspace.buffers(derivative.length);
+            System.arraycopy(derivative, 0, w[0], 0, derivative.length);
+            Checkpointer.readDoubles(in, w[c.length + 1]);
+            fsalValid = true;
+            fsalSystem = system.unwrap();
+        }
+    }
+
+    /**
+     * @return the absolute error tolerance
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    /**
+     * @return the relative error tolerance
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+
+    /**
+     * Weighted RMS norm of the embedded error estimate {@code h * sum(e_j * k_j)}.
+     */
+    private double errorNorm(double[] y, double[] yNew, double[][] k, double hStep) {
+        int n = y.length;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double ei = 0;
+            for (int j = 0; j < e.length; j++) {
+                if (e[j] == 0) continue;
+                ei += e[j] * k[j][i];
+            }
+            double scale = absoluteTolerance + relativeTolerance * Math.max(Math.abs(y[i]), Math.abs(yNew[i]));
+            double ratio = hStep * ei / scale;
+            sum += ratio * ratio;
+        }
+        return Math.sqrt(sum / n);
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.EnsembleSystem;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+import io.github.rajveer.simplotode.utils.VectorOps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * Integrates every member of an {@link EnsembleSystem} with classical RK4, on all
+ * cores.
+ * <p>
+ * Members are split into chunks of {@code chunkSize}, and each chunk is integrated
+ * from {@code t0} to {@code tEnd} by one fork/join task, so workers never wait on each
+ * other between steps. Inside a chunk the states are held as structure-of-arrays
+ * blocks, {@code y[component][member]}, and every RK stage is one loop over members
+ * per component, run through the {@link VectorOps} kernels. Each member gets the
+ * same result as {@link RK4Solver} applied to it alone.
+ * <p>
+ * Each member is reduced to {@link EnsembleStatistics}; full trajectories can be
+ * streamed for selected members through per-member {@link TrajectorySink}s, which are
+ * called from worker threads (one thread per sink).
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * EnsembleSystem sir = new SIREnsemble(k, gamma, mu);
+ * EnsembleStatistics stats = new EnsembleSolver().solve(sir, y0, 0, 100, 0.1);
+ * double peak = stats.getMax(member, 1);
+ * </pre>
+ */
+public class EnsembleSolver {
+
+    /** Default number of members integrated together by one task. */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private static final double[] WEIGHTS = {1, 2, 2, 1};
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a solver running on the common fork/join pool.
+     */
+    public EnsembleSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a solver running on the given pool.
+     *
+     * @param pool      the pool executing the chunk tasks
+     * @param chunkSize number of members per task
+     */
+    public EnsembleSolver(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Integrates all members and returns their statistics.
+     *
+     * @param system the ensemble
+     * @param y0     initial states, {@code y0[component][member]} (not modified)
+     * @param t0     initial time
+     * @param tEnd   final time
+     * @param dt     time step
+     * @return per-member statistics
+     */
+    public EnsembleStatistics solve(EnsembleSystem system, double[][] y0, double t0, double tEnd, double dt) {
+        return solve(system, y0, t0, tEnd, dt, member -> null);
+    }
+
+    /**
+     * Integrates all members, streaming the trajectories of selected members.
+     *
+     * @param system      the ensemble
+     * @param y0          initial states, {@code y0[component][member]} (not modified)
+     * @param t0          initial time
+     * @param tEnd        final time
+     * @param dt          time step
+     * @param memberSinks gives the sink of a member, or {@code null} for members whose
+     *                    trajectory is not needed
+     * @return per-member statistics
+     */
+    public EnsembleStatistics solve(EnsembleSystem system, double[][] y0, double t0, double tEnd, double dt,
+                                    IntFunction<TrajectorySink> memberSinks) {
+        int dimension = system.getDimension();
+        int members = system.getMemberCount();
+        if (y0.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " initial components, got " + y0.length);
+        }
+        for (double[] component : y0) {
+            if (component.length != members) {
+                throw new IllegalArgumentException("Expected " + members + " initial values per component");
+            }
+        }
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Time step must be positive: " + dt);
+        }
+        if (tEnd < t0) {
+            throw new IllegalArgumentException("Final time " + tEnd + " is before initial time " + t0);
+        }
+
+        EnsembleStatistics stats = new EnsembleStatistics(dimension, members);
+        long steps = Integrator.stepCount(t0, tEnd, dt);
+
+        List<RecursiveAction> chunks = new ArrayList<>();
+        for (int from = 0; from < members; from += chunkSize) {
+            int offset = from;
+            int length = Math.min(chunkSize, members - from);
+            chunks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    integrateChunk(system, y0, offset, length, t0, tEnd, dt, steps, memberSinks, stats);
+                }
+            });
+        }
+        if (chunks.size() == 1) {
+            chunks.get(0).invoke();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+        }
+        return stats;
+    }
+
+    private static void integrateChunk(EnsembleSystem system, double[][] y0, int offset, int length,
+                                       double t0, double tEnd, double dt, long steps,
+                                       IntFunction<TrajectorySink> memberSinks, EnsembleStatistics stats) {
+        int dimension = y0.length;
+        double[][] y = new double[dimension][];
+        for (int c = 0; c < dimension; c++) {
+            y[c] = new double[length];
+            System.arraycopy(y0[c], offset, y[c], 0, length);
+        }
+        double[][][] k = new double[4][dimension][length];
+        double[][] stage = new double[dimension][length];
+        double[][] kc = new double[4][];
+        double[][] sum = new double[dimension][length];
+
+        TrajectorySink[] sinks = new TrajectorySink[length];
+        double[] memberState = new double[dimension];
+        for (int j = 0; j < length; j++) {
+            sinks[j] = memberSinks.apply(offset + j);
+            if (sinks[j] != null) {
+                sinks[j].begin(dimension, t0);
+            }
+        }
+
+        for (int c = 0; c < dimension; c++) {
+            System.arraycopy(y[c], 0, stats.min[c], offset, length);
+            System.arraycopy(y[c], 0, stats.max[c], offset, length);
+            Arrays.fill(stats.timeOfMax[c], offset, offset + length, t0);
+            System.arraycopy(y[c], 0, sum[c], 0, length);
+        }
+        emit(sinks, t0, y, memberState);
+
+        for (long i = 0; i < steps; i++) {
+            double t = t0 + i * dt;
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            double h = tNext - t;
+            double half = h / 2;
+
+            system.computeDerivatives(t, y, k[0], offset, length);
+            for (int c = 0; c < dimension; c++) VectorOps.addScaled(stage[c], y[c], half, k[0][c]);
+            system.computeDerivatives(t + half, stage, k[1], offset, length);
+            for (int c = 0; c < dimension; c++) VectorOps.addScaled(stage[c], y[c], half, k[1][c]);
+            system.computeDerivatives(t + half, stage, k[2], offset, length);
+            for (int c = 0; c < dimension; c++) VectorOps.addScaled(stage[c], y[c], h, k[2][c]);
+            system.computeDerivatives(t + h, stage, k[3], offset, length);
+
+            for (int c = 0; c < dimension; c++) {
+                for (int s = 0; s < 4; s++) {
+                    kc[s] = k[s][c];
+                }
+                VectorOps.linearCombination(y[c], y[c], h / 6.0, WEIGHTS, kc, 4);
+
+                double[] yc = y[c], minC = stats.min[c], maxC = stats.max[c], sumC = sum[c];
+                double[] tMaxC = stats.timeOfMax[c];
+                for (int j = 0; j < length; j++) {
+                    double v = yc[j];
+                    int m = offset + j;
+                    minC[m] = Math.min(minC[m], v);
+                    if (v > maxC[m]) {
+                        maxC[m] = v;
+                        tMaxC[m] = tNext;
+                    }
+                    sumC[j] += v;
+                }
+            }
+            emit(sinks, tNext, y, memberState);
+        }
+
+        double samples = steps + 1;
+        for (int c = 0; c < dimension; c++) {
+            System.arraycopy(y[c], 0, stats.finalState[c], offset, length);
+            for (int j = 0; j < length; j++) {
+                stats.mean[c][offset + j] = sum[c][j] / samples;
+            }
+        }
+        for (TrajectorySink sink : sinks) {
+            if (sink != null) {
+                sink.end();
+            }
+        }
+    }
+
+    private static void emit(TrajectorySink[] sinks, double t, double[][] y, double[] memberState) {
+        for (int j = 0; j < sinks.length; j++) {
+            if (sinks[j] == null) {
+                continue;
+            }
+            for (int c = 0; c < y.length; c++) {
+                memberState[c] = y[c][j];
+            }
+            sinks[j].accept(t, memberState);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * Per-member summary of an ensemble run: the final state and, for every component,
+ * the minimum, maximum, time of the maximum and mean over all output samples
+ * (including the initial state).
+ * <p>
+ * Values are stored component-major, {@code [component][member]}, like the ensemble
+ * state itself.
+ */
+public class EnsembleStatistics {
+
+    private final int dimension;
+    private final int members;
+
+    final double[][] finalState;
+    final double[][] min;
+    final double[][] max;
+    final double[][] timeOfMax;
+    final double[][] mean;
+
+    EnsembleStatistics(int dimension, int members) {
+        this.dimension = dimension;
+        this.members = members;
+        this.finalState = new double[dimension][members];
+        this.min = new double[dimension][members];
+        this.max = new double[dimension][members];
+        this.timeOfMax = new double[dimension][members];
+        this.mean = new double[dimension][members];
+    }
+
+    /**
+     * @return number of state components per member
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return number of members
+     */
+    public int getMemberCount() {
+        return members;
+    }
+
+    /**
+     * @return the member's component at the final time
+     */
+    public double getFinal(int member, int component) {
+        return finalState[component][member];
+    }
+
+    /**
+     * @return the smallest sampled value of the member's component
+     */
+    public double getMin(int member, int component) {
+        return min[component][member];
+    }
+
+    /**
+     * @return the largest sampled value of the member's component
+     */
+    public double getMax(int member, int component) {
+        return max[component][member];
+    }
+
+    /**
+     * @return the first time at which the member's component reached its maximum,
+     *         e.g. the epidemic peak for the infected fraction
+     */
+    public double getTimeOfMax(int member, int component) {
+        return timeOfMax[component][member];
+    }
+
+    /**
+     * @return the mean of the member's component over all samples
+     */
+    public double getMean(int member, int component) {
+        return mean[component][member];
+    }
+}
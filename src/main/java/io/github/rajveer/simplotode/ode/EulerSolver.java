@@ -1,7 +1,7 @@
 package io.github.rajveer.simplotode.ode;
 
 import io.github.rajveer.simplotode.systems.ODESystem;
-import io.github.rajveer.simplotode.utils.Vector;
+import io.github.rajveer.simplotode.utils.VectorOps;
 
 /**
  * A simple Euler method ODE solver.
@@ -9,18 +9,21 @@ import io.github.rajveer.simplotode.utils.Vector;
  */
 public class EulerSolver implements ODESolver {
 
+    private final SolverWorkspace workspace = new SolverWorkspace(1);
+
     /**
-     * Perform one Euler integration step.
+     * Perform one Euler integration step in place.
      *
      * @param system the ODE system
      * @param t current time
-     * @param y current state vector
+     * @param y current state, overwritten with y(t + dt)
      * @param dt time step
-     * @return new state vector y(t + dt)
      */
     @Override
-    public Vector step(ODESystem system, double t, Vector y, double dt) {
-        Vector dy = system.computeDerivative(t, y);
-        return y.add(dy.scale(dt));
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        double[] dy = workspace.buffers(y.length)[0];
+
+        system.computeDerivative(t, y, dy);
+        VectorOps.axpy(y, dt, dy);
     }
 }
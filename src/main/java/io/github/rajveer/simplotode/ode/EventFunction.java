@@ -0,0 +1,16 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * A scalar function {@code g(t, y)} whose zero crossings mark an event, e.g.
+ * {@code y[1] - 0.001} for the infected fraction of an SIR model reaching 0.1%.
+ */
+@FunctionalInterface
+public interface EventFunction {
+
+    /**
+     * @param t time
+     * @param y state at {@code t}; must not be modified
+     * @return the event function value; events occur where it changes sign
+     */
+    double value(double t, double[] y);
+}
@@ -0,0 +1,136 @@
+package io.github.rajveer.simplotode.ode;
+
+import java.util.List;
+
+/**
+ * Detects event-function sign changes across each step and locates them on the
+ * solver's dense output.
+ * <p>
+ * A crossing is bracketed by the values at the two ends of the step and refined by
+ * the Illinois variant of regula falsi, which keeps the bracket while converging
+ * superlinearly, down to a few ulps of the event time. The located time is the end of
+ * the final bracket on the far side of the crossing, so the state reported at an
+ * event has already crossed. An event function changing sign twice within one step
+ * goes unnoticed; limit the step size if crossings can be that close.
+ */
+final class EventLocator {
+
+    private static final int MAX_ITERATIONS = 100;
+
+    private final StateEvent[] events;
+    private final double[] previous;
+    private final double[] current;
+    private final double[] roots;
+    private final int[] order;
+    private final double[] scratch;
+    private final EventResult result;
+
+    EventLocator(List<StateEvent> events, double t0, double[] y0) {
+        int count = events.size();
+        this.events = events.toArray(new StateEvent[0]);
+        this.previous = new double[count];
+        this.current = new double[count];
+        this.roots = new double[count];
+        this.order = new int[count];
+        this.scratch = new double[y0.length];
+        this.result = new EventResult(events);
+        for (int i = 0; i < count; i++) {
+            previous[i] = this.events[i].getFunction().value(t0, y0);
+        }
+    }
+
+    EventResult result() {
+        return result;
+    }
+
+    /**
+     * Examines the step from {@code tStart} to {@code tEnd} that {@code solver} just
+     * took and records the occurrences in it in time order.
+     *
+     * @param y the state at {@code tEnd}; replaced with the state at the event if a
+     *          terminal event fires
+     * @return the time of the terminal event that fired, or {@code NaN}
+     */
+    double afterStep(DenseOutputSolver solver, double tStart, double tEnd, double[] y) {
+        int found = 0;
+        for (int i = 0; i < events.length; i++) {
+            StateEvent event = events[i];
+            double value = event.getFunction().value(tEnd, y);
+            current[i] = value;
+            if (event.triggers(previous[i], value)) {
+                roots[i] = value == 0 ? tEnd : locate(event.getFunction(), solver, tStart, previous[i], tEnd, value);
+                // insertion sort by time; stable, so ties keep the declaration order
+                int j = found++;
+                while (j > 0 && roots[order[j - 1]] > roots[i]) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = i;
+            }
+        }
+
+        for (int k = 0; k < found; k++) {
+            int i = order[k];
+            result.record(i, roots[i]);
+            StateEvent event = events[i];
+            if (event.isTerminal() && result.count(i) == event.getTerminalOccurrence()) {
+                double t = roots[i];
+                if (t != tEnd) {
+                    solver.interpolate(t, y);
+                }
+                result.finish(t, y, event);
+                return t;
+            }
+        }
+        System.arraycopy(current, 0, previous, 0, current.length);
+        return Double.NaN;
+    }
+
+    /**
+     * Finds the crossing of {@code g} in {@code [a, b]}, where {@code ga} and
+     * {@code gb} are on opposite sides of zero.
+     */
+    private double locate(EventFunction g, DenseOutputSolver solver, double a, double ga, double b, double gb) {
+        int retained = 0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double tolerance = 4 * Math.ulp(Math.max(Math.abs(a), Math.abs(b)));
+            if (b - a <= tolerance) {
+                break;
+            }
+            double c = b - gb * (b - a) / (gb - ga);
+            if (!(c > a && c < b)) {
+                c = 0.5 * (a + b);
+            }
+            solver.interpolate(c, scratch);
+            double gc = g.value(c, scratch);
+            if (gc == 0) {
+                return c;
+            }
+            if ((gc < 0) == (ga < 0)) {
+                a = c;
+                ga = gc;
+                // b kept twice in a row: halve its weight (Illinois) to avoid one-sided convergence
+                if (retained == 1) {
+                    gb *= 0.5;
+                }
+                retained = 1;
+            } else {
+                b = c;
+                gb = gc;
+                if (retained == -1) {
+                    ga *= 0.5;
+                }
+                retained = -1;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Completes the result of a run that reached its end time.
+     */
+    EventResult finish(double t, double[] y) {
+        result.finish(t, y, null);
+        return result;
+    }
+}
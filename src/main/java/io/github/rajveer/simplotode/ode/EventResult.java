@@ -0,0 +1,110 @@
+package io.github.rajveer.simplotode.ode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Outcome of an integration with events: where it stopped, why, and when each event
+ * occurred.
+ * <p>
+ * Only occurrence times are kept, one {@code double} each, so counting e.g. spikes
+ * over a long run needs no trajectory storage.
+ */
+public class EventResult {
+
+    private final List<StateEvent> events;
+    private final double[][] times;
+    private final int[] counts;
+    private double finalTime;
+    private double[] finalState;
+    private StateEvent terminatedBy;
+
+    EventResult(List<StateEvent> events) {
+        this.events = List.copyOf(events);
+        this.times = new double[events.size()][4];
+        this.counts = new int[events.size()];
+    }
+
+    void record(int event, double t) {
+        if (counts[event] == times[event].length) {
+            times[event] = Arrays.copyOf(times[event], 2 * counts[event]);
+        }
+        times[event][counts[event]++] = t;
+    }
+
+    int count(int event) {
+        return counts[event];
+    }
+
+    void finish(double t, double[] y, StateEvent terminal) {
+        finalTime = t;
+        finalState = y.clone();
+        terminatedBy = terminal;
+    }
+
+    /**
+     * @return the time the run stopped at, {@code tEnd} unless a terminal event fired
+     */
+    public double getFinalTime() {
+        return finalTime;
+    }
+
+    /**
+     * @return a copy of the state at {@link #getFinalTime()}
+     */
+    public double[] getFinalState() {
+        return finalState.clone();
+    }
+
+    /**
+     * @return whether a terminal event stopped the run before {@code tEnd}
+     */
+    public boolean isTerminated() {
+        return terminatedBy != null;
+    }
+
+    /**
+     * @return the event that stopped the run, or {@code null}
+     */
+    public StateEvent getTerminatingEvent() {
+        return terminatedBy;
+    }
+
+    /**
+     * @return how often the event occurred
+     * @throws IllegalArgumentException if the event was not part of the run
+     */
+    public int getCount(StateEvent event) {
+        return counts[indexOf(event)];
+    }
+
+    /**
+     * @return the occurrence times of the event, in increasing order
+     * @throws IllegalArgumentException if the event was not part of the run
+     */
+    public double[] getTimes(StateEvent event) {
+        int index = indexOf(event);
+        return Arrays.copyOf(times[index], counts[index]);
+    }
+
+    private int indexOf(StateEvent event) {
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i) == event) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Event was not part of this run: " + event);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("EventResult[t=").append(finalTime);
+        if (terminatedBy != null) {
+            sb.append(", stopped by ").append(terminatedBy);
+        }
+        for (int i = 0; i < events.size(); i++) {
+            sb.append(", ").append(events.get(i)).append(": ").append(counts[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
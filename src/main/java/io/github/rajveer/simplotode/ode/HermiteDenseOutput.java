@@ -0,0 +1,107 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+import java.util.Arrays;
+
+/**
+ * Adds cubic Hermite dense output to any solver, e.g. the fixed-step Euler, Heun and
+ * Ralston solvers, which have no interpolant of their own.
+ * <p>
+ * The end-point derivatives are evaluated lazily, only for steps that are actually
+ * sampled, and the derivative at the end of one step is reused as the start of the
+ * next. Sampling every step thus costs about one derivative evaluation per step.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * DenseOutputSolver solver = new HermiteDenseOutput(new HeunSolver());
+ * solver.step(system, 0, y, 0.5);
+ * solver.interpolate(0.25, yMid);
+ * </pre>
+ */
+public class HermiteDenseOutput implements DenseOutputSolver {
+
+    private final ODESolver solver;
+
+    private double[] yStart;
+    private double[] fStart;
+    private double[] yEnd;
+    private double[] fEnd;
+    private boolean startDerivativeValid;
+    private boolean endDerivativeValid;
+
+    private ODESystem stepSystem;
+    private double stepStart = Double.NaN;
+    private double stepEnd = Double.NaN;
+
+    /**
+     * @param solver the solver whose steps are interpolated
+     */
+    public HermiteDenseOutput(ODESolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Steps the wrapped solver and remembers the end points of the step.
+     */
+    @Override
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        int n = y.length;
+        if (yStart == null || yStart.length != n) {
+            yStart = new double[n];
+            fStart = new double[n];
+            yEnd = new double[n];
+            fEnd = new double[n];
+            endDerivativeValid = false;
+        }
+        boolean continues = endDerivativeValid && system.unwrap() == stepSystem.unwrap() && t == stepEnd && Arrays.equals(y, yEnd);
+        if (continues) {
+            double[] swap = fStart;
+            fStart = fEnd;
+            fEnd = swap;
+        }
+        startDerivativeValid = continues;
+        endDerivativeValid = false;
+
+        System.arraycopy(y, 0, yStart, 0, n);
+        solver.step(system, t, y, dt);
+        System.arraycopy(y, 0, yEnd, 0, n);
+        stepSystem = system;
+        stepStart = t;
+        stepEnd = t + dt;
+    }
+
+    @Override
+    public double getStepStart() {
+        return stepStart;
+    }
+
+    @Override
+    public double getStepEnd() {
+        return stepEnd;
+    }
+
+    @Override
+    public void interpolate(double t, double[] out) {
+        if (Double.isNaN(stepStart)) {
+            throw new IllegalStateException("No step has been taken yet");
+        }
+        if (!startDerivativeValid) {
+            stepSystem.computeDerivative(stepStart, yStart, fStart);
+            startDerivativeValid = true;
+        }
+        if (!endDerivativeValid) {
+            stepSystem.computeDerivative(stepEnd, yEnd, fEnd);
+            endDerivativeValid = true;
+        }
+        double h = stepEnd - stepStart;
+        HermiteInterpolation.interpolate(h, yStart, fStart, yEnd, fEnd, (t - stepStart) / h, out);
+    }
+
+    /**
+     * @return the wrapped solver
+     */
+    public ODESolver getSolver() {
+        return solver;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * Cubic Hermite interpolation between two states and their derivatives, the dense
+ * output of solvers without a native interpolant. Third-order accurate, and C¹ across
+ * steps because neighbouring steps share the end-point derivative.
+ */
+final class HermiteInterpolation {
+
+    private HermiteInterpolation() {
+    }
+
+    /**
+     * Evaluates the cubic through {@code (t0, y0, f0)} and {@code (t0 + h, y1, f1)}.
+     *
+     * @param theta normalized time {@code (t - t0) / h}
+     * @param out   receives the interpolated state
+     */
+    static void interpolate(double h, double[] y0, double[] f0, double[] y1, double[] f1,
+                            double theta, double[] out) {
+        // Hairer, Nørsett and Wanner, "Solving ODEs I", eq. II.6.7
+        double s = theta - 1;
+        double a = theta * s * (1 - 2 * theta);
+        double b = theta * s * s * h;
+        double c = theta * theta * s * h;
+        for (int i = 0; i < out.length; i++) {
+            double dy = y1[i] - y0[i];
+            out[i] = y0[i] + theta * dy + a * dy + b * f0[i] + c * f1[i];
+        }
+    }
+}
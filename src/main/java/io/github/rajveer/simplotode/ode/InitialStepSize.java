@@ -0,0 +1,56 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.VectorOps;
+
+/**
+ * Initial step-size heuristic from Hairer, Nørsett and Wanner, "Solving Ordinary
+ * Differential Equations I", section II.4, shared by the adaptive solvers.
+ */
+final class InitialStepSize {
+
+    private InitialStepSize() {
+    }
+
+    /**
+     * Proposes a first step size. Costs one extra derivative evaluation.
+     *
+     * @param span     length of the interval to integrate
+     * @param f0       {@code f(t, y)}, already evaluated
+     * @param y1       scratch buffer
+     * @param f1       scratch buffer
+     * @param order    order of the error estimate used by the solver's controller
+     * @param maxStep  largest allowed step
+     * @return the proposed step size
+     */
+    static double estimate(ODESystem system, double t, double[] y, double span, double[] f0,
+                           double[] y1, double[] f1, double absoluteTolerance, double relativeTolerance,
+                           int order, double maxStep) {
+        int n = y.length;
+        double d0 = 0, d1 = 0;
+        for (int i = 0; i < n; i++) {
+            double scale = absoluteTolerance + relativeTolerance * Math.abs(y[i]);
+            d0 += (y[i] / scale) * (y[i] / scale);
+            d1 += (f0[i] / scale) * (f0[i] / scale);
+        }
+        d0 = Math.sqrt(d0 / n);
+        d1 = Math.sqrt(d1 / n);
+        double h0 = (d0 < 1e-5 || d1 < 1e-5) ? 1e-6 : 0.01 * d0 / d1;
+        h0 = Math.min(h0, span);
+
+        VectorOps.addScaled(y1, y, h0, f0);
+        system.computeDerivative(t + h0, y1, f1);
+        double d2 = 0;
+        for (int i = 0; i < n; i++) {
+            double scale = absoluteTolerance + relativeTolerance * Math.abs(y[i]);
+            double diff = (f1[i] - f0[i]) / scale;
+            d2 += diff * diff;
+        }
+        d2 = Math.sqrt(d2 / n) / h0;
+
+        double h1 = Math.max(d1, d2) <= 1e-15
+                ? Math.max(1e-6, h0 * 1e-3)
+                : Math.pow(0.01 / Math.max(d1, d2), 1.0 / (order + 1));
+        return Math.min(Math.min(100 * h0, h1), maxStep);
+    }
+}
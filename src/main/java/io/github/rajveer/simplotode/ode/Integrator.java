@@ -0,0 +1,421 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+import io.github.rajveer.simplotode.utils.ParticleState;
+
+import java.util.List;
+
+/**
+ * Drives a solver from {@code t0} to {@code tEnd} and streams every state to a
+ * {@link TrajectorySink}.
+ * <p>
+ * The driver keeps exactly one state array, which it advances in place, so memory
+ * use is independent of the run length; what is retained is up to the sink. Times
+ * are computed as {@code t0 + i * dt} rather than accumulated, and the final step is
+ * shortened so the run ends exactly at {@code tEnd}.
+ * <p>
+ * The {@code runDense} variants decouple the output grid from the step size: the
+ * solver steps on its own schedule and the sink receives samples of its dense output
+ * on a uniform grid, so a smooth plot no longer requires a small step.
+ * <p>
+ * The {@code runWithEvents} variants watch {@link StateEvent}s, locate their
+ * crossings on the dense output, and stop early at terminal events.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * RingBufferSink tail = new RingBufferSink(1000);
+ * double[] yEnd = Integrator.run(system, new RK4Solver(), y0, 0, 100, 0.01, tail);
+ * </pre>
+ */
+public final class Integrator {
+
+    private Integrator() {
+    }
+
+    /**
+     * Integrates an ODE system and streams the states, including the initial one.
+     *
+     * @param system the ODE system
+     * @param solver the solver; adaptive solvers treat {@code dt} as the output interval
+     * @param y0     initial state (not modified)
+     * @param t0     initial time
+     * @param tEnd   final time
+     * @param dt     time step
+     * @param sink   receives every state
+     * @return the state at {@code tEnd}
+     */
+    public static double[] run(ODESystem system, ODESolver solver, double[] y0,
+                               double t0, double tEnd, double dt, TrajectorySink sink) {
+        checkRange(t0, tEnd, dt);
+        double[] y = y0.clone();
+        long steps = stepCount(t0, tEnd, dt);
+
+        sink.begin(y.length, t0);
+        sink.accept(t0, y);
+        advance(system, solver, y, t0, 0, steps, tEnd, dt, sink);
+        sink.end();
+        return y;
+    }
+
+    /**
+     * Continues a run of
+     * {@link #run(ODESystem, ODESolver, double[], double, double, double, TrajectorySink)}
+     * from one of its states and streams the states after it. The steps stay on the
+     * grid {@code t0 + i * dt} of the original run, so continuing from any of its
+     * states yields the same trajectory as running from {@code t0} in one go.
+     *
+     * @param system the ODE system
+     * @param solver the solver
+     * @param y      state at {@code t} (not modified)
+     * @param t0     initial time of the original run
+     * @param t      time of {@code y}, a multiple of {@code dt} after {@code t0}
+     * @param tEnd   final time
+     * @param dt     time step
+     * @param sink   receives every state after {@code t}
+     * @return the state at {@code tEnd}
+     */
+    public static double[] resume(ODESystem system, ODESolver solver, double[] y, double t0, double t,
+                                  double tEnd, double dt, TrajectorySink sink) {
+        checkRange(t0, t, dt);
+        checkRange(t, tEnd, dt);
+        long first = Math.round((t - t0) / dt);
+        if (t0 + first * dt != t) {
+            throw new IllegalArgumentException("Time " + t + " is not on the grid of step " + dt + " from " + t0);
+        }
+        double[] state = y.clone();
+        long steps = stepCount(t0, tEnd, dt);
+
+        sink.begin(state.length, t);
+        advance(system, solver, state, t0, first, steps, tEnd, dt, sink);
+        sink.end();
+        return state;
+    }
+
+    /**
+     * Takes steps {@code first} to {@code steps - 1} of the grid {@code t0 + i * dt}.
+     */
+    private static void advance(ODESystem system, ODESolver solver, double[] y, double t0, long first,
+                                long steps, double tEnd, double dt, TrajectorySink sink) {
+        for (long i = first; i < steps; i++) {
+            double t = t0 + i * dt;
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            solver.step(system, t, y, tNext - t);
+            sink.accept(tNext, y);
+        }
+    }
+
+    /**
+     * Integrates with a fixed step {@code dt} and streams the solution sampled every
+     * {@code outputInterval}, including the initial state. Solvers without a native
+     * interpolant are wrapped in a {@link HermiteDenseOutput}. An adaptive solver with
+     * dense output takes its own steps within each {@code dt}, and every sample is
+     * interpolated within the internal step that contains it.
+     *
+     * @param system         the ODE system
+     * @param solver         the solver
+     * @param y0             initial state (not modified)
+     * @param t0             initial time
+     * @param tEnd           final time
+     * @param dt             time step
+     * @param outputInterval spacing of the output samples, independent of {@code dt}
+     * @param sink           receives the samples
+     * @return the state at {@code tEnd}
+     */
+    public static double[] runDense(ODESystem system, ODESolver solver, double[] y0, double t0, double tEnd,
+                                    double dt, double outputInterval, TrajectorySink sink) {
+        checkRange(t0, tEnd, dt);
+        checkRange(t0, tEnd, outputInterval);
+        DenseOutputSolver dense = solver instanceof DenseOutputSolver d ? d : new HermiteDenseOutput(solver);
+        AdaptiveODESolver adaptive = adaptiveDense(solver);
+        double[] y = y0.clone();
+        double[] sample = new double[y.length];
+        long steps = stepCount(t0, tEnd, dt);
+        long samples = stepCount(t0, tEnd, outputInterval);
+        long next = 1;
+
+        sink.begin(y.length, t0);
+        sink.accept(t0, y);
+        for (long i = 0; i < steps; i++) {
+            double t = t0 + i * dt;
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            if (adaptive == null) {
+                dense.step(system, t, y, tNext - t);
+                next = emitSamples(dense, y, tNext, t0, tEnd, outputInterval, samples, next, sample, sink);
+                continue;
+            }
+            // the interpolant only covers the last internal step, so sample after each one
+            while (t < tNext) {
+                t = adaptive.adaptiveStep(system, t, y, tNext);
+                next = emitSamples(dense, y, t, t0, tEnd, outputInterval, samples, next, sample, sink);
+            }
+        }
+        sink.end();
+        return y;
+    }
+
+    /**
+     * Integrates with an adaptive solver taking its natural step sizes, and streams the
+     * solution sampled every {@code outputInterval}, including the initial state.
+     * <p>
+     * Unlike {@link #run(ODESystem, ODESolver, double[], double, double, double, TrajectorySink)},
+     * the solver never shortens a step to hit an output time, so a fine output grid
+     * costs no extra steps.
+     *
+     * @param system         the ODE system
+     * @param solver         an adaptive solver with dense output
+     * @param y0             initial state (not modified)
+     * @param t0             initial time
+     * @param tEnd           final time
+     * @param outputInterval spacing of the output samples
+     * @param sink           receives the samples
+     * @return the state at {@code tEnd}
+     */
+    public static <S extends AdaptiveODESolver & DenseOutputSolver> double[] runDense(
+            ODESystem system, S solver, double[] y0, double t0, double tEnd,
+            double outputInterval, TrajectorySink sink) {
+        checkRange(t0, tEnd, outputInterval);
+        double[] y = y0.clone();
+        double[] sample = new double[y.length];
+        long samples = stepCount(t0, tEnd, outputInterval);
+        long next = 1;
+
+        sink.begin(y.length, t0);
+        sink.accept(t0, y);
+        double t = t0;
+        while (t < tEnd) {
+            t = solver.adaptiveStep(system, t, y, tEnd);
+            next = emitSamples(solver, y, t, t0, tEnd, outputInterval, samples, next, sample, sink);
+        }
+        sink.end();
+        return y;
+    }
+
+    /**
+     * Continues a run of
+     * {@link #runDense(ODESystem, AdaptiveODESolver, double[], double, double, double, TrajectorySink)}
+     * from where its solver stopped, e.g. at the end of a shorter run, and streams the
+     * samples after that point. The samples stay on the grid
+     * {@code t0 + i * outputInterval} of the original run, wherever it stopped.
+     *
+     * @param system         the ODE system
+     * @param solver         the solver of the original run, carrying its step-size history
+     * @param y              state at {@code t} (not modified)
+     * @param t0             initial time of the original run
+     * @param t              time the solver stopped at
+     * @param tEnd           final time
+     * @param outputInterval spacing of the output samples
+     * @param sink           receives the samples after {@code t}
+     * @return the state at {@code tEnd}
+     */
+    public static <S extends AdaptiveODESolver & DenseOutputSolver> double[] resumeDense(
+            ODESystem system, S solver, double[] y, double t0, double t, double tEnd,
+            double outputInterval, TrajectorySink sink) {
+        checkRange(t0, t, outputInterval);
+        checkRange(t, tEnd, outputInterval);
+        double[] state = y.clone();
+        double[] sample = new double[state.length];
+        long samples = stepCount(t0, tEnd, outputInterval);
+        // the first sample after t; the estimate only errs low, by rounding
+        long next = Math.max(1, (long) ((t - t0) / outputInterval) - 1);
+        while (next <= samples && (next == samples ? tEnd : t0 + next * outputInterval) <= t) {
+            next++;
+        }
+
+        sink.begin(state.length, t);
+        while (t < tEnd) {
+            t = solver.adaptiveStep(system, t, state, tEnd);
+            next = emitSamples(solver, state, t, t0, tEnd, outputInterval, samples, next, sample, sink);
+        }
+        sink.end();
+        return state;
+    }
+
+    /**
+     * Integrates with a fixed step {@code dt} while watching events, and streams every
+     * step. A terminal event ends the run at the event, whose state is then the last
+     * one streamed. Solvers without a native interpolant are wrapped in a
+     * {@link HermiteDenseOutput} for locating the events. An adaptive solver with dense
+     * output takes its own steps within each {@code dt}, and events are located on the
+     * interpolant of each of them.
+     *
+     * <p><b>Usage Example:</b>
+     * <pre>
+     * StateEvent over = StateEvent.falling("I &lt; 0.1%", (t, y) -&gt; y[1] - 1e-3).terminal();
+     * EventResult result = Integrator.runWithEvents(sir, new RK4Solver(), y0, 0, 1000, 0.1,
+     *         List.of(over), (t, y) -&gt; { });
+     * double end = result.getFinalTime();
+     * </pre>
+     *
+     * @param system the ODE system
+     * @param solver the solver
+     * @param y0     initial state (not modified)
+     * @param t0     initial time
+     * @param tEnd   final time, reached unless a terminal event fires first
+     * @param dt     time step
+     * @param events the events to watch
+     * @param sink   receives every state
+     * @return where and why the run stopped, and the occurrences of every event
+     */
+    public static EventResult runWithEvents(ODESystem system, ODESolver solver, double[] y0, double t0,
+                                            double tEnd, double dt, List<StateEvent> events, TrajectorySink sink) {
+        checkRange(t0, tEnd, dt);
+        DenseOutputSolver dense = solver instanceof DenseOutputSolver d ? d : new HermiteDenseOutput(solver);
+        AdaptiveODESolver adaptive = adaptiveDense(solver);
+        double[] y = y0.clone();
+        EventLocator locator = new EventLocator(events, t0, y);
+        long steps = stepCount(t0, tEnd, dt);
+
+        sink.begin(y.length, t0);
+        sink.accept(t0, y);
+        for (long i = 0; i < steps; i++) {
+            double t = t0 + i * dt;
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            double tEvent = Double.NaN;
+            if (adaptive == null) {
+                dense.step(system, t, y, tNext - t);
+                tEvent = locator.afterStep(dense, t, tNext, y);
+            } else {
+                // the interpolant only covers the last internal step, so check after each one
+                while (t < tNext && Double.isNaN(tEvent)) {
+                    double tStart = t;
+                    t = adaptive.adaptiveStep(system, t, y, tNext);
+                    tEvent = locator.afterStep(dense, tStart, t, y);
+                }
+            }
+            if (!Double.isNaN(tEvent)) {
+                sink.accept(tEvent, y);
+                sink.end();
+                return locator.result();
+            }
+            sink.accept(tNext, y);
+        }
+        sink.end();
+        return locator.finish(tEnd, y);
+    }
+
+    /**
+     * Integrates with an adaptive solver while watching events, and streams every
+     * accepted step. A terminal event ends the run at the event, whose state is then
+     * the last one streamed.
+     *
+     * @param system the ODE system
+     * @param solver an adaptive solver with dense output
+     * @param y0     initial state (not modified)
+     * @param t0     initial time
+     * @param tEnd   final time, reached unless a terminal event fires first
+     * @param events the events to watch
+     * @param sink   receives every accepted state
+     * @return where and why the run stopped, and the occurrences of every event
+     */
+    public static <S extends AdaptiveODESolver & DenseOutputSolver> EventResult runWithEvents(
+            ODESystem system, S solver, double[] y0, double t0, double tEnd,
+            List<StateEvent> events, TrajectorySink sink) {
+        if (tEnd < t0) {
+            throw new IllegalArgumentException("Final time " + tEnd + " is before initial time " + t0);
+        }
+        double[] y = y0.clone();
+        EventLocator locator = new EventLocator(events, t0, y);
+
+        sink.begin(y.length, t0);
+        sink.accept(t0, y);
+        double t = t0;
+        while (t < tEnd) {
+            double tStart = t;
+            t = solver.adaptiveStep(system, t, y, tEnd);
+            double tEvent = locator.afterStep(solver, tStart, t, y);
+            if (!Double.isNaN(tEvent)) {
+                sink.accept(tEvent, y);
+                sink.end();
+                return locator.result();
+            }
+            sink.accept(t, y);
+        }
+        sink.end();
+        return locator.finish(t, y);
+    }
+
+    /**
+     * @return the solver as an {@link AdaptiveODESolver} if it also has dense output,
+     *         whose interpolant then only covers its last internal step; otherwise null
+     */
+    static AdaptiveODESolver adaptiveDense(ODESolver solver) {
+        return solver instanceof AdaptiveODESolver adaptive && solver instanceof DenseOutputSolver ? adaptive : null;
+    }
+
+    /**
+     * Streams the output samples up to {@code stepEnd}, taking the state itself for a
+     * sample that falls exactly on the end of the step.
+     *
+     * @return index of the first sample not yet emitted
+     */
+    static long emitSamples(DenseOutputSolver solver, double[] y, double stepEnd,
+                                    double t0, double tEnd, double outputInterval, long samples, long next,
+                                    double[] sample, TrajectorySink sink) {
+        for (; next <= samples; next++) {
+            double ts = next == samples ? tEnd : t0 + next * outputInterval;
+            if (ts > stepEnd) {
+                break;
+            }
+            if (ts == stepEnd) {
+                sink.accept(ts, y);
+            } else {
+                solver.interpolate(ts, sample);
+                sink.accept(ts, sample);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Integrates a second-order system with a symplectic integrator and streams the
+     * states, including the initial one, in the packed {@code [x, y, z, vx, vy, vz]}
+     * per-body layout.
+     *
+     * @param system     the second-order system
+     * @param integrator the symplectic integrator
+     * @param state      initial state, advanced in place to {@code tEnd}
+     * @param t0         initial time
+     * @param tEnd       final time
+     * @param dt         time step
+     * @param sink       receives every state
+     */
+    public static void run(SecondOrderSystem system, SymplecticIntegrator integrator, ParticleState state,
+                           double t0, double tEnd, double dt, TrajectorySink sink) {
+        checkRange(t0, tEnd, dt);
+        double[] packed = new double[6 * state.size()];
+        long steps = stepCount(t0, tEnd, dt);
+
+        sink.begin(packed.length, t0);
+        state.toPacked(packed);
+        sink.accept(t0, packed);
+        for (long i = 0; i < steps; i++) {
+            double t = t0 + i * dt;
+            double tNext = i + 1 == steps ? tEnd : t0 + (i + 1) * dt;
+            integrator.step(system, t, state, tNext - t);
+            state.toPacked(packed);
+            sink.accept(tNext, packed);
+        }
+        sink.end();
+    }
+
+    /**
+     * Number of steps of size {@code dt} needed to reach {@code tEnd}, ignoring a
+     * remainder that is only floating-point noise.
+     */
+    static long stepCount(double t0, double tEnd, double dt) {
+        double exact = (tEnd - t0) / dt;
+        long steps = (long) Math.ceil(exact - 1e-9);
+        return Math.max(steps, 0);
+    }
+
+    static void checkRange(double t0, double tEnd, double dt) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Time step must be positive: " + dt);
+        }
+        if (tEnd < t0) {
+            throw new IllegalArgumentException("Final time " + tEnd + " is before initial time " + t0);
+        }
+    }
+}
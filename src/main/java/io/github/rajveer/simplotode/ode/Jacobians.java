@@ -0,0 +1,47 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+/**
+ * Jacobian evaluation for the implicit solvers: the system's analytic Jacobian when
+ * it has one, forward finite differences otherwise.
+ */
+final class Jacobians {
+
+    private static final double UNIT_ROUNDOFF = Math.ulp(1.0);
+
+    private Jacobians() {
+    }
+
+    /**
+     * Computes {@code J = df/dy} at {@code (t, y)}.
+     *
+     * @param f0       {@code f(t, y)}, already evaluated
+     * @param dfdy     output matrix
+     * @param yScratch scratch buffer of the state dimension
+     * @param fScratch scratch buffer of the state dimension
+     * @return number of derivative evaluations spent
+     */
+    static int compute(ODESystem system, double t, double[] y, double[] f0, double[][] dfdy,
+                       double[] yScratch, double[] fScratch) {
+        if (system.hasJacobian()) {
+            system.computeJacobian(t, y, dfdy);
+            return 0;
+        }
+        int n = y.length;
+        System.arraycopy(y, 0, yScratch, 0, n);
+        for (int j = 0; j < n; j++) {
+            double yj = y[j];
+            // increment as in Hairer & Wanner's RADAU5; rounded so it is exactly representable
+            double delta = Math.sqrt(UNIT_ROUNDOFF * Math.max(1e-5, Math.abs(yj)));
+            delta = (yj + delta) - yj;
+            yScratch[j] = yj + delta;
+            system.computeDerivative(t, yScratch, fScratch);
+            for (int i = 0; i < n; i++) {
+                dfdy[i][j] = (fScratch[i] - f0[i]) / delta;
+            }
+            yScratch[j] = yj;
+        }
+        return n;
+    }
+}
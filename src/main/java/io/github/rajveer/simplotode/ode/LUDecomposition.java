@@ -0,0 +1,101 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * Dense LU factorization with partial pivoting, {@code P A = L U}, for the Newton
+ * matrices of the implicit solvers.
+ * <p>
+ * The factors are stored in place of a private copy of the matrix, so one instance
+ * can be factored repeatedly without allocating and solved against many right-hand
+ * sides per factorization.
+ */
+final class LUDecomposition {
+
+    private double[][] lu;
+    private int[] pivot;
+
+    /**
+     * Factors {@code a}, which is left unchanged.
+     *
+     * @param a square matrix
+     * @return {@code false} if the matrix is numerically singular
+     */
+    boolean factor(double[][] a) {
+        int n = a.length;
+        if (lu == null || lu.length != n) {
+            lu = new double[n][n];
+            pivot = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a[i], 0, lu[i], 0, n);
+        }
+
+        for (int k = 0; k < n; k++) {
+            int p = k;
+            double largest = Math.abs(lu[k][k]);
+            for (int i = k + 1; i < n; i++) {
+                double v = Math.abs(lu[i][k]);
+                if (v > largest) {
+                    largest = v;
+                    p = i;
+                }
+            }
+            pivot[k] = p;
+            if (largest == 0 || !Double.isFinite(largest)) {
+                return false;
+            }
+            if (p != k) {
+                double[] row = lu[p];
+                lu[p] = lu[k];
+                lu[k] = row;
+            }
+
+            double[] rowK = lu[k];
+            double inv = 1.0 / rowK[k];
+            for (int i = k + 1; i < n; i++) {
+                double[] rowI = lu[i];
+                double m = rowI[k] * inv;
+                rowI[k] = m;
+                if (m == 0) continue;
+                for (int j = k + 1; j < n; j++) {
+                    rowI[j] -= m * rowK[j];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves {@code A x = b} in place using the last factorization.
+     *
+     * @param b right-hand side, overwritten with the solution
+     */
+    void solve(double[] b) {
+        int n = lu.length;
+        for (int k = 0; k < n; k++) {
+            int p = pivot[k];
+            if (p != k) {
+                double tmp = b[p];
+                b[p] = b[k];
+                b[k] = tmp;
+            }
+        }
+        // forward substitution with unit lower triangle
+        for (int i = 1; i < n; i++) {
+            double[] row = lu[i];
+            double sum = b[i];
+            for (int j = 0; j < i; j++) {
+                sum -= row[j] * b[j];
+            }
+            b[i] = sum;
+        }
+        // back substitution
+        for (int i = n - 1; i >= 0; i--) {
+            double[] row = lu[i];
+            double sum = b[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= row[j] * b[j];
+            }
+            b[i] = sum / row[i];
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.utils.ParticleState;
+import io.github.rajveer.simplotode.utils.VectorOps;
+
+/**
+ * Second-order leapfrog integrator in drift-kick-drift form:
+ * <pre>
+ * r += dt/2 * v
+ * v += dt * a(r)
+ * r += dt/2 * v
+ * </pre>
+ * Each step costs exactly one force evaluation, at the midpoint, with no caching
+ * between steps.
+ */
+public class LeapfrogIntegrator implements SymplecticIntegrator {
+
+    private double[] ax = new double[0], ay = ax, az = ax;
+
+    @Override
+    public void step(SecondOrderSystem system, double t, ParticleState state, double dt) {
+        int n = state.size();
+        if (ax.length != n) {
+            ax = new double[n];
+            ay = new double[n];
+            az = new double[n];
+        }
+
+        double half = dt / 2;
+        drift(state, half);
+        system.computeAcceleration(t + half, state.x, state.y, state.z, ax, ay, az);
+        VectorOps.axpy(state.vx, dt, ax);
+        VectorOps.axpy(state.vy, dt, ay);
+        VectorOps.axpy(state.vz, dt, az);
+        drift(state, half);
+    }
+
+    private static void drift(ParticleState state, double h) {
+        VectorOps.axpy(state.x, h, state.vx);
+        VectorOps.axpy(state.y, h, state.vy);
+        VectorOps.axpy(state.z, h, state.vz);
+    }
+}
@@ -4,8 +4,24 @@ import io.github.rajveer.simplotode.systems.ODESystem;
 import io.github.rajveer.simplotode.utils.Vector;
 
 public interface ODESolver {
+    /**
+     * Perform one step of the ODE solver in place.
+     * <p>
+     * Implementations keep their stage buffers in a per-solver workspace, so
+     * repeated calls do not allocate. A solver instance must therefore not be
+     * shared between threads.
+     *
+     * @param system the ODE system
+     * @param t current time
+     * @param y current state y(t); overwritten with the state after the time step
+     * @param dt time step
+     */
+    void step(ODESystem system, double t, double[] y, double dt);
+
     /**
      * Perform one step of the ODE solver.
+     * <p>
+     * Thin adapter over {@link #step(ODESystem, double, double[], double)}.
      *
      * @param system the ODE system
      * @param t current time
@@ -13,5 +29,9 @@ public interface ODESolver {
      * @param dt time step
      * @return estimated state vector after time step
      */
-    Vector step(ODESystem system, double t, Vector y, double dt);
+    default Vector step(ODESystem system, double t, Vector y, double dt) {
+        double[] state = y.toArray();
+        step(system, t, state, dt);
+        return Vector.wrap(state);
+    }
 }
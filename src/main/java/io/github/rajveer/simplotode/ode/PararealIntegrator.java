@@ -0,0 +1,393 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Parallel-in-time integration with the Parareal method: long runs of small systems
+ * use all cores even though every step depends on the previous one.
+ * <p>
+ * {@code [t0, tEnd]} is split into time slices. A cheap coarse propagator (e.g.
+ * {@link EulerSolver} or {@link RK4Solver} with a large step) sweeps across the
+ * slices serially to guess the state at each slice start; then the accurate fine
+ * propagator integrates every slice from its guess concurrently, and a serial sweep
+ * corrects the guesses with
+ * <pre>
+ * U[n+1] = G(U[n]) + F(U_old[n]) - G(U_old[n])
+ * </pre>
+ * This repeats until no slice start moves by more than the tolerance. After
+ * {@code k} iterations the first {@code k} slice starts are exact, so slices before
+ * them are not integrated again, and at most one iteration per slice is needed.
+ * <p>
+ * Slice boundaries lie on the fine step grid {@code t0 + i * fineDt} used by
+ * {@link Integrator#run(ODESystem, ODESolver, double[], double, double, double, TrajectorySink)},
+ * so a fully iterated run reproduces the serial fine solution exactly, and a
+ * converged one agrees with it to the tolerance. The wall-clock gain is roughly
+ * {@code slices / (iterations + slices * coarse cost / fine cost)}: it needs a coarse
+ * propagator that is much cheaper than, yet close to, the fine one, and pays off for
+ * small systems over long horizons, where parallel derivative kernels cannot help.
+ * <p>
+ * The system's derivative evaluation must be thread-safe. Each slice uses its own
+ * fine solver instance from the supplier; the coarse solver runs on the calling
+ * thread only.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * PararealIntegrator parareal = new PararealIntegrator(new RK4Solver(), 0.5, RK4Solver::new, 0.001);
+ * double[] y = parareal.run(new LotkaVolterraSystem(1.1, 0.4, 0.1, 0.4), y0, 0, 10_000);
+ * System.out.println(parareal.getIterations() + " iterations");
+ * </pre>
+ */
+public class PararealIntegrator {
+
+    /** Largest slice, in doubles, that the final pass buffers ahead of the sink. */
+    private static final long MAX_BUFFER = Integer.MAX_VALUE - 8;
+
+    private final ODESolver coarse;
+    private final double coarseDt;
+    private final Supplier<? extends ODESolver> fine;
+    private final double fineDt;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int slices;
+    private int maxIterations = Integer.MAX_VALUE;
+    private double absoluteTolerance = 1e-9;
+    private double relativeTolerance = 1e-9;
+
+    private int iterations;
+    private double correction;
+    private boolean converged;
+
+    /**
+     * @param coarse   the coarse propagator
+     * @param coarseDt largest coarse step; each slice takes whole, equal coarse steps
+     * @param fine     creates the fine propagators, one per slice
+     * @param fineDt   fine step
+     */
+    public PararealIntegrator(ODESolver coarse, double coarseDt, Supplier<? extends ODESolver> fine, double fineDt) {
+        if (!(coarseDt > 0) || !(fineDt > 0)) {
+            throw new IllegalArgumentException("Time steps must be positive: coarse " + coarseDt + ", fine " + fineDt);
+        }
+        this.coarse = coarse;
+        this.coarseDt = coarseDt;
+        this.fine = fine;
+        this.fineDt = fineDt;
+    }
+
+    /**
+     * Sets the pool the fine solves run on (default: the common fork/join pool).
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the number of time slices (default: the pool's parallelism).
+     *
+     * @param slices number of slices, at least 1
+     */
+    public void setSlices(int slices) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("Need at least one slice: " + slices);
+        }
+        this.slices = slices;
+    }
+
+    /**
+     * Sets when the iteration has converged: when every slice start moved by at most
+     * {@code absolute + relative * |U|} in each component (default: 1e-9 and 1e-9).
+     */
+    public void setTolerances(double absolute, double relative) {
+        if (!(absolute >= 0) || !(relative >= 0) || absolute + relative == 0) {
+            throw new IllegalArgumentException("Tolerances must be non-negative and not both zero");
+        }
+        this.absoluteTolerance = absolute;
+        this.relativeTolerance = relative;
+    }
+
+    /**
+     * Caps the number of iterations (default: unlimited, i.e. at most one per slice).
+     * A run that hits the cap returns its current approximation, and
+     * {@link #isConverged()} reports it.
+     */
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Need at least one iteration: " + maxIterations);
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Integrates from {@code t0} to {@code tEnd}.
+     *
+     * @param system the ODE system; its derivative must be thread-safe
+     * @param y0     initial state (not modified)
+     * @param t0     initial time
+     * @param tEnd   final time
+     * @return the state at {@code tEnd}
+     */
+    public double[] run(ODESystem system, double[] y0, double t0, double tEnd) {
+        return run(system, y0, t0, tEnd, null);
+    }
+
+    /**
+     * Integrates from {@code t0} to {@code tEnd} and streams every fine step to the
+     * sink, from one more concurrent fine pass over the converged slice starts. The sink
+     * is called on the calling thread, in order; slices that finish early are
+     * buffered until it reaches them.
+     *
+     * @param system the ODE system; its derivative must be thread-safe
+     * @param y0     initial state (not modified)
+     * @param t0     initial time
+     * @param tEnd   final time
+     * @param sink   receives the fine solution, or {@code null}
+     * @return the state at {@code tEnd}
+     */
+    public double[] run(ODESystem system, double[] y0, double t0, double tEnd, TrajectorySink sink) {
+        Integrator.checkRange(t0, tEnd, fineDt);
+        long steps = Integrator.stepCount(t0, tEnd, fineDt);
+        int count = (int) Math.min(slices > 0 ? slices : pool.getParallelism(), steps);
+        long[] first = new long[count + 1];
+        for (int s = 0; s <= count; s++) {
+            first[s] = steps * s / count;
+        }
+        Slices plan = new Slices(system, t0, tEnd, steps, first);
+        ODESolver[] fineSolvers = new ODESolver[count];
+        for (int s = 0; s < count; s++) {
+            fineSolvers[s] = fine.get();
+        }
+
+        // Iteration 0: the coarse propagator alone
+        double[][] u = new double[count + 1][];
+        double[][] g = new double[count][];
+        double[][] f = new double[count][];
+        u[0] = y0.clone();
+        for (int s = 0; s < count; s++) {
+            g[s] = plan.coarse(s, u[s]);
+            u[s + 1] = g[s].clone();
+        }
+
+        iterations = 0;
+        correction = Double.POSITIVE_INFINITY;
+        converged = false;
+        int exact = 0;
+        while (!converged && iterations < maxIterations) {
+            List<Callable<Void>> tasks = new ArrayList<>(count - exact);
+            for (int s = exact; s < count; s++) {
+                int slice = s;
+                tasks.add(() -> {
+                    f[slice] = plan.fine(fineSolvers[slice], slice, u[slice], null);
+                    return null;
+                });
+            }
+            invokeAll(tasks);
+            iterations++;
+
+            // The slice after the exact prefix starts from an exact state, so its fine solve is exact too
+            double change = distance(f[exact], u[exact + 1]);
+            u[exact + 1] = f[exact].clone();
+            for (int s = exact + 1; s < count; s++) {
+                double[] gNew = plan.coarse(s, u[s]);
+                double[] next = new double[gNew.length];
+                for (int i = 0; i < next.length; i++) {
+                    next[i] = gNew[i] + f[s][i] - g[s][i];
+                }
+                change = Math.max(change, distance(next, u[s + 1]));
+                g[s] = gNew;
+                u[s + 1] = next;
+            }
+            exact++;
+            correction = change;
+            converged = exact == count || change <= 1;
+        }
+
+        if (sink == null) {
+            return exact == count ? u[count].clone() : plan.fine(fineSolvers[count - 1], count - 1, u[count - 1], null);
+        }
+        return stream(plan, fineSolvers, u, sink);
+    }
+
+    /**
+     * Runs the final fine pass concurrently and replays each slice to the sink in order.
+     * At most one slice per worker is buffered ahead of the sink, and each buffer is
+     * released once replayed; a slice too long to buffer is integrated straight into
+     * the sink when its turn comes.
+     */
+    private double[] stream(Slices plan, ODESolver[] fineSolvers, double[][] u, TrajectorySink sink) {
+        int count = fineSolvers.length;
+        int stride = u[0].length + 1;
+        int window = Math.max(1, pool.getParallelism());
+        List<Future<double[]>> buffered = new ArrayList<>(Collections.nCopies(count, null));
+        int ahead = 0;
+
+        double[] y = u[0].clone();
+        sink.begin(y.length, plan.t0);
+        sink.accept(plan.t0, y);
+        for (int s = 0; s < count; s++) {
+            for (; ahead < count && ahead < s + window; ahead++) {
+                buffered.set(ahead, buffer(plan, fineSolvers, u, ahead, stride));
+            }
+            Future<double[]> future = buffered.set(s, null);
+            if (future == null) {
+                y = plan.fine(fineSolvers[s], s, u[s], sink);
+                continue;
+            }
+            double[] records = await(future);
+            for (int r = 0; r < records.length; r += stride) {
+                System.arraycopy(records, r + 1, y, 0, y.length);
+                sink.accept(records[r], y);
+            }
+        }
+        sink.end();
+        return y;
+    }
+
+    /**
+     * Starts the final fine solve of slice {@code s} into a buffer of packed
+     * {@code [t, y]} records.
+     *
+     * @return the pending buffer, or {@code null} if the slice is too long to buffer
+     */
+    private Future<double[]> buffer(Slices plan, ODESolver[] fineSolvers, double[][] u, int s, int stride) {
+        long length = (plan.first[s + 1] - plan.first[s]) * stride;
+        if (length > MAX_BUFFER) {
+            return null;
+        }
+        return pool.submit(() -> {
+            double[] records = new double[(int) length];
+            int[] size = {0};
+            plan.fine(fineSolvers[s], s, u[s], (t, y) -> {
+                records[size[0]] = t;
+                System.arraycopy(y, 0, records, size[0] + 1, y.length);
+                size[0] += stride;
+            });
+            return records;
+        });
+    }
+
+    /**
+     * Scaled distance between two states; at most 1 within tolerance.
+     */
+    private double distance(double[] a, double[] b) {
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            double scale = absoluteTolerance + relativeTolerance * Math.max(Math.abs(a[i]), Math.abs(b[i]));
+            max = Math.max(max, Math.abs(a[i] - b[i]) / scale);
+        }
+        return max;
+    }
+
+    private void invokeAll(List<Callable<Void>> tasks) {
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            await(future);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during parallel-in-time integration", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Fine solve failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return number of Parareal iterations of the last run
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the largest change of a slice start in the last iteration, relative to
+     *         the tolerance (at most 1 when converged)
+     */
+    public double getCorrection() {
+        return correction;
+    }
+
+    /**
+     * @return whether the last run converged rather than stopping at the iteration cap
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Time slices of one run and the two propagators over them.
+     */
+    private final class Slices {
+
+        final ODESystem system;
+        final double t0;
+        final double tEnd;
+        final long steps;
+        final long[] first;
+
+        Slices(ODESystem system, double t0, double tEnd, long steps, long[] first) {
+            this.system = system;
+            this.t0 = t0;
+            this.tEnd = tEnd;
+            this.steps = steps;
+            this.first = first;
+        }
+
+        /**
+         * @return time of fine step boundary {@code i}, with the last one at {@code tEnd}
+         */
+        double time(long i) {
+            return i == steps ? tEnd : t0 + i * fineDt;
+        }
+
+        /**
+         * @return the coarse solution at the end of slice {@code s}, started from {@code y}
+         */
+        double[] coarse(int s, double[] start) {
+            double ta = time(first[s]);
+            double tb = time(first[s + 1]);
+            int n = (int) Math.max(1, Math.ceil((tb - ta) / coarseDt * (1 - 1e-12)));
+            double h = (tb - ta) / n;
+            double[] y = start.clone();
+            for (int j = 0; j < n; j++) {
+                double t = ta + j * h;
+                double tNext = j + 1 == n ? tb : ta + (j + 1) * h;
+                coarse.step(system, t, y, tNext - t);
+            }
+            return y;
+        }
+
+        /**
+         * Integrates slice {@code s} with fine steps, passing the state after each step
+         * to {@code out} unless it is {@code null}.
+         *
+         * @return the fine solution at the end of the slice
+         */
+        double[] fine(ODESolver solver, int s, double[] start, TrajectorySink out) {
+            double[] y = start.clone();
+            for (long i = first[s]; i < first[s + 1]; i++) {
+                double t = time(i);
+                double tNext = time(i + 1);
+                solver.step(system, t, y, tNext - t);
+                if (out != null) {
+                    out.accept(tNext, y);
+                }
+            }
+            return y;
+        }
+    }
+}
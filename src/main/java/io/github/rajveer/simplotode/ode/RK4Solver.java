@@ -1,36 +1,78 @@
 package io.github.rajveer.simplotode.ode;
 
 import io.github.rajveer.simplotode.systems.ODESystem;
-import io.github.rajveer.simplotode.utils.Vector;
+import io.github.rajveer.simplotode.utils.VectorOps;
 
 /**
  * A classic 4th-order Runge-Kutta ODE solver.
  * Approximates y(t + dt) using intermediate slopes:
  *
  * y(t + dt) ≈ y + (dt/6) * (k1 + 2k2 + 2k3 + k4)
+ *
+ * Dense output uses the method's own third-order continuous extension, built from
+ * the stages of the last step without further derivative evaluations.
  */
-public class RK4Solver implements ODESolver {
+public class RK4Solver implements DenseOutputSolver {
+
+    private static final double[] WEIGHTS = {1, 2, 2, 1};
+
+    // k1..k4, stage input, state at the start of the last step
+    private final SolverWorkspace workspace = new SolverWorkspace(6);
+    private final double[] denseWeights = new double[4];
+    private double stepStart = Double.NaN;
+    private double stepSize = Double.NaN;
 
     /**
-     * Perform one RK4 step.
+     * Perform one RK4 step in place.
      *
      * @param system the ODE system
      * @param t current time
-     * @param y current state vector
+     * @param y current state, overwritten with the estimate at t + dt
      * @param dt time step
-     * @return estimated state vector at t + dt
      */
     @Override
-    public Vector step(ODESystem system, double t, Vector y, double dt) {
-        Vector k1 = system.computeDerivative(t, y);
-        Vector k2 = system.computeDerivative(t + dt / 2, y.add(k1.scale(dt / 2)));
-        Vector k3 = system.computeDerivative(t + dt / 2, y.add(k2.scale(dt / 2)));
-        Vector k4 = system.computeDerivative(t + dt, y.add(k3.scale(dt)));
-
-        Vector sum = k1
-                .add(k2.scale(2))
-                .add(k3.scale(2))
-                .add(k4);
-        return y.add(sum.scale(dt / 6.0));
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        double[][] w = workspace.buffers(y.length);
+        double[] k1 = w[0], k2 = w[1], k3 = w[2], k4 = w[3], stage = w[4];
+        double half = dt / 2;
+        System.arraycopy(y, 0, w[5], 0, y.length);
+
+        system.computeDerivative(t, y, k1);
+        VectorOps.addScaled(stage, y, half, k1);
+        system.computeDerivative(t + half, stage, k2);
+        VectorOps.addScaled(stage, y, half, k2);
+        system.computeDerivative(t + half, stage, k3);
+        VectorOps.addScaled(stage, y, dt, k3);
+        system.computeDerivative(t + dt, stage, k4);
+
+        VectorOps.linearCombination(y, y, dt / 6.0, WEIGHTS, w, 4);
+        stepStart = t;
+        stepSize = dt;
+    }
+
+    @Override
+    public double getStepStart() {
+        return stepStart;
+    }
+
+    @Override
+    public double getStepEnd() {
+        return stepStart + stepSize;
+    }
+
+    @Override
+    public void interpolate(double t, double[] out) {
+        if (Double.isNaN(stepStart)) {
+            throw new IllegalStateException("No step has been taken yet");
+        }
+        double[][] w = workspace.buffers(out.length);
+        double theta = (t - stepStart) / stepSize;
+        double theta2 = theta * theta, theta3 = theta2 * theta;
+        // Hairer, Nørsett and Wanner, "Solving ODEs I", section II.6
+        denseWeights[0] = theta - 1.5 * theta2 + 2.0 / 3 * theta3;
+        denseWeights[1] = theta2 - 2.0 / 3 * theta3;
+        denseWeights[2] = denseWeights[1];
+        denseWeights[3] = -0.5 * theta2 + 2.0 / 3 * theta3;
+        VectorOps.linearCombination(out, w[5], stepSize, denseWeights, w, 4);
     }
 }
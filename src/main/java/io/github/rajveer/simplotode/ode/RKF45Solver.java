@@ -0,0 +1,45 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * Adaptive Runge-Kutta-Fehlberg 4(5) solver.
+ * <p>
+ * Six stages produce a 4th-order solution, which is propagated as in Fehlberg's
+ * original formulation, and a 5th-order solution used to estimate its error.
+ * The method is not FSAL, so every step costs six derivative evaluations.
+ */
+public class RKF45Solver extends EmbeddedRungeKuttaSolver {
+
+    private static final double[] C = {0, 1.0 / 4, 3.0 / 8, 12.0 / 13, 1, 1.0 / 2};
+
+    private static final double[][] A = {
+            {},
+            {1.0 / 4},
+            {3.0 / 32, 9.0 / 32},
+            {1932.0 / 2197, -7200.0 / 2197, 7296.0 / 2197},
+            {439.0 / 216, -8, 3680.0 / 513, -845.0 / 4104},
+            {-8.0 / 27, 2, -3544.0 / 2565, 1859.0 / 4104, -11.0 / 40}
+    };
+
+    private static final double[] B = {25.0 / 216, 0, 1408.0 / 2565, 2197.0 / 4104, -1.0 / 5, 0};
+
+    /** Difference between the 5th- and 4th-order weights. */
+    private static final double[] E = {1.0 / 360, 0, -128.0 / 4275, -2197.0 / 75240, 1.0 / 50, 2.0 / 55};
+
+    /**
+     * Creates an RKF45 solver with default tolerances
+     * (absolute 1e-9, relative 1e-6).
+     */
+    public RKF45Solver() {
+        this(1e-9, 1e-6);
+    }
+
+    /**
+     * Creates an RKF45 solver with the given tolerances.
+     *
+     * @param absoluteTolerance absolute error tolerance per component
+     * @param relativeTolerance relative error tolerance per component
+     */
+    public RKF45Solver(double absoluteTolerance, double relativeTolerance) {
+        super(C, A, B, E, 4, false, absoluteTolerance, relativeTolerance);
+    }
+}
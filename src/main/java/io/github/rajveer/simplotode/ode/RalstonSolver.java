@@ -1,7 +1,7 @@
 package io.github.rajveer.simplotode.ode;
 
 import io.github.rajveer.simplotode.systems.ODESystem;
-import io.github.rajveer.simplotode.utils.Vector;
+import io.github.rajveer.simplotode.utils.VectorOps;
 
 /**
  * A second-order Runge-Kutta ODE solver using Ralston's method.
@@ -11,24 +11,27 @@ import io.github.rajveer.simplotode.utils.Vector;
  */
 public class RalstonSolver implements ODESolver {
 
+    private static final double[] WEIGHTS = {0.25, 0.75};
+
+    private final SolverWorkspace workspace = new SolverWorkspace(3);
+
     /**
-     * Perform one Ralston RK2 step.
+     * Perform one Ralston RK2 step in place.
      *
      * @param system the ODE system
      * @param t current time
-     * @param y current state vector
+     * @param y current state, overwritten with the estimate at t + dt
      * @param dt time step
-     * @return estimated state vector at t + dt
      */
     @Override
-    public Vector step(ODESystem system, double t, Vector y, double dt) {
-        Vector k1 = system.computeDerivative(t, y);
-        Vector k2 = system.computeDerivative(
-                t + (2.0 / 3.0) * dt,
-                y.add(k1.scale(2.0 / 3.0 * dt))
-        );
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        double[][] w = workspace.buffers(y.length);
+        double[] k1 = w[0], k2 = w[1], stage = w[2];
+
+        system.computeDerivative(t, y, k1);
+        VectorOps.addScaled(stage, y, 2.0 / 3.0 * dt, k1);
+        system.computeDerivative(t + (2.0 / 3.0) * dt, stage, k2);
 
-        Vector weightedSum = k1.scale(0.25).add(k2.scale(0.75));
-        return y.add(weightedSum.scale(dt));
+        VectorOps.linearCombination(y, y, dt, WEIGHTS, w, 2);
     }
 }
@@ -0,0 +1,492 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Linearly implicit Rosenbrock-W solver for stiff problems: the ROS34PW2 method of
+ * Rang and Angermann (2005), four stages, order 3 with an embedded order-2 error
+ * estimate, L-stable.
+ * <p>
+ * Each step solves four linear systems with the same matrix
+ * {@code W = I / (h γ) - J} instead of a nonlinear Newton iteration, so it never fails
+ * to converge. Being a W-method, it keeps its order with an approximate Jacobian,
+ * which is what makes reuse safe: the Jacobian (analytic if the system provides one,
+ * finite differences otherwise) is kept across accepted steps and refreshed only after
+ * a rejected step or every {@value #MAX_JACOBIAN_AGE} steps, and the LU factors of
+ * {@code W} are reused for as long as the step size does not change.
+ * <p>
+ * For explicitly time-dependent systems, {@code df/dt} is approximated by a finite
+ * difference whenever the Jacobian is refreshed.
+ * <p>
+ * Dense output is cubic Hermite interpolation between the step's end points; the
+ * derivative at the end is evaluated once per step, and only if the step is sampled.
+ * <p>
+ * A checkpoint saves the step size and the Jacobian in use; the LU factors are
+ * recomputed on restore, so a restarted run continues bit-identically.
+ */
+public class RosenbrockWSolver implements AdaptiveODESolver, DenseOutputSolver, CheckpointableSolver {
+
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 6.0;
+    private static final int ERROR_ORDER = 2;
+
+    /** Accepted steps after which the Jacobian is recomputed even without rejections. */
+    private static final int MAX_JACOBIAN_AGE = 10;
+
+    private static final int STAGES = 4;
+    private static final double GAMMA = 0.435866521508459;
+
+    /** ROS34PW2 in the standard form: stage couplings α_ij and γ_ij, weights b and bHat. */
+    private static final double[][] ALPHA = {
+            {},
+            {0.87173304301691801},
+            {0.84457060015369423, -0.11299064236484185},
+            {0, 0, 1}
+    };
+    private static final double[][] GAMMA_OFF = {
+            {},
+            {-0.87173304301691801},
+            {-0.90338057013044082, 0.054180672388095326},
+            {0.24212380706095346, -1.2232505839045147, 0.54526025533510214}
+    };
+    private static final double[] B = {0.24212380706095346, -1.2232505839045147, 1.5452602553351020, GAMMA};
+    private static final double[] B_HAT = {0.37810903145819369, -0.096042292212423178, 0.5, 0.2179332607542295};
+
+    /**
+     * Coefficients of the equivalent form of Hairer and Wanner (IV.7.25), which avoids
+     * Jacobian-vector products: stage nodes, A = αΓ⁻¹, C = diag(1/γ) - Γ⁻¹,
+     * m = bΓ⁻¹, the error weights m - bHatΓ⁻¹ and the row sums of Γ.
+     */
+    private static final double[] NODES = new double[STAGES];
+    private static final double[][] A = new double[STAGES][STAGES];
+    private static final double[][] C = new double[STAGES][STAGES];
+    private static final double[] M = new double[STAGES];
+    private static final double[] E = new double[STAGES];
+    private static final double[] GAMMA_SUM = new double[STAGES];
+
+    static {
+        double[][] gamma = new double[STAGES][STAGES];
+        double[][] alpha = new double[STAGES][STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            for (int j = 0; j < i; j++) {
+                gamma[i][j] = GAMMA_OFF[i][j];
+                alpha[i][j] = ALPHA[i][j];
+                NODES[i] += ALPHA[i][j];
+                GAMMA_SUM[i] += GAMMA_OFF[i][j];
+            }
+            gamma[i][i] = GAMMA;
+            GAMMA_SUM[i] += GAMMA;
+        }
+
+        // inverse of the lower-triangular Γ by forward substitution
+        double[][] inverse = new double[STAGES][STAGES];
+        for (int col = 0; col < STAGES; col++) {
+            for (int i = col; i < STAGES; i++) {
+                double sum = i == col ? 1 : 0;
+                for (int k = col; k < i; k++) {
+                    sum -= gamma[i][k] * inverse[k][col];
+                }
+                inverse[i][col] = sum / gamma[i][i];
+            }
+        }
+
+        for (int i = 0; i < STAGES; i++) {
+            for (int j = 0; j < i; j++) {
+                double sum = 0;
+                for (int k = j; k < i; k++) {
+                    sum += alpha[i][k] * inverse[k][j];
+                }
+                A[i][j] = sum;
+                C[i][j] = -inverse[i][j];
+            }
+            double m = 0, mHat = 0;
+            for (int k = i; k < STAGES; k++) {
+                m += B[k] * inverse[k][i];
+                mHat += B_HAT[k] * inverse[k][i];
+            }
+            M[i] = m;
+            E[i] = m - mHat;
+        }
+    }
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private double maxStepSize = Double.POSITIVE_INFINITY;
+
+    // stages U_1..U_4, f(t, y), df/dt, stage input, candidate solution,
+    // start of the last step, f at its end
+    private final SolverWorkspace workspace = new SolverWorkspace(STAGES + 6);
+    private final LUDecomposition lu = new LUDecomposition();
+    private double[][] jacobian;
+    private double[][] matrix;
+
+    private double h = Double.NaN;
+    private int acceptedSteps;
+    private int rejectedSteps;
+    private int jacobianEvaluations;
+    private int factorizations;
+
+    private boolean jacobianValid;
+    private ODESystem jacobianSystem;
+    private int jacobianAge;
+    private double factoredStep = Double.NaN;
+
+    private double stepStart = Double.NaN;
+    private double stepEnd = Double.NaN;
+    private double stepSize;
+    private ODESystem stepSystem;
+    private boolean endDerivativeValid;
+
+    /**
+     * Creates a solver with {@code atol = 1e-6} and {@code rtol = 1e-4}.
+     */
+    public RosenbrockWSolver() {
+        this(1e-6, 1e-4);
+    }
+
+    /**
+     * @param absoluteTolerance absolute error tolerance per component
+     * @param relativeTolerance relative error tolerance per component
+     */
+    public RosenbrockWSolver(double absoluteTolerance, double relativeTolerance) {
+        if (absoluteTolerance < 0 || relativeTolerance < 0 || absoluteTolerance + relativeTolerance == 0) {
+            throw new IllegalArgumentException("Tolerances must be non-negative and not both zero");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+    }
+
+    /**
+     * Limits the internal step size.
+     *
+     * @param maxStepSize largest step the controller may take
+     */
+    public void setMaxStepSize(double maxStepSize) {
+        if (!(maxStepSize > 0)) {
+            throw new IllegalArgumentException("Maximum step size must be positive: " + maxStepSize);
+        }
+        this.maxStepSize = maxStepSize;
+    }
+
+    /**
+     * Integrates from {@code t} to exactly {@code t + dt} with as many adaptive
+     * steps as the tolerances require.
+     *
+     * @param system the ODE system
+     * @param t current time
+     * @param y current state, overwritten with y(t + dt)
+     * @param dt output interval
+     */
+    @Override
+    public void step(ODESystem system, double t, double[] y, double dt) {
+        double tEnd = t + dt;
+        while (t < tEnd) {
+            t = adaptiveStep(system, t, y, tEnd);
+        }
+    }
+
+    @Override
+    public double adaptiveStep(ODESystem system, double t, double[] y, double tEnd) {
+        int n = y.length;
+        double[][] w = workspace.buffers(n);
+        double[] f0 = w[STAGES], ft = w[STAGES + 1], stage = w[STAGES + 2], yNew = w[STAGES + 3];
+        if (jacobian == null || jacobian.length != n) {
+            jacobian = new double[n][n];
+            matrix = new double[n][n];
+            jacobianValid = false;
+        }
+        if (system.unwrap() != jacobianSystem) {
+            jacobianValid = false;
+        }
+
+        system.computeDerivative(t, y, f0);
+        if (Double.isNaN(h)) {
+            h = InitialStepSize.estimate(system, t, y, tEnd - t, f0, stage, yNew,
+                    absoluteTolerance, relativeTolerance, ERROR_ORDER, maxStepSize);
+        }
+
+        boolean jacobianFresh = false;
+        boolean rejected = false;
+        while (true) {
+            double remaining = tEnd - t;
+            double hTry = Math.min(h, maxStepSize);
+            boolean last = hTry >= remaining;
+            double hStep = last ? remaining : hTry;
+            if (Double.isNaN(hStep)) {
+                throw new IllegalStateException("Derivative is not finite at t = " + t);
+            }
+            if (t + hStep == t) {
+                throw new IllegalStateException("Step size underflow at t = " + t);
+            }
+
+            if (!jacobianValid) {
+                updateJacobian(system, t, y, f0, ft, stage, yNew);
+                jacobianFresh = true;
+            }
+            if (hStep != factoredStep && !factor(hStep)) {
+                rejectedSteps++;
+                h = hStep * 0.5;
+                continue;
+            }
+
+            for (int i = 0; i < STAGES; i++) {
+                double[] u = w[i];
+                if (i == 0) {
+                    System.arraycopy(f0, 0, u, 0, n);
+                } else {
+                    System.arraycopy(y, 0, stage, 0, n);
+                    for (int j = 0; j < i; j++) {
+                        double aij = A[i][j];
+                        double[] uj = w[j];
+                        for (int k = 0; k < n; k++) {
+                            stage[k] += aij * uj[k];
+                        }
+                    }
+                    system.computeDerivative(t + NODES[i] * hStep, stage, u);
+                }
+                double timeTerm = GAMMA_SUM[i] * hStep;
+                for (int j = 0; j < i; j++) {
+                    double cij = C[i][j] / hStep;
+                    double[] uj = w[j];
+                    for (int k = 0; k < n; k++) {
+                        u[k] += cij * uj[k];
+                    }
+                }
+                for (int k = 0; k < n; k++) {
+                    u[k] += timeTerm * ft[k];
+                }
+                lu.solve(u);
+            }
+
+            double err = 0;
+            for (int k = 0; k < n; k++) {
+                double value = y[k], error = 0;
+                for (int i = 0; i < STAGES; i++) {
+                    value += M[i] * w[i][k];
+                    error += E[i] * w[i][k];
+                }
+                yNew[k] = value;
+                double scale = absoluteTolerance + relativeTolerance * Math.max(Math.abs(y[k]), Math.abs(value));
+                double ratio = error / scale;
+                err += ratio * ratio;
+            }
+            err = Math.sqrt(err / n);
+
+            if (err <= 1.0) {
+                double factor = SAFETY * Math.pow(Math.max(err, 1e-10), -1.0 / (ERROR_ORDER + 1));
+                // no growth right after a rejection, which would likely be rejected again
+                factor = Math.max(MIN_FACTOR, Math.min(rejected ? 1.0 : MAX_FACTOR, factor));
+                // a step clipped to land on tEnd says little about the natural step size
+                if (!last || hStep >= h) {
+                    h = Math.min(hStep * factor, maxStepSize);
+                }
+                acceptedSteps++;
+                if (++jacobianAge >= MAX_JACOBIAN_AGE) {
+                    jacobianValid = false;
+                }
+                System.arraycopy(y, 0, w[STAGES + 4], 0, n);
+                System.arraycopy(yNew, 0, y, 0, n);
+                stepStart = t;
+                stepEnd = last ? tEnd : t + hStep;
+                stepSize = hStep;
+                stepSystem = system;
+                endDerivativeValid = false;
+                return stepEnd;
+            }
+
+            rejectedSteps++;
+            rejected = true;
+            if (!jacobianFresh) {
+                jacobianValid = false;
+            }
+            // a non-finite error halves the step until the solution is finite again or
+            // the step underflows
+            double factor = Double.isFinite(err) ? Math.max(MIN_FACTOR, SAFETY * Math.pow(err, -1.0 / (ERROR_ORDER + 1))) : 0.5;
+            h = hStep * Math.min(1.0, factor);
+        }
+    }
+
+    /**
+     * Factors {@code W = I / (h γ) - J}.
+     *
+     * @return {@code false} if the matrix is singular
+     */
+    private boolean factor(double hStep) {
+        int n = matrix.length;
+        double diagonal = 1.0 / (hStep * GAMMA);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix[i][j] = -jacobian[i][j];
+            }
+            matrix[i][i] += diagonal;
+        }
+        factorizations++;
+        if (lu.factor(matrix)) {
+            factoredStep = hStep;
+            return true;
+        }
+        factoredStep = Double.NaN;
+        return false;
+    }
+
+    /**
+     * Recomputes {@code J = df/dy} and {@code df/dt} at {@code (t, y)}.
+     */
+    private void updateJacobian(ODESystem system, double t, double[] y, double[] f0, double[] ft,
+                                double[] yScratch, double[] fScratch) {
+        Jacobians.compute(system, t, y, f0, jacobian, yScratch, fScratch);
+        double delta = Math.sqrt(Math.ulp(1.0) * Math.max(1e-5, Math.abs(t)));
+        delta = (t + delta) - t;
+        system.computeDerivative(t + delta, y, ft);
+        for (int k = 0; k < ft.length; k++) {
+            ft[k] = (ft[k] - f0[k]) / delta;
+        }
+        jacobianEvaluations++;
+        jacobianValid = true;
+        jacobianSystem = system.unwrap();
+        jacobianAge = 0;
+        factoredStep = Double.NaN;
+    }
+
+    @Override
+    public double getStepStart() {
+        return stepStart;
+    }
+
+    @Override
+    public double getStepEnd() {
+        return stepEnd;
+    }
+
+    @Override
+    public void interpolate(double t, double[] out) {
+        if (Double.isNaN(stepStart)) {
+            throw new IllegalStateException("No step has been taken yet");
+        }
+        double[][] w = workspace.buffers(out.length);
+        double[] yEnd = w[STAGES + 3], fEnd = w[STAGES + 5];
+        if (!endDerivativeValid) {
+            stepSystem.computeDerivative(stepEnd, yEnd, fEnd);
+            endDerivativeValid = true;
+        }
+        HermiteInterpolation.interpolate(stepSize, w[STAGES + 4], w[STAGES], yEnd, fEnd,
+                (t - stepStart) / stepSize, out);
+    }
+
+    @Override
+    public double getStepSize() {
+        return h;
+    }
+
+    @Override
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    @Override
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    /**
+     * @return number of Jacobian evaluations since construction or the last {@link #reset()}
+     */
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    /**
+     * @return number of LU factorizations since construction or the last {@link #reset()}
+     */
+    public int getFactorizations() {
+        return factorizations;
+    }
+
+    @Override
+    public void reset() {
+        h = Double.NaN;
+        acceptedSteps = 0;
+        rejectedSteps = 0;
+        jacobianEvaluations = 0;
+        factorizations = 0;
+        jacobianValid = false;
+        jacobianSystem = null;
+        factoredStep = Double.NaN;
+        stepStart = Double.NaN;
+        stepEnd = Double.NaN;
+        stepSystem = null;
+    }
+
+    @Override
+    public void saveCheckpoint(DataOutput out) throws IOException {
+        out.writeDouble(h);
+        out.writeInt(acceptedSteps);
+        out.writeInt(rejectedSteps);
+        out.writeInt(jacobianEvaluations);
+        out.writeInt(factorizations);
+        boolean saveJacobian = jacobianValid && jacobianSystem != null;
+        out.writeBoolean(saveJacobian);
+        if (saveJacobian) {
+            out.writeInt(jacobianAge);
+            for (double[] row : jacobian) {
+                Checkpointer.writeDoubles(out, row);
+            }
+            Checkpointer.writeDoubles(out, workspace.buffers(jacobian.length)[STAGES + 1]);
+            out.writeDouble(factoredStep);
+        }
+    }
+
+    @Override
+    public void restoreCheckpoint(DataInput in, ODESystem system) throws IOException {
+        reset();
+        double step = in.readDouble();
+        int accepted = in.readInt();
+        int rejected = in.readInt();
+        int evaluations = in.readInt();
+        int factored = in.readInt();
+        if (in.readBoolean()) {
+            jacobianAge = in.readInt();
+            double[] firstRow = Checkpointer.readDoubles(in);
+            int n = firstRow.length;
+            jacobian = new double[n][n];
+            matrix = new double[n][n];
+            jacobian[0] = firstRow;
+            for (int i = 1; i < n; i++) {
+                Checkpointer.readDoubles(in, jacobian[i]);
+            }
+            // df/dt from the same refresh as the Jacobian
+            Checkpointer.readDoubles(in, workspace.buffers(n)[STAGES + 1]);
+            jacobianValid = true;
+            jacobianSystem = system.unwrap();
+            double factoredAt = in.readDouble();
+            // LU factorization is deterministic, so refactoring gives the factors the run had
+            if (!Double.isNaN(factoredAt) && !factor(factoredAt)) {
+                throw new IOException("Checkpointed iteration matrix is singular");
+            }
+        }
+        h = step;
+        acceptedSteps = accepted;
+        rejectedSteps = rejected;
+        jacobianEvaluations = evaluations;
+        factorizations = factored;
+    }
+
+    /**
+     * @return the absolute error tolerance
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+
+    /**
+     * @return the relative error tolerance
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * Scratch buffers owned by a single solver instance and reused across steps.
+ * <p>
+ * Buffers are (re)allocated only when the state dimension changes, so a solver
+ * stepping the same system over and over allocates nothing after its first step.
+ * A workspace is not thread-safe; each thread needs its own solver instance.
+ */
+final class SolverWorkspace {
+
+    private final int count;
+    private double[][] buffers;
+
+    /**
+     * Creates a workspace holding {@code count} buffers.
+     *
+     * @param count number of scratch buffers the solver needs
+     */
+    SolverWorkspace(int count) {
+        this.count = count;
+    }
+
+    /**
+     * Returns the scratch buffers, each of length {@code n}.
+     *
+     * @param n the state dimension
+     * @return {@code count} buffers of length {@code n}
+     */
+    double[][] buffers(int n) {
+        if (buffers == null || buffers[0].length != n) {
+            buffers = new double[count][n];
+        }
+        return buffers;
+    }
+
+    /**
+     * @return the length of the current buffers, or 0 if none were allocated yet
+     */
+    int dimension() {
+        return buffers == null ? 0 : buffers[0].length;
+    }
+}
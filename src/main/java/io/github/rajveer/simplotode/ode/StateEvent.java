@@ -0,0 +1,143 @@
+package io.github.rajveer.simplotode.ode;
+
+/**
+ * An event to detect during integration: the zero crossings of an
+ * {@link EventFunction}, filtered by direction, optionally stopping the run.
+ * <p>
+ * Instances are immutable and can be reused across runs; occurrences are reported
+ * in the {@link EventResult} of each run.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * StateEvent spike = StateEvent.rising("spike", (t, y) -&gt; y[0] - 1.0);
+ * StateEvent tenthSpike = spike.terminalAfter(10);
+ * StateEvent extinct = StateEvent.falling("I &lt; 0.1%", (t, y) -&gt; y[1] - 1e-3).terminal();
+ * </pre>
+ */
+public class StateEvent {
+
+    /**
+     * Which sign changes of the event function count as an occurrence.
+     */
+    public enum Direction {
+        /** From negative to non-negative. */
+        RISING,
+        /** From positive to non-positive. */
+        FALLING,
+        /** Either way. */
+        BOTH
+    }
+
+    private final String name;
+    private final EventFunction function;
+    private final Direction direction;
+    private final int terminalOccurrence;
+
+    /**
+     * @param name               label used in results and messages
+     * @param function           the event function
+     * @param direction          which crossings count
+     * @param terminalOccurrence occurrence that stops the run, or {@code 0} to never stop
+     */
+    public StateEvent(String name, EventFunction function, Direction direction, int terminalOccurrence) {
+        if (terminalOccurrence < 0) {
+            throw new IllegalArgumentException("Terminal occurrence must be non-negative: " + terminalOccurrence);
+        }
+        this.name = name;
+        this.function = function;
+        this.direction = direction;
+        this.terminalOccurrence = terminalOccurrence;
+    }
+
+    /**
+     * @return a non-terminal event for crossings in either direction
+     */
+    public static StateEvent crossing(String name, EventFunction function) {
+        return new StateEvent(name, function, Direction.BOTH, 0);
+    }
+
+    /**
+     * @return a non-terminal event for upward crossings
+     */
+    public static StateEvent rising(String name, EventFunction function) {
+        return new StateEvent(name, function, Direction.RISING, 0);
+    }
+
+    /**
+     * @return a non-terminal event for downward crossings
+     */
+    public static StateEvent falling(String name, EventFunction function) {
+        return new StateEvent(name, function, Direction.FALLING, 0);
+    }
+
+    /**
+     * @return a copy that stops the run at its first occurrence
+     */
+    public StateEvent terminal() {
+        return terminalAfter(1);
+    }
+
+    /**
+     * @param occurrences number of occurrences after which the run stops
+     * @return a copy that stops the run at its {@code occurrences}-th occurrence
+     */
+    public StateEvent terminalAfter(int occurrences) {
+        if (occurrences < 1) {
+            throw new IllegalArgumentException("Occurrences must be positive: " + occurrences);
+        }
+        return new StateEvent(name, function, direction, occurrences);
+    }
+
+    /**
+     * @return the event's label
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the event function
+     */
+    public EventFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * @return which crossings count
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return whether some occurrence of this event stops the run
+     */
+    public boolean isTerminal() {
+        return terminalOccurrence > 0;
+    }
+
+    /**
+     * @return the occurrence that stops the run, or {@code 0} if the event never does
+     */
+    public int getTerminalOccurrence() {
+        return terminalOccurrence;
+    }
+
+    /**
+     * Whether the function moving from {@code before} to {@code after} is an occurrence.
+     */
+    boolean triggers(double before, double after) {
+        boolean rising = before < 0 && after >= 0;
+        boolean falling = before > 0 && after <= 0;
+        return switch (direction) {
+            case RISING -> rising;
+            case FALLING -> falling;
+            case BOTH -> rising || falling;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.utils.ParticleState;
+
+/**
+ * A fixed-step integrator for {@link SecondOrderSystem}s that preserves the
+ * symplectic structure of the flow.
+ * <p>
+ * Symplectic methods do not drift in energy: the energy error stays bounded over
+ * arbitrarily long runs, which makes them the methods of choice for orbits.
+ */
+public interface SymplecticIntegrator {
+
+    /**
+     * Advances positions and velocities in place by one step.
+     *
+     * @param system the second-order system
+     * @param t      current time
+     * @param state  current state, overwritten with the state at {@code t + dt}
+     * @param dt     time step
+     */
+    void step(SecondOrderSystem system, double t, ParticleState state, double dt);
+}
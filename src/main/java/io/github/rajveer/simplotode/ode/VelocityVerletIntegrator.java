@@ -0,0 +1,85 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.utils.ParticleState;
+import io.github.rajveer.simplotode.utils.VectorOps;
+
+import java.util.Arrays;
+
+/**
+ * Second-order velocity Verlet (kick-drift-kick) integrator:
+ * <pre>
+ * v += dt/2 * a(r)
+ * r += dt * v
+ * v += dt/2 * a(r)
+ * </pre>
+ * The acceleration at the end of a step is the one needed at the start of the next,
+ * so it is cached and every step after the first costs a single force evaluation.
+ * The cache is used only when the next step starts from exactly the positions and
+ * time where the previous one ended.
+ */
+public class VelocityVerletIntegrator implements SymplecticIntegrator {
+
+    private double[] ax = new double[0], ay = ax, az = ax;
+    private double[] cachedX = ax, cachedY = ax, cachedZ = ax;
+    private SecondOrderSystem cachedSystem;
+    private double cachedTime = Double.NaN;
+
+    @Override
+    public void step(SecondOrderSystem system, double t, ParticleState state, double dt) {
+        ensureCapacity(state.size());
+        if (!cacheValid(system, t, state)) {
+            system.computeAcceleration(t, state.x, state.y, state.z, ax, ay, az);
+        }
+
+        double half = dt / 2;
+        kick(state, half);
+        VectorOps.axpy(state.x, dt, state.vx);
+        VectorOps.axpy(state.y, dt, state.vy);
+        VectorOps.axpy(state.z, dt, state.vz);
+        system.computeAcceleration(t + dt, state.x, state.y, state.z, ax, ay, az);
+        kick(state, half);
+
+        remember(system, t + dt, state);
+    }
+
+    /**
+     * Forgets the cached acceleration, forcing a fresh evaluation on the next step.
+     */
+    public void reset() {
+        cachedSystem = null;
+    }
+
+    private void kick(ParticleState state, double h) {
+        VectorOps.axpy(state.vx, h, ax);
+        VectorOps.axpy(state.vy, h, ay);
+        VectorOps.axpy(state.vz, h, az);
+    }
+
+    private boolean cacheValid(SecondOrderSystem system, double t, ParticleState state) {
+        return system == cachedSystem && t == cachedTime
+                && Arrays.equals(state.x, cachedX)
+                && Arrays.equals(state.y, cachedY)
+                && Arrays.equals(state.z, cachedZ);
+    }
+
+    private void remember(SecondOrderSystem system, double t, ParticleState state) {
+        System.arraycopy(state.x, 0, cachedX, 0, cachedX.length);
+        System.arraycopy(state.y, 0, cachedY, 0, cachedY.length);
+        System.arraycopy(state.z, 0, cachedZ, 0, cachedZ.length);
+        cachedSystem = system;
+        cachedTime = t;
+    }
+
+    private void ensureCapacity(int n) {
+        if (ax.length != n) {
+            ax = new double[n];
+            ay = new double[n];
+            az = new double[n];
+            cachedX = new double[n];
+            cachedY = new double[n];
+            cachedZ = new double[n];
+            cachedSystem = null;
+        }
+    }
+}
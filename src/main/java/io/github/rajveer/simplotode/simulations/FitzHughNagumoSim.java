@@ -1,10 +1,11 @@
 package io.github.rajveer.simplotode.simulations;
 
-import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.ode.DormandPrince54Solver;
+import io.github.rajveer.simplotode.ode.Integrator;
 import io.github.rajveer.simplotode.systems.FitzHughNagumoSystem;
 import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.trajectory.CallbackSink;
 import io.github.rajveer.simplotode.utils.Figure;
-import io.github.rajveer.simplotode.utils.Vector;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,25 +22,19 @@ public class FitzHughNagumoSim {
                 0.5    // I_ext
         );
 
-        RK4Solver solver = new RK4Solver();
-        Vector state = new Vector(new double[]{0.0, 0.0}); // [V, W]
-        double t = 0, dt = 0.1;
+        // Adaptive steps stay small through each spike and grow along the slow recovery branch
+        DormandPrince54Solver solver = new DormandPrince54Solver(1e-9, 1e-7);
+        double[] state = {0.0, 0.0}; // [V, W]
 
         List<double[]> voltageSeries = new ArrayList<>();
         List<double[]> recoverySeries = new ArrayList<>();
 
-        for (int i = 0; i < 200; i++) {
-            double V = state.get(0);
-            double W = state.get(1);
-
-            // System.out.printf("t=%.2f, V=%.4f, W=%.4f%n", t, V, W);
-
-            voltageSeries.add(new double[]{t, V});
-            recoverySeries.add(new double[]{t, W});
-
-            state = solver.step(neuron, t, state, dt);
-            t += dt;
-        }
+        // Dense output samples a fine grid without forcing the solver to stop at each point
+        Integrator.runDense(neuron, solver, state, 0, 20, 0.02, new CallbackSink((t, y) -> {
+            // System.out.printf("t=%.2f, V=%.4f, W=%.4f%n", t, y[0], y[1]);
+            voltageSeries.add(new double[]{t, y[0]});
+            recoverySeries.add(new double[]{t, y[1]});
+        }));
 
         // Configure and show the figure
         Figure.setTitle("FitzHugh-Nagumo Neuron Simulation");
@@ -0,0 +1,37 @@
+package io.github.rajveer.simplotode.simulations;
+
+import io.github.rajveer.simplotode.sweep.FitzHughNagumoSweep;
+import io.github.rajveer.simplotode.sweep.ParameterGrid;
+import io.github.rajveer.simplotode.sweep.SweepResult;
+import io.github.rajveer.simplotode.utils.Figure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FitzHughNagumoSweepSim {
+
+    public static void main(String[] args) {
+
+        // Base model: epsilon, a, b, I_ext; I_ext is swept
+        FitzHughNagumoSweep sweep = new FitzHughNagumoSweep(0.08, 0.7, 0.8, 0.5);
+        ParameterGrid grid = ParameterGrid.of("Iext", ParameterGrid.linspace(0.0, 2.0, 2001));
+
+        // Discard the first 200 time units, measure over the next 300
+        SweepResult result = sweep.run(grid, 200, 500, 0.01);
+
+        List<double[]> amplitudeSeries = new ArrayList<>();
+        List<double[]> meanSeries = new ArrayList<>();
+        for (int p = 0; p < result.size(); p++) {
+            double current = grid.value(p, 0);
+            amplitudeSeries.add(new double[]{current, result.getAmplitude(p)});
+            meanSeries.add(new double[]{current, result.getMean(p)});
+        }
+
+        Figure.setTitle("FitzHugh-Nagumo Bifurcation in I_ext");
+        Figure.setXLabel("External current I_ext");
+        Figure.setYLabel("Membrane Voltage (V)");
+        Figure.addSeries("Oscillation amplitude", amplitudeSeries);
+        Figure.addSeries("Mean voltage", meanSeries);
+        Figure.show();
+    }
+}
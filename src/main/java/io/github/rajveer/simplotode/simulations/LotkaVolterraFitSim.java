@@ -0,0 +1,85 @@
+package io.github.rajveer.simplotode.simulations;
+
+import io.github.rajveer.simplotode.fitting.FitResult;
+import io.github.rajveer.simplotode.fitting.ObservedData;
+import io.github.rajveer.simplotode.fitting.ParameterEstimator;
+import io.github.rajveer.simplotode.ode.Integrator;
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import io.github.rajveer.simplotode.trajectory.CallbackSink;
+import io.github.rajveer.simplotode.utils.Figure;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class LotkaVolterraFitSim {
+
+    public static void main(String[] args) throws IOException {
+
+        double[] y0 = {10.0, 5.0}; // [prey, predator]
+
+        // Observations: a CSV file of t,prey,predator, or noisy samples of LotkaVolterraSim's model
+        ObservedData data = args.length > 0
+                ? ObservedData.readCsv(Path.of(args[0]), 0, 1)
+                : syntheticData(new LotkaVolterraSystem(1.1, 0.4, 0.1, 0.4), y0);
+
+        // Fit alpha, beta, delta, gamma from 256 random starts in [0.01, 5]
+        ParameterEstimator estimator = new ParameterEstimator(
+                p -> new LotkaVolterraSystem(p[0], p[1], p[2], p[3]), y0, 0, 0.05,
+                new double[]{0.01, 0.01, 0.01, 0.01}, new double[]{5, 5, 5, 5});
+        long start = System.nanoTime();
+        FitResult fit = estimator.fit(data, 256, 42);
+        System.out.printf("%s in %.0f ms%n", fit, (System.nanoTime() - start) / 1e6);
+
+        double[] p = fit.getParameters();
+        List<double[]> preyFit = new ArrayList<>();
+        List<double[]> predatorFit = new ArrayList<>();
+        Integrator.run(new LotkaVolterraSystem(p[0], p[1], p[2], p[3]), new RK4Solver(), y0,
+                0, data.getTime(data.size() - 1), 0.05, new CallbackSink((t, y) -> {
+                    preyFit.add(new double[]{t, y[0]});
+                    predatorFit.add(new double[]{t, y[1]});
+                }));
+
+        List<double[]> preyObserved = new ArrayList<>();
+        List<double[]> predatorObserved = new ArrayList<>();
+        for (int i = 0; i < data.size(); i++) {
+            preyObserved.add(new double[]{data.getTime(i), data.getValue(0, i)});
+            predatorObserved.add(new double[]{data.getTime(i), data.getValue(1, i)});
+        }
+
+        Figure.setTitle("Lotka-Volterra Parameter Fit");
+        Figure.setXLabel("Time");
+        Figure.setYLabel("Population");
+        Figure.addSeries("Prey (observed)", preyObserved);
+        Figure.addSeries("Predator (observed)", predatorObserved);
+        Figure.addSeries("Prey (fitted)", preyFit);
+        Figure.addSeries("Predator (fitted)", predatorFit);
+        Figure.show();
+    }
+
+    /**
+     * Samples the model every 0.5 time units up to t = 30, with 5% multiplicative noise.
+     */
+    private static ObservedData syntheticData(LotkaVolterraSystem system, double[] y0) {
+        int samples = 61;
+        double[] times = new double[samples];
+        double[][] values = new double[2][samples];
+        Random random = new Random(1);
+        double[] y = y0.clone();
+        RK4Solver solver = new RK4Solver();
+        for (int i = 0; i < samples; i++) {
+            times[i] = 0.5 * i;
+            if (i > 0) {
+                for (int step = 0; step < 10; step++) {
+                    solver.step(system, times[i - 1] + 0.05 * step, y, 0.05);
+                }
+            }
+            values[0][i] = y[0] * (1 + 0.05 * random.nextGaussian());
+            values[1][i] = y[1] * (1 + 0.05 * random.nextGaussian());
+        }
+        return new ObservedData(times, new int[]{0, 1}, values);
+    }
+}
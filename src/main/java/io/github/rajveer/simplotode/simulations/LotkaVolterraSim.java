@@ -1,10 +1,11 @@
 package io.github.rajveer.simplotode.simulations;
 
+import io.github.rajveer.simplotode.ode.Integrator;
 import io.github.rajveer.simplotode.ode.RK4Solver;
 import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
 import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.trajectory.CallbackSink;
 import io.github.rajveer.simplotode.utils.Figure;
-import io.github.rajveer.simplotode.utils.Vector;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,21 +21,15 @@ public class LotkaVolterraSim {
                 0.4   // gamma: predator death rate
         );
 
-        RK4Solver solver = new RK4Solver();  // or EulerSolver
-
-        Vector y = new Vector(new double[]{10.0, 5.0}); // [prey, predator]
-        double t = 0;
-        double dt = 0.1;
+        double[] y0 = {10.0, 5.0}; // [prey, predator]
 
         List<double[]> preyPoints = new ArrayList<>();
         List<double[]> predatorPoints = new ArrayList<>();
 
-        for (int i = 0; i < 300; i++) {
-            preyPoints.add(new double[]{t, y.get(0)});
-            predatorPoints.add(new double[]{t, y.get(1)});
-            y = solver.step(system, t, y, dt);
-            t += dt;
-        }
+        Integrator.run(system, new RK4Solver(), y0, 0, 30, 0.1, new CallbackSink((t, y) -> {
+            preyPoints.add(new double[]{t, y[0]});
+            predatorPoints.add(new double[]{t, y[1]});
+        }));
 
         // Plot using JavaFX
         Figure.setTitle("Lotka-Volterra Simulation");
@@ -1,10 +1,13 @@
 package io.github.rajveer.simplotode.simulations;
 
+import io.github.rajveer.simplotode.ode.EventResult;
+import io.github.rajveer.simplotode.ode.Integrator;
 import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.ode.StateEvent;
 import io.github.rajveer.simplotode.systems.ODESystem;
 import io.github.rajveer.simplotode.systems.SIRModelSystem;
+import io.github.rajveer.simplotode.trajectory.CallbackSink;
 import io.github.rajveer.simplotode.utils.Figure;
-import io.github.rajveer.simplotode.utils.Vector;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,34 +16,30 @@ public class SIRSim {
 
     public static void main(String[] args){
 
-        // SIR Model parameters: transmission rate k, recovery rate gamma, turnover rate mu
-        ODESystem sir = new SIRModelSystem(
-                0.5,   // transmission rate k
-                0.1,   // recovery rate gamma
-                0.01   // turnover rate mu
-        );
+        // SIR Model parameters
+        double k = 0.5;      // transmission rate
+        double gamma = 0.1;  // recovery rate
+        double mu = 0.01;    // turnover rate
+        ODESystem sir = new SIRModelSystem(k, gamma, mu);
 
-        RK4Solver solver = new RK4Solver();
-        Vector state = new Vector(new double[]{0.99, 0.01, 0.0}); // initial S, I, R
-        double t = 0, dt = 0.1;
+        // dI/dt = (k * S - (γ + μ)) * I turns negative at the peak of the outbreak
+        StateEvent peak = StateEvent.falling("infection peak", (t, y) -> k * y[0] - (gamma + mu));
+
+        double[] state = {0.99, 0.01, 0.0}; // initial S, I, R
 
         List<double[]> sSeries = new ArrayList<>();
         List<double[]> iSeries = new ArrayList<>();
         List<double[]> rSeries = new ArrayList<>();
 
-        for (int i = 0; i < 300; i++) {
-            double S = state.get(0);
-            double I = state.get(1);
-            double R = state.get(2);
-
-            // System.out.printf("t=%.1f, S=%.4f, I=%.4f, R=%.4f%n", t, S, I, R);
-
-            sSeries.add(new double[]{t, S});
-            iSeries.add(new double[]{t, I});
-            rSeries.add(new double[]{t, R});
-
-            state = solver.step(sir, t, state, dt);
-            t += dt;
+        EventResult result = Integrator.runWithEvents(sir, new RK4Solver(), state, 0, 30, 0.1, List.of(peak),
+                new CallbackSink((t, y) -> {
+                    // System.out.printf("t=%.1f, S=%.4f, I=%.4f, R=%.4f%n", t, y[0], y[1], y[2]);
+                    sSeries.add(new double[]{t, y[0]});
+                    iSeries.add(new double[]{t, y[1]});
+                    rSeries.add(new double[]{t, y[2]});
+                }));
+        for (double t : result.getTimes(peak)) {
+            System.out.printf("Infection peak at t = %.3f%n", t);
         }
 
         // Configure and show the figure
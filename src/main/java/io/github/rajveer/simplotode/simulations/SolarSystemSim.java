@@ -1,18 +1,26 @@
 package io.github.rajveer.simplotode.simulations;
 
-import io.github.rajveer.simplotode.ode.ODESolver;
-import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.ode.BlockTimestepIntegrator;
+import io.github.rajveer.simplotode.ode.Checkpointer;
 import io.github.rajveer.simplotode.systems.SolarSystem;
+import io.github.rajveer.simplotode.trajectory.BinaryTrajectoryReader;
+import io.github.rajveer.simplotode.trajectory.BinaryTrajectoryWriter;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
 import io.github.rajveer.simplotode.utils.Figure;
-import io.github.rajveer.simplotode.utils.Vector;
+import io.github.rajveer.simplotode.utils.ParticleState;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class SolarSystemSim {
 
-    public static void main(String[] args) {
+    private static final double DAY = 86400;
+
+    public static void main(String[] args) throws IOException {
         // Masses of celestial bodies in kg
         List<Double> masses = Arrays.asList(
                 1.99e30, 3.30e23, 4.87e24, 5.97e24, 7.35e22,
@@ -45,20 +53,30 @@ public class SolarSystemSim {
                 4.47e9, -5.31e7, -1.02e8, 0.0287, 5.47, -0.113
         };
 
-        // Create SolarSystem and RK4 solver
-        List<Vector> trajectory = getVectors(masses, initialStateKm);
+        // Write the full trajectory to a binary file instead of printing every day
+        Path output = Path.of(args.length > 0 ? args[0] : "solar-system.trj");
+        // Checkpoint every few minutes; an interrupted run continues from the last checkpoint
+        Checkpointer checkpointer = new Checkpointer(Path.of(output + ".ckpt"), Duration.ofMinutes(5));
+        try (BinaryTrajectoryWriter writer = BinaryTrajectoryWriter.uniform(output, DAY)) {
+            simulate(masses, initialStateKm, checkpointer, writer);
+        }
 
         // Figure Series-PosLists
         List<double[]> xs_fig = new ArrayList<>();
         List<double[]> ys_fig = new ArrayList<>();
         List<double[]> zs_fig = new ArrayList<>();
 
-// Output the trajectory
-        for (int i = 0; i < trajectory.size(); i++) {
-            System.out.println("Day " + i + ": " + trajectory.get(i));
-            xs_fig.add(new double[]{i, trajectory.get(i).get(0 + (6*1))});
-            ys_fig.add(new double[]{i, trajectory.get(i).get(1 + (6*1))});
-            zs_fig.add(new double[]{i, trajectory.get(i).get(2 + (6*1))});
+        // Reopen the run and read back Mercury's position
+        int mercury = 6 * 1;
+        try (BinaryTrajectoryReader trajectory = BinaryTrajectoryReader.open(output)) {
+            System.out.println("Wrote " + trajectory.size() + " states of dimension "
+                    + trajectory.getDimension() + " to " + output);
+            for (long i = 0; i < trajectory.size(); i++) {
+                double day = trajectory.getTime(i) / DAY;
+                xs_fig.add(new double[]{day, trajectory.get(i, mercury)});
+                ys_fig.add(new double[]{day, trajectory.get(i, mercury + 1)});
+                zs_fig.add(new double[]{day, trajectory.get(i, mercury + 2)});
+            }
         }
 
         Figure.setTitle("Mercury Position Over 365 Days");
@@ -73,24 +91,18 @@ public class SolarSystemSim {
 
     }
 
-    private static List<Vector> getVectors(List<Double> masses, double[] initialStateKm) {
+    private static void simulate(List<Double> masses, double[] initialStateKm,
+                                 Checkpointer checkpointer, TrajectorySink sink) throws IOException {
         SolarSystem solarSystem = new SolarSystem(masses);
-        ODESolver solver = new RK4Solver(); // or just: RK4Solver rk4 = new RK4Solver();
+        // Block timesteps: the Moon and Titan take many substeps per day, the outer planets one
+        BlockTimestepIntegrator integrator = new BlockTimestepIntegrator(0.02, 16);
 
 // Simulation parameters
         double t0 = 0;
-        double tEnd = 86400 * 365; // 1 year
-        double dt = 86400;         // 1 day
+        double tEnd = DAY * 365; // 1 year
+        double dt = DAY;         // 1 day
 
-        Vector y = new Vector(initialStateKm);
-        double t = t0;
-        List<Vector> trajectory = new ArrayList<>();
-
-        while (t < tEnd) {
-            trajectory.add(y);
-            y = solver.step(solarSystem, t, y, dt);
-            t += dt;
-        }
-        return trajectory;
+        ParticleState state = ParticleState.fromPacked(initialStateKm);
+        checkpointer.run(solarSystem, integrator, state, t0, tEnd, dt, sink);
     }
 }
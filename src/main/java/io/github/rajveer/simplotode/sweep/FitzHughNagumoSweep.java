@@ -0,0 +1,151 @@
+package io.github.rajveer.simplotode.sweep;
+
+import io.github.rajveer.simplotode.ode.EnsembleSolver;
+import io.github.rajveer.simplotode.systems.FitzHughNagumoEnsemble;
+import io.github.rajveer.simplotode.trajectory.OscillationObserver;
+
+import java.util.Arrays;
+
+/**
+ * Maps the resting and oscillating regimes of the FitzHugh-Nagumo model over a grid
+ * of its parameters.
+ * <p>
+ * Every grid point becomes one member of a {@link FitzHughNagumoEnsemble}, and the
+ * whole grid is integrated at once by an {@link EnsembleSolver}, which spreads the
+ * points over all cores. Each point's membrane voltage is fed to an
+ * {@link OscillationObserver} while it is integrated, so no trajectory is stored:
+ * only the spike count, period, amplitude, mean and final voltage after the transient
+ * end up in the {@link SweepResult}.
+ * <p>
+ * Axes of the grid name the parameters to vary: {@code "epsilon"}, {@code "a"},
+ * {@code "b"} or {@code "Iext"}; the others keep their base values.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * FitzHughNagumoSweep sweep = new FitzHughNagumoSweep(0.08, 0.7, 0.8, 0.5);
+ * SweepResult result = sweep.run(ParameterGrid.of("Iext", ParameterGrid.linspace(0, 1.5, 1000)),
+ *         200, 500, 0.01);
+ * </pre>
+ */
+public class FitzHughNagumoSweep {
+
+    /** Default spike threshold on V; spikes of the standard model peak near V = 2. */
+    public static final double DEFAULT_THRESHOLD = 1.0;
+
+    /** Default re-arm level on V; the recovery branch lies below V = -1. */
+    public static final double DEFAULT_REARM = 0.0;
+
+    private final double epsilon;
+    private final double a;
+    private final double b;
+    private final double Iext;
+    private final EnsembleSolver solver;
+
+    private double[] initialState = {0.0, 0.0};
+    private double threshold = DEFAULT_THRESHOLD;
+    private double rearm = DEFAULT_REARM;
+
+    /**
+     * Creates a sweep on the common fork/join pool.
+     *
+     * @param epsilon base time scale separation
+     * @param a       base parameter 'a'
+     * @param b       base parameter 'b'
+     * @param Iext    base external current
+     */
+    public FitzHughNagumoSweep(double epsilon, double a, double b, double Iext) {
+        this(epsilon, a, b, Iext, new EnsembleSolver());
+    }
+
+    /**
+     * Creates a sweep running on the given ensemble solver.
+     */
+    public FitzHughNagumoSweep(double epsilon, double a, double b, double Iext, EnsembleSolver solver) {
+        this.epsilon = epsilon;
+        this.a = a;
+        this.b = b;
+        this.Iext = Iext;
+        this.solver = solver;
+    }
+
+    /**
+     * Sets the initial state {@code [V, W]} used for every point (default {@code [0, 0]}).
+     */
+    public void setInitialState(double V, double W) {
+        this.initialState = new double[]{V, W};
+    }
+
+    /**
+     * Sets the spike detection levels on V.
+     *
+     * @param threshold level whose upward crossing counts as a spike
+     * @param rearm     level V must fall below before the next spike counts
+     */
+    public void setSpikeLevels(double threshold, double rearm) {
+        if (rearm > threshold) {
+            throw new IllegalArgumentException("Re-arm level must not exceed the threshold");
+        }
+        this.threshold = threshold;
+        this.rearm = rearm;
+    }
+
+    /**
+     * Integrates every grid point from {@code t = 0} to {@code tEnd} and measures it
+     * after {@code transientTime}.
+     *
+     * @param grid          the parameters to vary
+     * @param transientTime time discarded before measuring
+     * @param tEnd          final time
+     * @param dt            RK4 time step
+     * @return one row of observables per grid point
+     * @throws IllegalArgumentException if an axis does not name a model parameter
+     */
+    public SweepResult run(ParameterGrid grid, double transientTime, double tEnd, double dt) {
+        int n = grid.size();
+        double[][] parameters = new double[4][n];
+        Arrays.fill(parameters[0], epsilon);
+        Arrays.fill(parameters[1], a);
+        Arrays.fill(parameters[2], b);
+        Arrays.fill(parameters[3], Iext);
+        for (int axis = 0; axis < grid.getAxisCount(); axis++) {
+            double[] column = parameters[parameterIndex(grid.getName(axis))];
+            for (int p = 0; p < n; p++) {
+                column[p] = grid.value(p, axis);
+            }
+        }
+
+        double[][] y0 = new double[2][n];
+        Arrays.fill(y0[0], initialState[0]);
+        Arrays.fill(y0[1], initialState[1]);
+
+        OscillationObserver[] observers = new OscillationObserver[n];
+        for (int p = 0; p < n; p++) {
+            observers[p] = new OscillationObserver(0, transientTime, threshold, rearm);
+        }
+
+        FitzHughNagumoEnsemble ensemble = new FitzHughNagumoEnsemble(
+                parameters[0], parameters[1], parameters[2], parameters[3]);
+        solver.solve(ensemble, y0, 0, tEnd, dt, p -> observers[p]);
+
+        SweepResult result = new SweepResult(grid);
+        for (int p = 0; p < n; p++) {
+            OscillationObserver observer = observers[p];
+            result.spikeCount[p] = observer.getSpikeCount();
+            result.period[p] = observer.getPeriod();
+            result.amplitude[p] = observer.getAmplitude();
+            result.mean[p] = observer.getMean();
+            result.last[p] = observer.getLast();
+        }
+        return result;
+    }
+
+    private static int parameterIndex(String name) {
+        return switch (name) {
+            case "epsilon" -> 0;
+            case "a" -> 1;
+            case "b" -> 2;
+            case "Iext" -> 3;
+            default -> throw new IllegalArgumentException("Unknown FitzHugh-Nagumo parameter: " + name);
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.rajveer.simplotode.sweep;
+
+/**
+ * A one- or two-dimensional grid of named parameter values.
+ * <p>
+ * Points are numbered row-major: with axes {@code (p, q)}, point
+ * {@code i * q.length + j} has {@code p = p[i]} and {@code q = q[j]}.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * ParameterGrid grid = ParameterGrid.of(
+ *         "Iext", ParameterGrid.linspace(0, 1.5, 301),
+ *         "a", ParameterGrid.linspace(0.5, 1.0, 51));
+ * </pre>
+ */
+public class ParameterGrid {
+
+    private final String[] names;
+    private final double[][] values;
+
+    private ParameterGrid(String[] names, double[][] values) {
+        for (double[] axis : values) {
+            if (axis.length == 0) {
+                throw new IllegalArgumentException("Grid axes must not be empty");
+            }
+        }
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Creates a one-dimensional grid.
+     */
+    public static ParameterGrid of(String name, double[] values) {
+        return new ParameterGrid(new String[]{name}, new double[][]{values.clone()});
+    }
+
+    /**
+     * Creates a two-dimensional grid.
+     *
+     * @throws IllegalArgumentException if both axes have the same name
+     */
+    public static ParameterGrid of(String first, double[] firstValues, String second, double[] secondValues) {
+        if (first.equals(second)) {
+            throw new IllegalArgumentException("Grid axes must have different names: " + first);
+        }
+        return new ParameterGrid(new String[]{first, second},
+                new double[][]{firstValues.clone(), secondValues.clone()});
+    }
+
+    /**
+     * @return {@code count} evenly spaced values from {@code start} to {@code end} inclusive
+     */
+    public static double[] linspace(double start, double end, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        double[] result = new double[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = count == 1 ? start : start + (end - start) * i / (count - 1);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of axes, 1 or 2
+     */
+    public int getAxisCount() {
+        return names.length;
+    }
+
+    /**
+     * @return name of an axis
+     */
+    public String getName(int axis) {
+        return names[axis];
+    }
+
+    /**
+     * @return the values along an axis
+     */
+    public double[] getValues(int axis) {
+        return values[axis].clone();
+    }
+
+    /**
+     * @return total number of grid points
+     */
+    public int size() {
+        return names.length == 1 ? values[0].length : Math.multiplyExact(values[0].length, values[1].length);
+    }
+
+    /**
+     * @param point grid point index
+     * @param axis  axis index
+     * @return the value of the axis' parameter at the point
+     */
+    public double value(int point, int axis) {
+        if (names.length == 1) {
+            return values[0][point];
+        }
+        int columns = values[1].length;
+        return axis == 0 ? values[0][point / columns] : values[1][point % columns];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ParameterGrid[");
+        for (int axis = 0; axis < names.length; axis++) {
+            if (axis > 0) sb.append(" x ");
+            sb.append(names[axis]).append(" (").append(values[axis].length).append(" values)");
+        }
+        return sb.append(']').toString();
+    }
+}
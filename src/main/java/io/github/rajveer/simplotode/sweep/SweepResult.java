@@ -0,0 +1,105 @@
+package io.github.rajveer.simplotode.sweep;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Observables of every point of a parameter sweep, as a column-oriented table: one
+ * primitive array per column, indexed by grid point.
+ */
+public class SweepResult {
+
+    private final ParameterGrid grid;
+    final int[] spikeCount;
+    final double[] period;
+    final double[] amplitude;
+    final double[] mean;
+    final double[] last;
+
+    SweepResult(ParameterGrid grid) {
+        int n = grid.size();
+        this.grid = grid;
+        this.spikeCount = new int[n];
+        this.period = new double[n];
+        this.amplitude = new double[n];
+        this.mean = new double[n];
+        this.last = new double[n];
+    }
+
+    /**
+     * @return the swept grid
+     */
+    public ParameterGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * @return number of grid points
+     */
+    public int size() {
+        return spikeCount.length;
+    }
+
+    /**
+     * @return number of spikes after the transient
+     */
+    public int getSpikeCount(int point) {
+        return spikeCount[point];
+    }
+
+    /**
+     * @return mean interspike interval, or NaN with fewer than two spikes
+     */
+    public double getPeriod(int point) {
+        return period[point];
+    }
+
+    /**
+     * @return peak-to-peak amplitude after the transient
+     */
+    public double getAmplitude(int point) {
+        return amplitude[point];
+    }
+
+    /**
+     * @return mean value after the transient (the steady state if the point rests)
+     */
+    public double getMean(int point) {
+        return mean[point];
+    }
+
+    /**
+     * @return value at the final time
+     */
+    public double getFinal(int point) {
+        return last[point];
+    }
+
+    /**
+     * @return {@code true} if the point kept spiking after the transient
+     */
+    public boolean isOscillating(int point) {
+        return spikeCount[point] >= 2;
+    }
+
+    /**
+     * Writes the table as CSV, one row per grid point, with the parameter columns first.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        for (int axis = 0; axis < grid.getAxisCount(); axis++) {
+            out.append(grid.getName(axis)).append(',');
+        }
+        out.append("spikes,period,amplitude,mean,final\n");
+        for (int p = 0; p < size(); p++) {
+            for (int axis = 0; axis < grid.getAxisCount(); axis++) {
+                out.append(Double.toString(grid.value(p, axis))).append(',');
+            }
+            out.append(Integer.toString(spikeCount[p])).append(',')
+                    .append(String.format(Locale.ROOT, "%.6g,%.6g,%.6g,%.6g%n",
+                            period[p], amplitude[p], mean[p], last[p]));
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.rajveer.simplotode.systems;
+
+import java.util.Arrays;
+
+/**
+ * Approximate O(N log N) gravity using a Barnes-Hut octree.
+ * <p>
+ * Space is recursively divided into cubic cells, each storing the total mass and
+ * centre of mass of the bodies inside it. When computing the force on a body, a cell
+ * of width {@code s} at distance {@code d} is treated as a single point mass if
+ * {@code s / d < theta}; otherwise its children are visited. {@code theta = 0} visits
+ * every leaf and reproduces the direct sum; values around 0.5 are a common
+ * accuracy/speed trade-off. A cell containing the body itself is always opened.
+ * <p>
+ * The tree is rebuilt on every call, but its nodes live in flat arrays pooled per
+ * thread and only grow, so steady-state evaluation allocates nothing.
+ */
+public class BarnesHutGravity implements GravityKernel {
+
+    /** Cells are not split beyond this depth; coincident bodies share a leaf instead. */
+    private static final int MAX_DEPTH = 48;
+
+    private final double theta;
+    private final ThreadLocal<Octree> trees = ThreadLocal.withInitial(Octree::new);
+
+    /**
+     * Creates a Barnes-Hut kernel with the given opening angle.
+     *
+     * @param theta opening angle; smaller is more accurate and slower
+     * @throws IllegalArgumentException if {@code theta} is negative
+     */
+    public BarnesHutGravity(double theta) {
+        if (!(theta >= 0)) {
+            throw new IllegalArgumentException("Opening angle must be non-negative: " + theta);
+        }
+        this.theta = theta;
+    }
+
+    /**
+     * @return the opening angle
+     */
+    public double getTheta() {
+        return theta;
+    }
+
+    @Override
+    public void computeAccelerations(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                     double[] ax, double[] ay, double[] az) {
+        if (n == 0) {
+            return;
+        }
+        Octree tree = trees.get();
+        tree.build(mass, px, py, pz, n);
+        double theta2 = theta * theta;
+        for (int i = 0; i < n; i++) {
+            tree.accelerate(i, g, theta2, mass, px, py, pz, ax, ay, az);
+        }
+    }
+
+    /**
+     * Flat-array octree. Node {@code k} has its eight children at
+     * {@code firstChild[k] .. firstChild[k] + 7}, or {@code firstChild[k] == -1} if it
+     * is a leaf. Leaves hold a linked list of bodies threaded through {@code nextBody}.
+     */
+    private static final class Octree {
+
+        private int capacity;
+        private int size;
+
+        private double[] centerX, centerY, centerZ, halfWidth;
+        private double[] nodeMass, comX, comY, comZ;
+        private int[] firstChild, firstBody, depth;
+
+        private int[] nextBody = new int[0];
+        private int[] stack = new int[64];
+
+        Octree() {
+            allocate(64);
+        }
+
+        void build(double[] mass, double[] px, double[] py, double[] pz, int n) {
+            if (nextBody.length < n) {
+                nextBody = new int[n];
+            }
+
+            double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, px[i]);
+                maxX = Math.max(maxX, px[i]);
+                minY = Math.min(minY, py[i]);
+                maxY = Math.max(maxY, py[i]);
+                minZ = Math.min(minZ, pz[i]);
+                maxZ = Math.max(maxZ, pz[i]);
+            }
+            double half = 0.5 * Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+            // pad slightly so bodies on the upper faces fall strictly inside
+            half = half == 0 ? 1 : half * (1 + 1e-9);
+
+            size = 0;
+            newNode(0.5 * (minX + maxX), 0.5 * (minY + maxY), 0.5 * (minZ + maxZ), half, 0);
+            for (int i = 0; i < n; i++) {
+                insert(i, mass, px, py, pz);
+            }
+            for (int k = 0; k < size; k++) {
+                if (nodeMass[k] != 0) {
+                    comX[k] /= nodeMass[k];
+                    comY[k] /= nodeMass[k];
+                    comZ[k] /= nodeMass[k];
+                }
+            }
+        }
+
+        private void insert(int body, double[] mass, double[] px, double[] py, double[] pz) {
+            double x = px[body], y = py[body], z = pz[body], m = mass[body];
+            int node = 0;
+            while (true) {
+                nodeMass[node] += m;
+                comX[node] += m * x;
+                comY[node] += m * y;
+                comZ[node] += m * z;
+
+                if (firstChild[node] >= 0) {
+                    node = firstChild[node] + octant(node, x, y, z);
+                    continue;
+                }
+                if (firstBody[node] < 0 || depth[node] >= MAX_DEPTH) {
+                    nextBody[body] = firstBody[node];
+                    firstBody[node] = body;
+                    return;
+                }
+
+                // occupied leaf: split it and push its bodies one level down
+                split(node);
+                int moved = firstBody[node];
+                firstBody[node] = -1;
+                while (moved >= 0) {
+                    int following = nextBody[moved];
+                    int child = firstChild[node] + octant(node, px[moved], py[moved], pz[moved]);
+                    double mm = mass[moved];
+                    nodeMass[child] += mm;
+                    comX[child] += mm * px[moved];
+                    comY[child] += mm * py[moved];
+                    comZ[child] += mm * pz[moved];
+                    nextBody[moved] = firstBody[child];
+                    firstBody[child] = moved;
+                    moved = following;
+                }
+                node = firstChild[node] + octant(node, x, y, z);
+                // the loop adds this body's mass to the child on the next pass
+            }
+        }
+
+        private void split(int node) {
+            double h = 0.5 * halfWidth[node];
+            int first = size;
+            for (int o = 0; o < 8; o++) {
+                newNode(centerX[node] + ((o & 1) != 0 ? h : -h),
+                        centerY[node] + ((o & 2) != 0 ? h : -h),
+                        centerZ[node] + ((o & 4) != 0 ? h : -h),
+                        h, depth[node] + 1);
+            }
+            firstChild[node] = first;
+        }
+
+        private int octant(int node, double x, double y, double z) {
+            return (x >= centerX[node] ? 1 : 0) | (y >= centerY[node] ? 2 : 0) | (z >= centerZ[node] ? 4 : 0);
+        }
+
+        void accelerate(int i, double g, double theta2, double[] mass, double[] px, double[] py, double[] pz,
+                        double[] ax, double[] ay, double[] az) {
+            double xi = px[i], yi = py[i], zi = pz[i];
+            double sx = 0, sy = 0, sz = 0;
+
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (nodeMass[node] == 0) continue;
+
+                if (firstChild[node] < 0) {
+                    for (int j = firstBody[node]; j >= 0; j = nextBody[j]) {
+                        if (j == i) continue;
+                        double dx = px[j] - xi;
+                        double dy = py[j] - yi;
+                        double dz = pz[j] - zi;
+                        double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                        if (dist == 0) continue; // Avoid division by zero
+                        double factor = g * mass[j] / (dist * dist * dist);
+                        sx += dx * factor;
+                        sy += dy * factor;
+                        sz += dz * factor;
+                    }
+                    continue;
+                }
+
+                double dx = comX[node] - xi;
+                double dy = comY[node] - yi;
+                double dz = comZ[node] - zi;
+                double dist2 = dx * dx + dy * dy + dz * dz;
+                double width = 2 * halfWidth[node];
+                if (width * width < theta2 * dist2 && !contains(node, xi, yi, zi)) {
+                    double dist = Math.sqrt(dist2);
+                    double factor = g * nodeMass[node] / (dist2 * dist);
+                    sx += dx * factor;
+                    sy += dy * factor;
+                    sz += dz * factor;
+                    continue;
+                }
+
+                if (top + 8 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                int first = firstChild[node];
+                for (int o = 0; o < 8; o++) {
+                    stack[top++] = first + o;
+                }
+            }
+
+            ax[i] = sx;
+            ay[i] = sy;
+            az[i] = sz;
+        }
+
+        private boolean contains(int node, double x, double y, double z) {
+            double h = halfWidth[node];
+            return Math.abs(x - centerX[node]) <= h
+                    && Math.abs(y - centerY[node]) <= h
+                    && Math.abs(z - centerZ[node]) <= h;
+        }
+
+        private void newNode(double cx, double cy, double cz, double half, int level) {
+            if (size == capacity) {
+                allocate(capacity * 2);
+            }
+            int k = size++;
+            centerX[k] = cx;
+            centerY[k] = cy;
+            centerZ[k] = cz;
+            halfWidth[k] = half;
+            depth[k] = level;
+            nodeMass[k] = 0;
+            comX[k] = 0;
+            comY[k] = 0;
+            comZ[k] = 0;
+            firstChild[k] = -1;
+            firstBody[k] = -1;
+        }
+
+        private void allocate(int newCapacity) {
+            centerX = grow(centerX, newCapacity);
+            centerY = grow(centerY, newCapacity);
+            centerZ = grow(centerZ, newCapacity);
+            halfWidth = grow(halfWidth, newCapacity);
+            nodeMass = grow(nodeMass, newCapacity);
+            comX = grow(comX, newCapacity);
+            comY = grow(comY, newCapacity);
+            comZ = grow(comZ, newCapacity);
+            firstChild = grow(firstChild, newCapacity);
+            firstBody = grow(firstBody, newCapacity);
+            depth = grow(depth, newCapacity);
+            capacity = newCapacity;
+        }
+
+        private static double[] grow(double[] array, int length) {
+            return array == null ? new double[length] : Arrays.copyOf(array, length);
+        }
+
+        private static int[] grow(int[] array, int length) {
+            return array == null ? new int[length] : Arrays.copyOf(array, length);
+        }
+    }
+}
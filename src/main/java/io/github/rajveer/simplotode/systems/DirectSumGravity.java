@@ -0,0 +1,62 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * Exact O(N²) pairwise gravity, summing the pull of every other body on each body.
+ * <p>
+ * This is the reference kernel: approximate kernels such as {@link BarnesHutGravity}
+ * can be validated against it. Evaluating a subset of targets costs in proportion to
+ * its size, gives each target exactly the acceleration a full evaluation would, and
+ * finds the targets' orbital frequencies in the same pass.
+ */
+public class DirectSumGravity implements GravityKernel {
+
+    @Override
+    public void computeAccelerations(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                     double[] ax, double[] ay, double[] az) {
+        for (int i = 0; i < n; i++) {
+            accelerate(i, g, mass, px, py, pz, n, ax, ay, az);
+        }
+    }
+
+    @Override
+    public void computeAccelerations(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                     int[] targets, int count, double[] ax, double[] ay, double[] az,
+                                     double[] omega2) {
+        for (int k = 0; k < count; k++) {
+            omega2[targets[k]] = accelerate(targets[k], g, mass, px, py, pz, n, ax, ay, az);
+        }
+    }
+
+    /**
+     * Sums the pull of every other body on body {@code i}, returning the largest
+     * {@code G m_j / r³} among its pairs.
+     */
+    private static double accelerate(int i, double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                     double[] ax, double[] ay, double[] az) {
+        double xi = px[i], yi = py[i], zi = pz[i];
+        double sx = 0, sy = 0, sz = 0;
+        double maxFactor = 0;
+
+        for (int j = 0; j < n; j++) {
+            if (i == j) continue;
+
+            double dx = px[j] - xi;
+            double dy = py[j] - yi;
+            double dz = pz[j] - zi;
+
+            double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (dist == 0) continue; // Avoid division by zero
+
+            double factor = g * mass[j] / (dist * dist * dist);
+            sx += dx * factor;
+            sy += dy * factor;
+            sz += dz * factor;
+            maxFactor = Math.max(maxFactor, factor);
+        }
+
+        ax[i] = sx;
+        ay[i] = sy;
+        az[i] = sz;
+        return maxFactor;
+    }
+}
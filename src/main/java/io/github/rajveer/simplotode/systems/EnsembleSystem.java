@@ -0,0 +1,34 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * A family of M copies of the same ODE system, differing only in their parameters,
+ * evaluated together.
+ * <p>
+ * States are passed in structure-of-arrays form: {@code y[c][j]} is component
+ * {@code c} of member {@code offset + j}. The inner loop of an implementation runs
+ * across members with the same arithmetic for each, which the JIT turns into SIMD
+ * code, instead of across the few components of a single member.
+ */
+public interface EnsembleSystem {
+
+    /**
+     * @return number of state components per member
+     */
+    int getDimension();
+
+    /**
+     * @return number of members
+     */
+    int getMemberCount();
+
+    /**
+     * Computes the derivatives of a contiguous block of members in place.
+     *
+     * @param t      current time
+     * @param y      states, {@code y[c][j]} for {@code j < length}; must not be modified
+     * @param dydt   output, same layout as {@code y}
+     * @param offset index of the member stored at {@code j = 0}
+     * @param length number of members in the block
+     */
+    void computeDerivatives(double t, double[][] y, double[][] dydt, int offset, int length);
+}
@@ -0,0 +1,54 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * An ensemble of {@link FitzHughNagumoSystem}s, one per parameter set (ε, a, b, I_ext):
+ *
+ * dV/dt = V - V^3 / 3 - W + I_ext
+ * dW/dt = ε(V + a - bW)
+ */
+public class FitzHughNagumoEnsemble implements EnsembleSystem {
+
+    private final double[] epsilon;  // time scales for W
+    private final double[] a;        // threshold parameters
+    private final double[] b;        // recovery couplings
+    private final double[] Iext;     // external currents
+
+    /**
+     * @param epsilon time scale separation of each member
+     * @param a       parameter 'a' of each member
+     * @param b       parameter 'b' of each member
+     * @param Iext    external current of each member
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public FitzHughNagumoEnsemble(double[] epsilon, double[] a, double[] b, double[] Iext) {
+        if (a.length != epsilon.length || b.length != epsilon.length || Iext.length != epsilon.length) {
+            throw new IllegalArgumentException("Parameter arrays must have the same length");
+        }
+        this.epsilon = epsilon.clone();
+        this.a = a.clone();
+        this.b = b.clone();
+        this.Iext = Iext.clone();
+    }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public int getMemberCount() {
+        return epsilon.length;
+    }
+
+    @Override
+    public void computeDerivatives(double t, double[][] y, double[][] dydt, int offset, int length) {
+        double[] V = y[0], W = y[1];
+        double[] dV = dydt[0], dW = dydt[1];
+        for (int j = 0; j < length; j++) {
+            int m = offset + j;
+            double v = V[j];
+            dV[j] = v - (v * v * v) / 3.0 - W[j] + Iext[m];
+            dW[j] = epsilon[m] * (v + a[m] - b[m] * W[j]);
+        }
+    }
+}
@@ -35,12 +35,38 @@ public class FitzHughNagumoSystem implements ODESystem {
      */
     @Override
     public Vector computeDerivative(double t, Vector y) {
-        double V = y.get(0); // membrane voltage
-        double W = y.get(1); // recovery variable
+        double[] dydt = new double[2];
+        computeDerivative(t, y.toArray(), dydt);
+        return Vector.wrap(dydt);
+    }
+
+    /**
+     * Computes derivatives [dV/dt, dW/dt] in place at time t and state [V, W].
+     */
+    @Override
+    public void computeDerivative(double t, double[] y, double[] dydt) {
+        double V = y[0]; // membrane voltage
+        double W = y[1]; // recovery variable
+
+        dydt[0] = V - (V * V * V) / 3.0 - W + Iext;
+        dydt[1] = epsilon * (V + a - b * W);
+    }
 
-        double dVdt = V - (V * V * V) / 3.0 - W + Iext;
-        double dWdt = epsilon * (V + a - b * W);
+    @Override
+    public boolean hasJacobian() {
+        return true;
+    }
+
+    /**
+     * Computes the Jacobian of [dV/dt, dW/dt] with respect to [V, W].
+     */
+    @Override
+    public void computeJacobian(double t, double[] y, double[][] dfdy) {
+        double V = y[0];
 
-        return new Vector(new double[]{dVdt, dWdt});
+        dfdy[0][0] = 1 - V * V;
+        dfdy[0][1] = -1;
+        dfdy[1][0] = epsilon;
+        dfdy[1][1] = -epsilon * b;
     }
 }
@@ -0,0 +1,74 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * Strategy for evaluating Newtonian gravitational accelerations of N point masses.
+ * <p>
+ * Positions and accelerations are passed as separate x/y/z arrays (structure of
+ * arrays), which keeps the inner loops contiguous in memory. Implementations must be
+ * safe to call from several threads at once; any pooled scratch data is kept per
+ * thread.
+ */
+public interface GravityKernel {
+
+    /**
+     * Computes the acceleration of every body due to all other bodies:
+     * {@code a_i = sum_{j != i} G m_j (r_j - r_i) / |r_j - r_i|^3}.
+     * Coincident bodies exert no force on each other.
+     *
+     * @param g    gravitational constant in the units of the inputs
+     * @param mass body masses
+     * @param px   x positions
+     * @param py   y positions
+     * @param pz   z positions
+     * @param n    number of bodies to use from the arrays
+     * @param ax   output x accelerations
+     * @param ay   output y accelerations
+     * @param az   output z accelerations
+     */
+    void computeAccelerations(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                              double[] ax, double[] ay, double[] az);
+
+    /**
+     * Computes the acceleration of the listed bodies only, due to all other bodies,
+     * for integrators that advance bodies on individual timesteps. For each target it
+     * also reports {@code omega2 = max_j G m_j / |r_j - r_i|³}, the squared angular
+     * frequency of the fastest orbit the body could have around one of the others,
+     * from which its timestep is chosen.
+     * <p>
+     * Only the entries of the targets are defined afterwards. The default evaluates
+     * every body and then scans the pairs of the targets; kernels that can do better
+     * in proportion to the number of targets override it.
+     *
+     * @param g       gravitational constant in the units of the inputs
+     * @param mass    body masses
+     * @param px      x positions
+     * @param py      y positions
+     * @param pz      z positions
+     * @param n       number of bodies to use from the arrays
+     * @param targets indices of the bodies whose acceleration is needed
+     * @param count   number of entries of {@code targets} to use
+     * @param ax      output x accelerations, indexed by body
+     * @param ay      output y accelerations, indexed by body
+     * @param az      output z accelerations, indexed by body
+     * @param omega2  output squared frequencies, indexed by body
+     */
+    default void computeAccelerations(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                      int[] targets, int count, double[] ax, double[] ay, double[] az,
+                                      double[] omega2) {
+        computeAccelerations(g, mass, px, py, pz, n, ax, ay, az);
+        for (int k = 0; k < count; k++) {
+            int i = targets[k];
+            double max = 0;
+            for (int j = 0; j < n; j++) {
+                double dx = px[j] - px[i];
+                double dy = py[j] - py[i];
+                double dz = pz[j] - pz[i];
+                double r2 = dx * dx + dy * dy + dz * dz;
+                if (j != i && r2 != 0) {
+                    max = Math.max(max, g * mass[j] / (r2 * Math.sqrt(r2)));
+                }
+            }
+            omega2[i] = max;
+        }
+    }
+}
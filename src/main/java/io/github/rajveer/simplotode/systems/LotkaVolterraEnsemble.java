@@ -0,0 +1,55 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * An ensemble of {@link LotkaVolterraSystem}s, one per parameter set (α, β, δ, γ):
+ *
+ * dx/dt = αx - βxy      (prey)
+ * dy/dt = δxy - γy      (predator)
+ */
+public class LotkaVolterraEnsemble implements EnsembleSystem {
+
+    private final double[] alpha;  // prey birth rates
+    private final double[] beta;   // predation rates
+    private final double[] delta;  // predator reproduction rates
+    private final double[] gamma;  // predator death rates
+
+    /**
+     * @param alpha prey birth rate of each member
+     * @param beta  predation rate of each member
+     * @param delta predator reproduction rate of each member
+     * @param gamma predator death rate of each member
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public LotkaVolterraEnsemble(double[] alpha, double[] beta, double[] delta, double[] gamma) {
+        if (beta.length != alpha.length || delta.length != alpha.length || gamma.length != alpha.length) {
+            throw new IllegalArgumentException("Parameter arrays must have the same length");
+        }
+        this.alpha = alpha.clone();
+        this.beta = beta.clone();
+        this.delta = delta.clone();
+        this.gamma = gamma.clone();
+    }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public int getMemberCount() {
+        return alpha.length;
+    }
+
+    @Override
+    public void computeDerivatives(double t, double[][] y, double[][] dydt, int offset, int length) {
+        double[] prey = y[0], predator = y[1];
+        double[] dPrey = dydt[0], dPredator = dydt[1];
+        for (int j = 0; j < length; j++) {
+            int m = offset + j;
+            double x = prey[j];
+            double yPred = predator[j];
+            dPrey[j] = alpha[m] * x - beta[m] * x * yPred;
+            dPredator[j] = delta[m] * x * yPred - gamma[m] * yPred;
+        }
+    }
+}
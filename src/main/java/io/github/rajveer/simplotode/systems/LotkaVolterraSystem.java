@@ -7,6 +7,8 @@ import io.github.rajveer.simplotode.utils.Vector;
  *
  * dx/dt = αx - βxy      (prey)
  * dy/dt = δxy - γy      (predator)
+ *
+ * The parameters for sensitivity analysis are (α, β, δ, γ), in that order.
  */
 public class LotkaVolterraSystem implements ODESystem {
 
@@ -34,12 +36,66 @@ public class LotkaVolterraSystem implements ODESystem {
      */
     @Override
     public Vector computeDerivative(double t, Vector y) {
-        double x = y.get(0); // prey
-        double yPred = y.get(1); // predator
+        double[] dydt = new double[2];
+        computeDerivative(t, y.toArray(), dydt);
+        return Vector.wrap(dydt);
+    }
+
+    /**
+     * Computes the derivatives [dx/dt, dy/dt] in place.
+     *
+     * @param t    time (not used in this autonomous system)
+     * @param y    state [x, y] where x is prey, y is predator
+     * @param dydt output array receiving [dx/dt, dy/dt]
+     */
+    @Override
+    public void computeDerivative(double t, double[] y, double[] dydt) {
+        double x = y[0]; // prey
+        double yPred = y[1]; // predator
+
+        dydt[0] = alpha * x - beta * x * yPred;
+        dydt[1] = delta * x * yPred - gamma * yPred;
+    }
+
+    @Override
+    public boolean hasJacobian() {
+        return true;
+    }
 
-        double dxdt = alpha * x - beta * x * yPred;
-        double dydt = delta * x * yPred - gamma * yPred;
+    /**
+     * Computes the Jacobian of [dx/dt, dy/dt] with respect to [x, y].
+     */
+    @Override
+    public void computeJacobian(double t, double[] y, double[][] dfdy) {
+        double x = y[0]; // prey
+        double yPred = y[1]; // predator
+
+        dfdy[0][0] = alpha - beta * yPred;
+        dfdy[0][1] = -beta * x;
+        dfdy[1][0] = delta * yPred;
+        dfdy[1][1] = delta * x - gamma;
+    }
+
+    @Override
+    public int getParameterCount() {
+        return 4;
+    }
+
+    /**
+     * Computes the Jacobian of [dx/dt, dy/dt] with respect to [α, β, δ, γ].
+     */
+    @Override
+    public void computeParameterJacobian(double t, double[] y, double[][] dfdp) {
+        double x = y[0]; // prey
+        double yPred = y[1]; // predator
 
-        return new Vector(new double[]{dxdt, dydt});
+        dfdp[0][0] = x;
+        dfdp[0][1] = -x * yPred;
+        dfdp[0][2] = 0;
+        dfdp[0][3] = 0;
+        dfdp[1][0] = 0;
+        dfdp[1][1] = 0;
+        dfdp[1][2] = x * yPred;
+        dfdp[1][3] = -yPred;
     }
 }
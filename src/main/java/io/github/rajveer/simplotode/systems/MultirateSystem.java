@@ -0,0 +1,33 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * A {@link SecondOrderSystem} whose particles can be advanced on individual
+ * timesteps, as by {@code ode.BlockTimestepIntegrator}.
+ * <p>
+ * Such a system evaluates the acceleration of a subset of particles at a cost
+ * proportional to the subset, and reports for each of them the timescale of its
+ * local dynamics, from which its step is chosen.
+ */
+public interface MultirateSystem extends SecondOrderSystem {
+
+    /**
+     * Computes the acceleration and the timescale of the listed particles only, due
+     * to all particles at the given positions. Only the entries of the active
+     * particles are defined afterwards.
+     *
+     * @param t         current time
+     * @param x         x positions of all particles
+     * @param y         y positions of all particles
+     * @param z         z positions of all particles
+     * @param active    indices of the particles to evaluate
+     * @param count     number of entries of {@code active} to use
+     * @param ax        output x accelerations, indexed by particle
+     * @param ay        output y accelerations, indexed by particle
+     * @param az        output z accelerations, indexed by particle
+     * @param timescale output timescales on which each particle's motion changes, e.g.
+     *                  an orbital period over 2π; {@link Double#POSITIVE_INFINITY} for
+     *                  a particle that never needs a step of its own
+     */
+    void computeAcceleration(double t, double[] x, double[] y, double[] z, int[] active, int count,
+                             double[] ax, double[] ay, double[] az, double[] timescale);
+}
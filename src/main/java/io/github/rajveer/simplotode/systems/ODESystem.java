@@ -17,4 +17,77 @@ public interface ODESystem {
      */
     Vector computeDerivative(double t, Vector y);
 
+    /**
+     * Computes the derivative of the system in place, without allocating.
+     * <p>
+     * The default implementation adapts {@link #computeDerivative(double, Vector)}.
+     * The bundled systems override this method and implement the {@link Vector}
+     * form on top of it, so solvers working on raw arrays never allocate.
+     *
+     * @param t    current time
+     * @param y    current state y(t); must not be modified
+     * @param dydt output array of the same length as {@code y}, receives dy/dt
+     */
+    default void computeDerivative(double t, double[] y, double[] dydt) {
+        computeDerivative(t, Vector.wrap(y)).copyTo(dydt);
+    }
+
+    /**
+     * Whether {@link #computeJacobian(double, double[], double[][])} is implemented.
+     * Implicit solvers approximate the Jacobian by finite differences otherwise.
+     *
+     * @return {@code true} if the system supplies an analytic Jacobian
+     */
+    default boolean hasJacobian() {
+        return false;
+    }
+
+    /**
+     * Computes the Jacobian {@code J[i][j] = d(dy_i/dt) / dy_j} in place.
+     *
+     * @param t    current time
+     * @param y    current state y(t); must not be modified
+     * @param dfdy output matrix of size {@code n x n}
+     * @throws UnsupportedOperationException if {@link #hasJacobian()} is {@code false}
+     */
+    default void computeJacobian(double t, double[] y, double[][] dfdy) {
+        throw new UnsupportedOperationException("This system has no analytic Jacobian");
+    }
+
+    /**
+     * Number of model parameters {@code p} for which the system supplies
+     * {@link #computeParameterJacobian(double, double[], double[][]) df/dp}, enabling
+     * forward sensitivity analysis with {@link SensitivitySystem}.
+     *
+     * @return number of parameters, {@code 0} if the system exposes none
+     */
+    default int getParameterCount() {
+        return 0;
+    }
+
+    /**
+     * Computes the parameter Jacobian {@code P[i][k] = d(dy_i/dt) / dp_k} in place.
+     *
+     * @param t    current time
+     * @param y    current state y(t); must not be modified
+     * @param dfdp output matrix of size {@code n x getParameterCount()}
+     * @throws UnsupportedOperationException if the system exposes no parameters
+     */
+    default void computeParameterJacobian(double t, double[] y, double[][] dfdp) {
+        throw new UnsupportedOperationException("This system exposes no parameters");
+    }
+
+    /**
+     * The system whose equations this one evaluates: itself, unless this is a
+     * decorator that forwards every call to another system. Solvers compare this
+     * rather than the instance when deciding whether state kept from their previous
+     * step still applies, so wrapping a system, e.g. to count its evaluations, does
+     * not restart them.
+     *
+     * @return the innermost system
+     */
+    default ODESystem unwrap() {
+        return this;
+    }
+
 }
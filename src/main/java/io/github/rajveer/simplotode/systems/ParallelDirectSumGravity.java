@@ -0,0 +1,194 @@
+package io.github.rajveer.simplotode.systems;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Exact pairwise gravity evaluated on all cores, using Newton's third law.
+ * <p>
+ * Bodies are grouped into tiles of {@code tileSize} consecutive indices, and the
+ * upper triangle of tile pairs {@code (I, J)}, {@code I <= J}, is split into equal
+ * contiguous ranges, one per worker. Each pair of bodies is visited once and its
+ * force is added to body {@code i} and subtracted from body {@code j}, halving the
+ * arithmetic of {@link DirectSumGravity}. Because two workers may touch the same body,
+ * every worker accumulates into its own acceleration buffers, and the buffers are
+ * summed in a final parallel reduction.
+ * <p>
+ * Results agree with {@link DirectSumGravity} up to floating-point rounding.
+ * Below {@link #SERIAL_THRESHOLD} bodies the symmetric loop runs on the calling
+ * thread, where fork/join overhead would dominate.
+ */
+public class ParallelDirectSumGravity implements GravityKernel {
+
+    /** Systems smaller than this are evaluated serially. */
+    public static final int SERIAL_THRESHOLD = 512;
+
+    private static final int DEFAULT_TILE_SIZE = 128;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+    /** Per-calling-thread worker buffers: {@code [3 * worker + axis][body]}. */
+    private final ThreadLocal<double[][]> buffers = new ThreadLocal<>();
+
+    /**
+     * Creates a kernel running on the common fork/join pool.
+     */
+    public ParallelDirectSumGravity() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Creates a kernel running on the given pool.
+     *
+     * @param pool     the pool executing the tile tasks
+     * @param tileSize number of bodies per tile
+     */
+    public ParallelDirectSumGravity(ForkJoinPool pool, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    @Override
+    public void computeAccelerations(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                     double[] ax, double[] ay, double[] az) {
+        int workers = pool.getParallelism();
+        if (n < SERIAL_THRESHOLD || workers == 1) {
+            Arrays.fill(ax, 0, n, 0);
+            Arrays.fill(ay, 0, n, 0);
+            Arrays.fill(az, 0, n, 0);
+            accumulateTile(g, mass, px, py, pz, 0, n, 0, n, ax, ay, az);
+            return;
+        }
+
+        double[][] acc = workerBuffers(workers, n);
+        int tiles = (n + tileSize - 1) / tileSize;
+        long pairs = (long) tiles * (tiles + 1) / 2;
+
+        RecursiveAction[] tasks = new RecursiveAction[workers];
+        for (int w = 0; w < workers; w++) {
+            long from = pairs * w / workers;
+            long to = pairs * (w + 1) / workers;
+            double[] bx = acc[3 * w], by = acc[3 * w + 1], bz = acc[3 * w + 2];
+            tasks[w] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    Arrays.fill(bx, 0, n, 0);
+                    Arrays.fill(by, 0, n, 0);
+                    Arrays.fill(bz, 0, n, 0);
+                    accumulatePairs(g, mass, px, py, pz, n, tiles, from, to, bx, by, bz);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        // Reduce the per-worker buffers, one block of bodies per worker
+        RecursiveAction[] reductions = new RecursiveAction[workers];
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) n * w / workers);
+            int to = (int) ((long) n * (w + 1) / workers);
+            reductions[w] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    for (int i = from; i < to; i++) {
+                        double sx = 0, sy = 0, sz = 0;
+                        for (int k = 0; k < workers; k++) {
+                            sx += acc[3 * k][i];
+                            sy += acc[3 * k + 1][i];
+                            sz += acc[3 * k + 2][i];
+                        }
+                        ax[i] = sx;
+                        ay[i] = sy;
+                        az[i] = sz;
+                    }
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(reductions);
+            }
+        });
+    }
+
+    /**
+     * Processes tile pairs {@code from .. to-1} of the row-major upper triangle.
+     */
+    private void accumulatePairs(double g, double[] mass, double[] px, double[] py, double[] pz, int n,
+                                 int tiles, long from, long to, double[] bx, double[] by, double[] bz) {
+        // locate the starting tile pair (I, J)
+        int tileI = 0;
+        long remaining = from;
+        while (remaining >= tiles - tileI) {
+            remaining -= tiles - tileI;
+            tileI++;
+        }
+        int tileJ = tileI + (int) remaining;
+
+        for (long p = from; p < to; p++) {
+            int i0 = tileI * tileSize, i1 = Math.min(n, i0 + tileSize);
+            int j0 = tileJ * tileSize, j1 = Math.min(n, j0 + tileSize);
+            accumulateTile(g, mass, px, py, pz, i0, i1, j0, j1, bx, by, bz);
+
+            if (++tileJ == tiles) {
+                tileI++;
+                tileJ = tileI;
+            }
+        }
+    }
+
+    /**
+     * Adds the mutual forces of all pairs {@code i} in {@code [i0, i1)}, {@code j} in
+     * {@code [j0, j1)}, {@code i < j}, to both bodies.
+     */
+    private static void accumulateTile(double g, double[] mass, double[] px, double[] py, double[] pz,
+                                       int i0, int i1, int j0, int j1, double[] bx, double[] by, double[] bz) {
+        for (int i = i0; i < i1; i++) {
+            double xi = px[i], yi = py[i], zi = pz[i], mi = mass[i];
+            double sx = 0, sy = 0, sz = 0;
+
+            for (int j = Math.max(j0, i + 1); j < j1; j++) {
+                double dx = px[j] - xi;
+                double dy = py[j] - yi;
+                double dz = pz[j] - zi;
+
+                double dist2 = dx * dx + dy * dy + dz * dz;
+                if (dist2 == 0) continue; // Avoid division by zero
+
+                double dist = Math.sqrt(dist2);
+                double inv = g / (dist2 * dist);
+                double fi = mass[j] * inv;
+                double fj = mi * inv;
+                sx += dx * fi;
+                sy += dy * fi;
+                sz += dz * fi;
+                bx[j] -= dx * fj;
+                by[j] -= dy * fj;
+                bz[j] -= dz * fj;
+            }
+
+            bx[i] += sx;
+            by[i] += sy;
+            bz[i] += sz;
+        }
+    }
+
+    private double[][] workerBuffers(int workers, int n) {
+        double[][] acc = buffers.get();
+        if (acc == null || acc.length != 3 * workers || acc[0].length < n) {
+            acc = new double[3 * workers][n];
+            buffers.set(acc);
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * An ensemble of {@link SIRModelSystem}s, one per parameter set (k, γ, μ):
+ *
+ * dS/dt = -k * S * I + μ * (1 - S)
+ * dI/dt =  k * S * I - (γ + μ) * I
+ * dR/dt =  γ * I - μ * R
+ */
+public class SIREnsemble implements EnsembleSystem {
+
+    private final double[] k;      // transmission rates
+    private final double[] gamma;  // recovery rates
+    private final double[] mu;     // birth/death rates
+
+    /**
+     * @param k     transmission rate of each member
+     * @param gamma recovery rate of each member
+     * @param mu    turnover rate of each member
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public SIREnsemble(double[] k, double[] gamma, double[] mu) {
+        if (gamma.length != k.length || mu.length != k.length) {
+            throw new IllegalArgumentException("Parameter arrays must have the same length");
+        }
+        this.k = k.clone();
+        this.gamma = gamma.clone();
+        this.mu = mu.clone();
+    }
+
+    @Override
+    public int getDimension() {
+        return 3;
+    }
+
+    @Override
+    public int getMemberCount() {
+        return k.length;
+    }
+
+    @Override
+    public void computeDerivatives(double t, double[][] y, double[][] dydt, int offset, int length) {
+        double[] S = y[0], I = y[1], R = y[2];
+        double[] dS = dydt[0], dI = dydt[1], dR = dydt[2];
+        for (int j = 0; j < length; j++) {
+            int m = offset + j;
+            double infection = k[m] * S[j] * I[j];
+            dS[j] = -infection + mu[m] * (1 - S[j]);
+            dI[j] = infection - (gamma[m] + mu[m]) * I[j];
+            dR[j] = gamma[m] * I[j] - mu[m] * R[j];
+        }
+    }
+}
@@ -8,6 +8,8 @@ import io.github.rajveer.simplotode.utils.Vector;
  * dS/dt = -k * S * I + μ * (1 - S)
  * dI/dt =  k * S * I - (γ + μ) * I
  * dR/dt =  γ * I - μ * R
+ *
+ * The parameters for sensitivity analysis are (k, γ, μ), in that order.
  */
 public class SIRModelSystem implements ODESystem {
 
@@ -26,14 +28,71 @@ public class SIRModelSystem implements ODESystem {
      */
     @Override
     public Vector computeDerivative(double t, Vector y) {
-        double S = y.get(0);
-        double I = y.get(1);
-        double R = y.get(2);
+        double[] dydt = new double[3];
+        computeDerivative(t, y.toArray(), dydt);
+        return Vector.wrap(dydt);
+    }
+
+    /**
+     * Computes [dS/dt, dI/dt, dR/dt] in place at time t and state [S, I, R].
+     */
+    @Override
+    public void computeDerivative(double t, double[] y, double[] dydt) {
+        double S = y[0];
+        double I = y[1];
+        double R = y[2];
 
-        double dSdt = -k * S * I + mu * (1 - S);
-        double dIdt = k * S * I - (gamma + mu) * I;
-        double dRdt = gamma * I - mu * R;
+        dydt[0] = -k * S * I + mu * (1 - S);
+        dydt[1] = k * S * I - (gamma + mu) * I;
+        dydt[2] = gamma * I - mu * R;
+    }
+
+    @Override
+    public boolean hasJacobian() {
+        return true;
+    }
+
+    /**
+     * Computes the Jacobian of [dS/dt, dI/dt, dR/dt] with respect to [S, I, R].
+     */
+    @Override
+    public void computeJacobian(double t, double[] y, double[][] dfdy) {
+        double S = y[0];
+        double I = y[1];
+
+        dfdy[0][0] = -k * I - mu;
+        dfdy[0][1] = -k * S;
+        dfdy[0][2] = 0;
+        dfdy[1][0] = k * I;
+        dfdy[1][1] = k * S - (gamma + mu);
+        dfdy[1][2] = 0;
+        dfdy[2][0] = 0;
+        dfdy[2][1] = gamma;
+        dfdy[2][2] = -mu;
+    }
+
+    @Override
+    public int getParameterCount() {
+        return 3;
+    }
+
+    /**
+     * Computes the Jacobian of [dS/dt, dI/dt, dR/dt] with respect to [k, γ, μ].
+     */
+    @Override
+    public void computeParameterJacobian(double t, double[] y, double[][] dfdp) {
+        double S = y[0];
+        double I = y[1];
+        double R = y[2];
 
-        return new Vector(new double[]{dSdt, dIdt, dRdt});
+        dfdp[0][0] = -S * I;
+        dfdp[0][1] = 0;
+        dfdp[0][2] = 1 - S;
+        dfdp[1][0] = S * I;
+        dfdp[1][1] = -I;
+        dfdp[1][2] = -I;
+        dfdp[2][0] = 0;
+        dfdp[2][1] = I;
+        dfdp[2][2] = -R;
     }
 }
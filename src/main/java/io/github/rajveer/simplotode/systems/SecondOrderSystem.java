@@ -0,0 +1,27 @@
+package io.github.rajveer.simplotode.systems;
+
+/**
+ * A system of N particles obeying {@code d²r/dt² = a(t, r)}, where the acceleration
+ * depends on positions only.
+ * <p>
+ * This is the separable Hamiltonian case {@code H = T(v) + V(r)} (e.g. gravity),
+ * for which symplectic integrators such as velocity Verlet conserve energy far
+ * better over long runs than general-purpose Runge-Kutta methods. Positions and
+ * accelerations are passed as structure-of-arrays coordinates.
+ */
+public interface SecondOrderSystem {
+
+    /**
+     * Computes the acceleration of every particle.
+     *
+     * @param t  current time
+     * @param x  x positions
+     * @param y  y positions
+     * @param z  z positions
+     * @param ax output x accelerations
+     * @param ay output y accelerations
+     * @param az output z accelerations
+     */
+    void computeAcceleration(double t, double[] x, double[] y, double[] z,
+                             double[] ax, double[] ay, double[] az);
+}
@@ -13,9 +13,18 @@ import java.util.List;
  * to compute derivatives of the state.
  * <p>
  * The system supports any number of bodies, with masses provided at construction.
+ * Accelerations are delegated to a {@link GravityKernel}: the exact {@link DirectSumGravity}
+ * by default, or e.g. {@link BarnesHutGravity} for large particle clouds.
  * Note: In the current implementation, the Sun (index 0) is kept static and does not move.
+ * <p>
+ * The system can also be integrated in structure-of-arrays form through
+ * {@link SecondOrderSystem} by the symplectic integrators; there the Sun's acceleration
+ * is zero, so it stays fixed as long as its initial velocity is zero.
+ * <p>
+ * As a {@link MultirateSystem} each body can also advance on its own timestep: a
+ * moon is stepped many times per day while an outer planet takes steps of weeks.
  */
-public class SolarSystem implements ODESystem {
+public class SolarSystem implements ODESystem, MultirateSystem {
 
     /**
      * Gravitational constant in km³·kg⁻¹·s⁻².
@@ -23,17 +32,58 @@ public class SolarSystem implements ODESystem {
     private static final double G = 6.67430e-20;
 
     /**
-     * List of masses for each celestial body in kilograms.
+     * Masses of each celestial body in kilograms, unboxed once at construction.
      */
-    private final List<Double> masses;
+    private final double[] masses;
 
     /**
-     * Constructs a new solar system with the specified masses.
+     * Strategy used to evaluate the gravitational accelerations.
+     */
+    private final GravityKernel kernel;
+
+    /**
+     * Per-thread structure-of-arrays scratch space for positions and accelerations.
+     */
+    private final ThreadLocal<double[][]> scratch;
+
+    /**
+     * Constructs a new solar system with the specified masses, using exact direct-sum gravity.
      *
      * @param masses list of body masses in kilograms, in the same order as the state vector
      */
     public SolarSystem(List<Double> masses) {
-        this.masses = masses;
+        this(masses, new DirectSumGravity());
+    }
+
+    /**
+     * Constructs a new solar system with the specified masses and gravity kernel.
+     *
+     * @param masses list of body masses in kilograms, in the same order as the state vector
+     * @param kernel the kernel computing gravitational accelerations
+     */
+    public SolarSystem(List<Double> masses, GravityKernel kernel) {
+        this(masses.stream().mapToDouble(Double::doubleValue).toArray(), kernel);
+    }
+
+    /**
+     * Constructs a new solar system from a primitive mass array, avoiding boxing
+     * for systems with many bodies.
+     *
+     * @param masses body masses in kilograms, in the same order as the state vector
+     * @param kernel the kernel computing gravitational accelerations
+     */
+    public SolarSystem(double[] masses, GravityKernel kernel) {
+        this.masses = masses.clone();
+        this.kernel = kernel;
+        int n = masses.length;
+        this.scratch = ThreadLocal.withInitial(() -> new double[6][n]);
+    }
+
+    /**
+     * @return the number of bodies in the system
+     */
+    public int getBodyCount() {
+        return masses.length;
     }
 
     /**
@@ -48,8 +98,37 @@ public class SolarSystem implements ODESystem {
      */
     @Override
     public Vector computeDerivative(double t, Vector y) {
-        int numBodies = masses.size();
-        double[] dydt = new double[6 * numBodies];
+        double[] dydt = new double[6 * masses.length];
+        computeDerivative(t, y.toArray(), dydt);
+        return Vector.wrap(dydt);
+    }
+
+    /**
+     * Computes the time derivative of the state vector in place.
+     * <p>
+     * Positions are gathered from the packed {@code [x, y, z, vx, vy, vz]} layout into
+     * per-thread scratch arrays, the kernel computes accelerations, and the results are
+     * scattered back. Nothing is allocated after the first call on a thread.
+     *
+     * @param t    the current simulation time
+     * @param y    the current state of length 6N (N = number of bodies)
+     * @param dydt output array of length 6N receiving dy/dt
+     */
+    @Override
+    public void computeDerivative(double t, double[] y, double[] dydt) {
+        int numBodies = masses.length;
+        double[][] soa = scratch.get();
+        double[] px = soa[0], py = soa[1], pz = soa[2];
+        double[] ax = soa[3], ay = soa[4], az = soa[5];
+
+        for (int i = 0; i < numBodies; i++) {
+            int posIndex = i * 6;
+            px[i] = y[posIndex];
+            py[i] = y[posIndex + 1];
+            pz[i] = y[posIndex + 2];
+        }
+
+        kernel.computeAccelerations(G, masses, px, py, pz, numBodies, ax, ay, az);
 
         for (int i = 0; i < numBodies; i++) {
             int posIndex = i * 6;
@@ -63,51 +142,64 @@ public class SolarSystem implements ODESystem {
                 continue;
             }
 
-            // Extract position and velocity for body i
-            Vector ri = new Vector(new double[]{
-                    y.get(posIndex),
-                    y.get(posIndex + 1),
-                    y.get(posIndex + 2)
-            });
-            Vector vi = new Vector(new double[]{
-                    y.get(velIndex),
-                    y.get(velIndex + 1),
-                    y.get(velIndex + 2)
-            });
-
             // Derivative of position is the velocity
-            dydt[posIndex] = vi.get(0);
-            dydt[posIndex + 1] = vi.get(1);
-            dydt[posIndex + 2] = vi.get(2);
-
-            // Initialize acceleration
-            Vector ai = new Vector(new double[]{0, 0, 0});
-
-            // Compute gravitational acceleration from other bodies
-            for (int j = 0; j < numBodies; j++) {
-                if (i == j) continue;
-
-                int rjIndex = j * 6;
-                Vector rj = new Vector(new double[]{
-                        y.get(rjIndex),
-                        y.get(rjIndex + 1),
-                        y.get(rjIndex + 2)
-                });
-
-                Vector rij = rj.subtract(ri);
-                double dist = rij.magnitude();
-                if (dist == 0) continue; // Avoid division by zero
-
-                double factor = G * masses.get(j) / (dist * dist * dist);
-                ai = ai.add(rij.scale(factor));
-            }
+            dydt[posIndex] = y[velIndex];
+            dydt[posIndex + 1] = y[velIndex + 1];
+            dydt[posIndex + 2] = y[velIndex + 2];
 
             // Derivative of velocity is the acceleration
-            dydt[velIndex] = ai.get(0);
-            dydt[velIndex + 1] = ai.get(1);
-            dydt[velIndex + 2] = ai.get(2);
+            dydt[velIndex] = ax[i];
+            dydt[velIndex + 1] = ay[i];
+            dydt[velIndex + 2] = az[i];
+        }
+    }
+
+    /**
+     * Computes the gravitational acceleration of every body from structure-of-arrays
+     * positions. The Sun (index 0) gets zero acceleration.
+     *
+     * @param t  the current simulation time
+     * @param x  x positions in km
+     * @param y  y positions in km
+     * @param z  z positions in km
+     * @param ax output x accelerations in km/s²
+     * @param ay output y accelerations in km/s²
+     * @param az output z accelerations in km/s²
+     */
+    @Override
+    public void computeAcceleration(double t, double[] x, double[] y, double[] z,
+                                    double[] ax, double[] ay, double[] az) {
+        kernel.computeAccelerations(G, masses, x, y, z, masses.length, ax, ay, az);
+        if (masses.length > 0) {
+            ax[0] = 0;
+            ay[0] = 0;
+            az[0] = 0;
         }
+    }
 
-        return new Vector(dydt);
+    /**
+     * Computes the gravitational acceleration of the active bodies only, from
+     * structure-of-arrays positions. The Sun (index 0) gets zero acceleration.
+     * <p>
+     * A body's timescale is {@code min_j sqrt(r³ / (G m_j))} over the other bodies: its
+     * orbital period over 2π around the body whose pull, relative to the distance, is
+     * strongest. For a moon this is its orbit around its planet, while a planet is
+     * hardly disturbed by its moons. The fixed Sun never needs a step of its own.
+     */
+    @Override
+    public void computeAcceleration(double t, double[] x, double[] y, double[] z, int[] active, int count,
+                                    double[] ax, double[] ay, double[] az, double[] timescale) {
+        kernel.computeAccelerations(G, masses, x, y, z, masses.length, active, count, ax, ay, az, timescale);
+        for (int k = 0; k < count; k++) {
+            int i = active[k];
+            if (i == 0) {
+                ax[0] = 0;
+                ay[0] = 0;
+                az[0] = 0;
+                timescale[0] = Double.POSITIVE_INFINITY;
+            } else {
+                timescale[i] = 1 / Math.sqrt(timescale[i]);
+            }
+        }
     }
 }
@@ -0,0 +1,237 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random-access view of a trajectory file written by {@link BinaryTrajectoryWriter}.
+ * <p>
+ * The records are memory-mapped read-only, so opening a file costs the same whatever
+ * its size, and a read touches only the pages it needs. Files larger than a single
+ * {@link MappedByteBuffer} can address are mapped as several segments, each holding a
+ * whole number of records.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * try (BinaryTrajectoryReader run = BinaryTrajectoryReader.open(Path.of("run.trj"))) {
+ *     long from = run.indexAtOrBefore(100.0);
+ *     long to = run.indexAtOrBefore(200.0) + 1;
+ *     run.replay(from, to, sink);
+ * }
+ * </pre>
+ */
+public class BinaryTrajectoryReader implements Closeable {
+
+    /** Upper bound on the bytes in one mapped segment. */
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final int dimension;
+    private final long count;
+    private final double t0;
+    private final double dt;
+    private final double tLast;
+    private final int recordDoubles;
+    private final long recordsPerSegment;
+    private final DoubleBuffer[] segments;
+
+    private BinaryTrajectoryReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        ByteBuffer header = ByteBuffer.allocate(TrajectoryFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Not a trajectory file: header is truncated");
+            }
+        }
+        if (!TrajectoryFormat.hasMagic(header)) {
+            throw new IOException("Not a trajectory file: bad magic number");
+        }
+        int version = header.getInt(8);
+        if (version != TrajectoryFormat.VERSION) {
+            throw new IOException("Unsupported trajectory file version: " + version);
+        }
+        this.dimension = header.getInt(12);
+        this.count = header.getLong(16);
+        this.t0 = header.getDouble(24);
+        this.dt = header.getDouble(32);
+        this.tLast = header.getDouble(40);
+        if (dimension < 1 || count < 0) {
+            throw new IOException("Not a trajectory file: dimension " + dimension + ", " + count + " records");
+        }
+        this.recordDoubles = TrajectoryFormat.recordDoubles(dimension, dt);
+
+        long recordBytes = (long) recordDoubles * Double.BYTES;
+        if ((channel.size() - TrajectoryFormat.HEADER_BYTES) / recordBytes < count) {
+            throw new IOException("Trajectory file is truncated: expected " + count + " records");
+        }
+
+        this.recordsPerSegment = Math.max(1, SEGMENT_BYTES / recordBytes);
+        int segmentCount = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+        this.segments = new DoubleBuffer[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            long first = s * recordsPerSegment;
+            long records = Math.min(recordsPerSegment, count - first);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                    TrajectoryFormat.HEADER_BYTES + first * recordBytes, records * recordBytes);
+            segments[s] = mapped.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Opens and maps a trajectory file.
+     *
+     * @param path the file
+     * @return the reader
+     * @throws IOException if the file cannot be read or is not a complete trajectory file
+     */
+    public static BinaryTrajectoryReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new BinaryTrajectoryReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of components in each state
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return number of records
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * @return {@code true} if each record stores its own time
+     */
+    public boolean hasTimeColumn() {
+        return Double.isNaN(dt);
+    }
+
+    /**
+     * @param i record index
+     * @return time of the record
+     */
+    public double getTime(long i) {
+        checkIndex(i);
+        if (hasTimeColumn()) {
+            return segment(i).get(offset(i));
+        }
+        return i == count - 1 ? tLast : t0 + i * dt;
+    }
+
+    /**
+     * @param i         record index
+     * @param component state component
+     * @return one component of the record's state
+     */
+    public double get(long i, int component) {
+        checkIndex(i);
+        if (component < 0 || component >= dimension) {
+            throw new IndexOutOfBoundsException("Component " + component + " out of range [0, " + dimension + ")");
+        }
+        return segment(i).get(stateOffset(i) + component);
+    }
+
+    /**
+     * Copies the state of one record.
+     *
+     * @param i   record index
+     * @param out destination of length {@link #getDimension()}
+     */
+    public void getState(long i, double[] out) {
+        checkIndex(i);
+        segment(i).get(stateOffset(i), out, 0, dimension);
+    }
+
+    /**
+     * Finds the last record at or before a time, by arithmetic for uniform files and
+     * binary search otherwise.
+     *
+     * @param t time
+     * @return index of the last record with time {@code <= t}, or -1 if {@code t} is
+     *         before the first record
+     */
+    public long indexAtOrBefore(double t) {
+        if (count == 0 || t < getTime(0)) {
+            return -1;
+        }
+        if (t >= getTime(count - 1)) {
+            return count - 1;
+        }
+        if (!hasTimeColumn()) {
+            return Math.min(count - 2, (long) Math.floor((t - t0) / dt));
+        }
+        long lo = 0, hi = count - 1; // getTime(lo) <= t < getTime(hi)
+        while (hi - lo > 1) {
+            long mid = (lo + hi) >>> 1;
+            if (getTime(mid) <= t) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Streams records {@code from .. to-1} into a sink, reusing one state array.
+     *
+     * @param from first record, inclusive
+     * @param to   last record, exclusive
+     * @param sink receives the records
+     */
+    public void replay(long from, long to, TrajectorySink sink) {
+        if (from < 0 || to > count || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of [0, " + count + ")");
+        }
+        double[] state = new double[dimension];
+        sink.begin(dimension, from < to ? getTime(from) : t0);
+        for (long i = from; i < to; i++) {
+            getState(i, state);
+            sink.accept(getTime(i), state);
+        }
+        sink.end();
+    }
+
+    /**
+     * Releases the file. Mapped pages are released once the reader is unreachable.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkIndex(long i) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Record " + i + " out of range [0, " + count + ")");
+        }
+    }
+
+    private DoubleBuffer segment(long i) {
+        return segments[(int) (i / recordsPerSegment)];
+    }
+
+    private int offset(long i) {
+        return (int) (i % recordsPerSegment) * recordDoubles;
+    }
+
+    private int stateOffset(long i) {
+        return hasTimeColumn() ? offset(i) + 1 : offset(i);
+    }
+}
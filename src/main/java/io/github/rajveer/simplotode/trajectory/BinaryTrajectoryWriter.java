@@ -0,0 +1,231 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sink that writes a trajectory to a compact binary file, readable with
+ * {@link BinaryTrajectoryReader}.
+ * <p>
+ * States are packed as little-endian doubles into a direct buffer and written to a
+ * {@link FileChannel} in large blocks, so a run costs one system call per megabyte
+ * instead of formatting text per step. The record count and final time are written
+ * into the header when the run ends; until then the file is incomplete.
+ * <p>
+ * With {@link #uniform(Path, double)} times are implied by {@code t0} and {@code dt}
+ * and only states are stored; {@link #withTimes(Path)} stores each record's time,
+ * for adaptive or irregular output.
+ * <p>
+ * As a {@link ResumableSink} the writer supports checkpoint/restart: a checkpoint
+ * flushes the records and a valid header to disk, and a restart reopens the file,
+ * cuts off the records written after the checkpoint and appends from there.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * try (BinaryTrajectoryWriter out = BinaryTrajectoryWriter.uniform(Path.of("run.trj"), dt)) {
+ *     Integrator.run(system, solver, y0, t0, tEnd, dt, out);
+ * }
+ * </pre>
+ */
+public class BinaryTrajectoryWriter implements ResumableSink, Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final Path path;
+    private final double dt;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private DoubleBuffer doubles;
+    private int dimension;
+    private double t0;
+    private double tLast;
+    private long count;
+    private long filePosition;
+
+    private BinaryTrajectoryWriter(Path path, double dt) {
+        this.path = path;
+        this.dt = dt;
+    }
+
+    /**
+     * Creates a writer for states sampled every {@code dt}; times are not stored.
+     *
+     * @param path destination file, replaced if it exists
+     * @param dt   sampling interval
+     * @return the writer
+     */
+    public static BinaryTrajectoryWriter uniform(Path path, double dt) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Time step must be positive: " + dt);
+        }
+        return new BinaryTrajectoryWriter(path, dt);
+    }
+
+    /**
+     * Creates a writer that stores each record's time alongside its state.
+     *
+     * @param path destination file, replaced if it exists
+     * @return the writer
+     */
+    public static BinaryTrajectoryWriter withTimes(Path path) {
+        return new BinaryTrajectoryWriter(path, Double.NaN);
+    }
+
+    @Override
+    public void begin(int dimension, double t0) {
+        close();
+        this.dimension = dimension;
+        this.t0 = t0;
+        this.tLast = t0;
+        this.count = 0;
+        this.filePosition = TrajectoryFormat.HEADER_BYTES;
+
+        allocateBuffer();
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writeFully(TrajectoryFormat.header(dimension, 0, t0, dt, t0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open trajectory file " + path, e);
+        }
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        if (channel == null) {
+            throw new IllegalStateException("Writer has not been started or is already closed");
+        }
+        if (doubles.remaining() < TrajectoryFormat.recordDoubles(dimension, dt)) {
+            flush();
+        }
+        if (Double.isNaN(dt)) {
+            doubles.put(t);
+        }
+        doubles.put(y, 0, dimension);
+        tLast = t;
+        count++;
+    }
+
+    /**
+     * Writes the buffered records and the final header, and closes the file.
+     */
+    @Override
+    public void end() {
+        close();
+    }
+
+    /**
+     * Finishes the file if it is still open. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flush();
+            writeFully(TrajectoryFormat.header(dimension, count, t0, dt, tLast), 0);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to finish trajectory file " + path, e);
+        } finally {
+            channel = null;
+            buffer = null;
+            doubles = null;
+        }
+    }
+
+    @Override
+    public void saveCheckpoint(DataOutput out) throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("Writer has not been started or is already closed");
+        }
+        flush();
+        writeFully(TrajectoryFormat.header(dimension, count, t0, dt, tLast), 0);
+        channel.force(false);
+        out.writeInt(dimension);
+        out.writeDouble(t0);
+        out.writeDouble(dt);
+        out.writeLong(count);
+        out.writeDouble(tLast);
+        out.writeLong(filePosition);
+    }
+
+    @Override
+    public void restoreCheckpoint(DataInput in) throws IOException {
+        close();
+        int savedDimension = in.readInt();
+        double savedT0 = in.readDouble();
+        double savedDt = in.readDouble();
+        long savedCount = in.readLong();
+        double savedLast = in.readDouble();
+        long savedPosition = in.readLong();
+        if (Double.compare(savedDt, dt) != 0) {
+            throw new IOException("Checkpoint of " + path + " was written with dt = " + savedDt + ", not " + dt);
+        }
+
+        FileChannel reopened = FileChannel.open(path, StandardOpenOption.WRITE);
+        try {
+            if (reopened.size() < savedPosition) {
+                throw new IOException("Trajectory file " + path + " is shorter than at its checkpoint");
+            }
+            reopened.truncate(savedPosition);
+        } catch (IOException e) {
+            reopened.close();
+            throw e;
+        }
+        channel = reopened;
+        dimension = savedDimension;
+        t0 = savedT0;
+        count = savedCount;
+        tLast = savedLast;
+        filePosition = savedPosition;
+        allocateBuffer();
+    }
+
+    /**
+     * @return number of records written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private void allocateBuffer() {
+        int recordBytes = TrajectoryFormat.recordDoubles(dimension, dt) * Double.BYTES;
+        int capacity = Math.max(1, BUFFER_BYTES / recordBytes) * recordBytes;
+        buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        doubles = buffer.asDoubleBuffer();
+    }
+
+    private void flush() {
+        buffer.limit(doubles.position() * Double.BYTES);
+        buffer.position(0);
+        try {
+            filePosition = writeFully(buffer, filePosition);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write trajectory file " + path, e);
+        }
+        buffer.clear();
+        doubles.clear();
+    }
+
+    /**
+     * @return the file position after the written bytes
+     */
+    private long writeFully(ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+        return position;
+    }
+}
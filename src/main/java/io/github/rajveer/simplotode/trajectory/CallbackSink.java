@@ -0,0 +1,50 @@
+package io.github.rajveer.simplotode.trajectory;
+
+/**
+ * Sink that forwards every state to a callback, optionally running an action when
+ * the integration ends.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * TrajectorySink sink = new CallbackSink((t, y) -&gt; prey.add(new double[]{t, y[0]}));
+ * </pre>
+ */
+public class CallbackSink implements TrajectorySink {
+
+    /**
+     * Receives each state; the array must not be retained.
+     */
+    @FunctionalInterface
+    public interface StateCallback {
+        void accept(double t, double[] y);
+    }
+
+    private final StateCallback callback;
+    private final Runnable onEnd;
+
+    /**
+     * @param callback invoked with each state
+     */
+    public CallbackSink(StateCallback callback) {
+        this(callback, () -> { });
+    }
+
+    /**
+     * @param callback invoked with each state
+     * @param onEnd    invoked once after the last state
+     */
+    public CallbackSink(StateCallback callback, Runnable onEnd) {
+        this.callback = callback;
+        this.onEnd = onEnd;
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        callback.accept(t, y);
+    }
+
+    @Override
+    public void end() {
+        onEnd.run();
+    }
+}
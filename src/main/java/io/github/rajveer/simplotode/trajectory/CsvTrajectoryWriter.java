@@ -0,0 +1,112 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Sink that writes a trajectory as comma-separated text, one {@code t,y0,y1,...} row
+ * per state under a header row.
+ * <p>
+ * Values are written with {@link Double#toString(double)}, so they read back exactly,
+ * e.g. with {@code fitting.ObservedData.readCsv}. Text is several times larger and
+ * slower to write than {@link BinaryTrajectoryWriter}; prefer it for small outputs
+ * that other tools will open.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * try (CsvTrajectoryWriter out = new CsvTrajectoryWriter(Path.of("run.csv"), List.of("prey", "predator"))) {
+ *     Integrator.run(system, solver, y0, t0, tEnd, dt, out);
+ * }
+ * </pre>
+ */
+public class CsvTrajectoryWriter implements TrajectorySink, Closeable {
+
+    private final Path path;
+    private final List<String> names;
+    private BufferedWriter writer;
+    private final StringBuilder row = new StringBuilder();
+
+    /**
+     * Creates a writer whose header names the components {@code y0 .. y(n-1)}.
+     *
+     * @param path destination file, replaced if it exists
+     */
+    public CsvTrajectoryWriter(Path path) {
+        this(path, List.of());
+    }
+
+    /**
+     * @param path  destination file, replaced if it exists
+     * @param names column names of the state components; empty for {@code y0 .. y(n-1)}
+     */
+    public CsvTrajectoryWriter(Path path, List<String> names) {
+        this.path = path;
+        this.names = List.copyOf(names);
+    }
+
+    @Override
+    public void begin(int dimension, double t0) {
+        if (!names.isEmpty() && names.size() != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " column names, got " + names.size());
+        }
+        close();
+        try {
+            writer = Files.newBufferedWriter(path);
+            row.setLength(0);
+            row.append('t');
+            for (int i = 0; i < dimension; i++) {
+                row.append(',').append(names.isEmpty() ? "y" + i : names.get(i));
+            }
+            writer.append(row).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open trajectory file " + path, e);
+        }
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        if (writer == null) {
+            throw new IllegalStateException("Writer has not been started or is already closed");
+        }
+        row.setLength(0);
+        row.append(t);
+        for (double value : y) {
+            row.append(',').append(value);
+        }
+        try {
+            writer.append(row).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write trajectory file " + path, e);
+        }
+    }
+
+    /**
+     * Flushes and closes the file.
+     */
+    @Override
+    public void end() {
+        close();
+    }
+
+    /**
+     * Closes the file if it is still open. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to finish trajectory file " + path, e);
+        } finally {
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.rajveer.simplotode.trajectory;
+
+/**
+ * Sink that forwards only a subset of states downstream: every k-th step, or at
+ * most one state per time interval.
+ * <p>
+ * The interval schedule is anchored at the first time, {@code t0 + k * interval},
+ * and compared with a small relative tolerance, so on the usual {@code t0 + i * dt}
+ * grid rounding neither drops samples nor makes their spacing uneven.
+ * <p>
+ * The first state is always forwarded, and so is the last one (from {@link #end()}),
+ * so plots always span the full time range.
+ */
+public class DecimatingSink implements TrajectorySink {
+
+    /** Fraction of the interval by which a state may fall short of its sample time. */
+    private static final double TOLERANCE = 1e-9;
+
+    private final TrajectorySink downstream;
+    private final int every;
+    private final double interval;
+
+    private long count;
+    private double t0;
+    private long slot;
+    private double nextTime;
+    private double lastTime;
+    private double[] last;
+    private boolean lastForwarded;
+
+    private DecimatingSink(TrajectorySink downstream, int every, double interval) {
+        this.downstream = downstream;
+        this.every = every;
+        this.interval = interval;
+    }
+
+    /**
+     * Forwards every {@code k}-th state.
+     *
+     * @param downstream the sink receiving the kept states
+     * @param k          keep one state out of {@code k}
+     * @return the decimating sink
+     */
+    public static DecimatingSink everyStep(TrajectorySink downstream, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Decimation factor must be positive: " + k);
+        }
+        return new DecimatingSink(downstream, k, 0);
+    }
+
+    /**
+     * Forwards the first state at or after each time {@code t0 + k * interval}, so
+     * at most one state per interval.
+     *
+     * @param downstream the sink receiving the kept states
+     * @param interval   spacing of the sample times
+     * @return the decimating sink
+     */
+    public static DecimatingSink everyInterval(TrajectorySink downstream, double interval) {
+        if (!(interval > 0)) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        return new DecimatingSink(downstream, 0, interval);
+    }
+
+    @Override
+    public void begin(int dimension, double t0) {
+        count = 0;
+        this.t0 = t0;
+        slot = 0;
+        nextTime = t0;
+        last = new double[dimension];
+        downstream.begin(dimension, t0);
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        boolean keep = every > 0 ? count % every == 0 : t >= nextTime - TOLERANCE * interval;
+        count++;
+        if (keep) {
+            downstream.accept(t, y);
+            if (every == 0) {
+                // the next sample time after t, skipping those a long step jumped over
+                slot = Math.max(slot + 1, (long) Math.floor((t - t0) / interval + TOLERANCE) + 1);
+                nextTime = t0 + slot * interval;
+            }
+        } else {
+            System.arraycopy(y, 0, last, 0, y.length);
+            lastTime = t;
+        }
+        lastForwarded = keep;
+    }
+
+    @Override
+    public void end() {
+        if (count > 0 && !lastForwarded) {
+            downstream.accept(lastTime, last);
+        }
+        downstream.end();
+    }
+}
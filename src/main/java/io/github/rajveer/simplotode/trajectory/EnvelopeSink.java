@@ -0,0 +1,128 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import java.util.Arrays;
+
+/**
+ * Sink that reduces a trajectory to the minimum and maximum of every component
+ * over consecutive time buckets of fixed width.
+ * <p>
+ * The envelope is what a plot of a dense trajectory actually shows, so a
+ * multi-million-step run can be drawn faithfully from a few thousand buckets.
+ * Memory grows with the number of buckets, {@code (tEnd - t0) / bucketWidth}, not
+ * with the number of steps.
+ */
+public class EnvelopeSink implements TrajectorySink {
+
+    private final double bucketWidth;
+
+    private int dimension;
+    private double t0;
+    private int buckets;
+    private double[] min;
+    private double[] max;
+
+    /**
+     * @param bucketWidth width of each time bucket
+     */
+    public EnvelopeSink(double bucketWidth) {
+        if (!(bucketWidth > 0)) {
+            throw new IllegalArgumentException("Bucket width must be positive: " + bucketWidth);
+        }
+        this.bucketWidth = bucketWidth;
+    }
+
+    @Override
+    public void begin(int dimension, double t0) {
+        this.dimension = dimension;
+        this.t0 = t0;
+        this.buckets = 0;
+        this.min = new double[16 * dimension];
+        this.max = new double[16 * dimension];
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        int bucket = (int) Math.floor((t - t0) / bucketWidth);
+        if (bucket < 0) {
+            bucket = 0;
+        }
+        while (buckets <= bucket) {
+            openBucket();
+        }
+        int base = bucket * dimension;
+        for (int c = 0; c < dimension; c++) {
+            min[base + c] = Math.min(min[base + c], y[c]);
+            max[base + c] = Math.max(max[base + c], y[c]);
+        }
+    }
+
+    /**
+     * @return number of buckets touched so far; buckets no state fell into hold
+     *         {@code +Infinity} / {@code -Infinity}
+     */
+    public int getBucketCount() {
+        return buckets;
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return start time of the bucket
+     */
+    public double getBucketStart(int bucket) {
+        return t0 + bucket * bucketWidth;
+    }
+
+    /**
+     * @param bucket    bucket index
+     * @param component state component
+     * @return smallest value of the component within the bucket
+     */
+    public double getMin(int bucket, int component) {
+        return min[bucket * dimension + component];
+    }
+
+    /**
+     * @param bucket    bucket index
+     * @param component state component
+     * @return largest value of the component within the bucket
+     */
+    public double getMax(int bucket, int component) {
+        return max[bucket * dimension + component];
+    }
+
+    /**
+     * @param component state component
+     * @return smallest value of the component over the whole run
+     */
+    public double getOverallMin(int component) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int b = 0; b < buckets; b++) {
+            result = Math.min(result, getMin(b, component));
+        }
+        return result;
+    }
+
+    /**
+     * @param component state component
+     * @return largest value of the component over the whole run
+     */
+    public double getOverallMax(int component) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int b = 0; b < buckets; b++) {
+            result = Math.max(result, getMax(b, component));
+        }
+        return result;
+    }
+
+    private void openBucket() {
+        int needed = (buckets + 1) * dimension;
+        if (needed > min.length) {
+            min = Arrays.copyOf(min, Math.max(needed, 2 * min.length));
+            max = Arrays.copyOf(max, Math.max(needed, 2 * max.length));
+        }
+        int base = buckets * dimension;
+        Arrays.fill(min, base, base + dimension, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, base, base + dimension, Double.NEGATIVE_INFINITY);
+        buckets++;
+    }
+}
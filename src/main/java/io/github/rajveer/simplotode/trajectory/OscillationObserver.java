@@ -0,0 +1,140 @@
+package io.github.rajveer.simplotode.trajectory;
+
+/**
+ * Sink that characterises the long-term behaviour of one state component in constant
+ * memory: after discarding a transient, it counts spikes and measures their period,
+ * the amplitude and the mean level.
+ * <p>
+ * A spike is an upward crossing of {@code threshold}; the next spike is only counted
+ * once the signal has fallen back below {@code rearm}, so noise around the threshold
+ * does not register as extra spikes. Crossing times are linearly interpolated between
+ * samples, and the period is the mean interval between consecutive spikes.
+ */
+public class OscillationObserver implements TrajectorySink {
+
+    private final int component;
+    private final double transientTime;
+    private final double threshold;
+    private final double rearm;
+
+    private long samples;
+    private double min;
+    private double max;
+    private double sum;
+    private double last;
+    private double previousT;
+    private double previousValue;
+    private boolean armed;
+    private int spikes;
+    private double firstSpike;
+    private double lastSpike;
+
+    /**
+     * @param component     state component to observe
+     * @param transientTime samples before this time are ignored
+     * @param threshold     level whose upward crossing counts as a spike
+     * @param rearm         level the signal must fall below before the next spike counts;
+     *                      at most {@code threshold}
+     */
+    public OscillationObserver(int component, double transientTime, double threshold, double rearm) {
+        if (rearm > threshold) {
+            throw new IllegalArgumentException("Re-arm level must not exceed the threshold");
+        }
+        this.component = component;
+        this.transientTime = transientTime;
+        this.threshold = threshold;
+        this.rearm = rearm;
+    }
+
+    @Override
+    public void begin(int dimension, double t0) {
+        samples = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        sum = 0;
+        last = Double.NaN;
+        // the signal may start mid-spike: arm only once it falls below the re-arm level
+        armed = false;
+        spikes = 0;
+        firstSpike = Double.NaN;
+        lastSpike = Double.NaN;
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        if (t < transientTime) {
+            return;
+        }
+        double value = y[component];
+        if (samples > 0 && armed && previousValue < threshold && value >= threshold) {
+            double crossing = previousT + (threshold - previousValue) / (value - previousValue) * (t - previousT);
+            if (spikes == 0) {
+                firstSpike = crossing;
+            }
+            lastSpike = crossing;
+            spikes++;
+            armed = false;
+        }
+        if (value < rearm) {
+            armed = true;
+        }
+
+        samples++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        last = value;
+        previousT = t;
+        previousValue = value;
+    }
+
+    /**
+     * @return number of spikes after the transient
+     */
+    public int getSpikeCount() {
+        return spikes;
+    }
+
+    /**
+     * @return mean time between spikes, or NaN with fewer than two spikes
+     */
+    public double getPeriod() {
+        return spikes < 2 ? Double.NaN : (lastSpike - firstSpike) / (spikes - 1);
+    }
+
+    /**
+     * @return peak-to-peak amplitude after the transient; close to zero at rest
+     */
+    public double getAmplitude() {
+        return samples == 0 ? Double.NaN : max - min;
+    }
+
+    /**
+     * @return smallest value after the transient
+     */
+    public double getMin() {
+        return samples == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return largest value after the transient
+     */
+    public double getMax() {
+        return samples == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return mean value after the transient: the steady state at rest, the average
+     *         level of an oscillation
+     */
+    public double getMean() {
+        return samples == 0 ? Double.NaN : sum / samples;
+    }
+
+    /**
+     * @return the last observed value
+     */
+    public double getLast() {
+        return last;
+    }
+}
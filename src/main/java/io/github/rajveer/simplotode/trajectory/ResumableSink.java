@@ -0,0 +1,32 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A sink that can record its position at a checkpoint and pick up from there after
+ * a restart, instead of starting over with {@link #begin(int, double)}.
+ * <p>
+ * Saving makes everything received so far durable; restoring discards whatever the
+ * sink received after the checkpoint, so the continued run does not duplicate it.
+ */
+public interface ResumableSink extends TrajectorySink {
+
+    /**
+     * Makes the states received so far durable and writes the sink's position.
+     *
+     * @param out destination
+     * @throws IOException if flushing or writing fails
+     */
+    void saveCheckpoint(DataOutput out) throws IOException;
+
+    /**
+     * Resumes at a position written by {@link #saveCheckpoint(DataOutput)}; the next
+     * call is {@link #accept(double, double[])} for the first state after it.
+     *
+     * @param in source
+     * @throws IOException if reading fails or the sink cannot resume there
+     */
+    void restoreCheckpoint(DataInput in) throws IOException;
+}
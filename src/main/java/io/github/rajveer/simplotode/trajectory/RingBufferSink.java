@@ -0,0 +1,89 @@
+package io.github.rajveer.simplotode.trajectory;
+
+/**
+ * Sink that keeps only the most recent {@code capacity} states, in flat primitive
+ * arrays allocated once in {@link #begin(int, double)}.
+ * <p>
+ * Useful for inspecting how a long run ended, or for a live view of the tail of a
+ * trajectory, without memory growing with the run length.
+ */
+public class RingBufferSink implements TrajectorySink {
+
+    private final int capacity;
+
+    private int dimension;
+    private double[] times;
+    private double[] states;
+    private int head;
+    private int size;
+
+    /**
+     * @param capacity number of states to retain
+     */
+    public RingBufferSink(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void begin(int dimension, double t0) {
+        this.dimension = dimension;
+        this.times = new double[capacity];
+        this.states = new double[capacity * dimension];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public void accept(double t, double[] y) {
+        times[head] = t;
+        System.arraycopy(y, 0, states, head * dimension, dimension);
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    /**
+     * @return number of retained states
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i index from 0 (oldest retained) to {@code size() - 1} (newest)
+     * @return the time of the retained state
+     */
+    public double getTime(int i) {
+        return times[slot(i)];
+    }
+
+    /**
+     * Copies a retained state.
+     *
+     * @param i   index from 0 (oldest retained) to {@code size() - 1} (newest)
+     * @param out destination of length {@code dimension}
+     */
+    public void getState(int i, double[] out) {
+        System.arraycopy(states, slot(i) * dimension, out, 0, dimension);
+    }
+
+    /**
+     * @param i         index from 0 (oldest retained) to {@code size() - 1} (newest)
+     * @param component state component
+     * @return one component of a retained state
+     */
+    public double get(int i, int component) {
+        return states[slot(i) * dimension + component];
+    }
+
+    private int slot(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of range [0, " + size + ")");
+        }
+        return (head - size + i + capacity) % capacity;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of the binary trajectory file shared by {@link BinaryTrajectoryWriter} and
+ * {@link BinaryTrajectoryReader}.
+ * <p>
+ * A 64-byte little-endian header is followed by fixed-size records of packed
+ * little-endian doubles:
+ * <pre>
+ * offset  size  field
+ *      0     8  magic "SIMPTRJ1"
+ *      8     4  version
+ *     12     4  dimension
+ *     16     8  record count
+ *     24     8  t0
+ *     32     8  dt, or NaN if every record starts with its time
+ *     40     8  time of the last record
+ *     48    16  reserved (zero)
+ * </pre>
+ * With a uniform step, record {@code i} holds the state at {@code t0 + i * dt} (the
+ * last one at the stored final time, which may be shorter); otherwise each record is
+ * {@code [t, y0 .. y(d-1)]}.
+ */
+final class TrajectoryFormat {
+
+    static final int HEADER_BYTES = 64;
+    static final int VERSION = 1;
+
+    private static final byte[] MAGIC = "SIMPTRJ1".getBytes(StandardCharsets.US_ASCII);
+
+    private TrajectoryFormat() {
+    }
+
+    static ByteBuffer header(int dimension, long count, double t0, double dt, double tLast) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC)
+                .putInt(VERSION)
+                .putInt(dimension)
+                .putLong(count)
+                .putDouble(t0)
+                .putDouble(dt)
+                .putDouble(tLast);
+        header.clear();
+        return header;
+    }
+
+    static boolean hasMagic(ByteBuffer header) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header.get(i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return doubles per record: the state, plus the time column if {@code dt} is NaN
+     */
+    static int recordDoubles(int dimension, double dt) {
+        return Double.isNaN(dt) ? dimension + 1 : dimension;
+    }
+}
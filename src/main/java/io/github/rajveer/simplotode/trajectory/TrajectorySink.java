@@ -0,0 +1,37 @@
+package io.github.rajveer.simplotode.trajectory;
+
+/**
+ * Receives the states of an integration one at a time, as they are produced.
+ * <p>
+ * Sinks decide what to keep: every k-th sample, a fixed-size window, summary
+ * statistics, a file, a chart. The driver ({@code ode.Integrator}) never
+ * accumulates the trajectory itself, so memory use is whatever the sink needs.
+ * <p>
+ * The state array passed to {@link #accept(double, double[])} is owned by the driver
+ * and reused for the next step; sinks must copy any values they want to keep.
+ */
+public interface TrajectorySink {
+
+    /**
+     * Called once before the first state.
+     *
+     * @param dimension number of components in each state
+     * @param t0        initial time
+     */
+    default void begin(int dimension, double t0) {
+    }
+
+    /**
+     * Receives one state.
+     *
+     * @param t time of the state
+     * @param y the state; must not be modified or retained
+     */
+    void accept(double t, double[] y);
+
+    /**
+     * Called once after the last state.
+     */
+    default void end() {
+    }
+}
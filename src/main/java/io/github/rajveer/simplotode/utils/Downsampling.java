@@ -0,0 +1,182 @@
+package io.github.rajveer.simplotode.utils;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a line series to the few points that matter on screen.
+ * <p>
+ * A chart a thousand pixels wide cannot show more than a couple of thousand distinct
+ * points, so drawing millions of them only costs memory and layout time. Both methods
+ * here pick a subset of the original points (never new ones) within an index range
+ * {@code [from, to)}, always keeping the first and last point:
+ * <ul>
+ *     <li>{@link Method#LTTB} (Largest-Triangle-Three-Buckets, Steinarsson 2013) keeps,
+ *     in each bucket, the point forming the largest triangle with its neighbours'
+ *     selections, which preserves the visual shape of smooth curves.</li>
+ *     <li>{@link Method#MIN_MAX} keeps the smallest and largest value of each bucket,
+ *     which guarantees spikes and the signal envelope are never lost.</li>
+ * </ul>
+ * Buckets are formed by index, so both methods also work for curves that are not
+ * sorted by x; {@link #lowerBound} requires non-decreasing x.
+ */
+public final class Downsampling {
+
+    /** Downsampling algorithm. */
+    public enum Method {
+        LTTB,
+        MIN_MAX
+    }
+
+    private Downsampling() {
+    }
+
+    /**
+     * Selects at most {@code threshold} points of {@code [from, to)} with the given method.
+     *
+     * @return indices of the kept points, in increasing order
+     */
+    public static int[] select(Method method, double[] x, double[] y, int from, int to, int threshold) {
+        return switch (method) {
+            case LTTB -> largestTriangleThreeBuckets(x, y, from, to, threshold);
+            case MIN_MAX -> minMax(y, from, to, threshold);
+        };
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets downsampling.
+     *
+     * @param x         x values
+     * @param y         y values
+     * @param from      first index, inclusive
+     * @param to        last index, exclusive
+     * @param threshold maximum number of points to keep, at least 3
+     * @return indices of the kept points, in increasing order
+     */
+    public static int[] largestTriangleThreeBuckets(double[] x, double[] y, int from, int to, int threshold) {
+        int count = to - from;
+        if (threshold < 3 || count <= threshold) {
+            return range(from, to, threshold);
+        }
+
+        int[] selected = new int[threshold];
+        int kept = 0;
+        selected[kept++] = from;
+
+        // the interior points are split into threshold - 2 buckets
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int a = from;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = from + 1 + (int) (bucket * bucketSize);
+            int end = from + 1 + (int) ((bucket + 1) * bucketSize);
+
+            // average of the next bucket, or the last point after the final bucket
+            int nextStart = end;
+            int nextEnd = Math.min(to - 1, from + 1 + (int) ((bucket + 2) * bucketSize));
+            double avgX, avgY;
+            if (nextStart >= nextEnd) {
+                avgX = x[to - 1];
+                avgY = y[to - 1];
+            } else {
+                avgX = 0;
+                avgY = 0;
+                for (int i = nextStart; i < nextEnd; i++) {
+                    avgX += x[i];
+                    avgY += y[i];
+                }
+                avgX /= nextEnd - nextStart;
+                avgY /= nextEnd - nextStart;
+            }
+
+            double ax = x[a], ay = y[a];
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                // twice the triangle area; the factor does not change the argmax
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            selected[kept++] = best;
+            a = best;
+        }
+
+        selected[kept++] = to - 1;
+        return kept == selected.length ? selected : Arrays.copyOf(selected, kept);
+    }
+
+    /**
+     * Min/max-per-bucket downsampling.
+     *
+     * @param y         y values
+     * @param from      first index, inclusive
+     * @param to        last index, exclusive
+     * @param threshold maximum number of points to keep, at least 4
+     * @return indices of the kept points, in increasing order
+     */
+    public static int[] minMax(double[] y, int from, int to, int threshold) {
+        int count = to - from;
+        if (threshold < 4 || count <= threshold) {
+            return range(from, to, threshold);
+        }
+
+        int buckets = (threshold - 2) / 2;
+        int[] selected = new int[2 + 2 * buckets];
+        int kept = 0;
+        selected[kept++] = from;
+
+        double bucketSize = (double) (count - 2) / buckets;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = from + 1 + (int) (bucket * bucketSize);
+            int end = from + 1 + (int) ((bucket + 1) * bucketSize);
+            if (start >= end) {
+                continue;
+            }
+            int min = start, max = start;
+            for (int i = start + 1; i < end; i++) {
+                if (y[i] < y[min]) min = i;
+                if (y[i] > y[max]) max = i;
+            }
+            // emit in index order so the line is drawn left to right
+            selected[kept++] = Math.min(min, max);
+            if (min != max) {
+                selected[kept++] = Math.max(min, max);
+            }
+        }
+
+        selected[kept++] = to - 1;
+        return kept == selected.length ? selected : Arrays.copyOf(selected, kept);
+    }
+
+    /**
+     * @return the first index {@code i} in {@code [from, to)} with {@code x[i] >= value},
+     *         or {@code to} if there is none
+     */
+    public static int lowerBound(double[] x, int from, int to, double value) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (x[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** All indices, for ranges already small enough (or degenerate thresholds). */
+    private static int[] range(int from, int to, int threshold) {
+        int count = to - from;
+        if (count > threshold) {
+            // thresholds too small for the algorithm: keep the end points only
+            return count == 1 || threshold < 2 ? new int[]{from} : new int[]{from, to - 1};
+        }
+        int[] all = new int[count];
+        for (int i = 0; i < count; i++) {
+            all[i] = from + i;
+        }
+        return all;
+    }
+}
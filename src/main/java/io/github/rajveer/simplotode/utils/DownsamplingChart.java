@@ -0,0 +1,164 @@
+package io.github.rajveer.simplotode.utils;
+
+import javafx.application.Platform;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.MouseButton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds full-resolution {@link PlotSeries} to a JavaFX {@link LineChart} through a
+ * {@link Downsampling} stage.
+ * <p>
+ * Only the points inside the visible x range are considered, and they are reduced to
+ * about two points per horizontal pixel before any {@code XYChart.Data} node is
+ * created. The chart is recomputed whenever the x range or the chart width changes,
+ * so zooming in reveals the full detail of the region in view. Series that are not
+ * sorted by x are downsampled over their whole length. Scrolling over the
+ * chart zooms around the pointer; a double click restores the full range.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * DownsamplingChart view = new DownsamplingChart(lineChart, Downsampling.Method.LTTB);
+ * view.addSeries(series);
+ * </pre>
+ */
+public final class DownsamplingChart {
+
+    /** Points drawn per horizontal pixel. */
+    private static final int POINTS_PER_PIXEL = 2;
+
+    /** Width assumed before the chart has been laid out. */
+    private static final double DEFAULT_WIDTH = 1000;
+
+    private static final double ZOOM_STEP = 1.2;
+
+    private final LineChart<Number, Number> chart;
+    private final NumberAxis xAxis;
+    private final Downsampling.Method method;
+    private final List<PlotSeries> sources = new ArrayList<>();
+    private final List<XYChart.Series<Number, Number>> shown = new ArrayList<>();
+    private boolean refreshPending;
+
+    /**
+     * Attaches to a chart whose x axis is a {@link NumberAxis}.
+     *
+     * @param chart  the chart to manage; its data is replaced by this view
+     * @param method the downsampling algorithm
+     */
+    public DownsamplingChart(LineChart<Number, Number> chart, Downsampling.Method method) {
+        if (!(chart.getXAxis() instanceof NumberAxis axis)) {
+            throw new IllegalArgumentException("Downsampling requires a NumberAxis on x");
+        }
+        this.chart = chart;
+        this.xAxis = axis;
+        this.method = method;
+        // animating thousands of replaced nodes on every zoom step only adds lag
+        chart.setAnimated(false);
+
+        xAxis.lowerBoundProperty().addListener((obs, oldValue, newValue) -> scheduleRefresh());
+        xAxis.upperBoundProperty().addListener((obs, oldValue, newValue) -> scheduleRefresh());
+        xAxis.widthProperty().addListener((obs, oldValue, newValue) -> scheduleRefresh());
+
+        chart.setOnScroll(event -> {
+            if (sources.isEmpty() || event.getDeltaY() == 0) {
+                return;
+            }
+            double factor = event.getDeltaY() > 0 ? 1 / ZOOM_STEP : ZOOM_STEP;
+            double pointer = xAxis.getValueForDisplay(xAxis.sceneToLocal(event.getSceneX(), 0).getX()).doubleValue();
+            double lower = xAxis.getLowerBound(), upper = xAxis.getUpperBound();
+            zoom(pointer - (pointer - lower) * factor, pointer + (upper - pointer) * factor);
+            event.consume();
+        });
+        chart.setOnMouseClicked(event -> {
+            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                resetZoom();
+            }
+        });
+    }
+
+    /**
+     * Adds a series and redraws.
+     *
+     * @param series the full-resolution series
+     */
+    public void addSeries(PlotSeries series) {
+        XYChart.Series<Number, Number> view = new XYChart.Series<>();
+        view.setName(series.getName());
+        sources.add(series);
+        shown.add(view);
+        chart.getData().add(view);
+        refresh();
+    }
+
+    /**
+     * Removes every series and restores automatic ranging.
+     */
+    public void clear() {
+        sources.clear();
+        shown.clear();
+        chart.getData().clear();
+        xAxis.setAutoRanging(true);
+    }
+
+    /**
+     * Shows the x range {@code [lower, upper]}.
+     */
+    public void zoom(double lower, double upper) {
+        if (!(upper > lower)) {
+            return;
+        }
+        xAxis.setAutoRanging(false);
+        xAxis.setTickUnit((upper - lower) / 10);
+        xAxis.setLowerBound(lower);
+        xAxis.setUpperBound(upper);
+    }
+
+    /**
+     * Shows the full x range of the data again.
+     */
+    public void resetZoom() {
+        xAxis.setAutoRanging(true);
+        refresh();
+    }
+
+    /**
+     * Recomputes every displayed series from its source for the current view.
+     */
+    public void refresh() {
+        refreshPending = false;
+        double width = xAxis.getWidth() > 0 ? xAxis.getWidth() : DEFAULT_WIDTH;
+        int threshold = (int) Math.max(4, POINTS_PER_PIXEL * width);
+
+        for (int s = 0; s < sources.size(); s++) {
+            PlotSeries source = sources.get(s);
+            double[] x = source.xValues();
+            double[] y = source.yValues();
+            int from = 0, to = source.size();
+            if (!xAxis.isAutoRanging() && source.isSorted()) {
+                // keep one point beyond each edge so the line reaches the border
+                from = Math.max(0, Downsampling.lowerBound(x, 0, to, xAxis.getLowerBound()) - 1);
+                to = Math.min(to, Downsampling.lowerBound(x, from, to, xAxis.getUpperBound()) + 1);
+            }
+
+            int[] keep = Downsampling.select(method, x, y, from, to, threshold);
+            List<XYChart.Data<Number, Number>> points = new ArrayList<>(keep.length);
+            for (int i : keep) {
+                points.add(new XYChart.Data<>(x[i], y[i]));
+            }
+            shown.get(s).getData().setAll(points);
+        }
+    }
+
+    /** Coalesces the bursts of bound and width changes during a zoom or resize. */
+    private void scheduleRefresh() {
+        if (refreshPending || sources.isEmpty()) {
+            return;
+        }
+        refreshPending = true;
+        Platform.runLater(this::refresh);
+    }
+}
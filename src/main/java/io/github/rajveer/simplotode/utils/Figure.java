@@ -4,7 +4,6 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.XYChart;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
@@ -16,6 +15,10 @@ import java.util.List;
  * 2D line plots using JavaFX. It allows setting chart title and axis labels,
  * and adding multiple series from 2D point data (x, y).
  *
+ * <p>Series are kept at full resolution and downsampled to the chart's width when
+ * drawn (see {@link DownsamplingChart}), so very long runs plot without freezing the
+ * window. Scroll to zoom the time axis; double-click to reset.
+ *
  * <p>This class extends {@link Application} and launches a single JavaFX window.
  * Currently, it supports one chart window per JVM launch.
  *
@@ -47,8 +50,8 @@ public class Figure extends Application {
     /** The label for the Y-axis. */
     private static String yLabel = "Y";
 
-    /** A list to hold all the series to be plotted on the chart. */
-    private static final List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>();
+    /** A list to hold all the series to be plotted on the chart, at full resolution. */
+    private static final List<PlotSeries> seriesList = new ArrayList<>();
 
     /**
      * Sets the title of the chart window.
@@ -91,19 +94,31 @@ public class Figure extends Application {
             throw new IllegalArgumentException("Point list cannot be null or empty");
         }
 
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
-        series.setName(label);
+        PlotSeries series = new PlotSeries(label);
 
         for (double[] point : pnts_xy) {
             if (point.length != 2) {
                 throw new IllegalArgumentException("Each point must be a double array of length 2 (x, y)");
             }
-            series.getData().add(new XYChart.Data<>(point[0], point[1]));
+            series.add(point[0], point[1]);
         }
 
         seriesList.add(series);
     }
 
+    /**
+     * Adds a full-resolution series, e.g. one filled directly from a trajectory sink.
+     *
+     * @param series the series to plot
+     * @throws IllegalArgumentException if the series is empty
+     */
+    public static void addSeries(PlotSeries series) {
+        if (series.size() == 0) {
+            throw new IllegalArgumentException("Series cannot be empty");
+        }
+        seriesList.add(series);
+    }
+
     /**
      * Launches the JavaFX application in a new thread and displays the chart.
      * <p>This should be called only once per JVM due to JavaFX constraints.
@@ -131,8 +146,10 @@ public class Figure extends Application {
         lineChart.setTitle(chartTitle);
         lineChart.setCreateSymbols(false); // disables hollow symbols, just lines
 
-        for (XYChart.Series<Number, Number> series : seriesList) {
-            lineChart.getData().add(series);
+        // Only about two points per pixel of the visible range reach the chart
+        DownsamplingChart view = new DownsamplingChart(lineChart, Downsampling.Method.LTTB);
+        for (PlotSeries series : seriesList) {
+            view.addSeries(series);
         }
 
         VBox vbox = new VBox(lineChart);
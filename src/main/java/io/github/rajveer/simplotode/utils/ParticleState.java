@@ -0,0 +1,110 @@
+package io.github.rajveer.simplotode.utils;
+
+/**
+ * Positions and velocities of N particles stored as a structure of arrays.
+ * <p>
+ * Each coordinate lives in its own contiguous array ({@code x[0..N)}, {@code y[0..N)},
+ * ...), so kicks and drifts are plain {@code a[i] += h * b[i]} loops over whole arrays
+ * that the JIT and {@link VectorOps} can vectorize. The packed per-body layout
+ * {@code [x, y, z, vx, vy, vz]} used by {@code SolarSystem} as an ODE system can be
+ * converted with {@link #fromPacked(double[])} and {@link #toPacked(double[])}.
+ */
+public final class ParticleState {
+
+    public final double[] x, y, z;
+    public final double[] vx, vy, vz;
+
+    /**
+     * Creates a state of {@code n} particles at rest at the origin.
+     *
+     * @param n number of particles
+     */
+    public ParticleState(int n) {
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        vx = new double[n];
+        vy = new double[n];
+        vz = new double[n];
+    }
+
+    /**
+     * Creates a state from the packed layout {@code [x, y, z, vx, vy, vz]} per body.
+     *
+     * @param packed packed state of length 6N
+     * @return the equivalent structure-of-arrays state
+     * @throws IllegalArgumentException if the length is not a multiple of 6
+     */
+    public static ParticleState fromPacked(double[] packed) {
+        if (packed.length % 6 != 0) {
+            throw new IllegalArgumentException("Packed state length must be a multiple of 6: " + packed.length);
+        }
+        ParticleState state = new ParticleState(packed.length / 6);
+        state.setFromPacked(packed);
+        return state;
+    }
+
+    /**
+     * Overwrites this state from the packed layout {@code [x, y, z, vx, vy, vz]} per body.
+     *
+     * @param packed packed state of length 6N
+     */
+    public void setFromPacked(double[] packed) {
+        for (int i = 0; i < x.length; i++) {
+            int k = 6 * i;
+            x[i] = packed[k];
+            y[i] = packed[k + 1];
+            z[i] = packed[k + 2];
+            vx[i] = packed[k + 3];
+            vy[i] = packed[k + 4];
+            vz[i] = packed[k + 5];
+        }
+    }
+
+    /**
+     * Writes this state into the packed layout {@code [x, y, z, vx, vy, vz]} per body.
+     *
+     * @param packed destination of length 6N
+     */
+    public void toPacked(double[] packed) {
+        for (int i = 0; i < x.length; i++) {
+            int k = 6 * i;
+            packed[k] = x[i];
+            packed[k + 1] = y[i];
+            packed[k + 2] = z[i];
+            packed[k + 3] = vx[i];
+            packed[k + 4] = vy[i];
+            packed[k + 5] = vz[i];
+        }
+    }
+
+    /**
+     * @return the state in the packed layout, as a new array of length 6N
+     */
+    public double[] toPacked() {
+        double[] packed = new double[6 * x.length];
+        toPacked(packed);
+        return packed;
+    }
+
+    /**
+     * Copies all positions and velocities from another state of the same size.
+     *
+     * @param other the state to copy
+     */
+    public void copyFrom(ParticleState other) {
+        System.arraycopy(other.x, 0, x, 0, x.length);
+        System.arraycopy(other.y, 0, y, 0, y.length);
+        System.arraycopy(other.z, 0, z, 0, z.length);
+        System.arraycopy(other.vx, 0, vx, 0, vx.length);
+        System.arraycopy(other.vy, 0, vy, 0, vy.length);
+        System.arraycopy(other.vz, 0, vz, 0, vz.length);
+    }
+
+    /**
+     * @return the number of particles
+     */
+    public int size() {
+        return x.length;
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.rajveer.simplotode.utils;
+
+import java.util.Arrays;
+
+/**
+ * A named line series kept at full resolution in primitive arrays.
+ * <p>
+ * Points cost 16 bytes each instead of a boxed {@code XYChart.Data} node, so tens of
+ * millions of samples fit in memory; {@link DownsamplingChart} decides which few of
+ * them are actually drawn. Series whose x values are non-decreasing (time series)
+ * can be windowed to the visible range by binary search; others, such as phase
+ * portraits, are downsampled as a whole.
+ */
+public class PlotSeries {
+
+    /** Largest array length the VM reliably allocates. */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    private final String name;
+    private double[] x = new double[1024];
+    private double[] y = new double[1024];
+    private int size;
+    private boolean sorted = true;
+
+    /**
+     * @param name the legend label
+     */
+    public PlotSeries(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Appends a point.
+     */
+    public void add(double px, double py) {
+        if (size > 0 && px < x[size - 1]) {
+            sorted = false;
+        }
+        if (size == x.length) {
+            if (size == MAX_SIZE) {
+                throw new IllegalStateException("Plot series is full at " + size + " points");
+            }
+            int capacity = (int) Math.min(2L * size, MAX_SIZE);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+        }
+        x[size] = px;
+        y[size] = py;
+        size++;
+    }
+
+    /**
+     * @return the legend label
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if the x values are non-decreasing
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * @return the x values; only the first {@link #size()} entries are valid
+     */
+    double[] xValues() {
+        return x;
+    }
+
+    /**
+     * @return the y values; only the first {@link #size()} entries are valid
+     */
+    double[] yValues() {
+        return y;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.rajveer.simplotode.utils;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementations of the {@link VectorOps} kernels, backed by the incubating
+ * JDK Vector API.
+ * <p>
+ * This class is only loaded once {@link VectorOps} has confirmed that the
+ * {@code jdk.incubator.vector} module is present. Element-wise kernels use a separate
+ * multiply and add rather than a fused multiply-add, so they round exactly like the
+ * scalar fallback and both paths produce bit-identical results.
+ */
+final class SimdKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private SimdKernels() {
+    }
+
+    /**
+     * @return number of doubles processed per SIMD instruction on this machine
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static void addScaled(double[] out, double[] y, double a, double[] x, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        DoubleVector va = DoubleVector.broadcast(SPECIES, a);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, i);
+            vy.add(vx.mul(va)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = y[i] + a * x[i];
+        }
+    }
+
+    static void linearCombination(double[] out, double[] y, double h, double[] c, double[][] k, int terms, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        DoubleVector vh = DoubleVector.broadcast(SPECIES, h);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            for (int j = 0; j < terms; j++) {
+                if (c[j] == 0) continue;
+                acc = acc.add(DoubleVector.fromArray(SPECIES, k[j], i).mul(c[j]));
+            }
+            DoubleVector.fromArray(SPECIES, y, i).add(acc.mul(vh)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            double acc = 0;
+            for (int j = 0; j < terms; j++) {
+                if (c[j] == 0) continue;
+                acc += c[j] * k[j][i];
+            }
+            out[i] = y[i] + h * acc;
+        }
+    }
+
+    static void scale(double[] out, double a, double[] x, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, i).mul(a).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = x[i] * a;
+        }
+    }
+
+    static void add(double[] out, double[] x, double[] y, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, i).add(DoubleVector.fromArray(SPECIES, y, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    static void subtract(double[] out, double[] x, double[] y, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, i).sub(DoubleVector.fromArray(SPECIES, y, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = x[i] - y[i];
+        }
+    }
+
+    static double dot(double[] x, double[] y, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            acc = DoubleVector.fromArray(SPECIES, x, i).fma(DoubleVector.fromArray(SPECIES, y, i), acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+}
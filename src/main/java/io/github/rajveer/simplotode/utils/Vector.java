@@ -19,6 +19,29 @@ public class Vector {
         this.data = Arrays.copyOf(data, data.length);
     }
 
+    /**
+     * Constructs a Vector that takes ownership of the given array without copying it.
+     *
+     * @param data the backing array
+     * @param owned marker distinguishing this constructor from the copying one
+     */
+    private Vector(double[] data, boolean owned) {
+        this.data = data;
+    }
+
+    /**
+     * Returns a Vector backed directly by the given array, without copying it.
+     * <p>
+     * Intended for adapter code that has just filled a fresh array and hands it over;
+     * later writes to the array are visible through the returned vector.
+     *
+     * @param data the backing array
+     * @return a vector view of {@code data}
+     */
+    public static Vector wrap(double[] data) {
+        return new Vector(data, true);
+    }
+
     /**
      * Returns the length (number of elements) of this vector.
      *
@@ -48,6 +71,24 @@ public class Vector {
         data[i] = value;
     }
 
+    /**
+     * Returns a copy of the elements of this vector.
+     *
+     * @return a new array holding the vector's elements
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(data, data.length);
+    }
+
+    /**
+     * Copies the elements of this vector into the given array.
+     *
+     * @param dest the destination array, at least {@link #length()} long
+     */
+    public void copyTo(double[] dest) {
+        System.arraycopy(data, 0, dest, 0, data.length);
+    }
+
     /**
      * Returns a new vector where each element is scaled by the given scalar.
      *
@@ -56,10 +97,8 @@ public class Vector {
      */
     public Vector scale(double scalar) {
         double[] result = new double[data.length];
-        for (int i = 0; i < data.length; i++) {
-            result[i] = data[i] * scalar;
-        }
-        return new Vector(result);
+        VectorOps.scale(result, scalar, data);
+        return wrap(result);
     }
 
     /**
@@ -87,10 +126,26 @@ public class Vector {
     public Vector add(Vector other) {
         checkLength(other);
         double[] result = new double[data.length];
-        for (int i = 0; i < data.length; i++) {
-            result[i] = this.data[i] + other.data[i];
-        }
-        return new Vector(result);
+        VectorOps.add(result, this.data, other.data);
+        return wrap(result);
+    }
+
+    /**
+     * Returns {@code this + scalar * other}, computed in a single fused pass.
+     * <p>
+     * Prefer this over {@code add(other.scale(scalar))}, which makes two passes and
+     * allocates twice.
+     *
+     * @param scalar the multiplier for {@code other}
+     * @param other  the vector to scale and add
+     * @return the resulting vector
+     * @throws IllegalArgumentException if vectors are not the same length
+     */
+    public Vector addScaled(double scalar, Vector other) {
+        checkLength(other);
+        double[] result = new double[data.length];
+        VectorOps.addScaled(result, this.data, scalar, other.data);
+        return wrap(result);
     }
 
     /**
@@ -103,10 +158,8 @@ public class Vector {
     public Vector subtract(Vector other) {
         checkLength(other);
         double[] result = new double[data.length];
-        for (int i = 0; i < data.length; i++) {
-            result[i] = this.data[i] - other.data[i];
-        }
-        return new Vector(result);
+        VectorOps.subtract(result, this.data, other.data);
+        return wrap(result);
     }
 
     /**
@@ -118,11 +171,7 @@ public class Vector {
      */
     public double dot(Vector other) {
         checkLength(other);
-        double sum = 0;
-        for (int i = 0; i < data.length; i++) {
-            sum += this.data[i] * other.data[i];
-        }
-        return sum;
+        return VectorOps.dot(this.data, other.data);
     }
 
     /**
@@ -131,11 +180,7 @@ public class Vector {
      * @return the magnitude
      */
     public double magnitude() {
-        double sum = 0;
-        for (double v : data) {
-            sum += v * v;
-        }
-        return Math.sqrt(sum);
+        return VectorOps.magnitude(data);
     }
 
     /**
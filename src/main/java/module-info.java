@@ -3,6 +3,9 @@ module io.github.rajveer.simplotode {
     requires javafx.fxml;
     requires java.desktop;
     requires exp4j;
+    requires jdk.jfr;
+    requires jdk.management;
+    requires static jdk.incubator.vector;
 
 
     opens io.github.rajveer.simplotode to javafx.fxml;
@@ -11,4 +14,9 @@ module io.github.rajveer.simplotode {
     exports io.github.rajveer.simplotode.utils;
     exports io.github.rajveer.simplotode.ode;
     exports io.github.rajveer.simplotode.systems;
+    exports io.github.rajveer.simplotode.expression;
+    exports io.github.rajveer.simplotode.trajectory;
+    exports io.github.rajveer.simplotode.sweep;
+    exports io.github.rajveer.simplotode.diagnostics;
+    exports io.github.rajveer.simplotode.fitting;
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package io.github.rajveer.simplotode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SolveCacheTest {
+
+    private static SolveCache.Key key(double y0) {
+        return new SolveCache.Key(List.of("-y0"), new double[]{y0}, "RK4", 0, 0.1);
+    }
+
+    /** A one-dimensional solve recorded on the grid {@code 0, 0.1, ..} up to record {@code count - 1}. */
+    private static SolveCache.Entry entry(int count) {
+        double[] records = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            records[2 * i] = i * 0.1;
+            records[2 * i + 1] = -i;
+        }
+        double tEnd = (count - 1) * 0.1;
+        return new SolveCache.Entry(null, null, 1, records, tEnd, new double[]{1 - count});
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOverBudget() {
+        long entryBytes = entry(100).bytes();
+        SolveCache cache = new SolveCache(2 * entryBytes);
+        cache.put(key(1), entry(100));
+        cache.put(key(2), entry(100));
+        cache.get(key(1));
+        cache.put(key(3), entry(100));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(key(1)));
+        assertNull(cache.get(key(2)));
+        assertNotNull(cache.get(key(3)));
+        assertEquals(2 * entryBytes, cache.usedBytes());
+    }
+
+    @Test
+    void removeReleasesTheEntryBytes() {
+        SolveCache cache = new SolveCache(SolveCache.DEFAULT_BUDGET_BYTES);
+        cache.put(key(1), entry(10));
+        cache.put(key(2), entry(20));
+
+        cache.remove(key(1));
+        cache.remove(key(1));
+
+        assertNull(cache.get(key(1)));
+        assertEquals(1, cache.size());
+        assertEquals(entry(20).bytes(), cache.usedBytes());
+    }
+
+    @Test
+    void findsRecordsOnlyAtRecordedTimes() {
+        SolveCache.Entry entry = entry(11);
+
+        assertEquals(1, entry.recordsUpTo(0));
+        assertEquals(6, entry.recordsUpTo(0.5));
+        assertEquals(11, entry.recordsUpTo(1.0));
+        assertEquals(-1, entry.recordsUpTo(0.55));
+    }
+
+    @Test
+    void extendKeepsTheGridPrefix() {
+        // the run ended off the grid, at t = 0.95, after the record at 0.9
+        double[] records = {0, 0, 0.1, -1, 0.2, -2, 0.30000000000000004, -3, 0.4, -4, 0.5, -5,
+                0.6000000000000001, -6, 0.7000000000000001, -7, 0.8, -8, 0.9, -9, 0.95, -9.5};
+        SolveCache.Entry entry = new SolveCache.Entry(null, null, 1, records, 0.95, new double[]{-9.5});
+        int kept = entry.gridRecords(0, 0.1);
+        assertEquals(10, kept);
+
+        entry.extend(kept, new double[]{1.0, -10, 1.1, -11}, 1.1, new double[]{-11});
+
+        assertEquals(1.1, entry.tEnd());
+        assertArrayEquals(new double[]{-11}, entry.finalState());
+        assertEquals(12, entry.recordsUpTo(1.1));
+        assertArrayEquals(new double[]{-9}, entry.state(9));
+        assertArrayEquals(new double[]{-10}, entry.state(10));
+    }
+}
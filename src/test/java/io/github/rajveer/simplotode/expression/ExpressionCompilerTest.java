@@ -0,0 +1,76 @@
+package io.github.rajveer.simplotode.expression;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import net.objecthunter.exp4j.Expression;
+import net.objecthunter.exp4j.ExpressionBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpressionCompilerTest {
+
+    private final Random random = new Random(7);
+
+    @Test
+    void compiledExpressionsEvaluateLikeExp4j() {
+        List<String> expressions = List.of(
+                "y1",
+                "-y0 + 0.5 * sin(t) - y2^2",
+                "2y0 - 3(y1 + t) / (1 + abs(y2))",
+                "exp(-t) * cos(pi * y0) + sqrt(abs(y1)) - log(1 + y2^2)",
+                "-y3 % 1.5 + e * tanh(y1) + y0 ^ 3 ^ 0.5 - floor(y2) + signum(-y0)");
+        assertMatchesExp4j(expressions, 200);
+    }
+
+    @Test
+    void largeSystemsSplitOverSeveralMethodsStillEvaluateEveryComponent() {
+        int n = 400;
+        List<String> expressions = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            expressions.add("y" + ((i + 1) % n) + " - 2 * y" + i + " + y" + ((i + n - 1) % n) + " + sin(t * " + i + ")");
+        }
+        assertMatchesExp4j(expressions, 5);
+    }
+
+    @Test
+    void invalidExpressionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(List.of("y0 +")));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(List.of("y1")));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(List.of()));
+    }
+
+    private void assertMatchesExp4j(List<String> expressions, int points) {
+        int n = expressions.size();
+        ODESystem system = ExpressionCompiler.compile(expressions);
+        List<Expression> reference = new ArrayList<>(n);
+        for (String expression : expressions) {
+            ExpressionBuilder builder = new ExpressionBuilder(expression).variable("t");
+            for (int i = 0; i < n; i++) {
+                builder.variable("y" + i);
+            }
+            reference.add(builder.build());
+        }
+
+        double[] y = new double[n];
+        double[] dydt = new double[n];
+        for (int p = 0; p < points; p++) {
+            double t = 10 * random.nextDouble();
+            for (int i = 0; i < n; i++) {
+                y[i] = 4 * random.nextGaussian();
+            }
+            system.computeDerivative(t, y, dydt);
+            for (int i = 0; i < n; i++) {
+                Expression expression = reference.get(i).setVariable("t", t);
+                for (int j = 0; j < n; j++) {
+                    expression.setVariable("y" + j, y[j]);
+                }
+                assertEquals(expression.evaluate(), dydt[i], 0, expressions.get(i) + " at t = " + t);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.rajveer.simplotode.fitting;
+
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParameterEstimatorTest {
+
+    private static final double[] TRUE_PARAMETERS = {1.0, 0.5, 0.3, 0.8};
+    private static final double[] Y0 = {2.0, 1.0};
+    private static final double DT = 0.05;
+
+    /** Samples the prey and predator every 0.5 with the estimator's own RK4 stepping. */
+    private static ObservedData syntheticData() {
+        LotkaVolterraSystem system = new LotkaVolterraSystem(
+                TRUE_PARAMETERS[0], TRUE_PARAMETERS[1], TRUE_PARAMETERS[2], TRUE_PARAMETERS[3]);
+        RK4Solver solver = new RK4Solver();
+        int samples = 20;
+        double[] times = new double[samples];
+        double[][] values = new double[2][samples];
+        double[] y = Y0.clone();
+        double t = 0;
+        for (int i = 0; i < samples; i++) {
+            for (int k = 0; k < 10; k++) {
+                solver.step(system, t, y, DT);
+                t += DT;
+            }
+            times[i] = (i + 1) * 0.5;
+            values[0][i] = y[0];
+            values[1][i] = y[1];
+        }
+        return new ObservedData(times, new int[]{0, 1}, values);
+    }
+
+    private static ParameterEstimator estimator() {
+        return new ParameterEstimator(p -> new LotkaVolterraSystem(p[0], p[1], p[2], p[3]), Y0, 0, DT,
+                new double[]{0.1, 0.05, 0.05, 0.1}, new double[]{3, 2, 2, 3});
+    }
+
+    @Test
+    void recoversTheParametersOfNoiseFreeData() {
+        FitResult fit = estimator().fit(syntheticData(), 16, 42);
+
+        assertTrue(fit.isSuccessful());
+        assertTrue(fit.getRms() < 1e-6, fit.toString());
+        assertArrayEquals(TRUE_PARAMETERS, fit.getParameters(), 1e-5);
+    }
+
+    @Test
+    void outcomeDoesNotDependOnTheThreadCount() {
+        ObservedData data = syntheticData();
+        ParameterEstimator serial = estimator();
+        serial.setPool(new ForkJoinPool(1));
+        serial.setAbortPolicy(2, 2);
+        ParameterEstimator parallel = estimator();
+        parallel.setPool(new ForkJoinPool(3));
+        parallel.setAbortPolicy(2, 2);
+
+        FitResult expected = serial.fit(data, 24, 7);
+        FitResult actual = parallel.fit(data, 24, 7);
+
+        assertTrue(expected.count(FitResult.Status.ABORTED) > 0, expected.toString());
+        for (int s = 0; s < expected.getStartCount(); s++) {
+            assertEquals(expected.getStatus(s), actual.getStatus(s), "start " + s);
+            assertEquals(expected.getIterations(s), actual.getIterations(s), "start " + s);
+            assertEquals(expected.getCost(s), actual.getCost(s), 0.0, "start " + s);
+            assertArrayEquals(expected.getParameters(s), actual.getParameters(s), 0.0, "start " + s);
+        }
+    }
+}
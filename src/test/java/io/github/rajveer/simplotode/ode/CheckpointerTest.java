@@ -0,0 +1,102 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.trajectory.TrajectorySink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointerTest {
+
+    private static final ODESystem SYSTEM = new LotkaVolterraSystem(1.1, 0.4, 0.1, 0.4);
+    private static final double[] Y0 = {10, 5};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void adaptiveRunRestartsBitIdentically() throws IOException {
+        restartsBitIdentically(DormandPrince54Solver::new);
+        restartsBitIdentically(BDFSolver::new);
+        restartsBitIdentically(RosenbrockWSolver::new);
+    }
+
+    private <S extends AdaptiveODESolver & DenseOutputSolver> void restartsBitIdentically(Supplier<S> solvers)
+            throws IOException {
+        String name = solvers.get().getClass().getSimpleName();
+        List<double[]> reference = new ArrayList<>();
+        double[] yReference = Integrator.runDense(SYSTEM, solvers.get(), Y0, 0, 30, 0.1, record(reference));
+
+        Path file = dir.resolve(name + ".ckpt");
+        Checkpointer stopped = new Checkpointer(file, Duration.ofHours(1));
+        List<double[]> before = new ArrayList<>();
+        assertThrows(CancellationException.class, () -> stopped.runDense(SYSTEM, solvers.get(), Y0, 0, 30, 0.1,
+                (t, y) -> {
+                    before.add(new double[]{t, y[0], y[1]});
+                    if (before.size() == 120) {
+                        stopped.requestStop();
+                    }
+                }));
+        assertTrue(Files.exists(file), name);
+
+        Checkpointer restarted = new Checkpointer(file, Duration.ofHours(1));
+        List<double[]> after = new ArrayList<>();
+        double[] y = restarted.runDense(SYSTEM, solvers.get(), Y0, 0, 30, 0.1, record(after));
+
+        assertTrue(restarted.isResumed(), name);
+        assertFalse(Files.exists(file), name);
+        // a plain sink restarts with the checkpointed state, taken between two samples
+        after.remove(0);
+        assertFalse(after.isEmpty(), name);
+        int offset = reference.size() - after.size();
+        assertTrue(offset >= 120, name + " restarted at sample " + offset);
+        for (int i = 0; i < after.size(); i++) {
+            assertArrayEquals(reference.get(offset + i), after.get(i), name + " sample " + (offset + i));
+        }
+        assertArrayEquals(yReference, y, name);
+    }
+
+    @Test
+    void fixedStepRunRestartsBitIdentically() throws IOException {
+        List<double[]> reference = new ArrayList<>();
+        Integrator.run(SYSTEM, new RK4Solver(), Y0, 0, 10, 0.01, record(reference));
+
+        Path file = dir.resolve("rk4.ckpt");
+        Checkpointer stopped = new Checkpointer(file, Duration.ofHours(1));
+        int[] seen = {0};
+        assertThrows(CancellationException.class, () -> stopped.run(SYSTEM, new RK4Solver(), Y0, 0, 10, 0.01,
+                (t, y) -> {
+                    if (++seen[0] == 400) {
+                        stopped.requestStop();
+                    }
+                }));
+
+        List<double[]> after = new ArrayList<>();
+        new Checkpointer(file, Duration.ofHours(1)).run(SYSTEM, new RK4Solver(), Y0, 0, 10, 0.01, record(after));
+
+        // a plain sink restarts with the checkpointed state, the last one streamed before the stop
+        assertEquals(reference.size() - 399, after.size());
+        for (int i = 0; i < after.size(); i++) {
+            assertArrayEquals(reference.get(399 + i), after.get(i), "record " + (399 + i));
+        }
+    }
+
+    private static TrajectorySink record(List<double[]> records) {
+        return (t, y) -> records.add(new double[]{t, y[0], y[1]});
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.LotkaVolterraEnsemble;
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EnsembleSolverTest {
+
+    private static final int MEMBERS = 50;
+
+    private final ForkJoinPool pool = new ForkJoinPool(3);
+    private final double[] alpha = new double[MEMBERS];
+    private final double[] beta = new double[MEMBERS];
+    private final double[] delta = new double[MEMBERS];
+    private final double[] gamma = new double[MEMBERS];
+    private final double[][] y0 = new double[2][MEMBERS];
+
+    EnsembleSolverTest() {
+        for (int m = 0; m < MEMBERS; m++) {
+            alpha[m] = 1.0 + 0.01 * m;
+            beta[m] = 0.4;
+            delta[m] = 0.1;
+            gamma[m] = 0.4 + 0.005 * m;
+            y0[0][m] = 10;
+            y0[1][m] = 5 + 0.1 * m;
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void everyMemberMatchesRk4AppliedToItAlone() {
+        List<double[]> streamed = new ArrayList<>();
+        // chunks of 7 leave a ragged last chunk
+        EnsembleStatistics stats = new EnsembleSolver(pool, 7).solve(
+                new LotkaVolterraEnsemble(alpha, beta, delta, gamma), y0, 0, 20, 0.01,
+                member -> member == 45 ? (t, y) -> streamed.add(y.clone()) : null);
+
+        for (int m = 0; m < MEMBERS; m++) {
+            List<double[]> states = new ArrayList<>();
+            double[] y = Integrator.run(new LotkaVolterraSystem(alpha[m], beta[m], delta[m], gamma[m]),
+                    new RK4Solver(), new double[]{y0[0][m], y0[1][m]}, 0, 20, 0.01,
+                    (t, state) -> states.add(state.clone()));
+
+            for (int c = 0; c < 2; c++) {
+                String where = "member " + m + ", component " + c;
+                assertEquals(y[c], stats.getFinal(m, c), 1e-12 * Math.abs(y[c]), where);
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+                for (double[] state : states) {
+                    min = Math.min(min, state[c]);
+                    max = Math.max(max, state[c]);
+                    sum += state[c];
+                }
+                assertEquals(min, stats.getMin(m, c), 1e-12 * max, where);
+                assertEquals(max, stats.getMax(m, c), 1e-12 * max, where);
+                assertEquals(sum / states.size(), stats.getMean(m, c), 1e-10 * max, where);
+            }
+            if (m == 45) {
+                assertEquals(states.size(), streamed.size());
+                for (int i = 0; i < states.size(); i++) {
+                    assertArrayEquals(states.get(i), streamed.get(i), 1e-12 * Math.abs(states.get(i)[0]), "sample " + i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntegratorTest {
+
+    /** y'' = -y, with y = cos t, y' = -sin t from [1, 0]. */
+    private static final ODESystem OSCILLATOR = new ODESystem() {
+        @Override
+        public Vector computeDerivative(double t, Vector y) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void computeDerivative(double t, double[] y, double[] dydt) {
+            dydt[0] = y[1];
+            dydt[1] = -y[0];
+        }
+    };
+
+    @Test
+    void denseSamplesOfAnAdaptiveSolverFollowTheClosedForm() {
+        List<double[]> samples = new ArrayList<>();
+        double[] y = Integrator.runDense(OSCILLATOR, new DormandPrince54Solver(1e-9, 1e-9), new double[]{1, 0},
+                0, 20, 5, 0.1, (t, state) -> samples.add(new double[]{t, state[0]}));
+
+        assertEquals(201, samples.size());
+        for (int i = 0; i < samples.size(); i++) {
+            double[] sample = samples.get(i);
+            assertEquals(i == 200 ? 20 : i * 0.1, sample[0], 1e-12);
+            assertEquals(Math.cos(sample[0]), sample[1], 1e-6, "y(" + sample[0] + ")");
+        }
+        assertEquals(Math.cos(20), y[0], 1e-6);
+        assertEquals(-Math.sin(20), y[1], 1e-6);
+    }
+
+    @Test
+    void denseSamplesOfAFixedStepSolverFollowTheClosedForm() {
+        List<double[]> samples = new ArrayList<>();
+        Integrator.runDense(OSCILLATOR, new RK4Solver(), new double[]{1, 0}, 0, 10, 0.01, 0.25,
+                (t, state) -> samples.add(new double[]{t, state[0]}));
+
+        assertEquals(41, samples.size());
+        for (double[] sample : samples) {
+            assertEquals(Math.cos(sample[0]), sample[1], 1e-7, "y(" + sample[0] + ")");
+        }
+    }
+
+    @Test
+    void eventsAreLocatedWithinLongOutputSteps() {
+        StateEvent zero = StateEvent.crossing("y = 0", (t, y) -> y[0]);
+        for (ODESolver solver : List.of(new DormandPrince54Solver(1e-10, 1e-10), new RKF45Solver(1e-10, 1e-10),
+                new BDFSolver(1e-10, 1e-10), new RosenbrockWSolver(1e-10, 1e-10), new RK4Solver())) {
+            double dt = solver instanceof AdaptiveODESolver ? 5 : 0.01;
+            EventResult result = Integrator.runWithEvents(OSCILLATOR, solver, new double[]{1, 0}, 0, 18, dt,
+                    List.of(zero), (t, y) -> { });
+
+            double[] times = result.getTimes(zero);
+            String name = solver.getClass().getSimpleName();
+            assertEquals(6, times.length, name);
+            for (int k = 0; k < times.length; k++) {
+                assertEquals(Math.PI / 2 + k * Math.PI, times[k], 1e-5, name + " crossing " + k);
+            }
+            assertEquals(18, result.getFinalTime(), 0, name);
+        }
+    }
+
+    @Test
+    void terminalEventStopsTheRunAtTheEvent() {
+        StateEvent falling = StateEvent.falling("y = 0", (t, y) -> y[0]).terminal();
+        EventResult result = Integrator.runWithEvents(OSCILLATOR, new DormandPrince54Solver(1e-10, 1e-10),
+                new double[]{1, 0}, 0, 10, 5, List.of(falling), (t, y) -> { });
+
+        assertEquals(falling, result.getTerminatingEvent());
+        assertEquals(Math.PI / 2, result.getFinalTime(), 1e-6);
+        assertEquals(-1, result.getFinalState()[1], 1e-6);
+    }
+
+    @Test
+    void resumedRunRepeatsTheUninterruptedOne() {
+        List<double[]> whole = new ArrayList<>();
+        double[] yWhole = Integrator.run(OSCILLATOR, new RK4Solver(), new double[]{1, 0}, 0, 10, 0.1,
+                (t, y) -> whole.add(new double[]{t, y[0], y[1]}));
+
+        List<double[]> resumed = new ArrayList<>();
+        double[] y50 = {whole.get(50)[1], whole.get(50)[2]};
+        double[] yResumed = Integrator.resume(OSCILLATOR, new RK4Solver(), y50, 0, 50 * 0.1, 10, 0.1,
+                (t, y) -> resumed.add(new double[]{t, y[0], y[1]}));
+
+        assertEquals(whole.size() - 51, resumed.size());
+        for (int i = 0; i < resumed.size(); i++) {
+            assertArrayEquals(whole.get(51 + i), resumed.get(i), "record " + (51 + i));
+        }
+        assertArrayEquals(yWhole, yResumed);
+    }
+}
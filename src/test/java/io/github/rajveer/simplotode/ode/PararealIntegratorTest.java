@@ -0,0 +1,59 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.LotkaVolterraSystem;
+import io.github.rajveer.simplotode.systems.ODESystem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PararealIntegratorTest {
+
+    private static final ODESystem SYSTEM = new LotkaVolterraSystem(1.1, 0.4, 0.1, 0.4);
+    private static final double[] Y0 = {10, 5};
+
+    @Test
+    void fullyIteratedRunStreamsTheSerialFineSolution() {
+        List<double[]> expected = new ArrayList<>();
+        double[] serial = Integrator.run(SYSTEM, new RK4Solver(), Y0, 0, 30.05, 0.01,
+                (t, y) -> expected.add(record(t, y)));
+
+        PararealIntegrator parareal = new PararealIntegrator(new EulerSolver(), 0.5, RK4Solver::new, 0.01);
+        parareal.setPool(new ForkJoinPool(2));
+        parareal.setSlices(13);
+        parareal.setTolerances(0, 1e-300);
+        List<double[]> actual = new ArrayList<>();
+        double[] y = parareal.run(SYSTEM, Y0, 0, 30.05, (t, state) -> actual.add(record(t, state)));
+
+        assertTrue(parareal.isConverged());
+        assertArrayEquals(serial, y, 0.0);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), 0.0, "record " + i);
+        }
+    }
+
+    @Test
+    void convergedRunAgreesWithTheSerialSolutionToTheTolerance() {
+        double[] serial = Integrator.run(SYSTEM, new RK4Solver(), Y0, 0, 30, 0.01, (t, y) -> { });
+
+        PararealIntegrator parareal = new PararealIntegrator(new RK4Solver(), 0.1, RK4Solver::new, 0.01);
+        parareal.setPool(new ForkJoinPool(2));
+        parareal.setSlices(8);
+        parareal.setTolerances(1e-8, 1e-8);
+        double[] y = parareal.run(SYSTEM, Y0, 0, 30);
+
+        assertTrue(parareal.isConverged());
+        assertTrue(parareal.getIterations() < 8, "iterations: " + parareal.getIterations());
+        assertArrayEquals(serial, y, 1e-5);
+    }
+
+    private static double[] record(double t, double[] y) {
+        return new double[]{t, y[0], y[1]};
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.ODESystem;
+import io.github.rajveer.simplotode.utils.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StiffSolverTest {
+
+    private static final double LAMBDA = 1e4;
+
+    /**
+     * y' = -λ (y - cos t) - sin t, whose solution from y(0) = 1 is cos t; an explicit
+     * solver needs steps below 2 / λ to stay stable.
+     */
+    private static final ODESystem STIFF = new ODESystem() {
+        @Override
+        public Vector computeDerivative(double t, Vector y) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void computeDerivative(double t, double[] y, double[] dydt) {
+            dydt[0] = -LAMBDA * (y[0] - Math.cos(t)) - Math.sin(t);
+        }
+
+        @Override
+        public boolean hasJacobian() {
+            return true;
+        }
+
+        @Override
+        public void computeJacobian(double t, double[] y, double[][] dfdy) {
+            dfdy[0][0] = -LAMBDA;
+        }
+    };
+
+    @Test
+    void implicitSolversFollowTheSlowSolutionWithLargeSteps() {
+        for (AdaptiveODESolver solver : List.<AdaptiveODESolver>of(new BDFSolver(1e-8, 1e-8),
+                new RosenbrockWSolver(1e-8, 1e-8))) {
+            String name = solver.getClass().getSimpleName();
+            double[] y = {1};
+            double t = 0;
+            int steps = 0;
+            while (t < 10) {
+                t = solver.adaptiveStep(STIFF, t, y, 10);
+                steps++;
+                assertEquals(Math.cos(t), y[0], 1e-6, name + " at t = " + t);
+            }
+            assertEquals(10, t, 0, name);
+            // far fewer than the 10 * λ / 2 steps stability would cost an explicit solver
+            assertTrue(steps < 5000, name + " took " + steps + " steps");
+        }
+    }
+
+    @Test
+    void implicitSolversDampAPerturbedStart() {
+        for (AdaptiveODESolver solver : List.<AdaptiveODESolver>of(new BDFSolver(), new RosenbrockWSolver())) {
+            double[] y = {2};
+            solver.step(STIFF, 0, y, 1);
+            assertEquals(Math.cos(1), y[0], 1e-4, solver.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.rajveer.simplotode.ode;
+
+import io.github.rajveer.simplotode.systems.SecondOrderSystem;
+import io.github.rajveer.simplotode.systems.SolarSystem;
+import io.github.rajveer.simplotode.utils.ParticleState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymplecticIntegratorTest {
+
+    /** Independent unit harmonic oscillators along each axis: r'' = -r. */
+    private static final SecondOrderSystem OSCILLATOR = (t, x, y, z, ax, ay, az) -> {
+        for (int i = 0; i < x.length; i++) {
+            ax[i] = -x[i];
+            ay[i] = -y[i];
+            az[i] = -z[i];
+        }
+    };
+
+    @Test
+    void integratorsConvergeAtTheirOrder() {
+        Map<SymplecticIntegrator, Integer> orders = Map.of(
+                new VelocityVerletIntegrator(), 2,
+                new LeapfrogIntegrator(), 2,
+                new YoshidaIntegrator(4), 4,
+                new YoshidaIntegrator(6), 6);
+        orders.forEach((integrator, order) -> {
+            double coarse = error(integrator, 0.2);
+            double fine = error(integrator, 0.1);
+            double observed = Math.log(coarse / fine) / Math.log(2);
+            assertEquals(order, observed, 0.2, integrator.getClass().getSimpleName() + " of order " + order);
+        });
+    }
+
+    @Test
+    void energyStaysBoundedOverLongRuns() {
+        for (SymplecticIntegrator integrator : new SymplecticIntegrator[]{new VelocityVerletIntegrator(),
+                new LeapfrogIntegrator(), new YoshidaIntegrator(4)}) {
+            ParticleState state = start();
+            double energy = energy(state);
+            double worst = 0;
+            for (int i = 0; i < 100_000; i++) {
+                integrator.step(OSCILLATOR, i * 0.1, state, 0.1);
+                worst = Math.max(worst, Math.abs(energy(state) - energy) / energy);
+            }
+            // a symplectic method oscillates around the true energy instead of drifting;
+            // for Verlet on this oscillator the amplitude is h² / 4
+            assertTrue(worst < 3e-3, integrator.getClass().getSimpleName() + " energy error " + worst);
+        }
+    }
+
+    @Test
+    void unsupportedYoshidaOrderIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new YoshidaIntegrator(5));
+    }
+
+    @Test
+    void singleLevelBlockTimestepsAreVelocityVerlet() {
+        SolarSystem system = sunEarthMoon();
+        ParticleState verlet = orbits();
+        ParticleState block = orbits();
+        SymplecticIntegrator reference = new VelocityVerletIntegrator();
+        SymplecticIntegrator blockTimesteps = new BlockTimestepIntegrator(0.02, 0);
+        for (int i = 0; i < 2000; i++) {
+            reference.step(system, i * 3600.0, verlet, 3600);
+            blockTimesteps.step(system, i * 3600.0, block, 3600);
+        }
+        assertArrayEquals(verlet.toPacked(), block.toPacked(), 0.0);
+    }
+
+    @Test
+    void blockTimestepsGiveTheMoonTheShortestSubsteps() {
+        SolarSystem system = sunEarthMoon();
+        BlockTimestepIntegrator block = new BlockTimestepIntegrator(0.02, 8);
+        ParticleState state = orbits();
+        double dt = 8 * 86400.0;
+        for (int i = 0; i < 8; i++) {
+            block.step(system, i * dt, state, dt);
+        }
+
+        int[] levels = block.getLevels();
+        assertEquals(0, levels[0]);
+        assertTrue(levels[1] < levels[2], "Earth at level " + levels[1] + ", Moon at level " + levels[2]);
+        // the Moon's substeps dominate; a shared step would evaluate all three bodies each time
+        long shared = 8L * 3 << levels[2];
+        assertTrue(block.getForceEvaluations() < shared / 2, block.getForceEvaluations() + " evaluations");
+    }
+
+    /** Sun, Earth and Moon on circular orbits in the x-y plane, in km and km/s. */
+    private static SolarSystem sunEarthMoon() {
+        return new SolarSystem(List.of(1.989e30, 5.972e24, 7.342e22));
+    }
+
+    private static ParticleState orbits() {
+        ParticleState state = new ParticleState(3);
+        state.x[1] = 1.496e8;
+        state.vy[1] = 29.78;
+        state.x[2] = 1.496e8 + 384_400;
+        state.vy[2] = 29.78 + 1.022;
+        return state;
+    }
+
+    /** Largest position error at t = 10 against the closed form. */
+    private static double error(SymplecticIntegrator integrator, double dt) {
+        ParticleState state = start();
+        int steps = (int) Math.round(10 / dt);
+        for (int i = 0; i < steps; i++) {
+            integrator.step(OSCILLATOR, i * dt, state, dt);
+        }
+        double error = 0;
+        for (int i = 0; i < state.size(); i++) {
+            error = Math.max(error, Math.abs(state.x[i] - Math.cos(10)));
+            error = Math.max(error, Math.abs(state.y[i] - 2 * Math.cos(10)));
+        }
+        return error;
+    }
+
+    private static ParticleState start() {
+        ParticleState state = new ParticleState(2);
+        for (int i = 0; i < 2; i++) {
+            state.x[i] = 1;
+            state.y[i] = 2;
+        }
+        return state;
+    }
+
+    private static double energy(ParticleState s) {
+        double energy = 0;
+        for (int i = 0; i < s.size(); i++) {
+            energy += s.vx[i] * s.vx[i] + s.vy[i] * s.vy[i] + s.vz[i] * s.vz[i]
+                    + s.x[i] * s.x[i] + s.y[i] * s.y[i] + s.z[i] * s.z[i];
+        }
+        return energy / 2;
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.rajveer.simplotode.sweep;
+
+import io.github.rajveer.simplotode.ode.Integrator;
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import io.github.rajveer.simplotode.systems.FitzHughNagumoSystem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FitzHughNagumoSweepTest {
+
+    private final FitzHughNagumoSweep sweep = new FitzHughNagumoSweep(0.08, 0.7, 0.8, 0);
+
+    @Test
+    void currentSweepFindsTheOscillatingBand() {
+        ParameterGrid grid = ParameterGrid.of("Iext", new double[]{0, 0.5, 1.0, 2.0});
+        SweepResult result = sweep.run(grid, 200, 600, 0.01);
+
+        // the classic parameters rest without input, spike for moderate currents and
+        // saturate into a depolarised rest for large ones
+        assertFalse(result.isOscillating(0));
+        assertTrue(result.isOscillating(1));
+        assertTrue(result.isOscillating(2));
+        assertFalse(result.isOscillating(3));
+        assertEquals(36, result.getPeriod(1), 4);
+    }
+
+    @Test
+    void everyPointEndsWhereItsOwnRunEnds() {
+        ParameterGrid grid = ParameterGrid.of("Iext", new double[]{0.2, 0.6}, "a", new double[]{0.6, 0.7, 0.8});
+        sweep.setInitialState(-1, 1);
+        SweepResult result = sweep.run(grid, 50, 100, 0.01);
+
+        assertEquals(6, result.size());
+        for (int p = 0; p < grid.size(); p++) {
+            double[] y = Integrator.run(new FitzHughNagumoSystem(0.08, grid.value(p, 1), 0.8, grid.value(p, 0)),
+                    new RK4Solver(), new double[]{-1, 1}, 0, 100, 0.01, (t, state) -> { });
+            assertEquals(y[0], result.getFinal(p), 1e-9, "point " + p);
+        }
+    }
+
+    @Test
+    void gridPointsAreNumberedRowMajor() {
+        ParameterGrid grid = ParameterGrid.of("Iext", ParameterGrid.linspace(0, 1, 3), "a", new double[]{5, 6});
+
+        assertEquals(6, grid.size());
+        assertEquals(0.5, grid.value(3, 0), 0);
+        assertEquals(6, grid.value(3, 1), 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> sweep.run(ParameterGrid.of("c", new double[]{1}), 1, 2, 0.1));
+    }
+}
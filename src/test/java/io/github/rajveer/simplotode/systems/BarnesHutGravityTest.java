@@ -0,0 +1,77 @@
+package io.github.rajveer.simplotode.systems;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarnesHutGravityTest {
+
+    private static final double G = 1.0;
+    private static final int N = 500;
+
+    private final double[] mass = new double[N];
+    private final double[] px = new double[N];
+    private final double[] py = new double[N];
+    private final double[] pz = new double[N];
+
+    BarnesHutGravityTest() {
+        Random random = new Random(3);
+        for (int i = 0; i < N; i++) {
+            mass[i] = 0.5 + random.nextDouble();
+            px[i] = random.nextGaussian();
+            py[i] = random.nextGaussian();
+            pz[i] = 0.1 * random.nextGaussian();
+        }
+    }
+
+    @Test
+    void zeroOpeningAngleReproducesTheDirectSum() {
+        double[][] direct = accelerations(new DirectSumGravity());
+        double[][] tree = accelerations(new BarnesHutGravity(0));
+
+        double scale = maxMagnitude(direct);
+        for (int axis = 0; axis < 3; axis++) {
+            for (int i = 0; i < N; i++) {
+                assertEquals(direct[axis][i], tree[axis][i], 1e-12 * scale, "body " + i + ", axis " + axis);
+            }
+        }
+    }
+
+    @Test
+    void typicalOpeningAngleStaysCloseToTheDirectSum() {
+        double[][] direct = accelerations(new DirectSumGravity());
+        double[][] tree = accelerations(new BarnesHutGravity(0.5));
+
+        // relative to the typical force, as bodies near a balance point have almost none
+        double error = 0;
+        double norm = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            for (int i = 0; i < N; i++) {
+                double d = tree[axis][i] - direct[axis][i];
+                error += d * d;
+                norm += direct[axis][i] * direct[axis][i];
+            }
+        }
+        double rms = Math.sqrt(error / norm);
+        assertTrue(rms < 0.01, "RMS relative error " + rms);
+    }
+
+    private double[][] accelerations(GravityKernel kernel) {
+        double[][] a = new double[3][N];
+        kernel.computeAccelerations(G, mass, px, py, pz, N, a[0], a[1], a[2]);
+        return a;
+    }
+
+    private static double maxMagnitude(double[][] a) {
+        double max = 0;
+        for (double[] axis : a) {
+            for (double value : axis) {
+                max = Math.max(max, Math.abs(value));
+            }
+        }
+        return max;
+    }
+}
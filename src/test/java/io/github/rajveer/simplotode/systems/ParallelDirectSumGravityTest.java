@@ -0,0 +1,100 @@
+package io.github.rajveer.simplotode.systems;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelDirectSumGravityTest {
+
+    private static final double G = 6.674e-11;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void agreesWithTheDirectSumOnEveryPath() {
+        // serial below the threshold, tiled on four workers above it, with a ragged last tile
+        for (int n : new int[]{100, ParallelDirectSumGravity.SERIAL_THRESHOLD + 77}) {
+            Bodies bodies = new Bodies(n);
+            double[][] direct = bodies.accelerations(new DirectSumGravity());
+            double[][] parallel = bodies.accelerations(new ParallelDirectSumGravity(pool, 64));
+
+            for (int axis = 0; axis < 3; axis++) {
+                for (int i = 0; i < n; i++) {
+                    assertEquals(direct[axis][i], parallel[axis][i], 1e-12 * bodies.scale(i),
+                            "n = " + n + ", body " + i + ", axis " + axis);
+                }
+            }
+        }
+    }
+
+    @Test
+    void conservesMomentum() {
+        int n = 1000;
+        Bodies bodies = new Bodies(n);
+        double[][] a = bodies.accelerations(new ParallelDirectSumGravity(pool, 128));
+
+        for (int axis = 0; axis < 3; axis++) {
+            double force = 0;
+            double scale = 0;
+            for (int i = 0; i < n; i++) {
+                force += bodies.mass[i] * a[axis][i];
+                scale += Math.abs(bodies.mass[i] * a[axis][i]);
+            }
+            assertEquals(0, force, 1e-12 * scale, "axis " + axis);
+        }
+    }
+
+    private static final class Bodies {
+
+        final int n;
+        final double[] mass;
+        final double[] px;
+        final double[] py;
+        final double[] pz;
+
+        Bodies(int n) {
+            this.n = n;
+            mass = new double[n];
+            px = new double[n];
+            py = new double[n];
+            pz = new double[n];
+            Random random = new Random(n);
+            for (int i = 0; i < n; i++) {
+                mass[i] = 1e24 * (1 + random.nextDouble());
+                px[i] = 1e11 * random.nextGaussian();
+                py[i] = 1e11 * random.nextGaussian();
+                pz[i] = 1e10 * random.nextGaussian();
+            }
+        }
+
+        double[][] accelerations(GravityKernel kernel) {
+            double[][] a = new double[3][n];
+            kernel.computeAccelerations(G, mass, px, py, pz, n, a[0], a[1], a[2]);
+            return a;
+        }
+
+        /** Sum of the magnitudes of the pulls on body {@code i}, which bounds its rounding error. */
+        double scale(int i) {
+            double sum = 0;
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    double dx = px[j] - px[i];
+                    double dy = py[j] - py[i];
+                    double dz = pz[j] - pz[i];
+                    double r2 = dx * dx + dy * dy + dz * dz;
+                    sum += G * mass[j] / r2;
+                }
+            }
+            return sum;
+        }
+    }
+}
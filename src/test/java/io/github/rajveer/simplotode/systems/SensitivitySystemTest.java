@@ -0,0 +1,63 @@
+package io.github.rajveer.simplotode.systems;
+
+import io.github.rajveer.simplotode.ode.DormandPrince54Solver;
+import io.github.rajveer.simplotode.ode.Integrator;
+import io.github.rajveer.simplotode.ode.RK4Solver;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SensitivitySystemTest {
+
+    private static final double[] P = {0.5, 0.1, 0.01};
+    private static final double[] Y0 = {0.99, 0.01, 0};
+    private static final double T_END = 30;
+
+    @Test
+    void sensitivitiesMatchCentralDifferencesOfWholeRuns() {
+        SensitivitySystem sensitivity = new SensitivitySystem(sir(P), 3);
+        double[] z = Integrator.run(sensitivity, new RK4Solver(), sensitivity.initialState(Y0), 0, T_END, 0.01,
+                (t, y) -> { });
+        double[][] dydp = sensitivity.getSensitivities(z);
+
+        for (int k = 0; k < P.length; k++) {
+            double h = 1e-5 * P[k];
+            int parameter = k;
+            DoubleFunction<double[]> run = dp -> {
+                double[] p = P.clone();
+                p[parameter] += dp;
+                return Integrator.run(sir(p), new RK4Solver(), Y0, 0, T_END, 0.01, (t, y) -> { });
+            };
+            double[] plus = run.apply(h);
+            double[] minus = run.apply(-h);
+            for (int i = 0; i < Y0.length; i++) {
+                double difference = (plus[i] - minus[i]) / (2 * h);
+                assertEquals(difference, dydp[i][k], 1e-5 * Math.max(1, Math.abs(difference)),
+                        "dy" + i + "/dp" + k);
+            }
+        }
+    }
+
+    @Test
+    void adaptiveSolverControlsTheSensitivitiesToo() {
+        SensitivitySystem sensitivity = new SensitivitySystem(sir(P), 3);
+        double[] fine = Integrator.run(sensitivity, new RK4Solver(), sensitivity.initialState(Y0), 0, T_END, 0.001,
+                (t, y) -> { });
+        double[] adaptive = Integrator.runDense(sensitivity, new DormandPrince54Solver(1e-10, 1e-10),
+                sensitivity.initialState(Y0), 0, T_END, 1, (t, y) -> { });
+
+        for (int i = 0; i < Y0.length; i++) {
+            for (int k = 0; k < P.length; k++) {
+                double expected = sensitivity.getSensitivity(fine, i, k);
+                assertEquals(expected, sensitivity.getSensitivity(adaptive, i, k),
+                        1e-6 * Math.max(1, Math.abs(expected)), "dy" + i + "/dp" + k);
+            }
+        }
+    }
+
+    private static SIRModelSystem sir(double[] p) {
+        return new SIRModelSystem(p[0], p[1], p[2]);
+    }
+}
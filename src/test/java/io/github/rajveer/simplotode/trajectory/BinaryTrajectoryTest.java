@@ -0,0 +1,139 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTrajectoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void uniformFileRoundTrips() throws IOException {
+        Path file = dir.resolve("uniform.trj");
+        try (BinaryTrajectoryWriter out = BinaryTrajectoryWriter.uniform(file, 0.1)) {
+            write(out, 2.0, 0.1, 1000, 0);
+        }
+
+        try (BinaryTrajectoryReader in = BinaryTrajectoryReader.open(file)) {
+            assertFalse(in.hasTimeColumn());
+            assertEquals(3, in.getDimension());
+            assertEquals(1000, in.size());
+            double[] state = new double[3];
+            for (long i = 0; i < 1000; i++) {
+                assertEquals(2.0 + i * 0.1, in.getTime(i), 1e-12);
+                in.getState(i, state);
+                assertArrayEquals(state(i, 0), state);
+            }
+            assertEquals(500, in.indexAtOrBefore(2.0 + 500.05 * 0.1));
+            assertEquals(-1, in.indexAtOrBefore(1.9));
+            assertEquals(999, in.indexAtOrBefore(1e9));
+        }
+    }
+
+    @Test
+    void irregularFileRoundTripsAndReplaysARange() throws IOException {
+        Path file = dir.resolve("times.trj");
+        try (BinaryTrajectoryWriter out = BinaryTrajectoryWriter.withTimes(file)) {
+            out.begin(3, 0);
+            for (long i = 0; i < 200; i++) {
+                out.accept(i * i * 0.01, state(i, 0));
+            }
+        }
+
+        try (BinaryTrajectoryReader in = BinaryTrajectoryReader.open(file)) {
+            assertTrue(in.hasTimeColumn());
+            assertEquals(49, in.indexAtOrBefore(49 * 49 * 0.01 + 0.5));
+            List<Double> times = new ArrayList<>();
+            List<double[]> states = new ArrayList<>();
+            in.replay(10, 20, (t, y) -> {
+                times.add(t);
+                states.add(y.clone());
+            });
+            assertEquals(10, times.size());
+            for (int k = 0; k < 10; k++) {
+                long i = 10 + k;
+                assertEquals(i * i * 0.01, times.get(k), 0);
+                assertArrayEquals(state(i, 0), states.get(k));
+            }
+        }
+    }
+
+    @Test
+    void restoringACheckpointCutsOffTheRecordsWrittenAfterIt() throws IOException {
+        Path file = dir.resolve("restart.trj");
+        ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        try (BinaryTrajectoryWriter out = BinaryTrajectoryWriter.uniform(file, 0.5)) {
+            write(out, 0, 0.5, 100, 0);
+            out.saveCheckpoint(new DataOutputStream(checkpoint));
+            // records of a run that crashed before its next checkpoint
+            for (long i = 100; i < 150; i++) {
+                out.accept(i * 0.5, state(i, 1));
+            }
+        }
+
+        try (BinaryTrajectoryWriter out = BinaryTrajectoryWriter.uniform(file, 0.5)) {
+            out.restoreCheckpoint(new DataInputStream(new ByteArrayInputStream(checkpoint.toByteArray())));
+            assertEquals(100, out.getCount());
+            for (long i = 100; i < 120; i++) {
+                out.accept(i * 0.5, state(i, 2));
+            }
+        }
+
+        try (BinaryTrajectoryReader in = BinaryTrajectoryReader.open(file)) {
+            assertEquals(120, in.size());
+            double[] state = new double[3];
+            for (long i = 0; i < 120; i++) {
+                in.getState(i, state);
+                assertArrayEquals(state(i, i < 100 ? 0 : 2), state, "record " + i);
+            }
+        }
+    }
+
+    @Test
+    void damagedHeadersAreRejected() throws IOException {
+        Path empty = dir.resolve("dimension.trj");
+        writeHeader(empty, TrajectoryFormat.header(0, 0, 0, 1, 0));
+        assertThrows(IOException.class, () -> BinaryTrajectoryReader.open(empty));
+
+        Path truncated = dir.resolve("truncated.trj");
+        writeHeader(truncated, TrajectoryFormat.header(2, 10, 0, 1, 9));
+        assertThrows(IOException.class, () -> BinaryTrajectoryReader.open(truncated));
+    }
+
+    private static void write(BinaryTrajectoryWriter out, double t0, double dt, long count, int run) {
+        out.begin(3, t0);
+        for (long i = 0; i < count; i++) {
+            out.accept(t0 + i * dt, state(i, run));
+        }
+    }
+
+    /** A state that identifies its record and the run that wrote it. */
+    private static double[] state(long i, int run) {
+        return new double[]{i, Math.sin(i) + run, -0.5 * i + 1000 * run};
+    }
+
+    private static void writeHeader(Path file, ByteBuffer header) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(header);
+        }
+    }
+}
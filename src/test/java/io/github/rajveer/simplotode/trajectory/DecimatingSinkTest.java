@@ -0,0 +1,66 @@
+package io.github.rajveer.simplotode.trajectory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DecimatingSinkTest {
+
+    @Test
+    void intervalSamplesStayOnTheGridAnchoredAtTheStart() {
+        assertSamples(0, 10, 0.01, 0.05, 201);
+        assertSamples(0, 10, 0.001, 0.01, 1001);
+        assertSamples(0, 10, 0.02, 0.1, 101);
+        assertSamples(3.7, 13.7, 0.01, 0.05, 201);
+    }
+
+    @Test
+    void stepsLongerThanTheIntervalAreAllForwarded() {
+        List<Double> times = new ArrayList<>();
+        DecimatingSink sink = DecimatingSink.everyInterval((t, y) -> times.add(t), 0.1);
+        feed(sink, 0, 1, 0.25);
+
+        assertEquals(List.of(0.0, 0.25, 0.5, 0.75, 1.0), times);
+    }
+
+    @Test
+    void everyKthStateIsForwardedAndTheLastOneToo() {
+        List<Double> times = new ArrayList<>();
+        List<double[]> states = new ArrayList<>();
+        DecimatingSink sink = DecimatingSink.everyStep((t, y) -> {
+            times.add(t);
+            states.add(y.clone());
+        }, 4);
+        feed(sink, 0, 1, 0.1);
+
+        assertEquals(List.of(0.0, 0.4, 0.8, 1.0), times);
+        assertArrayEquals(new double[]{1.0}, states.get(3));
+    }
+
+    /** Feeds {@code t0 + i * dt} and checks the forwarded times are {@code t0 + k * interval}. */
+    private static void assertSamples(double t0, double tEnd, double dt, double interval, int expected) {
+        List<Double> times = new ArrayList<>();
+        DecimatingSink sink = DecimatingSink.everyInterval((t, y) -> times.add(t), interval);
+        feed(sink, t0, tEnd, dt);
+
+        String run = "dt = " + dt + ", interval = " + interval;
+        assertEquals(expected, times.size(), run);
+        for (int k = 0; k < times.size(); k++) {
+            assertEquals(t0 + k * interval, times.get(k), 1e-9, run + ", sample " + k);
+        }
+    }
+
+    private static void feed(TrajectorySink sink, double t0, double tEnd, double dt) {
+        long steps = Math.round((tEnd - t0) / dt);
+        sink.begin(1, t0);
+        for (long i = 0; i <= steps; i++) {
+            double t = i == steps ? tEnd : t0 + i * dt;
+            sink.accept(t, new double[]{(t - t0) / (tEnd - t0)});
+        }
+        sink.end();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.rajveer.simplotode.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplingTest {
+
+    private static final int N = 100_000;
+
+    private final double[] x = new double[N];
+    private final double[] y = new double[N];
+
+    DownsamplingTest() {
+        for (int i = 0; i < N; i++) {
+            x[i] = i * 0.001;
+            y[i] = Math.sin(x[i]) + 0.01 * Math.sin(37 * x[i]);
+        }
+        // isolated spikes that a plot must not lose
+        y[31_337] = 5;
+        y[77_777] = -4;
+    }
+
+    @Test
+    void bothMethodsKeepTheEndPointsInIndexOrder() {
+        for (Downsampling.Method method : Downsampling.Method.values()) {
+            int[] kept = Downsampling.select(method, x, y, 1000, 90_000, 500);
+
+            assertTrue(kept.length <= 500, method + " kept " + kept.length);
+            assertTrue(kept.length >= 400, method + " kept " + kept.length);
+            assertEquals(1000, kept[0], method.toString());
+            assertEquals(89_999, kept[kept.length - 1], method.toString());
+            for (int i = 1; i < kept.length; i++) {
+                assertTrue(kept[i] > kept[i - 1], method + " order at " + i);
+            }
+        }
+    }
+
+    @Test
+    void bothMethodsKeepIsolatedSpikes() {
+        for (Downsampling.Method method : Downsampling.Method.values()) {
+            int[] kept = Downsampling.select(method, x, y, 0, N, 1000);
+            assertTrue(contains(kept, 31_337), method + " lost the maximum");
+            assertTrue(contains(kept, 77_777), method + " lost the minimum");
+        }
+    }
+
+    @Test
+    void minMaxKeepsTheEnvelopeOfEveryBucket() {
+        int[] kept = Downsampling.minMax(y, 0, N, 1000);
+        double[] keptY = Arrays.stream(kept).mapToDouble(i -> y[i]).toArray();
+
+        // the kept points span every original value in the range between two of them
+        for (int k = 1; k + 1 < kept.length; k += 2) {
+            double lo = Math.min(keptY[k], keptY[k + 1]);
+            double hi = Math.max(keptY[k], keptY[k + 1]);
+            for (int i = kept[k]; i <= kept[k + 1]; i++) {
+                assertTrue(y[i] >= lo && y[i] <= hi, "index " + i);
+            }
+        }
+    }
+
+    @Test
+    void shortRangesAreKeptWhole() {
+        assertArrayEquals(new int[]{5, 6, 7, 8}, Downsampling.largestTriangleThreeBuckets(x, y, 5, 9, 10));
+        assertArrayEquals(new int[]{5, 6, 7, 8}, Downsampling.minMax(y, 5, 9, 10));
+    }
+
+    @Test
+    void lowerBoundFindsTheFirstPointAtOrAfterAValue() {
+        assertEquals(500, Downsampling.lowerBound(x, 0, N, 0.5));
+        assertEquals(501, Downsampling.lowerBound(x, 0, N, 0.5005));
+        assertEquals(0, Downsampling.lowerBound(x, 0, N, -1));
+        assertEquals(N, Downsampling.lowerBound(x, 0, N, 1e9));
+    }
+
+    private static boolean contains(int[] indices, int index) {
+        return Arrays.stream(indices).anyMatch(i -> i == index);
+    }
+}
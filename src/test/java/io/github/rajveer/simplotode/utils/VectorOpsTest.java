@@ -0,0 +1,104 @@
+package io.github.rajveer.simplotode.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorOpsTest {
+
+    /** Below, at and well above the SIMD threshold, with a tail that is not a whole vector. */
+    private static final int[] LENGTHS = {3, 64, 1003};
+
+    private final Random random = new Random(42);
+
+    @Test
+    void simdKernelsAreEnabledForTheTests() {
+        assertTrue(VectorOps.isSimdEnabled());
+    }
+
+    @Test
+    void elementWiseKernelsRoundLikeScalarLoops() {
+        for (int n : LENGTHS) {
+            double[] x = randomArray(n);
+            double[] y = randomArray(n);
+            double a = random.nextGaussian();
+            double[] expected = new double[n];
+            double[] out = new double[n];
+
+            for (int i = 0; i < n; i++) {
+                expected[i] = y[i] + a * x[i];
+            }
+            VectorOps.addScaled(out, y, a, x);
+            assertArrayEquals(expected, out, "addScaled, n = " + n);
+
+            for (int i = 0; i < n; i++) {
+                expected[i] = x[i] * a;
+            }
+            VectorOps.scale(out, a, x);
+            assertArrayEquals(expected, out, "scale, n = " + n);
+
+            for (int i = 0; i < n; i++) {
+                expected[i] = x[i] + y[i];
+            }
+            VectorOps.add(out, x, y);
+            assertArrayEquals(expected, out, "add, n = " + n);
+
+            for (int i = 0; i < n; i++) {
+                expected[i] = x[i] - y[i];
+            }
+            VectorOps.subtract(out, x, y);
+            assertArrayEquals(expected, out, "subtract, n = " + n);
+        }
+    }
+
+    @Test
+    void linearCombinationSkipsZeroCoefficientsAndMayOverwriteTheBase() {
+        double[] c = {0.25, 0, -1.5, 2};
+        for (int n : LENGTHS) {
+            double[][] k = {randomArray(n), randomArray(n), randomArray(n), randomArray(n)};
+            double[] y = randomArray(n);
+            double h = 0.01;
+            double[] expected = new double[n];
+            for (int i = 0; i < n; i++) {
+                double acc = 0;
+                for (int j = 0; j < c.length; j++) {
+                    if (c[j] != 0) {
+                        acc += c[j] * k[j][i];
+                    }
+                }
+                expected[i] = y[i] + h * acc;
+            }
+
+            VectorOps.linearCombination(y, y, h, c, k, c.length);
+            assertArrayEquals(expected, y, "n = " + n);
+        }
+    }
+
+    @Test
+    void dotAgreesWithTheScalarSumToRounding() {
+        for (int n : LENGTHS) {
+            double[] x = randomArray(n);
+            double[] y = randomArray(n);
+            double expected = 0;
+            double bound = 0;
+            for (int i = 0; i < n; i++) {
+                expected += x[i] * y[i];
+                bound += Math.abs(x[i] * y[i]);
+            }
+            assertEquals(expected, VectorOps.dot(x, y), 1e-14 * bound, "n = " + n);
+            assertEquals(Math.sqrt(VectorOps.dot(x, x)), VectorOps.magnitude(x), 0, "n = " + n);
+        }
+    }
+
+    private double[] randomArray(int n) {
+        double[] a = new double[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = random.nextGaussian();
+        }
+        return a;
+    }
+}